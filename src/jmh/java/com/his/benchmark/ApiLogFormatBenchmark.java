@@ -0,0 +1,101 @@
+package com.his.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.his.common.Result;
+import com.his.log.serializer.BoundedLogSerializer;
+import com.his.vo.PrescriptionVO;
+import com.his.vo.RegistrationVO;
+
+/**
+ * API 日志格式化基准测试
+ *
+ * <p>对比 ApiLogAspect 原来的做法（整体序列化后截取前 500 个字符）与 {@link BoundedLogSerializer}
+ * 在真实 VO 响应上的耗时和分配</p>
+ *
+ * <h3>负载</h3>
+ * <ul>
+ *   <li><b>registration</b>：单个挂号信息</li>
+ *   <li><b>prescriptions</b>：处方列表（每张处方 5 条明细），条数由 listSize 指定</li>
+ * </ul>
+ *
+ * <h3>运行方式</h3>
+ * <pre>
+ * ./gradlew jmh -PjmhIncludes=ApiLogFormatBenchmark
+ * </pre>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ApiLogFormatBenchmark {
+
+    private static final int MAX_LENGTH = 500;
+
+    @Param({"10", "200"})
+    private int listSize;
+
+    private ObjectMapper objectMapper;
+    private BoundedLogSerializer boundedSerializer;
+    private Result<RegistrationVO> registration;
+    private Result<List<PrescriptionVO>> prescriptions;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkSupport.objectMapper();
+        boundedSerializer = new BoundedLogSerializer(objectMapper, MAX_LENGTH);
+        registration = Result.success(BenchmarkSupport.registration(1L));
+        List<PrescriptionVO> list = new ArrayList<>(listSize);
+        for (long i = 1; i <= listSize; i++) {
+            list.add(BenchmarkSupport.prescription(i));
+        }
+        prescriptions = Result.success(list);
+    }
+
+    @Benchmark
+    public String legacyRegistration() throws IOException {
+        return legacyFormat(registration);
+    }
+
+    @Benchmark
+    public String boundedRegistration() throws IOException {
+        return boundedSerializer.serialize(registration);
+    }
+
+    @Benchmark
+    public String legacyPrescriptions() throws IOException {
+        return legacyFormat(prescriptions);
+    }
+
+    @Benchmark
+    public String boundedPrescriptions() throws IOException {
+        return boundedSerializer.serialize(prescriptions);
+    }
+
+    /**
+     * ApiLogAspect 原来的格式化方式
+     */
+    private String legacyFormat(Object value) throws IOException {
+        String json = objectMapper.writeValueAsString(value);
+        if (json.length() > MAX_LENGTH) {
+            return json.substring(0, MAX_LENGTH) + "...(总长度: " + json.length() + " 字符)";
+        }
+        return json;
+    }
+}
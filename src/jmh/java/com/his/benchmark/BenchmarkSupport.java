@@ -0,0 +1,123 @@
+package com.his.benchmark;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.ReflectionUtils;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.his.vo.PrescriptionVO;
+import com.his.vo.RegistrationVO;
+
+/**
+ * 基准测试公共方法
+ *
+ * <p>提供与应用一致的 ObjectMapper 和各基准测试共用的测试数据</p>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+public final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * 与 application-common.yml 中 spring.jackson 配置一致的 ObjectMapper
+     * （时区 GMT+8、日期格式 yyyy-MM-dd HH:mm:ss、日期不写为时间戳、忽略 null 字段）
+     */
+    public static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .timeZone("GMT+8")
+                .dateFormat(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"))
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+    }
+
+    /**
+     * 设置 {@code @Value} 注入的私有字段
+     */
+    public static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        if (field == null) {
+            throw new IllegalArgumentException(target.getClass().getSimpleName() + " 没有字段: " + name);
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    /**
+     * 挂号信息
+     */
+    public static RegistrationVO registration(long id) {
+        RegistrationVO vo = new RegistrationVO();
+        vo.setId(id);
+        vo.setRegNo("REG20261018" + String.format("%06d", id));
+        vo.setPatientId(1000 + id);
+        vo.setPatientName("张三");
+        vo.setGender((short) 1);
+        vo.setAge((short) 35);
+        vo.setDeptId(3L);
+        vo.setDeptName("心血管内科");
+        vo.setDoctorId(12L);
+        vo.setDoctorName("李医生");
+        vo.setStatus((short) 1);
+        vo.setStatusDesc("已就诊");
+        vo.setVisitDate(LocalDate.of(2026, 10, 18));
+        vo.setRegistrationFee(new BigDecimal("25.00"));
+        vo.setQueueNo("A" + id);
+        vo.setAppointmentTime(LocalDateTime.of(2026, 10, 18, 9, 30));
+        vo.setCreatedAt(LocalDateTime.of(2026, 10, 18, 8, 5));
+        return vo;
+    }
+
+    /**
+     * 处方信息（5 条明细）
+     */
+    public static PrescriptionVO prescription(long id) {
+        List<PrescriptionVO.PrescriptionDetailVO> details = new ArrayList<>();
+        for (long i = 1; i <= 5; i++) {
+            details.add(PrescriptionVO.PrescriptionDetailVO.builder()
+                    .mainId(id)
+                    .medicineId(i)
+                    .medicineName("阿莫西林胶囊 0.25g*24粒")
+                    .unitPrice(new BigDecimal("15.80"))
+                    .quantity(2)
+                    .subtotal(new BigDecimal("31.60"))
+                    .frequency("每日三次")
+                    .dosage("0.5g")
+                    .route("口服")
+                    .days(7)
+                    .instructions("饭后服用，服药期间忌酒")
+                    .build());
+        }
+        return PrescriptionVO.builder()
+                .mainId(id)
+                .prescriptionNo("PRE20261018" + String.format("%013d", id))
+                .recordId(id)
+                .patientId(1000 + id)
+                .patientName("张三")
+                .doctorId(12L)
+                .doctorName("李医生")
+                .prescriptionType((short) 1)
+                .totalAmount(new BigDecimal("158.00"))
+                .itemCount(details.size())
+                .status((short) 2)
+                .validityDays(3)
+                .createdAt(LocalDateTime.of(2026, 10, 18, 10, 0))
+                .updatedAt(LocalDateTime.of(2026, 10, 18, 10, 5))
+                .details(details)
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.his.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.his.common.DataMaskingContext;
+import com.his.common.DataMaskingUtils;
+import com.his.common.SensitiveType;
+import com.his.config.SensitiveDataSerializer;
+import com.his.entity.Patient;
+
+/**
+ * 数据脱敏基准测试
+ *
+ * <h3>场景</h3>
+ * <ul>
+ *   <li><b>maskPhone/maskIdCard/maskName/maskAddress</b>：{@link DataMaskingUtils} 单个字段脱敏</li>
+ *   <li><b>serializePatient</b>：通过应用的 ObjectMapper 序列化患者实体，6 个字段经 {@link SensitiveDataSerializer} 脱敏</li>
+ *   <li><b>serializePatientUnmasked</b>：同上，但在 {@link DataMaskingContext#disable()} 范围内输出明文，作为对照</li>
+ * </ul>
+ *
+ * <h3>运行方式</h3>
+ * <pre>
+ * ./gradlew jmh -PjmhIncludes=DataMaskingBenchmark
+ * </pre>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DataMaskingBenchmark {
+
+    private static final String PHONE = "13800138000";
+    private static final String ID_CARD = "110101199001011234";
+    private static final String NAME = "欧阳明华";
+    private static final String ADDRESS = "北京市东城区东华门街道王府井大街138号";
+
+    private ObjectMapper objectMapper;
+    private Patient patient;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkSupport.objectMapper();
+        patient = new Patient();
+        patient.setMainId(1001L);
+        patient.setPatientNo("P20261018000001");
+        patient.setName(NAME);
+        patient.setGender((short) 1);
+        patient.setAge((short) 35);
+        patient.setBirthDate(LocalDate.of(1990, 1, 1));
+        patient.setPhone(PHONE);
+        patient.setIdCard(ID_CARD);
+        patient.setMedicalCardNo("6222020200112233445");
+        patient.setAddress(ADDRESS);
+        patient.setEmergencyContact("欧阳明");
+        patient.setEmergencyPhone("13900139000");
+        patient.setBloodType("A");
+        patient.setAllergyHistory("青霉素过敏");
+        patient.setCreatedAt(LocalDateTime.of(2026, 10, 18, 8, 0));
+    }
+
+    @Benchmark
+    public String maskPhone() {
+        return DataMaskingUtils.maskPhone(PHONE);
+    }
+
+    @Benchmark
+    public String maskIdCard() {
+        return DataMaskingUtils.maskIdCard(ID_CARD);
+    }
+
+    @Benchmark
+    public String maskName() {
+        return DataMaskingUtils.mask(NAME, SensitiveType.NAME);
+    }
+
+    @Benchmark
+    public String maskAddress() {
+        return DataMaskingUtils.mask(ADDRESS, SensitiveType.ADDRESS);
+    }
+
+    @Benchmark
+    public String serializePatient() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(patient);
+    }
+
+    @Benchmark
+    public String serializePatientUnmasked() throws JsonProcessingException {
+        try (DataMaskingContext.Scope ignored = DataMaskingContext.disable()) {
+            return objectMapper.writeValueAsString(patient);
+        }
+    }
+}
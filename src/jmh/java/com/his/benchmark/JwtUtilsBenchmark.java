@@ -0,0 +1,86 @@
+package com.his.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.his.common.JwtUtils;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * JwtUtils 基准测试
+ *
+ * <p>每个经过认证的请求都会由 JwtAuthenticationFilter 解析并验证一次 Token</p>
+ *
+ * <h3>场景</h3>
+ * <ul>
+ *   <li><b>generateToken</b>：登录时签发 Token</li>
+ *   <li><b>parseToken</b>：验签并解析 Claims</li>
+ *   <li><b>validateToken</b>：有效 Token 的完整验证（验签 + 过期判断）</li>
+ *   <li><b>validateTamperedToken</b>：签名被篡改的 Token（验签失败，异常路径）</li>
+ * </ul>
+ *
+ * <h3>运行方式</h3>
+ * <pre>
+ * ./gradlew jmh -PjmhIncludes=JwtUtilsBenchmark
+ * </pre>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtUtilsBenchmark {
+
+    /** 与 application-common.yml 中 jwt.secret 长度相同的密钥 */
+    private static final String SECRET =
+            "HIS_SYSTEM_JWT_SECRET_KEY_2025_VERY_LONG_SECRET_KEY_FOR_SECURITY_MUST_BE_AT_LEAST_256_BITS";
+
+    private JwtUtils jwtUtils;
+    private String token;
+    private String tamperedToken;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        BenchmarkSupport.setField(jwtUtils, "secretKey", SECRET);
+        BenchmarkSupport.setField(jwtUtils, "expirationTime", TimeUnit.DAYS.toMillis(1));
+        token = jwtUtils.generateToken(1L, "doctor001", "DOCTOR", 10L);
+        // 修改签名的倒数第二个字符
+        int index = token.length() - 2;
+        char replacement = token.charAt(index) == 'A' ? 'B' : 'A';
+        tamperedToken = token.substring(0, index) + replacement + token.substring(index + 1);
+        if (!jwtUtils.validateToken(token) || jwtUtils.validateToken(tamperedToken)) {
+            throw new IllegalStateException("基准测试 Token 准备失败");
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateToken(1L, "doctor001", "DOCTOR", 10L);
+    }
+
+    @Benchmark
+    public Claims parseToken() {
+        return jwtUtils.parseToken(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtils.validateToken(token);
+    }
+
+    @Benchmark
+    public boolean validateTamperedToken() {
+        return jwtUtils.validateToken(tamperedToken);
+    }
+}
@@ -0,0 +1,92 @@
+package com.his.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.his.common.Result;
+import com.his.vo.PrescriptionVO;
+import com.his.vo.RegistrationVO;
+
+/**
+ * Result 响应序列化基准测试
+ *
+ * <p>通过与应用配置一致的 ObjectMapper（{@link BenchmarkSupport#objectMapper()}）把 {@link Result}
+ * 序列化为字节数组，与 MappingJackson2HttpMessageConverter 写响应体的方式相同</p>
+ *
+ * <h3>负载</h3>
+ * <ul>
+ *   <li><b>error</b>：只有错误码和消息的错误响应</li>
+ *   <li><b>registration</b>：单个挂号信息</li>
+ *   <li><b>registrations/prescriptions</b>：挂号列表和处方列表（每张处方 5 条明细），条数由 listSize 指定</li>
+ * </ul>
+ *
+ * <h3>运行方式</h3>
+ * <pre>
+ * ./gradlew jmh -PjmhIncludes=ResultSerializationBenchmark
+ * </pre>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResultSerializationBenchmark {
+
+    @Param({"20", "200"})
+    private int listSize;
+
+    private ObjectMapper objectMapper;
+    private Result<Void> error;
+    private Result<RegistrationVO> registration;
+    private Result<List<RegistrationVO>> registrations;
+    private Result<List<PrescriptionVO>> prescriptions;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkSupport.objectMapper();
+        error = Result.badRequest("处方状态不允许该操作");
+        registration = Result.success(BenchmarkSupport.registration(1L));
+        List<RegistrationVO> registrationList = new ArrayList<>(listSize);
+        List<PrescriptionVO> prescriptionList = new ArrayList<>(listSize);
+        for (long i = 1; i <= listSize; i++) {
+            registrationList.add(BenchmarkSupport.registration(i));
+            prescriptionList.add(BenchmarkSupport.prescription(i));
+        }
+        registrations = Result.success(registrationList);
+        prescriptions = Result.success(prescriptionList);
+    }
+
+    @Benchmark
+    public byte[] error() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(error);
+    }
+
+    @Benchmark
+    public byte[] registration() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(registration);
+    }
+
+    @Benchmark
+    public byte[] registrations() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(registrations);
+    }
+
+    @Benchmark
+    public byte[] prescriptions() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(prescriptions);
+    }
+}
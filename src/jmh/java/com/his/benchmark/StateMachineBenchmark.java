@@ -0,0 +1,80 @@
+package com.his.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.his.enums.PrescriptionStatusEnum;
+import com.his.enums.RegStatusEnum;
+import com.his.service.PrescriptionStateMachine;
+import com.his.service.RegistrationStateMachine;
+import com.his.service.impl.PrescriptionStateMachineServiceImpl;
+import com.his.service.impl.RegistrationStateMachineServiceImpl;
+
+/**
+ * 状态机转换校验基准测试
+ *
+ * <p>每次调用遍历全部 (源状态, 目标状态) 组合（处方和挂号各 6×6 种）执行 {@code isValidTransition}，
+ * 结果按单次校验计（{@link OperationsPerInvocation}）。isValidTransition 不访问数据库，Repository 传 null</p>
+ *
+ * <h3>运行方式</h3>
+ * <pre>
+ * ./gradlew jmh -PjmhIncludes=StateMachineBenchmark
+ * </pre>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StateMachineBenchmark {
+
+    private static final PrescriptionStatusEnum[] PRESCRIPTION_STATUSES = PrescriptionStatusEnum.values();
+    private static final RegStatusEnum[] REG_STATUSES = RegStatusEnum.values();
+
+    private PrescriptionStateMachine prescriptionStateMachine;
+    private RegistrationStateMachine registrationStateMachine;
+
+    @Setup
+    public void setUp() {
+        prescriptionStateMachine = new PrescriptionStateMachineServiceImpl(null, null, null);
+        registrationStateMachine = new RegistrationStateMachineServiceImpl(null, null);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(36)
+    public int prescriptionIsValidTransition() {
+        int valid = 0;
+        for (PrescriptionStatusEnum from : PRESCRIPTION_STATUSES) {
+            for (PrescriptionStatusEnum to : PRESCRIPTION_STATUSES) {
+                if (prescriptionStateMachine.isValidTransition(from, to)) {
+                    valid++;
+                }
+            }
+        }
+        return valid;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(36)
+    public int registrationIsValidTransition() {
+        int valid = 0;
+        for (RegStatusEnum from : REG_STATUSES) {
+            for (RegStatusEnum to : REG_STATUSES) {
+                if (registrationStateMachine.isValidTransition(from, to)) {
+                    valid++;
+                }
+            }
+        }
+        return valid;
+    }
+}
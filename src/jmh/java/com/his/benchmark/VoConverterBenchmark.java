@@ -0,0 +1,159 @@
+package com.his.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.his.converter.VoConverter;
+import com.his.entity.Department;
+import com.his.entity.Doctor;
+import com.his.entity.MedicalRecord;
+import com.his.entity.Medicine;
+import com.his.entity.Patient;
+import com.his.entity.Prescription;
+import com.his.entity.PrescriptionDetail;
+import com.his.entity.Registration;
+import com.his.vo.MedicineVO;
+import com.his.vo.PrescriptionVO;
+import com.his.vo.RegistrationVO;
+import com.his.vo.views.MedicineViews;
+
+/**
+ * VoConverter 基准测试
+ *
+ * <h3>场景</h3>
+ * <ul>
+ *   <li><b>toRegistrationVO</b>：挂号实体（含患者、科室、医生）转 VO</li>
+ *   <li><b>toPrescriptionVO</b>：处方实体（含 5 条明细）转 VO</li>
+ *   <li><b>toMedicineVOPublic/toMedicineVOPharmacist</b>：药品实体按公共视图和药师视图转 VO</li>
+ * </ul>
+ *
+ * <h3>运行方式</h3>
+ * <pre>
+ * ./gradlew jmh -PjmhIncludes=VoConverterBenchmark
+ * </pre>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VoConverterBenchmark {
+
+    private Registration registration;
+    private Prescription prescription;
+    private Medicine medicine;
+
+    @Setup
+    public void setUp() {
+        Patient patient = new Patient();
+        patient.setMainId(1001L);
+        patient.setName("张三");
+        patient.setGender((short) 1);
+        patient.setAge((short) 35);
+
+        Department department = new Department();
+        department.setMainId(3L);
+        department.setName("心血管内科");
+
+        Doctor doctor = new Doctor();
+        doctor.setMainId(12L);
+        doctor.setName("李医生");
+
+        registration = new Registration();
+        registration.setMainId(1L);
+        registration.setRegNo("REG20261018000001");
+        registration.setPatient(patient);
+        registration.setDepartment(department);
+        registration.setDoctor(doctor);
+        registration.setStatus((short) 1);
+        registration.setVisitDate(LocalDate.of(2026, 10, 18));
+        registration.setRegistrationFee(new BigDecimal("25.00"));
+        registration.setQueueNo("A1");
+        registration.setAppointmentTime(LocalDateTime.of(2026, 10, 18, 9, 30));
+        registration.setCreatedAt(LocalDateTime.of(2026, 10, 18, 8, 5));
+
+        medicine = new Medicine();
+        medicine.setMainId(1L);
+        medicine.setMedicineCode("MED0001");
+        medicine.setName("阿莫西林胶囊");
+        medicine.setGenericName("阿莫西林");
+        medicine.setSpecification("0.25g*24粒");
+        medicine.setUnit("盒");
+        medicine.setDosageForm("胶囊剂");
+        medicine.setManufacturer("华北制药");
+        medicine.setCategory("抗生素");
+        medicine.setRetailPrice(new BigDecimal("15.80"));
+        medicine.setPurchasePrice(new BigDecimal("9.50"));
+        medicine.setStockQuantity(120);
+        medicine.setMinStock(20);
+        medicine.setMaxStock(500);
+        medicine.setIsPrescription((short) 1);
+        medicine.setCreatedAt(LocalDateTime.of(2026, 1, 1, 0, 0));
+
+        MedicalRecord medicalRecord = new MedicalRecord();
+        medicalRecord.setMainId(1L);
+
+        prescription = new Prescription();
+        prescription.setMainId(1L);
+        prescription.setPrescriptionNo("PRE202610180000000000001");
+        prescription.setMedicalRecord(medicalRecord);
+        prescription.setPatient(patient);
+        prescription.setDoctor(doctor);
+        prescription.setTotalAmount(new BigDecimal("158.00"));
+        prescription.setStatus((short) 2);
+        prescription.setCreatedAt(LocalDateTime.of(2026, 10, 18, 10, 0));
+        List<PrescriptionDetail> details = new ArrayList<>();
+        for (long i = 1; i <= 5; i++) {
+            PrescriptionDetail detail = new PrescriptionDetail();
+            detail.setMainId(i);
+            detail.setPrescription(prescription);
+            detail.setMedicine(medicine);
+            detail.setMedicineName(medicine.getName());
+            detail.setUnitPrice(medicine.getRetailPrice());
+            detail.setQuantity(2);
+            detail.setSubtotal(new BigDecimal("31.60"));
+            detail.setFrequency("每日三次");
+            detail.setDosage("0.5g");
+            detail.setRoute("口服");
+            detail.setDays(7);
+            detail.setInstructions("饭后服用");
+            details.add(detail);
+        }
+        prescription.setDetails(details);
+        prescription.setItemCount(details.size());
+    }
+
+    @Benchmark
+    public RegistrationVO toRegistrationVO() {
+        return VoConverter.toRegistrationVO(registration);
+    }
+
+    @Benchmark
+    public PrescriptionVO toPrescriptionVO() {
+        return VoConverter.toPrescriptionVO(prescription);
+    }
+
+    @Benchmark
+    public MedicineVO toMedicineVOPublic() {
+        return VoConverter.toMedicineVO(medicine);
+    }
+
+    @Benchmark
+    public MedicineVO toMedicineVOPharmacist() {
+        return VoConverter.toMedicineVO(medicine, MedicineViews.Pharmacist.class);
+    }
+}
@@ -5,44 +5,38 @@ import java.util.concurrent.ThreadPoolExecutor;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 /**
  * 异步任务配置类
  *
- * <p>为审计日志保存等异步操作配置线程池</p>
+ * <p>为患者时间线并行查询、医生工作站首屏并行加载等异步操作配置线程池</p>
  *
  * <h3>主要功能</h3>
  * <ul>
  *   <li><b>启用异步</b>：使用@EnableAsync注解启用Spring异步支持</li>
- *   <li><b>线程池配置</b>：为审计日志保存配置专用线程池</li>
+ *   <li><b>线程池配置</b>：为并行查询配置专用线程池,互不影响</li>
+ *   <li><b>上下文传递</b>：所有线程池使用 {@link ContextPropagatingTaskDecorator},
+ *       任务在工作线程中带有提交线程的 MDC（traceId）和 SecurityContext</li>
  *   <li><b>优雅停机</b>：应用关闭时等待任务完成</li>
  * </ul>
  *
- * <h3>线程池配置</h3>
+ * <h3>线程池列表</h3>
  * <ul>
- *   <li><b>线程池名称</b>：auditLogExecutor</li>
- *   <li><b>核心线程数</b>：2（即使在空闲时刻也保持活跃的线程数）</li>
- *   <li><b>最大线程数</b>：5（线程池允许的最大线程数）</li>
- *   <li><b>队列容量</b>：100（等待执行的任务队列最大长度）</li>
- *   <li><b>线程名称前缀</b>：audit-log-（便于日志查看和问题排查）</li>
- *   <li><b>拒绝策略</b>：CallerRunsPolicy（队列满时由调用线程执行）</li>
- *   <li><b>优雅停机</b>：等待任务完成后再关闭（最长等待60秒）</li>
+ *   <li><b>taskExecutor</b>：未指定线程池的 {@code @Async} 方法和 Spring MVC 异步请求的默认执行器</li>
+ *   <li><b>patientTimelineExecutor</b>：患者时间线四类事件的并行查询</li>
+ *   <li><b>doctorWorkstationExecutor</b>：医生工作站首屏数据的并行加载</li>
+ *   <li><b>lowStockBroadcastExecutor</b>：低库存事件的 SSE 推送</li>
  * </ul>
  *
- * <h3>性能考虑</h3>
- * <ul>
- *   <li><b>核心线程数=2</b>：审计日志保存是IO密集型操作,不需要太多线程</li>
- *   <li><b>最大线程数=5</b>：应对突发流量,避免无限创建线程</li>
- *   <li><b>队列容量=100</b>：缓冲队列,避免直接拒绝任务</li>
- *   <li><b>CallerRunsPolicy</b>：队列满时降级为同步执行,保证任务不丢失</li>
- * </ul>
+ * <p>审计日志不使用线程池写入,由 {@link com.his.log.writer.AuditLogBatchWriter} 的单个写入线程攒批写入</p>
  *
  * <h3>监控建议</h3>
  * <ul>
  *   <li>监控线程池活跃线程数和队列长度</li>
- *   <li>如果队列经常满,考虑增加核心线程数或优化保存逻辑</li>
+ *   <li>如果队列经常满,考虑增加核心线程数或优化查询</li>
  *   <li>使用Spring Actuator查看线程池指标</li>
  * </ul>
  *
@@ -57,56 +51,219 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 public class AsyncConfig {
 
     /**
-     * 审计日志异步保存线程池
+     * 上下文传递任务装饰器
+     *
+     * <p>本类中的线程池显式使用。本类声明了 Executor Bean，Spring Boot 不再自动配置任务执行器，
+     * 因此 {@code @Async} 的默认执行器也在本类中声明（{@link #taskExecutor}），不会退回到未装饰的 SimpleAsyncTaskExecutor</p>
+     *
+     * @return 任务装饰器
+     * @since 1.0
+     */
+    @Bean
+    public TaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+
+    /**
+     * 默认异步任务线程池
      *
-     * <p>用于异步保存审计日志到数据库,避免阻塞业务线程</p>
+     * <p>{@code @Async} 未指定线程池时按名称 taskExecutor 查找执行器；Spring MVC 异步请求按名称 applicationTaskExecutor 查找。
+     * 不声明时二者都会退回到每个任务新建一个线程、且不传递上下文的 SimpleAsyncTaskExecutor</p>
      *
      * <h3>线程池参数说明</h3>
      * <ul>
-     *   <li><b>核心线程数</b>：2 - 即使空闲也保持2个线程活跃</li>
-     *   <li><b>最大线程数</b>：5 - 最多创建5个线程处理任务</li>
-     *   <li><b>队列容量</b>：100 - 最多缓存100个待执行任务</li>
-     *   <li><b>线程名称前缀</b>：audit-log- - 便于日志识别</li>
-     *   <li><b>拒绝策略</b>：CallerRunsPolicy - 队列满时由调用线程执行</li>
-     *   <li><b>优雅停机</b>：true - 应用关闭时等待任务完成</li>
-     *   <li><b>停机等待时间</b>：60秒 - 最长等待60秒</li>
+     *   <li><b>核心线程数</b>：4</li>
+     *   <li><b>最大线程数</b>：8 - 限制同时占用的数据库连接数</li>
+     *   <li><b>队列容量</b>：500</li>
+     *   <li><b>线程名称前缀</b>：async-</li>
+     *   <li><b>拒绝策略</b>：CallerRunsPolicy - 队列满时由提交线程执行，不丢弃任务</li>
      * </ul>
      *
-     * <h3>拒绝策略说明</h3>
-     * <p>CallerRunsPolicy：当队列满时,不抛出异常,而是由调用线程（通常是业务线程）执行任务</p>
+     * @return 配置好的线程池执行器
+     * @since 1.0
+     */
+    @Bean(name = {"taskExecutor", "applicationTaskExecutor"})
+    public ThreadPoolTaskExecutor taskExecutor(TaskDecorator contextPropagatingTaskDecorator) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        // 核心线程数
+        executor.setCorePoolSize(4);
+
+        // 最大线程数：限制同时占用的数据库连接数
+        executor.setMaxPoolSize(8);
+
+        // 队列容量：等待执行的异步任务最大数量
+        executor.setQueueCapacity(500);
+
+        // 线程名称前缀：便于日志查看和问题排查
+        executor.setThreadNamePrefix("async-");
+
+        // 任务装饰器：将提交线程的 TraceId 和认证信息传递到工作线程
+        executor.setTaskDecorator(contextPropagatingTaskDecorator);
+
+        // 拒绝策略：队列满时由提交线程执行
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+
+        // 优雅停机：应用关闭时等待进行中的任务完成
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+
+        // 停机等待时间：最长等待30秒
+        executor.setAwaitTerminationSeconds(30);
+
+        // 初始化线程池
+        executor.initialize();
+
+        return executor;
+    }
+
+    /**
+     * 患者时间线并行查询线程池
+     *
+     * <p>患者时间线的挂号、病历、处方、收费四条投影查询在此线程池中并行执行，
+     * 一页的耗时取决于最慢的一条查询而不是四条之和</p>
+     *
+     * <h3>线程池参数说明</h3>
+     * <ul>
+     *   <li><b>核心线程数</b>：4 - 正好容纳一次请求的四条查询</li>
+     *   <li><b>最大线程数</b>：16 - 多个医生同时查看时的上限，需小于数据库连接池大小</li>
+     *   <li><b>队列容量</b>：200 - 短暂高峰时排队等待</li>
+     *   <li><b>线程名称前缀</b>：patient-timeline- - 便于日志识别</li>
+     *   <li><b>拒绝策略</b>：CallerRunsPolicy - 队列满时由请求线程自己执行查询，退化为串行而不是失败</li>
+     * </ul>
+     *
+     * @return 配置好的线程池执行器
+     * @since 1.0
+     * @see com.his.service.PatientTimelineService
+     */
+    @Bean(name = "patientTimelineExecutor")
+    public Executor patientTimelineExecutor(TaskDecorator contextPropagatingTaskDecorator) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        // 核心线程数：一次时间线请求并行执行四条查询
+        executor.setCorePoolSize(4);
+
+        // 最大线程数：限制同时占用的数据库连接数
+        executor.setMaxPoolSize(16);
+
+        // 队列容量：等待执行的查询最大数量
+        executor.setQueueCapacity(200);
+
+        // 线程名称前缀：便于日志查看和问题排查
+        executor.setThreadNamePrefix("patient-timeline-");
+
+        // 任务装饰器：将提交线程的 TraceId 和认证信息传递到工作线程
+        executor.setTaskDecorator(contextPropagatingTaskDecorator);
+
+        // 拒绝策略：队列满时由请求线程执行（降级为串行查询）
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+
+        // 优雅停机：应用关闭时等待进行中的查询完成
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+
+        // 停机等待时间：查询很短，最长等待10秒
+        executor.setAwaitTerminationSeconds(10);
+
+        // 初始化线程池
+        executor.initialize();
+
+        return executor;
+    }
+
+    /**
+     * 医生工作站首屏并行加载线程池
+     *
+     * <p>打开患者时，患者信息、病历、处方、候诊列表在此线程池中并行查询</p>
+     *
+     * <h3>线程池参数说明</h3>
      * <ul>
-     *   <li><b>优点</b>：保证任务不丢失,同时提供背压机制</li>
-     *   <li><b>缺点</b>：会阻塞业务线程,降低吞吐量</li>
-     *   <li><b>适用场景</b>：审计日志保存失败不应该影响业务,但也不应该丢失</li>
+     *   <li><b>核心线程数</b>：4 - 一次首屏加载最多三条并行查询链</li>
+     *   <li><b>最大线程数</b>：16 - 限制同时占用的数据库连接数</li>
+     *   <li><b>队列容量</b>：200 - 交班等高峰时排队等待</li>
+     *   <li><b>线程名称前缀</b>：workstation-</li>
+     *   <li><b>拒绝策略</b>：CallerRunsPolicy - 队列满时由请求线程执行，退化为串行而不是失败</li>
+     *   <li><b>任务装饰器</b>：提交任务时捕获当前线程的 MDC 和 SecurityContext，在工作线程中执行期间恢复，
+     *       执行完毕后还原，服务层中的 SecurityUtils 和日志中的 traceId 在工作线程中照常可用</li>
      * </ul>
      *
      * @return 配置好的线程池执行器
      * @since 1.0
+     * @see com.his.service.DoctorWorkstationService
      */
-    @Bean(name = "auditLogExecutor")
-    public Executor auditLogExecutor() {
+    @Bean(name = "doctorWorkstationExecutor")
+    public Executor doctorWorkstationExecutor(TaskDecorator contextPropagatingTaskDecorator) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
 
-        // 核心线程数：即使在空闲时刻也保持活跃的线程数
-        executor.setCorePoolSize(2);
+        // 核心线程数：一次首屏加载的并行查询链数
+        executor.setCorePoolSize(4);
 
-        // 最大线程数：线程池允许的最大线程数
-        executor.setMaxPoolSize(5);
+        // 最大线程数：限制同时占用的数据库连接数
+        executor.setMaxPoolSize(16);
 
-        // 队列容量：等待执行的任务队列最大长度
-        executor.setQueueCapacity(100);
+        // 队列容量：等待执行的查询最大数量
+        executor.setQueueCapacity(200);
 
         // 线程名称前缀：便于日志查看和问题排查
-        executor.setThreadNamePrefix("audit-log-");
+        executor.setThreadNamePrefix("workstation-");
+
+        // 任务装饰器：将提交线程的 TraceId 和认证信息传递到工作线程
+        executor.setTaskDecorator(contextPropagatingTaskDecorator);
 
-        // 拒绝策略：队列满时由调用线程执行（保证任务不丢失）
+        // 拒绝策略：队列满时由请求线程执行（降级为串行查询）
         executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
 
-        // 优雅停机：应用关闭时等待任务完成
+        // 优雅停机：应用关闭时等待进行中的查询完成
         executor.setWaitForTasksToCompleteOnShutdown(true);
 
-        // 停机等待时间：最长等待60秒
-        executor.setAwaitTerminationSeconds(60);
+        // 停机等待时间：查询很短，最长等待10秒
+        executor.setAwaitTerminationSeconds(10);
+
+        // 初始化线程池
+        executor.initialize();
+
+        return executor;
+    }
+
+    /**
+     * 低库存事件推送线程池
+     *
+     * <p>低库存事件在事务提交后的监听器中处理，SSE 推送交给此线程池执行，
+     * 提交线程（发药、入库等业务请求）不等待订阅者的网络写入</p>
+     *
+     * <h3>线程池参数说明</h3>
+     * <ul>
+     *   <li><b>线程数</b>：1 - 单线程按事件发生顺序推送，订阅者不会先收到解除再收到进入</li>
+     *   <li><b>队列容量</b>：1000 - 订阅者写入缓慢时积压的事件上限</li>
+     *   <li><b>线程名称前缀</b>：low-stock-sse-</li>
+     *   <li><b>拒绝策略</b>：AbortPolicy - 队列满时丢弃本次推送并记录日志，不阻塞提交线程；
+     *       客户端重连时的快照和定时对账会补齐状态</li>
+     * </ul>
+     *
+     * @return 配置好的线程池执行器
+     * @since 1.0
+     * @see com.his.service.LowStockAlertService
+     */
+    @Bean(name = "lowStockBroadcastExecutor")
+    public Executor lowStockBroadcastExecutor(TaskDecorator contextPropagatingTaskDecorator) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        // 单线程：保证推送顺序
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+
+        // 队列容量：等待推送的事件最大数量
+        executor.setQueueCapacity(1000);
+
+        // 线程名称前缀：便于日志查看和问题排查
+        executor.setThreadNamePrefix("low-stock-sse-");
+
+        // 任务装饰器：将提交线程的 TraceId 传递到推送线程
+        executor.setTaskDecorator(contextPropagatingTaskDecorator);
+
+        // 拒绝策略：队列满时抛出 TaskRejectedException，由调用方丢弃本次推送
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+
+        // 停机时不等待推送完成：订阅连接随应用关闭断开
+        executor.setWaitForTasksToCompleteOnShutdown(false);
 
         // 初始化线程池
         executor.initialize();
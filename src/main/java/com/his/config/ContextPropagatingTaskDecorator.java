@@ -0,0 +1,58 @@
+package com.his.config;
+
+import java.util.Map;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * 上下文传递任务装饰器
+ *
+ * <p>提交任务时捕获当前线程的 MDC（含 traceId）和 SecurityContext，
+ * 在工作线程中执行期间恢复，使线程池中的日志和审计日志带有提交请求的 TraceId，
+ * 服务层中的 SecurityUtils 在工作线程中照常可用</p>
+ *
+ * <h3>设计要点</h3>
+ * <ul>
+ *   <li><b>恢复而非清除</b>：执行完毕后恢复工作线程原来的 MDC 和 SecurityContext；
+ *       CallerRunsPolicy 下任务由请求线程自己执行，不能清掉请求线程的上下文</li>
+ *   <li><b>只读快照</b>：MDC 在提交时复制一份，提交线程之后的修改不影响已提交的任务</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.config.AsyncConfig
+ * @see com.his.log.filter.TraceIdFilter
+ */
+public class ContextPropagatingTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+
+        return () -> {
+            Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+            SecurityContext previousSecurityContext = SecurityContextHolder.getContext();
+            setMdc(mdc);
+            SecurityContextHolder.setContext(securityContext);
+            try {
+                runnable.run();
+            } finally {
+                SecurityContextHolder.setContext(previousSecurityContext);
+                setMdc(previousMdc);
+            }
+        };
+    }
+
+    private static void setMdc(Map<String, String> contextMap) {
+        if (contextMap == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(contextMap);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.his.config;
 
 import java.util.Arrays;
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -18,6 +20,8 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.his.log.filter.TraceIdFilter;
+
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -56,6 +60,8 @@ public class DevSecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> {
                     log.warn("⚠️  开发模式：登录和 Swagger 无需认证，业务接口需要认证");
+                    // 异步分派（SSE 推送完成/超时）：初始请求已完成鉴权
+                    auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll();
                     // 登录接口：开放
                     auth.requestMatchers("/auth/**").permitAll();
                     // Swagger/Knife4j：开放（开发环境）
@@ -67,6 +73,10 @@ public class DevSecurityConfig {
                         "/webjars/**",
                         "/favicon.ico"
                     ).permitAll();
+                    // 慢 SQL 端点（含 EXPLAIN ANALYZE）：仅管理员
+                    auth.requestMatchers("/actuator/slowsql", "/actuator/slowsql/**").hasRole("ADMIN");
+                    // 审计日志 spool 端点（含死信重新补写）：仅管理员
+                    auth.requestMatchers("/actuator/auditspool", "/actuator/auditspool/**").hasRole("ADMIN");
                     // 其余接口：需要认证（保留 @PreAuthorize 验证）
                     auth.anyRequest().authenticated();
                 })
@@ -87,7 +97,8 @@ public class DevSecurityConfig {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
         configuration.setAllowCredentials(true);
-        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type",
+                TraceIdFilter.TRACE_ID_HEADER, TraceIdFilter.LEGACY_TRACE_ID_HEADER));
         configuration.setMaxAge(3600L);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,34 @@
+package com.his.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定时任务配置类
+ *
+ * <p>启用 Spring 定时任务支持，{@code com.his.scheduled} 包下的 {@code @Scheduled} 方法依赖此配置生效</p>
+ *
+ * <p>所有任务共用 Spring Boot 自动配置的调度线程池，线程数由 {@code spring.task.scheduling.pool.size}
+ * 配置（application-common.yml 中为 4）。默认的单线程调度器会让高频任务（病历草稿落库）
+ * 排在耗时任务（检索索引重建、分区维护）之后执行</p>
+ *
+ * <h3>已注册的定时任务</h3>
+ * <ul>
+ *   <li>{@link com.his.scheduled.MedicalRecordDraftFlushTask} - 病历草稿到期落库（默认每500毫秒）</li>
+ *   <li>{@link com.his.scheduled.AuditLogSpoolReplayTask} - 审计日志 spool 补写（默认每5秒）</li>
+ *   <li>{@link com.his.scheduled.MedicalRecordSearchIndexTask} - 病历检索索引增量更新</li>
+ *   <li>{@link com.his.scheduled.DrugConflictRuleTask} - 用药冲突规则刷新</li>
+ *   <li>{@link com.his.scheduled.LowStockReconcileTask} - 低库存集合定时对账</li>
+ *   <li>{@link com.his.scheduled.PharmacistStatsTask} - 药师工作量统计桶淘汰（每日）</li>
+ *   <li>{@link com.his.scheduled.AuditLogCleanupTask} - 审计日志分区维护与定期清理（每日）</li>
+ *   <li>{@link com.his.monitoring.LoggingMetricsReporter} - 日志指标定时输出（每分钟）</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
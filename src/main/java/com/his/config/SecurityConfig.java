@@ -2,6 +2,8 @@ package com.his.config;
 
 import java.util.Arrays;
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -18,6 +20,8 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.his.log.filter.TraceIdFilter;
+
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -108,10 +112,16 @@ public class SecurityConfig {
 
                 // 配置请求授权
                 .authorizeHttpRequests(auth -> auth
+                    // 异步分派（SSE 推送完成/超时）：初始请求已完成鉴权
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                     // 登录/认证接口：开放
                     .requestMatchers("/auth/**").permitAll()
                     // Actuator健康检查：开放
                     .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                    // 慢 SQL 端点（含 EXPLAIN ANALYZE）：仅管理员
+                    .requestMatchers("/actuator/slowsql", "/actuator/slowsql/**").hasRole("ADMIN")
+                    // 审计日志 spool 端点（含死信重新补写）：仅管理员
+                    .requestMatchers("/actuator/auditspool", "/actuator/auditspool/**").hasRole("ADMIN")
                     // Swagger/Knife4j 静态资源与 OpenAPI JSON：开放（文档是否启用由 Knife4jConfig 控制）
                     .requestMatchers(
                         "/doc.html",
@@ -210,7 +220,8 @@ public class SecurityConfig {
         configuration.setAllowCredentials(true);
 
         // 暴露的响应头
-        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type",
+                TraceIdFilter.TRACE_ID_HEADER, TraceIdFilter.LEGACY_TRACE_ID_HEADER));
 
         // 预检请求的有效期（秒）
         configuration.setMaxAge(3600L);
@@ -1,18 +1,26 @@
 package com.his.controller;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.time.format.DateTimeFormatter;
+
+import jakarta.servlet.http.HttpServletResponse;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import com.his.common.Result;
-import com.his.entity.AuditLogEntity;
+import com.his.dto.AuditLogExportDTO;
+import com.his.enums.AuditExportFormatEnum;
+import com.his.log.annotation.AuditLog;
+import com.his.log.annotation.AuditType;
+import com.his.service.AuditLogExportService;
 import com.his.service.AuditLogQueryService;
+import com.his.vo.AuditLogPageVO;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -30,7 +38,8 @@ import lombok.RequiredArgsConstructor;
  *   <li><b>综合查询</b>：支持多条件组合查询（模块、操作、操作人、类型、时间范围）</li>
  *   <li><b>TraceId查询</b>：根据TraceId查询整个请求链路的审计日志</li>
  *   <li><b>操作人查询</b>：查询某个用户的所有审计日志</li>
- *   <li><b>分页支持</b>：所有查询都支持分页和排序</li>
+ *   <li><b>游标分页</b>：所有查询按创建时间倒序游标分页,首页返回估算的记录数</li>
+ *   <li><b>流式导出</b>：按条件导出全部审计日志（NDJSON 或 gzip CSV）,支持断点续传</li>
  * </ul>
  *
  * <h3>权限控制</h3>
@@ -42,7 +51,10 @@ import lombok.RequiredArgsConstructor;
  * <h3>使用示例</h3>
  * <pre>
  * // 1. 综合查询：查询最近7天的所有审计日志
- * GET /api/audit-logs/search?startTime=2025-01-01T00:00:00&endTime=2025-01-08T00:00:00&page=0&size=20
+ * GET /api/audit-logs/search?startTime=2025-01-01T00:00:00&endTime=2025-01-08T00:00:00&size=20
+ *
+ * // 下一页（cursor 为上一页返回的 nextCursor）
+ * GET /api/audit-logs/search?startTime=2025-01-01T00:00:00&endTime=2025-01-08T00:00:00&size=20&cursor=...
  *
  * // 2. 查询特定模块的敏感操作
  * GET /api/audit-logs/search?module=认证管理&auditType=SENSITIVE_OPERATION
@@ -52,12 +64,16 @@ import lombok.RequiredArgsConstructor;
  *
  * // 4. 查询某个用户的操作记录
  * GET /api/audit-logs/operator/123
+ *
+ * // 5. 导出某个操作人全年的审计日志
+ * GET /api/audit-logs/export?operatorId=123&startTime=2025-01-01T00:00:00&endTime=2025-12-31T23:59:59&format=CSV_GZIP
  * </pre>
  *
  * @author HIS 开发团队
  * @version 1.0
  * @since 1.0
  * @see com.his.service.AuditLogQueryService
+ * @see com.his.service.AuditLogExportService
  */
 @RestController
 @RequestMapping("/api/audit-logs")
@@ -68,10 +84,12 @@ public class AuditLogController {
 
     private final AuditLogQueryService auditLogQueryService;
 
+    private final AuditLogExportService auditLogExportService;
+
     /**
-     * 综合查询审计日志（支持分页）
+     * 综合查询审计日志（游标分页）
      *
-     * <p>支持多条件组合查询,所有参数都是可选的</p>
+     * <p>支持多条件组合查询,所有过滤参数都是可选的</p>
      *
      * <p><b>查询参数：</b></p>
      * <ul>
@@ -81,21 +99,20 @@ public class AuditLogController {
      *   <li><b>auditType</b>：按审计类型查询（SENSITIVE_OPERATION、BUSINESS、DATA_ACCESS）</li>
      *   <li><b>startTime</b>：查询开始时间（格式：yyyy-MM-ddTHH:mm:ss）</li>
      *   <li><b>endTime</b>：查询结束时间（格式：yyyy-MM-ddTHH:mm:ss）</li>
-     *   <li><b>page</b>：页码（从0开始）</li>
-     *   <li><b>size</b>：每页大小（默认20）</li>
-     *   <li><b>sort</b>：排序字段（如：createTime,desc）</li>
+     *   <li><b>cursor</b>：分页游标（上一页返回的 nextCursor,首页不传）</li>
+     *   <li><b>size</b>：每页大小（默认20,最大200）</li>
      * </ul>
      *
      * <p><b>使用示例：</b></p>
      * <pre>
      * // 查询最近7天的所有审计日志
-     * GET /api/audit-logs/search?startTime=2025-01-01T00:00:00&endTime=2025-01-08T00:00:00&page=0&size=20&sort=createTime,desc
+     * GET /api/audit-logs/search?startTime=2025-01-01T00:00:00&endTime=2025-01-08T00:00:00&size=20
      *
      * // 查询特定模块的敏感操作
-     * GET /api/audit-logs/search?module=认证管理&auditType=SENSITIVE_OPERATION&page=0&size=20
+     * GET /api/audit-logs/search?module=认证管理&auditType=SENSITIVE_OPERATION&size=20
      *
      * // 查询某个用户的操作记录
-     * GET /api/audit-logs/search?operatorUsername=admin&page=0&size=20
+     * GET /api/audit-logs/search?operatorUsername=admin&size=20
      * </pre>
      *
      * @param module 模块名称(可选)
@@ -104,13 +121,22 @@ public class AuditLogController {
      * @param auditType 审计类型(可选)
      * @param startTime 查询开始时间(可选)
      * @param endTime 查询结束时间(可选)
-     * @param pageable 分页和排序参数
-     * @return 分页查询结果
+     * @param cursor 分页游标(可选)
+     * @param size 每页大小
+     * @return 一页审计日志
      * @since 1.0
      */
     @GetMapping("/search")
-    @Operation(summary = "综合查询审计日志", description = "支持多条件组合查询（模块、操作、操作人、类型、时间范围），仅管理员可访问")
-    public Result<Page<AuditLogEntity>> searchAuditLogs(
+    @Operation(
+        summary = "综合查询审计日志",
+        description = """
+            支持多条件组合查询（模块、操作、操作人、类型、时间范围），仅管理员可访问。<br/>
+            结果按创建时间倒序游标分页：取下一页时将返回的 nextCursor 作为 cursor 参数传回，过滤条件保持不变；
+            nextCursor 为空表示没有更多记录。任意深度的一页耗时与首页相同。<br/>
+            首页返回 estimatedTotal（数据库统计信息估算的记录数，不执行精确计数）。
+            """
+    )
+    public Result<AuditLogPageVO> searchAuditLogs(
             @Parameter(description = "模块名称（如：认证管理、挂号管理）")
             @RequestParam(name = "module", required = false) String module,
 
@@ -131,11 +157,14 @@ public class AuditLogController {
             @RequestParam(name = "endTime", required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
 
-            @Parameter(description = "分页参数（page: 页码从0开始，size: 每页大小，sort: 排序字段 and 方向）")
-            @PageableDefault(size = 20) Pageable pageable) {
+            @Parameter(description = "分页游标（上一页返回的 nextCursor）")
+            @RequestParam(name = "cursor", required = false) String cursor,
 
-        Page<AuditLogEntity> logs = auditLogQueryService.searchAuditLogs(
-                module, action, operatorUsername, auditType, startTime, endTime, pageable);
+            @Parameter(description = "每页大小（最大200）", example = "20")
+            @RequestParam(name = "size", defaultValue = "20") int size) {
+
+        AuditLogPageVO logs = auditLogQueryService.searchAuditLogs(
+                module, action, operatorUsername, auditType, startTime, endTime, cursor, size);
 
         return Result.success(logs);
     }
@@ -143,7 +172,7 @@ public class AuditLogController {
     /**
      * 根据TraceId查询审计日志
      *
-     * <p>用于查询整个请求链路的所有审计日志</p>
+     * <p>用于查询整个请求链路的审计日志</p>
      * <p>TraceId由MDC自动生成,在同一个请求链路中保持一致</p>
      *
      * <p><b>使用场景：</b></p>
@@ -159,23 +188,31 @@ public class AuditLogController {
      * </pre>
      *
      * @param traceId 链路追踪ID(32位十六进制字符串)
-     * @return 该TraceId对应的所有审计日志(按创建时间倒序)
+     * @param cursor 分页游标(可选)
+     * @param size 每页大小
+     * @return 该TraceId对应的一页审计日志(按创建时间倒序)
      * @since 1.0
      */
     @GetMapping("/trace/{traceId}")
-    @Operation(summary = "根据TraceId查询审计日志", description = "查询整个请求链路的所有审计日志，用于问题排查 and 性能分析")
-    public Result<List<AuditLogEntity>> getAuditLogsByTraceId(
+    @Operation(summary = "根据TraceId查询审计日志", description = "查询整个请求链路的审计日志（游标分页），用于问题排查 and 性能分析")
+    public Result<AuditLogPageVO> getAuditLogsByTraceId(
             @Parameter(description = "链路追踪ID（32位十六进制字符串）")
-            @PathVariable("traceId") String traceId) {
+            @PathVariable("traceId") String traceId,
+
+            @Parameter(description = "分页游标（上一页返回的 nextCursor）")
+            @RequestParam(name = "cursor", required = false) String cursor,
+
+            @Parameter(description = "每页大小（最大200）", example = "100")
+            @RequestParam(name = "size", defaultValue = "100") int size) {
 
-        List<AuditLogEntity> logs = auditLogQueryService.getAuditLogsByTraceId(traceId);
+        AuditLogPageVO logs = auditLogQueryService.getAuditLogsByTraceId(traceId, cursor, size);
         return Result.success(logs);
     }
 
     /**
      * 查询操作人的审计日志
      *
-     * <p>查询某个用户的所有审计日志,包括敏感操作 and 业务操作</p>
+     * <p>查询某个用户的审计日志,包括敏感操作 and 业务操作</p>
      *
      * <p><b>使用场景：</b></p>
      * <ul>
@@ -186,20 +223,124 @@ public class AuditLogController {
      *
      * <p><b>使用示例：</b></p>
      * <pre>
-     * GET /api/audit-logs/operator/123
+     * GET /api/audit-logs/operator/123?size=50
      * </pre>
      *
      * @param operatorId 操作人ID(sys_user.id)
-     * @return 该操作人的所有审计日志(按创建时间倒序)
+     * @param cursor 分页游标(可选)
+     * @param size 每页大小
+     * @return 该操作人的一页审计日志(按创建时间倒序)
      * @since 1.0
      */
     @GetMapping("/operator/{operatorId}")
-    @Operation(summary = "查询操作人的审计日志", description = "查询某个用户的所有审计日志，用于用户行为审计 and 安全调查")
-    public Result<List<AuditLogEntity>> getAuditLogsByOperator(
+    @Operation(summary = "查询操作人的审计日志", description = "查询某个用户的审计日志（游标分页），用于用户行为审计 and 安全调查")
+    public Result<AuditLogPageVO> getAuditLogsByOperator(
             @Parameter(description = "操作人ID（sys_user.id）")
-            @PathVariable("operatorId") Long operatorId) {
+            @PathVariable("operatorId") Long operatorId,
 
-        List<AuditLogEntity> logs = auditLogQueryService.getAuditLogsByOperator(operatorId);
+            @Parameter(description = "分页游标（上一页返回的 nextCursor）")
+            @RequestParam(name = "cursor", required = false) String cursor,
+
+            @Parameter(description = "每页大小（最大200）", example = "20")
+            @RequestParam(name = "size", defaultValue = "20") int size) {
+
+        AuditLogPageVO logs = auditLogQueryService.getAuditLogsByOperator(operatorId, cursor, size);
         return Result.success(logs);
     }
+
+    /**
+     * 流式导出审计日志
+     *
+     * <p>用于监管调取等需要全部审计日志的场景,边查询边写出响应,不分页</p>
+     *
+     * <p><b>续传：</b>每行都带有该行的游标（NDJSON 的 cursor 字段、CSV 的 cursor 列）,
+     * 连接中断后以已收到的最后一行的游标作为 cursor 参数、其余参数不变重新请求,从下一行继续导出</p>
+     *
+     * <p><b>使用示例：</b></p>
+     * <pre>
+     * GET /api/audit-logs/export?module=挂号管理&startTime=2025-01-01T00:00:00&format=NDJSON
+     * </pre>
+     *
+     * @param module 模块名称(可选)
+     * @param action 操作描述(可选)
+     * @param operatorId 操作人ID(可选)
+     * @param operatorUsername 操作人用户名(可选)
+     * @param auditType 审计类型(可选)
+     * @param startTime 开始时间(可选)
+     * @param endTime 结束时间(可选)
+     * @param format 导出格式
+     * @param cursor 续传游标(可选)
+     * @param response HTTP响应
+     * @throws IOException 写出失败时抛出
+     * @since 1.0
+     */
+    @GetMapping("/export")
+    @Operation(
+        summary = "流式导出审计日志",
+        description = """
+            按条件导出全部审计日志（按创建时间正序），仅管理员可访问。<br/>
+            format=NDJSON：每行一个 JSON 对象；format=CSV_GZIP：gzip 压缩的带表头 CSV。<br/>
+            每行都带有 cursor，连接中断后将已收到的最后一行的 cursor 作为 cursor 参数、其余参数不变重新请求即可续传（CSV 续传时不再输出 BOM 和表头）。<br/>
+            同时进行的导出数和每秒导出行数有上限，超过并发上限时返回错误，请稍后重试。
+            """
+    )
+    @AuditLog(
+        module = "审计日志",
+        action = "导出审计日志",
+        description = "管理员导出审计日志",
+        auditType = AuditType.DATA_ACCESS
+    )
+    public void exportAuditLogs(
+            @Parameter(description = "模块名称（如：认证管理、挂号管理）")
+            @RequestParam(name = "module", required = false) String module,
+
+            @Parameter(description = "操作描述（如：用户登录、患者挂号）")
+            @RequestParam(name = "action", required = false) String action,
+
+            @Parameter(description = "操作人ID（sys_user.id）")
+            @RequestParam(name = "operatorId", required = false) Long operatorId,
+
+            @Parameter(description = "操作人用户名")
+            @RequestParam(name = "operatorUsername", required = false) String operatorUsername,
+
+            @Parameter(description = "审计类型（SENSITIVE_OPERATION、BUSINESS、DATA_ACCESS）")
+            @RequestParam(name = "auditType", required = false) String auditType,
+
+            @Parameter(description = "开始时间（格式：yyyy-MM-ddTHH:mm:ss）")
+            @RequestParam(name = "startTime", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+
+            @Parameter(description = "结束时间（格式：yyyy-MM-ddTHH:mm:ss）")
+            @RequestParam(name = "endTime", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+
+            @Parameter(description = "导出格式（NDJSON、CSV_GZIP）")
+            @RequestParam(name = "format", defaultValue = "NDJSON") AuditExportFormatEnum format,
+
+            @Parameter(description = "续传游标（已收到的最后一行的 cursor）")
+            @RequestParam(name = "cursor", required = false) String cursor,
+
+            HttpServletResponse response) throws IOException {
+
+        AuditLogExportDTO criteria = new AuditLogExportDTO();
+        criteria.setModule(module);
+        criteria.setAction(action);
+        criteria.setOperatorId(operatorId);
+        criteria.setOperatorUsername(operatorUsername);
+        criteria.setAuditType(auditType);
+        criteria.setStartTime(startTime);
+        criteria.setEndTime(endTime);
+
+        try (AuditLogExportService.Export export = auditLogExportService.open(criteria, format, cursor)) {
+            String filename = "audit-log-"
+                    + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"))
+                    + format.getFileExtension();
+            response.setContentType(format.getContentType());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename(filename, StandardCharsets.UTF_8)
+                    .build()
+                    .toString());
+            export.writeTo(response.getOutputStream());
+        }
+    }
 }
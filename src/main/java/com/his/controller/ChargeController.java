@@ -15,11 +15,14 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import com.his.common.Result;
+import com.his.common.SecurityUtils;
 import com.his.dto.CreateChargeDTO;
 import com.his.dto.PaymentDTO;
+import com.his.enums.CachedRecordTypeEnum;
 import com.his.log.annotation.AuditLog;
 import com.his.log.annotation.AuditType;
 import com.his.service.ChargeService;
+import com.his.service.TerminalRecordCacheService;
 import com.his.vo.ChargeVO;
 import com.his.vo.DailySettlementVO;
 
@@ -65,6 +68,7 @@ import lombok.extern.slf4j.Slf4j;
 public class ChargeController {
 
     private final ChargeService chargeService;
+    private final TerminalRecordCacheService terminalRecordCacheService;
 
     @Operation(
         summary = "创建收费单",
@@ -94,13 +98,16 @@ public class ChargeController {
 
     @Operation(
         summary = "查询收费单详情",
-        description = "根据收费单ID查询详细信息，包括收费明细列表"
+        description = "根据收费单ID查询详细信息，包括收费明细列表；已退费的收费单从缓存读取"
     )
     @GetMapping("/{id}")
     public Result<ChargeVO> getById(
             @Parameter(description = "收费单ID", required = true, example = "1")
-            @PathVariable("id") Long id) {
-        return Result.success("查询成功", chargeService.getById(id));
+            @PathVariable("id") Long id,
+            @Parameter(description = "绕过缓存读取最新数据（仅管理员有效，用于数据更正后核对）", example = "false")
+            @RequestParam(value = "refresh", defaultValue = "false") boolean refresh) {
+        return Result.success("查询成功", terminalRecordCacheService.get(CachedRecordTypeEnum.CHARGE, id,
+                refresh && SecurityUtils.isAdmin(), () -> chargeService.getById(id), ChargeVO::getStatus));
     }
 
     @Operation(
@@ -8,13 +8,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import com.his.common.Result;
 import com.his.converter.VoConverter;
 import com.his.entity.Medicine;
+import com.his.service.MedicineCatalogService;
 import com.his.service.MedicineService;
 import com.his.service.UserRoleService;
 import com.his.vo.MedicineVO;
@@ -36,6 +40,7 @@ import lombok.extern.slf4j.Slf4j;
  * <ul>
  *   <li><b>药品列表查询</b>：支持多条件组合查询（关键字、分类、价格、库存状态等）</li>
  *   <li><b>药品详情查询</b>：根据ID查询药品详细信息</li>
+ *   <li><b>药品目录快照</b>：按角色预序列化的完整目录，支持 ETag / 304</li>
  *   <li><b>角色感知</b>：通过 UserRoleService 根据用户角色自动返回不同字段</li>
  * </ul>
  *
@@ -74,6 +79,7 @@ public class CommonMedicineController {
 
     private final MedicineService medicineService;
     private final UserRoleService userRoleService;
+    private final MedicineCatalogService medicineCatalogService;
 
     /**
      * 统一药品查询（支持分页、多条件筛选）
@@ -233,6 +239,63 @@ public class CommonMedicineController {
         );
     }
 
+    /**
+     * 药品目录快照（按角色预序列化，支持 ETag）
+     * <p>
+     * 返回全部启用药品（按名称排序，不分页），响应体按（视图 + 筛选条件）预先序列化并缓存。
+     * 响应带强 ETag，客户端携带 If-None-Match 重新请求时，目录未变化则返回 304 Not Modified。
+     * </p>
+     *
+     * @param category       药品分类（可选）
+     * @param isPrescription 是否处方药（可选）
+     * @param inStock        是否只显示有货药品（可选）
+     * @return 已序列化的药品列表（{@link Result} 格式，根据角色返回不同字段）
+     */
+    @GetMapping("/catalog")
+    @Operation(
+        summary = "查询药品目录快照",
+        description = """
+            返回全部启用药品的目录快照（不分页，按名称排序），字段可见性与列表查询一致（Public/Doctor/Pharmacist）。
+
+            **缓存协商：**
+            - 响应头 `ETag` 为目录内容的强校验值
+            - 请求头携带 `If-None-Match: <ETag>`，目录未变化时返回 `304 Not Modified`（无响应体）
+            - 药品库存等数据变化后，快照自动增量重建，ETag 随之变化
+
+            **支持的筛选参数（常用筛选）：**
+            - category: 药品分类
+            - isPrescription: 是否处方药（0=否, 1=是）
+            - inStock: 是否只显示有货药品
+
+            关键字、价格区间等高级筛选请使用 `GET /api/common/medicines`。
+            """
+    )
+    public ResponseEntity<byte[]> catalog(
+        @Parameter(description = "药品分类", example = "抗生素")
+        @RequestParam(name = "category", required = false) String category,
+
+        @Parameter(description = "是否处方药（0=否, 1=是）", example = "1")
+        @RequestParam(name = "isPrescription", required = false) Short isPrescription,
+
+        @Parameter(description = "是否只显示有货药品", example = "true")
+        @RequestParam(name = "inStock", required = false) Boolean inStock
+    ) {
+        Class<?> view = userRoleService.getMedicineViewForCurrentUser();
+        MedicineCatalogService.Snapshot snapshot =
+            medicineCatalogService.getSnapshot(view, category, isPrescription, inStock);
+
+        log.debug("【通用】查询药品目录快照 - view: {}, category: {}, isPrescription: {}, inStock: {}, etag: {}",
+                  view.getSimpleName(), category, isPrescription, inStock, snapshot.etag());
+
+        // ETag 匹配 If-None-Match 时由 Spring MVC 自动返回 304（不写响应体）
+        return ResponseEntity.ok()
+            .eTag(snapshot.etag())
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .header(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(snapshot.body());
+    }
+
     /**
      * 根据ID查询药品详情（支持JsonView）
      * <p>
@@ -7,9 +7,13 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import com.his.common.Result;
+import com.his.common.SecurityUtils;
 import com.his.converter.VoConverter;
-import com.his.entity.Prescription;
+import com.his.enums.CachedRecordTypeEnum;
 import com.his.service.PrescriptionService;
+import com.his.service.PrescriptionStatusHistoryService;
+import com.his.service.TerminalRecordCacheService;
+import com.his.vo.PrescriptionStatusHistoryVO;
 import com.his.vo.PrescriptionVO;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -67,6 +71,8 @@ import lombok.extern.slf4j.Slf4j;
 public class CommonPrescriptionController {
 
     private final PrescriptionService prescriptionService;
+    private final PrescriptionStatusHistoryService statusHistoryService;
+    private final TerminalRecordCacheService terminalRecordCacheService;
 
     /**
      * 根据ID查询处方详情
@@ -102,7 +108,8 @@ public class CommonPrescriptionController {
      * }
      * }</pre>
      *
-     * @param id 处方ID
+     * @param id      处方ID
+     * @param refresh 是否绕过缓存读取最新数据（仅管理员有效）
      * @return 处方详细信息
      */
     @Operation(
@@ -129,6 +136,10 @@ public class CommonPrescriptionController {
             - RETURNED: 已退药
             - CANCELLED: 已作废
 
+            **缓存说明：**
+            - 已发药、已退费的处方从终态记录缓存读取，退药退费时自动淘汰
+            - 管理员更正数据后可传 `refresh=true` 绕过缓存读取最新数据（其他角色传入无效）
+
             **请求示例：**
             ```bash
             # 查询处方详情（所有角色通用）
@@ -139,12 +150,15 @@ public class CommonPrescriptionController {
     @GetMapping("/{id}")
     public Result<PrescriptionVO> getById(
         @Parameter(description = "处方ID", required = true, example = "1")
-        @PathVariable("id") Long id) {
+        @PathVariable("id") Long id,
+        @Parameter(description = "绕过缓存读取最新数据（仅管理员有效，用于数据更正后核对）", example = "false")
+        @RequestParam(value = "refresh", defaultValue = "false") boolean refresh) {
 
         log.info("【通用】查询处方详情 - ID: {}", id);
 
-        Prescription prescription = prescriptionService.getById(id);
-        PrescriptionVO vo = VoConverter.toPrescriptionVO(prescription);
+        PrescriptionVO vo = terminalRecordCacheService.get(CachedRecordTypeEnum.PRESCRIPTION, id,
+                refresh && SecurityUtils.isAdmin(),
+                () -> VoConverter.toPrescriptionVO(prescriptionService.getById(id)), PrescriptionVO::getStatus);
 
         return Result.success("查询成功", vo);
     }
@@ -221,14 +235,50 @@ public class CommonPrescriptionController {
 
         log.info("【通用】查询病历的处方列表 - 病历ID: {}", recordId);
 
-        List<Prescription> prescriptions = prescriptionService.getByRecordId(recordId);
-        List<PrescriptionVO> voList = prescriptions.stream()
-            .map(VoConverter::toPrescriptionVO)
-            .collect(Collectors.toList());
+        List<PrescriptionVO> voList = prescriptionService.getByRecordId(recordId);
 
         return Result.success(
             String.format("查询成功，共 %d 张处方", voList.size()),
             voList
         );
     }
+
+    /**
+     * 查询处方状态流转历史
+     * <p>按时间先后返回处方的每一次状态转换（开方、审核、缴费、发药、退药），用于药房纠纷追溯</p>
+     *
+     * @param id 处方ID
+     * @return 状态转换历史列表
+     */
+    @Operation(
+        summary = "查询处方状态流转历史",
+        description = """
+            按时间先后返回处方的每一次状态转换，包含源状态、目标状态、操作人和原因。
+
+            **使用场景：**
+            - 药房发药、退药纠纷追溯
+            - 查看处方从开方到发药的完整流转过程
+
+            **请求示例：**
+            ```bash
+            GET /api/common/prescriptions/123/status-history
+            ```
+            """
+    )
+    @GetMapping("/{id}/status-history")
+    public Result<List<PrescriptionStatusHistoryVO>> getStatusHistory(
+        @Parameter(description = "处方ID", required = true, example = "1")
+        @PathVariable("id") Long id) {
+
+        log.info("【通用】查询处方状态流转历史 - 处方ID: {}", id);
+
+        List<PrescriptionStatusHistoryVO> voList = statusHistoryService.getByPrescriptionId(id).stream()
+            .map(VoConverter::toPrescriptionStatusHistoryVO)
+            .collect(Collectors.toList());
+
+        return Result.success(
+            String.format("查询成功，共 %d 条记录", voList.size()),
+            voList
+        );
+    }
 }
@@ -10,7 +10,11 @@ import com.his.common.SecurityUtils;
 import com.his.entity.Doctor;
 import com.his.enums.RegStatusEnum;
 import com.his.service.DoctorService;
+import com.his.service.DoctorWorkstationService;
+import com.his.service.PatientTimelineService;
+import com.his.vo.DoctorWorkstationVO;
 import com.his.vo.PatientDetailVO;
+import com.his.vo.PatientTimelineVO;
 import com.his.vo.RegistrationVO;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -38,6 +42,8 @@ import lombok.extern.slf4j.Slf4j;
  *   <li><b>候诊列表</b>：查询今日候诊患者（支持个人视图和科室视图）</li>
  *   <li><b>接诊管理</b>：接诊、完成就诊等状态管理</li>
  *   <li><b>患者信息</b>：查询患者详细信息（含数据脱敏）</li>
+ *   <li><b>就诊时间线</b>：按时间倒序查看患者的挂号、病历、处方、收费记录</li>
+ *   <li><b>首屏加载</b>：打开患者时一次请求并行加载患者信息、病历、处方和候诊列表</li>
  * </ul>
  *
  * @author HIS 开发团队
@@ -57,6 +63,10 @@ public class DoctorController {
 
     private final DoctorService doctorService;
 
+    private final PatientTimelineService patientTimelineService;
+
+    private final DoctorWorkstationService doctorWorkstationService;
+
     // Swagger文档常量（避免PMD解析错误）
     private static final String WAITING_LIST_DESC =
         "<b>【安全特性】强制从JWT Token获取医生ID，防止水平越权（IDOR）攻击</b><br/>" +
@@ -321,4 +331,123 @@ public class DoctorController {
             return Result.error("系统异常，请联系管理员: " + e.getMessage());
         }
     }
+
+    /**
+     * 查询患者就诊时间线
+     *
+     * <p>将患者的挂号、病历、处方、收费记录合并为一条按时间倒序的事件流，使用游标分页。
+     * 其他医生的草稿病历不出现在时间线中，管理员可以看到全部事件。
+     *
+     * @param id     患者ID
+     * @param cursor 上一页返回的 nextCursor，首页不传
+     * @param size   每页事件数（默认20，最大100）
+     * @return 一页时间线事件
+     */
+    @Operation(
+        summary = "查询患者就诊时间线",
+        description = """
+            按时间倒序返回患者的挂号、病历、处方、收费事件，每个事件只包含摘要信息。<br/>
+            <b>【分页】</b>首页不传 cursor；取下一页时将响应中的 nextCursor 作为 cursor 传回，nextCursor 为空表示没有更多事件。<br/>
+            <b>【权限】</b>其他医生的草稿病历不出现在时间线中；管理员可查看全部事件。<br/><br/>
+            <b>响应示例：</b><br/>
+            <pre>{
+              "code": 200,
+              "message": "查询患者时间线成功",
+              "data": {
+                "patientId": 1,
+                "events": [
+                  {
+                    "type": "PRESCRIPTION",
+                    "id": 12,
+                    "number": "PRE20251220100000123",
+                    "eventTime": "2025-12-20T10:05:00",
+                    "status": 5,
+                    "summary": "3种药品",
+                    "doctorName": "李医生",
+                    "amount": 58.50
+                  }
+                ],
+                "nextCursor": "MjAyNS0xMi0yMFQxMDowNTowMHwyfDEy"
+              }
+            }</pre>
+            """
+    )
+    @GetMapping("/patients/{id}/timeline")
+    public Result<PatientTimelineVO> getPatientTimeline(
+            @Parameter(description = "患者ID", required = true, example = "1")
+            @PathVariable("id") Long id,
+            @Parameter(description = "分页游标（上一页返回的 nextCursor）", required = false)
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "每页事件数", example = "20")
+            @RequestParam(name = "size", defaultValue = "20") int size) {
+        try {
+            Long doctorId = SecurityUtils.isAdmin() ? null : SecurityUtils.getCurrentDoctorId();
+            PatientTimelineVO timeline = patientTimelineService.getTimeline(id, doctorId, cursor, size);
+            return Result.success("查询患者时间线成功", timeline);
+        } catch (IllegalStateException e) {
+            // SecurityUtils 抛出的异常
+            log.error("【安全】获取当前医生ID失败: {}", e.getMessage());
+            return Result.unauthorized("认证失败，请重新登录");
+        } catch (IllegalArgumentException e) {
+            log.warn("查询患者时间线失败: {}", e.getMessage());
+            return Result.badRequest(e.getMessage());
+        } catch (Exception e) {
+            log.error("查询患者时间线系统异常", e);
+            return Result.error("系统异常，请联系管理员: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 加载医生工作站首屏数据
+     *
+     * <p>替代打开患者时依次调用的患者信息、病历、处方、候诊列表四个接口，四项查询在服务端并行执行。
+     *
+     * <p><b>【管理员特权】</b>管理员可通过 adminDoctorId 指定候诊列表所属医生，未指定时不返回候诊列表。
+     *
+     * @param patientId      患者ID
+     * @param registrationId 挂号单ID
+     * @param showAll        候诊列表是否显示科室所有患者
+     * @param adminDoctorId  管理员指定的医生ID（仅管理员有效）
+     * @return 首屏数据
+     */
+    @Operation(
+        summary = "加载医生工作站首屏数据",
+        description = """
+            <b>【安全特性】强制从JWT Token获取医生ID，防止水平越权（IDOR）攻击</b><br/>
+            一次返回打开患者时需要的全部数据，内容与以下接口分别返回的数据一致：<br/>
+            - patient：GET /api/doctor/patients/{id}<br/>
+            - medicalRecord：GET /api/doctor/medical-records/by-registration/{registrationId}（尚未创建病历时为空）<br/>
+            - prescriptions：GET /api/common/prescriptions/by-record/{recordId}<br/>
+            - waitingList：GET /api/doctor/waiting-list<br/>
+            四项查询在服务端并行执行，总耗时取决于最慢的一项。<br/>
+            <b>【管理员特权】</b>管理员可通过 adminDoctorId 参数指定候诊列表所属医生，未指定时不返回候诊列表。
+            """
+    )
+    @GetMapping("/workstation/bootstrap")
+    public Result<DoctorWorkstationVO> bootstrapWorkstation(
+            @Parameter(description = "患者ID", required = true, example = "1")
+            @RequestParam(name = "patientId") Long patientId,
+            @Parameter(description = "挂号单ID", required = true, example = "1")
+            @RequestParam(name = "registrationId") Long registrationId,
+            @Parameter(description = "候诊列表是否显示科室所有患者", required = false, example = "false")
+            @RequestParam(name = "showAll", defaultValue = "false") boolean showAll,
+            @Parameter(description = "管理员指定的医生ID（仅管理员有效）", required = false)
+            @RequestParam(name = "adminDoctorId", required = false) Long adminDoctorId) {
+        try {
+            Long doctorId = SecurityUtils.isAdmin() ? adminDoctorId : SecurityUtils.getCurrentDoctorId();
+            DoctorWorkstationVO workstation =
+                    doctorWorkstationService.bootstrap(patientId, registrationId, doctorId, showAll);
+            return Result.success("加载工作站数据成功", workstation);
+        } catch (IllegalStateException e) {
+            // SecurityUtils 抛出的异常
+            log.error("【安全】获取当前医生ID失败: {}", e.getMessage());
+            return Result.unauthorized("认证失败，请重新登录");
+        } catch (IllegalArgumentException e) {
+            log.warn("加载工作站数据失败: {}", e.getMessage());
+            return Result.badRequest(e.getMessage());
+        } catch (Exception e) {
+            log.error("加载工作站数据系统异常", e);
+            return Result.error("系统异常，请联系管理员: " + e.getMessage());
+        }
+    }
 }
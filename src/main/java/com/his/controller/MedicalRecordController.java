@@ -1,13 +1,23 @@
 package com.his.controller;
 
+import jakarta.validation.Valid;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import com.his.common.Result;
+import com.his.common.SecurityUtils;
 import com.his.converter.VoConverter;
 import com.his.dto.MedicalRecordDTO;
+import com.his.dto.MedicalRecordDraftDTO;
 import com.his.entity.MedicalRecord;
+import com.his.service.MedicalRecordDraftService;
+import com.his.service.MedicalRecordSearchService;
 import com.his.service.MedicalRecordService;
+import com.his.vo.MedicalRecordDraftVO;
+import com.his.vo.MedicalRecordSearchHitVO;
 import com.his.vo.MedicalRecordVO;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -25,8 +35,10 @@ import lombok.extern.slf4j.Slf4j;
  * <h3>主要功能</h3>
  * <ul>
  *   <li><b>保存或更新病历</b>：根据挂号单ID创建新病历或更新已有病历</li>
+ *   <li><b>草稿自动保存</b>：编辑过程中提交变化的字段，合并后只写入变化的列</li>
  *   <li><b>查询病历</b>：根据病历ID或挂号单ID查询病历详情</li>
  *   <li><b>提交病历</b>：将草稿状态的病历提交为正式病历</li>
+ *   <li><b>检索病历</b>：按主诉、诊断、诊断编码、治疗方案全文检索相似病例</li>
  * </ul>
  *
  * <h3>角色权限</h3>
@@ -54,6 +66,8 @@ import lombok.extern.slf4j.Slf4j;
 public class MedicalRecordController {
 
     private final MedicalRecordService medicalRecordService;
+    private final MedicalRecordSearchService medicalRecordSearchService;
+    private final MedicalRecordDraftService medicalRecordDraftService;
 
     /**
      * 保存或更新病历
@@ -78,6 +92,79 @@ public class MedicalRecordController {
         }
     }
 
+    /**
+     * 草稿自动保存
+     *
+     * @param id  病历ID
+     * @param dto 变化的字段
+     * @return 尚未落库的字段及最晚写入时间
+     */
+    @Operation(
+        summary = "草稿自动保存",
+        description = """
+            编辑病历时提交自上次自动保存以来变化的字段，用于替代编辑过程中频繁调用完整保存。
+            **合并规则**：
+            - 同一病历的补丁在服务端合并，空闲2秒后（持续编辑时最长10秒）一次写入，只更新变化的列
+            - 值为 null 表示清空该字段
+            - 提交病历前会同步写入未落库的补丁；完整保存会丢弃未落库的补丁
+            - 草稿写入不改变版本号，编辑期间的完整保存可继续使用加载时的 version
+            **限制**：只能修改本人的草稿状态病历（管理员除外）；携带 version 且与当前版本号不一致时拒绝
+            """
+    )
+    @PatchMapping("/{id}/draft")
+    public Result<MedicalRecordDraftVO> saveDraft(
+            @Parameter(description = "病历ID", required = true, example = "1")
+            @PathVariable("id") Long id,
+            @Valid @RequestBody MedicalRecordDraftDTO dto) {
+        Long doctorId = SecurityUtils.isAdmin() ? null : SecurityUtils.getCurrentDoctorId();
+        return Result.success("草稿已保存", medicalRecordDraftService.patch(id, doctorId, dto.getVersion(), dto.getFields()));
+    }
+
+    /**
+     * 全文检索病历
+     *
+     * @param keyword  检索词
+     * @param showAll  是否检索同科室病历
+     * @param page     页码
+     * @param size     每页大小
+     * @return 按相关度排序的检索结果
+     */
+    @Operation(
+        summary = "检索病历",
+        description = """
+            按主诉、诊断、诊断编码、治疗方案全文检索病历，结果按相关度排序。
+            **检索范围**：
+            - 医生默认检索本人病历（含草稿）
+            - showAll=true 时检索同科室医生的已提交病历及本人草稿
+            - 管理员检索全部病历
+            **检索规则**：中文按字切分，多个检索词须同时命中；诊断编码可按类目检索（如 J06 命中 J06.901）
+            """
+    )
+    @GetMapping("/search")
+    public Result<Page<MedicalRecordSearchHitVO>> search(
+            @Parameter(description = "检索词（主诉、诊断、诊断编码或治疗方案）", required = true, example = "头痛 发热")
+            @RequestParam("keyword") String keyword,
+            @Parameter(description = "是否检索同科室病历（false=个人, true=科室）", example = "false")
+            @RequestParam(name = "showAll", defaultValue = "false") boolean showAll,
+            @Parameter(description = "页码（从0开始）", example = "0")
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @Parameter(description = "每页大小（最大100）", example = "20")
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        try {
+            Long doctorId = SecurityUtils.isAdmin() ? null : SecurityUtils.getCurrentDoctorId();
+            log.info("收到检索病历请求，医生ID: {}, 科室范围: {}", doctorId, showAll);
+            Page<MedicalRecordSearchHitVO> hits = medicalRecordSearchService.search(
+                    keyword, doctorId, showAll, PageRequest.of(page, size));
+            return Result.success("查询成功", hits);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            log.warn("检索病历失败: {}", e.getMessage());
+            return Result.badRequest(e.getMessage());
+        } catch (Exception e) {
+            log.error("检索病历失败", e);
+            return Result.error("检索失败: " + e.getMessage());
+        }
+    }
+
     /**
      * 根据ID查询病历
      *
@@ -1,12 +1,20 @@
 package com.his.controller;
 
+import java.util.List;
+
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.his.common.Result;
 import com.his.dto.InventoryStatsVO;
+import com.his.log.annotation.AuditLog;
+import com.his.log.annotation.AuditType;
+import com.his.service.DrugConflictService;
+import com.his.service.LowStockAlertService;
 import com.his.service.MedicineService;
+import com.his.vo.LowStockMedicineVO;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -24,6 +32,7 @@ import lombok.extern.slf4j.Slf4j;
  * <ul>
  *   <li><b>库存更新</b>：手动调整药品库存（入库/出库）</li>
  *   <li><b>库存统计</b>：获取库存统计数据，用于仪表盘展示</li>
+ *   <li><b>低库存预警</b>：查询当前低库存药品，或通过 SSE 实时接收低库存事件</li>
  * </ul>
  *
  * <h3>重要说明</h3>
@@ -54,6 +63,8 @@ import lombok.extern.slf4j.Slf4j;
 public class PharmacistMedicineController {
 
     private final MedicineService medicineService;
+    private final LowStockAlertService lowStockAlertService;
+    private final DrugConflictService drugConflictService;
 
     /**
      * 更新药品库存
@@ -179,4 +190,96 @@ public class PharmacistMedicineController {
 
         return Result.success("查询成功", stats);
     }
+
+    /**
+     * 当前低库存药品
+     * <p>
+     * 返回内存中维护的低库存药品集合（库存 &lt;= 最低库存），不扫描药品表。
+     * 集合由库存变更事件实时维护，并定期与数据库对账。
+     * </p>
+     *
+     * @return 低库存药品列表
+     */
+    @Operation(
+        summary = "当前低库存药品",
+        description = """
+            查询当前处于低库存状态的药品（库存 <= 最低库存）。
+
+            **数据来源：**
+            - 发药、退药、手动调整库存跨越阈值时实时更新
+            - 定期与数据库对账
+
+            **实时推送：** 请使用 `GET /api/pharmacist/medicines/low-stock/stream`
+            """
+    )
+    @GetMapping("/low-stock")
+    public Result<List<LowStockMedicineVO>> getLowStock() {
+        List<LowStockMedicineVO> lowStock = lowStockAlertService.getCurrentLowStock();
+        return Result.success(String.format("查询成功，共 %d 个低库存药品", lowStock.size()), lowStock);
+    }
+
+    /**
+     * 低库存事件流（SSE）
+     * <p>
+     * 订阅后立即收到一次当前低库存快照，之后仅在药品库存跨越最低库存阈值时收到事件。
+     * </p>
+     *
+     * <p><b>事件类型：</b></p>
+     * <ul>
+     *   <li><b>snapshot</b>: 订阅时的当前低库存药品列表</li>
+     *   <li><b>low-stock</b>: 药品进入低库存</li>
+     *   <li><b>stock-recovered</b>: 药品解除低库存</li>
+     * </ul>
+     *
+     * @return SSE 事件流
+     */
+    @Operation(
+        summary = "低库存事件流（SSE）",
+        description = """
+            订阅低库存事件，库存跨越最低库存阈值时实时推送，无需轮询。
+
+            **事件类型：**
+            - snapshot: 订阅时的当前低库存药品列表
+            - low-stock: 药品进入低库存
+            - stock-recovered: 药品解除低库存
+
+            连接超时后客户端应自动重连（EventSource 默认行为）。
+            """
+    )
+    @GetMapping(value = "/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLowStock() {
+        log.info("【药师】订阅低库存事件流");
+        return lowStockAlertService.subscribe();
+    }
+
+    /**
+     * 重新加载用药冲突规则
+     * <p>
+     * 药物相互作用、过敏原分类规则维护后立即生效，无需等待定期变更检查或重启服务。
+     * </p>
+     *
+     * @return 加载后的规则统计
+     */
+    @Operation(
+        summary = "重新加载用药冲突规则",
+        description = """
+            从规则表重新加载药物相互作用与过敏原分类规则，立即用于开方和审核时的冲突检查。
+
+            规则表变更后系统也会定期自动重新加载（默认每分钟检查一次），本接口用于需要立即生效的场景。
+            """
+    )
+    @PostMapping("/conflict-rules/reload")
+    @AuditLog(
+        module = "药房管理",
+        action = "重新加载用药冲突规则",
+        description = "药师重新加载用药冲突规则",
+        auditType = AuditType.BUSINESS
+    )
+    public Result<DrugConflictService.RuleStats> reloadConflictRules() {
+        log.info("【药师】重新加载用药冲突规则");
+
+        DrugConflictService.RuleStats stats = drugConflictService.reload();
+
+        return Result.success("用药冲突规则已重新加载", stats);
+    }
 }
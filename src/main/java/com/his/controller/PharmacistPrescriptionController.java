@@ -1,17 +1,33 @@
 package com.his.controller;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
+import jakarta.validation.Valid;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import com.his.common.Result;
 import com.his.common.SecurityUtils;
 import com.his.converter.VoConverter;
+import com.his.dto.BatchDispenseDTO;
 import com.his.entity.Prescription;
+import com.his.enums.StatsGranularityEnum;
 import com.his.log.annotation.AuditLog;
 import com.his.log.annotation.AuditType;
+import com.his.service.DrugConflictService;
+import com.his.service.PharmacistStatsService;
 import com.his.service.PrescriptionService;
+import com.his.service.PrescriptionStatusHistoryService;
+import com.his.vo.BatchDispenseResultVO;
+import com.his.vo.DrugConflictWarningVO;
+import com.his.vo.PharmacistStatsVO;
+import com.his.vo.PrescriptionStatusHistoryVO;
 import com.his.vo.PrescriptionVO;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -30,7 +46,9 @@ import lombok.extern.slf4j.Slf4j;
  * <h3>主要功能</h3>
  * <ul>
  *   <li><b>待发药列表</b>：查询所有已审核通过但未发药的处方</li>
+ *   <li><b>领取处方</b>：多名药师并发领取互不重复的待发药处方，租约到期自动回到队列</li>
  *   <li><b>处方发药</b>：根据处方发药，扣减药品库存</li>
+ *   <li><b>批量发药</b>：药房窗口一次性为多张处方发药，逐张返回结果</li>
  *   <li><b>处方退药</b>：处理退药申请，恢复药品库存</li>
  *   <li><b>今日统计</b>：查询今日发药统计数据</li>
  * </ul>
@@ -64,52 +82,121 @@ import lombok.extern.slf4j.Slf4j;
 @PreAuthorize("hasAnyRole('PHARMACIST', 'ADMIN')")
 public class PharmacistPrescriptionController {
 
+    /** 分页查询每页最大条数 */
+    static final int MAX_PAGE_SIZE = 100;
+
     private final PrescriptionService prescriptionService;
+    private final PrescriptionStatusHistoryService statusHistoryService;
+    private final PharmacistStatsService pharmacistStatsService;
+    private final DrugConflictService drugConflictService;
 
     /**
-     * 待发药处方列表
-     * <p>查询所有已审核通过但未发药的处方列表，用于药师工作站的待发药队列</p>
+     * 待发药处方列表（分页）
+     * <p>查询已缴费但未发药的处方，按开方时间先后排序，用于药师工作站的待发药队列</p>
      *
-     * @return 待发药的处方列表
+     * @param page 页码（从0开始）
+     * @param size 每页大小
+     * @return 待发药的处方分页数据
      */
-    @Operation(summary = "待发药处方列表", description = "查询所有已审核通过但未发药的处方列表")
+    @Operation(summary = "待发药处方列表", description = "分页查询已缴费但未发药的处方列表（按开方时间先后排序）")
     @GetMapping("/pending")
-    public Result<List<PrescriptionVO>> getPendingDispenseList() {
-        log.info("【药师】查询待发药处方列表");
+    public Result<Page<PrescriptionVO>> getPendingDispenseList(
+            @Parameter(description = "页码（从0开始）", example = "0")
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @Parameter(description = "每页大小", example = "20")
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        log.info("【药师】查询待发药处方列表，page: {}, size: {}", page, size);
 
-        List<Prescription> prescriptions = prescriptionService.getPendingDispenseList();
-        List<PrescriptionVO> vos = prescriptions.stream()
-                .map(VoConverter::toPrescriptionVO)
-                .collect(java.util.stream.Collectors.toList());
+        Page<PrescriptionVO> vos = prescriptionService.getPendingDispenseList(pageRequest(page, size));
 
         return Result.success(
-            String.format("查询成功，共 %d 张待发药处方", vos.size()),
+            String.format("查询成功，共 %d 张待发药处方", vos.getTotalElements()),
             vos
         );
     }
 
     /**
-     * 待审核处方列表
-     * <p>查询所有已开方但未审核的处方列表，用于药师工作站的待审核队列</p>
+     * 待审核处方列表（分页）
+     * <p>查询已开方但未审核的处方，按开方时间先后排序，用于药师工作站的待审核队列</p>
      *
-     * @return 待审核的处方列表
+     * @param page 页码（从0开始）
+     * @param size 每页大小
+     * @return 待审核的处方分页数据
      */
-    @Operation(summary = "待审核处方列表", description = "查询所有已开方但未审核的处方列表")
+    @Operation(summary = "待审核处方列表", description = """
+            分页查询已开方但未审核的处方列表（按开方时间先后排序）。
+
+            每张处方附带用药冲突警示（conflictWarnings），整页只查询一次患者在用处方药品。
+            """)
     @GetMapping("/pending-review")
-    public Result<List<PrescriptionVO>> getPendingReviewList() {
-        log.info("【药师】查询待审核处方列表");
+    public Result<Page<PrescriptionVO>> getPendingReviewList(
+            @Parameter(description = "页码（从0开始）", example = "0")
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @Parameter(description = "每页大小", example = "20")
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        log.info("【药师】查询待审核处方列表，page: {}, size: {}", page, size);
 
-        List<Prescription> prescriptions = prescriptionService.getPendingReviewList();
-        List<PrescriptionVO> vos = prescriptions.stream()
-                .map(VoConverter::toPrescriptionVO)
-                .collect(java.util.stream.Collectors.toList());
+        Page<Prescription> prescriptions = prescriptionService.getPendingReviewList(pageRequest(page, size));
+        Map<Long, List<DrugConflictWarningVO>> warnings = drugConflictService.checkAll(prescriptions.getContent());
+        Page<PrescriptionVO> vos = prescriptions.map(prescription -> {
+            PrescriptionVO vo = VoConverter.toPrescriptionVO(prescription);
+            vo.setConflictWarnings(warnings.getOrDefault(prescription.getMainId(), List.of()));
+            return vo;
+        });
 
         return Result.success(
-            String.format("查询成功，共 %d 张待审核处方", vos.size()),
+            String.format("查询成功，共 %d 张待审核处方", vos.getTotalElements()),
             vos
         );
     }
 
+    /**
+     * 领取待发药处方
+     * <p>按开方时间先后领取最多 limit 张待发药处方，多名药师同时领取时互不重复</p>
+     *
+     * @param limit 领取数量（1-50）
+     * @return 领取到的处方列表
+     */
+    @Operation(summary = "领取待发药处方", description = """
+            领取最多 limit 张待发药处方（按开方时间先后），多名药师并发领取时各自拿到不同的处方。
+
+            **租约规则：**
+            - 领取后处方在租约期内（默认5分钟）只能由领取人发药
+            - 租约到期仍未发药的处方自动回到队列，可被其他药师领取
+            - 再次调用时，本人已领取且未发药的处方会一并返回并续租
+            """)
+    @PostMapping("/claim")
+    public Result<List<PrescriptionVO>> claim(
+            @Parameter(description = "领取数量（1-50）", example = "5")
+            @RequestParam(value = "limit", defaultValue = "5") int limit) {
+        Long pharmacistId = SecurityUtils.getCurrentUserId();
+        log.info("【药师】领取待发药处方 - 药师ID: {}, 数量: {}", pharmacistId, limit);
+
+        List<PrescriptionVO> vos = prescriptionService.claimPendingDispense(pharmacistId, limit);
+
+        return Result.success(String.format("领取成功，共 %d 张处方", vos.size()), vos);
+    }
+
+    /**
+     * 释放领取的处方
+     * <p>放弃本人领取的处方，使其立即回到待发药队列</p>
+     *
+     * @param id 处方ID
+     * @return 操作结果
+     */
+    @Operation(summary = "释放领取的处方", description = "放弃本人领取的处方，使其立即回到待发药队列")
+    @PostMapping("/{id}/release")
+    public Result<Void> release(
+            @Parameter(description = "处方ID", required = true, example = "1")
+            @PathVariable("id") Long id) {
+        Long pharmacistId = SecurityUtils.getCurrentUserId();
+        log.info("【药师】释放处方领取 - 处方ID: {}, 药师ID: {}", id, pharmacistId);
+
+        prescriptionService.releaseClaim(id, pharmacistId);
+
+        return Result.success("释放成功", null);
+    }
+
     /**
      * 审核处方
      * <p>对已开方的处方进行审核，审核通过后才能进行收费和发药</p>
@@ -163,6 +250,42 @@ public class PharmacistPrescriptionController {
         return Result.success("发药成功", "发药成功");
     }
 
+    /**
+     * 批量发药
+     * <p>药房窗口一次性为同一患者（或同一窗口）的多张已缴费处方发药</p>
+     *
+     * @param dto 批量发药请求（处方ID列表）
+     * @return 每张处方的发药结果
+     */
+    @Operation(summary = "批量发药", description = """
+            一次性为多张已缴费处方发药（最多50张），逐张返回结果。
+
+            **处理规则：**
+            - 一次加载全部处方明细与药品，按药品汇总扣减库存
+            - 发药成功的处方在同一事务中一起更新为已发药
+            - 状态不符、被其他药师领取、库存不足、状态转换被拒绝的处方单独标记失败，不影响其他处方
+            - 库存按请求顺序预占，同一药品库存不足时靠后的处方发药失败
+            - 仅数据库异常会使整批回滚
+            """)
+    @PostMapping("/batch-dispense")
+    @AuditLog(
+        module = "药房管理",
+        action = "批量发药",
+        description = "药师批量发药",
+        auditType = AuditType.BUSINESS
+    )
+    public Result<BatchDispenseResultVO> batchDispense(@Valid @RequestBody BatchDispenseDTO dto) {
+        log.info("【药师】批量发药 - 处方ID: {}", dto.getPrescriptionIds());
+
+        Long pharmacistId = SecurityUtils.getCurrentUserId();
+        BatchDispenseResultVO result = prescriptionService.batchDispense(dto.getPrescriptionIds(), pharmacistId);
+
+        return Result.success(
+            String.format("批量发药完成，成功 %d 张，失败 %d 张", result.getSuccessCount(), result.getFailureCount()),
+            result
+        );
+    }
+
     /**
      * 退药
      * <p>为已发药记录进行退药操作，自动归还库存</p>
@@ -191,6 +314,45 @@ public class PharmacistPrescriptionController {
         return Result.success("退药成功", null);
     }
 
+    /**
+     * 按时间范围查询处方状态流转历史（分页）
+     * <p>查询某时段内的处方状态转换记录，可按目标状态筛选（如只看发药或退药）</p>
+     *
+     * @param startTime 开始时间
+     * @param endTime 结束时间
+     * @param toStatus 目标状态（可选）
+     * @param page 页码（从0开始）
+     * @param size 每页大小
+     * @return 状态转换历史分页数据
+     */
+    @Operation(summary = "按时间范围查询处方状态流转历史", description = """
+            分页查询某时段内的处方状态转换记录，按转换时间先后排序。
+
+            **筛选条件：**
+            - startTime / endTime：时间范围（必填，ISO 格式，如 2026-01-01T00:00:00）
+            - toStatus：目标状态（可选，3=已发药，4=已退费）
+            """)
+    @GetMapping("/status-history")
+    public Result<Page<PrescriptionStatusHistoryVO>> searchStatusHistory(
+            @Parameter(description = "开始时间", required = true, example = "2026-01-01T00:00:00")
+            @RequestParam("startTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @Parameter(description = "结束时间", required = true, example = "2026-01-01T23:59:59")
+            @RequestParam("endTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @Parameter(description = "目标状态（可选）", example = "3")
+            @RequestParam(value = "toStatus", required = false) Short toStatus,
+            @Parameter(description = "页码（从0开始）", example = "0")
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @Parameter(description = "每页大小", example = "20")
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        log.info("【药师】查询处方状态流转历史 - 时间: {} ~ {}, 目标状态: {}", startTime, endTime, toStatus);
+
+        Page<PrescriptionStatusHistoryVO> vos = statusHistoryService
+                .search(startTime, endTime, toStatus, pageRequest(page, size))
+                .map(VoConverter::toPrescriptionStatusHistoryVO);
+
+        return Result.success(String.format("查询成功，共 %d 条记录", vos.getTotalElements()), vos);
+    }
+
     /**
      * 今日发药统计
      * <p>统计当前药师今日的发药数量、处方数等信息</p>
@@ -207,4 +369,51 @@ public class PharmacistPrescriptionController {
 
         return Result.success("查询成功", stats);
     }
+
+    /**
+     * 按时间范围统计发药工作量
+     * <p>按小时、天或周汇总当前药师在时间范围内的发药与退药工作量</p>
+     *
+     * @param startTime 开始时间（包含）
+     * @param endTime 结束时间（不包含）
+     * @param granularity 统计粒度
+     * @return 合计与按粒度划分的统计序列
+     */
+    @Operation(summary = "按时间范围统计发药工作量", description = """
+            按小时、天或周汇总当前药师的发药单数、发药金额、发药药品数以及退药单数、退药金额。
+
+            **参数说明：**
+            - startTime / endTime：时间范围 [startTime, endTime)，按整点统计，最长 366 天
+            - granularity：统计粒度（HOUR / DAY / WEEK，默认 DAY，周以周一开始）
+
+            **数据来源：** 按小时维护的工作量统计桶，不扫描处方表
+            """)
+    @GetMapping("/statistics")
+    public Result<PharmacistStatsVO> getStatistics(
+            @Parameter(description = "开始时间（包含）", required = true, example = "2026-01-01T00:00:00")
+            @RequestParam("startTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @Parameter(description = "结束时间（不包含）", required = true, example = "2026-01-08T00:00:00")
+            @RequestParam("endTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @Parameter(description = "统计粒度", example = "DAY")
+            @RequestParam(value = "granularity", defaultValue = "DAY") StatsGranularityEnum granularity) {
+        log.info("【药师】查询发药工作量统计 - 时间: {} ~ {}, 粒度: {}", startTime, endTime, granularity);
+
+        Long pharmacistId = SecurityUtils.getCurrentUserId();
+        PharmacistStatsVO stats = pharmacistStatsService.getStats(pharmacistId, startTime, endTime, granularity);
+
+        return Result.success("查询成功", stats);
+    }
+
+    /**
+     * 校验分页参数，页码从0开始，每页1到 {@link #MAX_PAGE_SIZE} 条
+     */
+    private static PageRequest pageRequest(int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("页码不能小于0");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("每页数量必须在1到" + MAX_PAGE_SIZE + "之间");
+        }
+        return PageRequest.of(page, size);
+    }
 }
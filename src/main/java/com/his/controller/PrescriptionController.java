@@ -9,6 +9,7 @@ import com.his.dto.PrescriptionDTO;
 import com.his.entity.Prescription;
 import com.his.log.annotation.AuditLog;
 import com.his.log.annotation.AuditType;
+import com.his.service.DrugConflictService;
 import com.his.service.PrescriptionService;
 import com.his.vo.PrescriptionVO;
 
@@ -57,15 +58,24 @@ import lombok.extern.slf4j.Slf4j;
 public class PrescriptionController {
 
     private final PrescriptionService prescriptionService;
+    private final DrugConflictService drugConflictService;
 
     /**
      * 创建处方
      * <p>根据挂号单ID和药品列表创建处方，自动从数据库读取药品单价并计算总金额</p>
+     * <p>响应中附带用药冲突警示（药物相互作用、过敏冲突），警示不阻止开方</p>
      *
      * @param dto 处方数据
      * @return 处方信息
      */
-    @Operation(summary = "创建处方", description = "根据挂号单ID和药品列表创建处方，自动从数据库读取药品单价并计算总金额")
+    @Operation(summary = "创建处方", description = """
+            根据挂号单ID和药品列表创建处方，自动从数据库读取药品单价并计算总金额。
+
+            **用药冲突警示（conflictWarnings）：**
+            - INTERACTION：处方内药品之间，或与患者在用处方药品之间的相互作用
+            - ALLERGY：药品所属过敏原分类与患者过敏史匹配
+            - 警示仅供医生参考，不阻止开方
+            """)
     @PostMapping("/create")
     @AuditLog(
         module = "处方管理",
@@ -80,6 +90,7 @@ public class PrescriptionController {
 
         Prescription prescription = prescriptionService.createPrescription(dto);
         PrescriptionVO vo = VoConverter.toPrescriptionVO(prescription);
+        vo.setConflictWarnings(drugConflictService.check(prescription));
 
         return Result.success("处方创建成功", vo);
     }
@@ -4,11 +4,14 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import com.his.common.Result;
+import com.his.common.SecurityUtils;
 import com.his.dto.RegistrationDTO;
+import com.his.enums.CachedRecordTypeEnum;
 import com.his.log.annotation.AuditLog;
 import com.his.log.annotation.AuditType;
 import com.his.log.utils.LogUtils;
 import com.his.service.RegistrationService;
+import com.his.service.TerminalRecordCacheService;
 import com.his.vo.RegistrationVO;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -54,6 +57,7 @@ import lombok.extern.slf4j.Slf4j;
 public class RegistrationController {
 
     private final RegistrationService registrationService;
+    private final TerminalRecordCacheService terminalRecordCacheService;
 
     /**
      * 挂号
@@ -88,18 +92,24 @@ public class RegistrationController {
     /**
      * 根据 ID 查询挂号记录
      *
-     * @param id 挂号记录 ID
+     * <p>已就诊、已退费的挂号记录从终态记录缓存读取</p>
+     *
+     * @param id      挂号记录 ID
+     * @param refresh 是否绕过缓存读取最新数据（仅管理员有效）
      * @return 挂号信息
      */
-    @Operation(summary = "查询挂号记录", description = "根据挂号记录ID查询详细信息")
+    @Operation(summary = "查询挂号记录", description = "根据挂号记录ID查询详细信息，已就诊、已退费的记录从缓存读取")
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('NURSE', 'DOCTOR', 'CASHIER', 'ADMIN')")
     public Result<RegistrationVO> getById(
             @Parameter(description = "挂号记录ID", required = true, example = "1")
-            @PathVariable("id") Long id) {
+            @PathVariable("id") Long id,
+            @Parameter(description = "绕过缓存读取最新数据（仅管理员有效，用于数据更正后核对）", example = "false")
+            @RequestParam(value = "refresh", defaultValue = "false") boolean refresh) {
         try {
             log.info("查询挂号记录，ID: {}", id);
-            RegistrationVO vo = registrationService.getById(id);
+            RegistrationVO vo = terminalRecordCacheService.get(CachedRecordTypeEnum.REGISTRATION, id,
+                    refresh && SecurityUtils.isAdmin(), () -> registrationService.getById(id), RegistrationVO::getStatus);
             return Result.success(vo);
         } catch (IllegalArgumentException e) {
             log.warn("查询失败: {}", e.getMessage());
@@ -8,10 +8,14 @@ import com.his.entity.MedicalRecord;
 import com.his.entity.Medicine;
 import com.his.entity.Prescription;
 import com.his.entity.PrescriptionDetail;
+import com.his.entity.PrescriptionStatusHistory;
 import com.his.entity.Registration;
 import com.his.enums.RegStatusEnum;
+import com.his.repository.projection.PrescriptionListView;
+import com.his.repository.projection.RegistrationListView;
 import com.his.vo.MedicalRecordVO;
 import com.his.vo.MedicineVO;
+import com.his.vo.PrescriptionStatusHistoryVO;
 import com.his.vo.PrescriptionVO;
 import com.his.vo.RegistrationVO;
 import com.his.vo.views.MedicineViews;
@@ -149,12 +153,54 @@ public class VoConverter {
             .reviewRemark(prescription.getReviewRemark())
             .dispenseTime(prescription.getDispenseTime())
             .dispenseBy(prescription.getDispenseBy())
+            .claimedBy(prescription.getClaimedBy())
+            .claimExpiresAt(prescription.getClaimExpiresAt())
             .createdAt(prescription.getCreatedAt())
             .updatedAt(prescription.getUpdatedAt())
             .details(toPrescriptionDetailVOList(prescription.getDetails()))
             .build();
     }
 
+    /**
+     * 处方列表投影转PrescriptionVO
+     * 字段与 {@link #toPrescriptionVO(Prescription)} 一致，患者、医生字段由连接查询直接取得
+     *
+     * @param view 处方列表投影
+     * @param details 该处方的明细列表
+     * @return PrescriptionVO
+     */
+    public static PrescriptionVO toPrescriptionVO(PrescriptionListView view, List<PrescriptionDetail> details) {
+        if (view == null) {
+            return null;
+        }
+
+        return PrescriptionVO.builder()
+            .mainId(view.getMainId())
+            .prescriptionNo(view.getPrescriptionNo())
+            .recordId(view.getRecordId())
+            .patientId(view.getPatientId())
+            .patientName(view.getPatientName())
+            .doctorId(view.getDoctorId())
+            .doctorName(view.getDoctorName())
+            .prescriptionType(view.getPrescriptionType())
+            .totalAmount(view.getTotalAmount())
+            .itemCount(view.getItemCount())
+            .status(view.getStatus())
+            .validityDays(view.getValidityDays())
+            .reviewDoctorId(view.getReviewDoctorId())
+            .reviewDoctorName(view.getReviewDoctorName())
+            .reviewTime(view.getReviewTime())
+            .reviewRemark(view.getReviewRemark())
+            .dispenseTime(view.getDispenseTime())
+            .dispenseBy(view.getDispenseBy())
+            .claimedBy(view.getClaimedBy())
+            .claimExpiresAt(view.getClaimExpiresAt())
+            .createdAt(view.getCreatedAt())
+            .updatedAt(view.getUpdatedAt())
+            .details(toPrescriptionDetailVOList(details))
+            .build();
+    }
+
     /**
      * 处方明细实体转PrescriptionDetailVO
      *
@@ -228,12 +274,39 @@ public class VoConverter {
             .treatmentPlan(record.getTreatmentPlan())
             .doctorAdvice(record.getDoctorAdvice())
             .status(record.getStatus())
+            .version(record.getVersion())
             .visitTime(record.getVisitTime())
             .createdAt(record.getCreatedAt())
             .updatedAt(record.getUpdatedAt())
             .build();
     }
 
+    /**
+     * PrescriptionStatusHistory实体转PrescriptionStatusHistoryVO
+     *
+     * @param history 处方状态转换历史实体
+     * @return PrescriptionStatusHistoryVO
+     */
+    public static PrescriptionStatusHistoryVO toPrescriptionStatusHistoryVO(PrescriptionStatusHistory history) {
+        if (history == null) {
+            return null;
+        }
+
+        return PrescriptionStatusHistoryVO.builder()
+            .id(history.getMainId())
+            .prescriptionId(history.getPrescriptionMainId())
+            .fromStatus(history.getFromStatus())
+            .fromStatusDescription(history.getFromStatusDescription())
+            .toStatus(history.getToStatus())
+            .toStatusDescription(history.getToStatusDescription())
+            .operatorId(history.getOperatorId())
+            .operatorName(history.getOperatorName())
+            .operatorType(history.getOperatorType())
+            .reason(history.getReason())
+            .createdAt(history.getCreatedAt())
+            .build();
+    }
+
     /**
      * Registration实体转RegistrationVO
      * 包含防御性编程，处理null值
@@ -297,6 +370,50 @@ public class VoConverter {
         return vo;
     }
 
+    /**
+     * 挂号列表投影转RegistrationVO
+     * 字段与 {@link #toRegistrationVO(Registration)} 一致，患者、科室、医生字段由连接查询直接取得
+     *
+     * @param view 挂号列表投影
+     * @return RegistrationVO
+     */
+    public static RegistrationVO toRegistrationVO(RegistrationListView view) {
+        if (view == null) {
+            log.error("convertToVO失败: registration为null");
+            throw new IllegalArgumentException("挂号记录不能为空");
+        }
+
+        RegistrationVO vo = new RegistrationVO();
+        vo.setId(view.getMainId());
+        vo.setRegNo(view.getRegNo());
+        vo.setPatientId(view.getPatientId());
+        vo.setPatientName(view.getPatientName());
+        vo.setGender(view.getGender());
+        vo.setAge(view.getAge());
+        vo.setDeptId(view.getDeptId());
+        vo.setDeptName(view.getDeptName());
+        vo.setDoctorId(view.getDoctorId());
+        vo.setDoctorName(view.getDoctorName());
+        vo.setStatus(view.getStatus());
+
+        // 安全地获取状态描述
+        try {
+            if (view.getStatus() != null) {
+                vo.setStatusDesc(RegStatusEnum.fromCode(view.getStatus()).getDescription());
+            }
+        } catch (Exception e) {
+            log.warn("无法解析挂号状态,挂号ID: {}, 状态: {}", view.getMainId(), view.getStatus());
+        }
+
+        vo.setVisitDate(view.getVisitDate());
+        vo.setRegistrationFee(view.getRegistrationFee());
+        vo.setQueueNo(view.getQueueNo());
+        vo.setAppointmentTime(view.getAppointmentTime());
+        vo.setCreatedAt(view.getCreatedAt());
+
+        return vo;
+    }
+
     /**
      * 计算库存状态
      * <p>
@@ -0,0 +1,20 @@
+package com.his.dto;
+
+/**
+ * 患者在用药品数据传输对象
+ *
+ * <p>患者在用处方（未发药或近期已发药）中的一项药品，用于用药冲突检查</p>
+ *
+ * @param patientId      患者ID
+ * @param prescriptionId 处方ID
+ * @param prescriptionNo 处方号
+ * @param medicineId     药品ID
+ * @param medicineName   药品名称
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.repository.PrescriptionDetailRepository#findActiveMedicines
+ */
+public record ActiveMedicineDTO(Long patientId, Long prescriptionId, String prescriptionNo,
+                                Long medicineId, String medicineName) {
+}
@@ -0,0 +1,33 @@
+package com.his.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+
+/**
+ * 审计日志导出条件DTO
+ *
+ * <p>所有条件都是可选的，非空条件之间为 AND 关系</p>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.AuditLogExportService
+ */
+@Data
+public class AuditLogExportDTO {
+
+    private String module;
+
+    private String action;
+
+    private Long operatorId;
+
+    private String operatorUsername;
+
+    private String auditType;
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+}
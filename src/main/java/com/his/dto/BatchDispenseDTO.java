@@ -0,0 +1,52 @@
+package com.his.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.media.Schema.RequiredMode;
+
+import lombok.Data;
+
+/**
+ * 批量发药请求数据传输对象
+ *
+ * <p>用于药房窗口一次性为同一患者（或同一窗口）的多张已缴费处方发药</p>
+ *
+ * <h3>使用场景</h3>
+ * <ul>
+ *   <li><b>窗口发药</b>：患者持多张已缴费处方到药房窗口取药</li>
+ *   <li><b>队列发药</b>：药师将领取到的一批处方一次性发出</li>
+ * </ul>
+ *
+ * <h3>验证规则</h3>
+ * <ul>
+ *   <li><b>必填字段</b>：prescriptionIds（处方ID列表）不能为空</li>
+ *   <li><b>数量限制</b>：单次最多50张处方，重复的处方ID只处理一次</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@Schema(description = "批量发药请求对象")
+public class BatchDispenseDTO {
+
+    /**
+     * 处方ID列表
+     *
+     * <p><b>验证规则：</b></p>
+     * <ul>
+     *   <li><b>必填字段</b>：至少包含一个处方ID</li>
+     *   <li><b>数量限制</b>：最多50个</li>
+     *   <li><b>处理顺序</b>：按列表顺序校验并预占库存，库存不足时靠后的处方发药失败</li>
+     * </ul>
+     */
+    @NotEmpty(message = "处方ID列表不能为空")
+    @Size(max = 50, message = "单次批量发药最多50张处方")
+    @Schema(description = "处方ID列表（最多50个）", requiredMode = RequiredMode.REQUIRED, example = "[1, 2, 3]")
+    private List<Long> prescriptionIds;
+}
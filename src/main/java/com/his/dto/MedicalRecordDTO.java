@@ -291,4 +291,18 @@ public class MedicalRecordDTO {
     @Min(value = 0, message = "状态值必须大于等于0")
     @Max(value = 2, message = "状态值必须小于等于2")
     private Short status;
+
+    /**
+     * 版本号
+     *
+     * <p>客户端加载病历时取得的版本号，用于乐观锁校验</p>
+     *
+     * <p><b>验证规则：</b></p>
+     * <ul>
+     *   <li><b>必填程度</b>：可选字段，新建病历时忽略</li>
+     *   <li><b>业务规则</b>：更新已有病历时与当前版本号不一致则拒绝保存，需刷新后重新编辑</li>
+     * </ul>
+     */
+    @Schema(description = "版本号（更新时回传查询结果中的 version，用于乐观锁校验）", example = "3")
+    private Integer version;
 }
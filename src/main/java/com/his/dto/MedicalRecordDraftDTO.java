@@ -0,0 +1,46 @@
+package com.his.dto;
+
+import java.util.Map;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import com.his.enums.MedicalRecordFieldEnum;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.media.Schema.RequiredMode;
+
+import lombok.Data;
+
+/**
+ * 病历草稿自动保存请求数据传输对象
+ *
+ * <p>医生编辑病历时前端定期提交的字段级补丁，只包含自上次自动保存以来发生变化的字段</p>
+ *
+ * <h3>验证规则</h3>
+ * <ul>
+ *   <li><b>必填字段</b>：fields 至少包含一个字段</li>
+ *   <li><b>字段值</b>：长度限制与完整保存一致；值为 null 表示清空该字段</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@Schema(description = "病历草稿自动保存请求对象")
+public class MedicalRecordDraftDTO {
+
+    /**
+     * 变化的字段及其最新内容
+     */
+    @NotEmpty(message = "草稿字段不能为空")
+    @Schema(description = "变化的字段（字段名 → 最新内容）", requiredMode = RequiredMode.REQUIRED,
+            example = "{\"CHIEF_COMPLAINT\": \"头痛、发热3天\", \"DIAGNOSIS\": \"上呼吸道感染\"}")
+    private Map<MedicalRecordFieldEnum, String> fields;
+
+    /**
+     * 客户端加载病历时取得的版本号（可选），与当前版本号不一致时拒绝补丁
+     */
+    @Schema(description = "版本号（回传查询结果中的 version，用于乐观锁校验）", example = "3")
+    private Integer version;
+}
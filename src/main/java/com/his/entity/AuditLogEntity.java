@@ -46,11 +46,12 @@ import lombok.Data;
 @Data
 @Entity
 @Table(name = "sys_audit_log", indexes = {
-    @Index(name = "idx_audit_module", columnList = "module"),
-    @Index(name = "idx_audit_operator", columnList = "operator_id"),
-    @Index(name = "idx_audit_trace_id", columnList = "trace_id"),
-    @Index(name = "idx_audit_create_time", columnList = "create_time"),
-    @Index(name = "idx_audit_type", columnList = "audit_type")
+    @Index(name = "idx_audit_created", columnList = "create_time DESC, id DESC"),
+    @Index(name = "idx_audit_module_created", columnList = "module, create_time DESC, id DESC"),
+    @Index(name = "idx_audit_operator_created", columnList = "operator_id, create_time DESC, id DESC"),
+    @Index(name = "idx_audit_username_created", columnList = "operator_username, create_time DESC, id DESC"),
+    @Index(name = "idx_audit_type_created", columnList = "audit_type, create_time DESC, id DESC"),
+    @Index(name = "idx_audit_trace_created", columnList = "trace_id, create_time DESC, id DESC")
 })
 public class AuditLogEntity {
 
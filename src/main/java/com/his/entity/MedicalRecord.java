@@ -34,7 +34,7 @@ import lombok.ToString;
  *   <li><b>挂号关联</b>：一次挂号对应一份病历，一对一关系</li>
  *   <li><b>就诊时间</b>：记录实际就诊时间，默认为创建时间</li>
  *   <li><b>诊断编码</b>：使用ICD-10标准编码，便于统计和分析</li>
- *   <li><b>版本控制</b>：每次修改版本号递增，用于并发控制</li>
+ *   <li><b>版本控制</b>：完整保存和提交时版本号递增，用于并发控制；草稿自动保存以版本号为条件写入，不递增版本号</li>
  *   <li><b>软删除</b>：isDeleted=0表示正常，=1表示已删除（物理记录仍保留）</li>
  * </ul>
  *
@@ -216,6 +216,18 @@ public class Prescription {
     @Column(name = "updated_by")
     private Long updatedBy;
 
+    /**
+     * 领取药师ID（发药队列领取，为空表示未被领取）
+     */
+    @Column(name = "claimed_by")
+    private Long claimedBy;
+
+    /**
+     * 领取租约到期时间（到期后处方自动回到待发药队列）
+     */
+    @Column(name = "claim_expires_at")
+    private LocalDateTime claimExpiresAt;
+
     /**
      * 处方明细列表
      */
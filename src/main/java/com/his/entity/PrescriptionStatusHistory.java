@@ -0,0 +1,123 @@
+package com.his.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 处方状态转换历史实体类
+ *
+ * <p>映射数据库表 his_prescription_status_history，记录处方状态机每一次状态转换</p>
+ *
+ * <h3>主要功能</h3>
+ * <ul>
+ *   <li><b>状态转换追踪</b>：记录每次状态变更的源状态、目标状态、操作人和原因</li>
+ *   <li><b>纠纷追溯</b>：药房发药、退药纠纷可直接按处方查询完整流转过程</li>
+ * </ul>
+ *
+ * <h3>业务规则</h3>
+ * <ul>
+ *   <li><b>只读记录</b>：审计记录只追加、不修改</li>
+ *   <li><b>同事务写入</b>：由 {@link com.his.service.PrescriptionStatusHistoryService} 在事务提交前批量写入，
+ *       与处方状态更新一起提交或回滚</li>
+ *   <li><b>级联删除</b>：处方记录删除时，历史记录自动删除</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see Prescription
+ * @see com.his.enums.PrescriptionStatusEnum
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "his_prescription_status_history")
+public class PrescriptionStatusHistory {
+
+    /**
+     * 主键ID（自增）
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "main_id")
+    private Long mainId;
+
+    /**
+     * 处方ID
+     */
+    @Column(name = "prescription_main_id", nullable = false)
+    private Long prescriptionMainId;
+
+    /**
+     * 源状态码
+     */
+    @Column(name = "from_status", nullable = false)
+    private Short fromStatus;
+
+    /**
+     * 目标状态码
+     */
+    @Column(name = "to_status", nullable = false)
+    private Short toStatus;
+
+    /**
+     * 操作人ID
+     */
+    @Column(name = "operator_id")
+    private Long operatorId;
+
+    /**
+     * 操作人姓名
+     */
+    @Column(name = "operator_name", length = 50)
+    private String operatorName;
+
+    /**
+     * 操作类型
+     * <p>SYSTEM = 系统自动执行，USER = 用户手动操作</p>
+     */
+    @Column(name = "operator_type", length = 20)
+    private String operatorType;
+
+    /**
+     * 状态转换原因
+     */
+    @Column(name = "reason", length = 500)
+    private String reason;
+
+    /**
+     * 创建时间（状态转换时间）
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * 获取源状态描述
+     */
+    public String getFromStatusDescription() {
+        try {
+            return com.his.enums.PrescriptionStatusEnum.fromCode(fromStatus).getDescription();
+        } catch (Exception e) {
+            return "未知状态(" + fromStatus + ")";
+        }
+    }
+
+    /**
+     * 获取目标状态描述
+     */
+    public String getToStatusDescription() {
+        try {
+            return com.his.enums.PrescriptionStatusEnum.fromCode(toStatus).getDescription();
+        } catch (Exception e) {
+            return "未知状态(" + toStatus + ")";
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.his.enums;
+
+/**
+ * 审计日志写入队列背压策略枚举
+ *
+ * <p>审计日志写入队列已满时，提交审计日志的业务线程如何处理新的审计事件</p>
+ *
+ * <h3>策略说明</h3>
+ * <ul>
+ *   <li><b>BLOCK</b>：业务线程等待队列腾出空间，超过等待时间仍无空间时丢弃并记录错误日志</li>
+ *   <li><b>SPILL</b>：追加到本地 spool，由补写任务按追加顺序补写到数据库（默认）</li>
+ *   <li><b>DROP</b>：直接丢弃并计数，业务线程不等待</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.log.writer.AuditLogBatchWriter
+ */
+public enum AuditBackpressurePolicyEnum {
+
+    /**
+     * 等待队列空间
+     */
+    BLOCK,
+
+    /**
+     * 转入本地 spool
+     */
+    SPILL,
+
+    /**
+     * 丢弃
+     */
+    DROP
+}
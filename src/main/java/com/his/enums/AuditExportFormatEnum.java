@@ -0,0 +1,44 @@
+package com.his.enums;
+
+/**
+ * 审计日志导出格式枚举
+ *
+ * <h3>格式说明</h3>
+ * <ul>
+ *   <li><b>NDJSON</b>：每行一条审计日志的 JSON 对象（application/x-ndjson），适合程序处理</li>
+ *   <li><b>CSV_GZIP</b>：带表头的 CSV，整体 gzip 压缩（application/gzip），适合表格工具打开</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.AuditLogExportService
+ */
+public enum AuditExportFormatEnum {
+
+    /**
+     * 每行一个 JSON 对象
+     */
+    NDJSON("application/x-ndjson;charset=UTF-8", ".ndjson"),
+
+    /**
+     * gzip 压缩的 CSV
+     */
+    CSV_GZIP("application/gzip", ".csv.gz");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    AuditExportFormatEnum(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+}
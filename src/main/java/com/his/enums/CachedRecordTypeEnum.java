@@ -0,0 +1,62 @@
+package com.his.enums;
+
+import java.util.Set;
+
+import lombok.Getter;
+
+/**
+ * 终态记录缓存的记录类型枚举
+ *
+ * <p>只有处于终态的记录才会进入缓存；终态之后仍可能发生的状态转换必须由状态机主动淘汰缓存</p>
+ *
+ * <ul>
+ *   <li>挂号：已就诊、已退费</li>
+ *   <li>处方：已发药（仍可退药，退药时由处方状态机淘汰）、已退费</li>
+ *   <li>收费单：已退费（已支付的收费单仍可退费，不缓存）</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.TerminalRecordCacheService
+ */
+@Getter
+public enum CachedRecordTypeEnum {
+
+    /**
+     * 挂号
+     */
+    REGISTRATION("挂号", RegStatusEnum.COMPLETED.getCode(), RegStatusEnum.REFUNDED.getCode()),
+
+    /**
+     * 处方
+     */
+    PRESCRIPTION("处方", PrescriptionStatusEnum.DISPENSED.getCode(), PrescriptionStatusEnum.REFUNDED.getCode()),
+
+    /**
+     * 收费单
+     */
+    CHARGE("收费单", ChargeStatusEnum.REFUNDED.getCode());
+
+    private final String description;
+
+    /**
+     * 允许进入缓存的状态码
+     */
+    private final Set<Short> terminalStatuses;
+
+    CachedRecordTypeEnum(String description, Short... terminalStatuses) {
+        this.description = description;
+        this.terminalStatuses = Set.of(terminalStatuses);
+    }
+
+    /**
+     * 判断状态是否允许缓存
+     *
+     * @param status 记录状态码
+     * @return 是否为终态
+     */
+    public boolean isTerminal(Short status) {
+        return status != null && terminalStatuses.contains(status);
+    }
+}
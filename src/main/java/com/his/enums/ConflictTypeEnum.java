@@ -0,0 +1,37 @@
+package com.his.enums;
+
+import lombok.Getter;
+
+/**
+ * 用药冲突类型枚举
+ *
+ * <h3>冲突类型说明</h3>
+ * <ul>
+ *   <li><b>INTERACTION（药物相互作用）</b>：处方内药品之间，或与患者在用处方中的药品之间存在相互作用</li>
+ *   <li><b>ALLERGY（过敏冲突）</b>：药品所属过敏原分类与患者过敏史匹配</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.DrugConflictService
+ */
+@Getter
+public enum ConflictTypeEnum {
+
+    /**
+     * 药物相互作用
+     */
+    INTERACTION("药物相互作用"),
+
+    /**
+     * 过敏冲突
+     */
+    ALLERGY("过敏冲突");
+
+    private final String description;
+
+    ConflictTypeEnum(String description) {
+        this.description = description;
+    }
+}
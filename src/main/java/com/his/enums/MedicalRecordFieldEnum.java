@@ -0,0 +1,105 @@
+package com.his.enums;
+
+import lombok.Getter;
+
+/**
+ * 病历可编辑文本字段枚举
+ *
+ * <p>用于病历草稿自动保存的字段级补丁，每个字段对应 his_medical_record 的一列</p>
+ *
+ * <h3>字段约束</h3>
+ * <ul>
+ *   <li><b>maxLength</b>：与 {@link com.his.dto.MedicalRecordDTO} 的长度校验一致</li>
+ *   <li><b>nullable</b>：不可为空的列（主诉）在补丁值为 null 时按空字符串保存</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.MedicalRecordDraftService
+ */
+@Getter
+public enum MedicalRecordFieldEnum {
+
+    /**
+     * 主诉
+     */
+    CHIEF_COMPLAINT("chief_complaint", "主诉", 500, false),
+
+    /**
+     * 现病史
+     */
+    PRESENT_ILLNESS("present_illness", "现病史", 2000, true),
+
+    /**
+     * 既往史
+     */
+    PAST_HISTORY("past_history", "既往史", 2000, true),
+
+    /**
+     * 个人史
+     */
+    PERSONAL_HISTORY("personal_history", "个人史", 1000, true),
+
+    /**
+     * 家族史
+     */
+    FAMILY_HISTORY("family_history", "家族史", 1000, true),
+
+    /**
+     * 体格检查
+     */
+    PHYSICAL_EXAM("physical_exam", "体格检查", 2000, true),
+
+    /**
+     * 辅助检查
+     */
+    AUXILIARY_EXAM("auxiliary_exam", "辅助检查", 2000, true),
+
+    /**
+     * 诊断
+     */
+    DIAGNOSIS("diagnosis", "诊断", 500, true),
+
+    /**
+     * 诊断编码
+     */
+    DIAGNOSIS_CODE("diagnosis_code", "诊断编码", 50, true),
+
+    /**
+     * 治疗方案
+     */
+    TREATMENT_PLAN("treatment_plan", "治疗方案", 2000, true),
+
+    /**
+     * 医嘱
+     */
+    DOCTOR_ADVICE("doctor_advice", "医嘱", 1000, true);
+
+    /**
+     * 数据库列名
+     */
+    private final String column;
+
+    /**
+     * 字段描述
+     */
+    private final String description;
+
+    /**
+     * 最大长度（字符数）
+     */
+    private final int maxLength;
+
+    /**
+     * 是否允许为空
+     */
+    private final boolean nullable;
+
+    MedicalRecordFieldEnum(String column, String description, int maxLength, boolean nullable) {
+        this.column = column;
+        this.description = description;
+        this.maxLength = maxLength;
+        this.nullable = nullable;
+    }
+}
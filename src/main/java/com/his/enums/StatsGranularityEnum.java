@@ -0,0 +1,54 @@
+package com.his.enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * 统计时间粒度枚举
+ *
+ * <p>用于药师工作量统计按小时、按天、按周汇总</p>
+ *
+ * <h3>粒度说明</h3>
+ * <ul>
+ *   <li><b>HOUR</b>：按小时汇总（统计的最小存储粒度）</li>
+ *   <li><b>DAY</b>：按自然日汇总</li>
+ *   <li><b>WEEK</b>：按自然周汇总（周一为一周的第一天）</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+public enum StatsGranularityEnum {
+
+    /**
+     * 按小时
+     */
+    HOUR,
+
+    /**
+     * 按天
+     */
+    DAY,
+
+    /**
+     * 按周（周一开始）
+     */
+    WEEK;
+
+    /**
+     * 将时间截断到当前粒度的起始时刻
+     *
+     * @param time 时间
+     * @return 所在时间段的起始时刻
+     */
+    public LocalDateTime truncate(LocalDateTime time) {
+        return switch (this) {
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+            case WEEK -> time.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package com.his.enums;
+
+import lombok.Getter;
+
+/**
+ * 患者时间线事件类型枚举
+ *
+ * <p>时间线按时间倒序排列，同一时刻的多个事件按枚举声明顺序倒序排列（收费 → 处方 → 病历 → 挂号）；
+ * 声明顺序参与时间线分页游标，调整顺序会使已发出的游标失效</p>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.PatientTimelineService
+ */
+@Getter
+public enum TimelineEventTypeEnum {
+
+    /**
+     * 挂号
+     */
+    REGISTRATION("挂号"),
+
+    /**
+     * 病历
+     */
+    MEDICAL_RECORD("病历"),
+
+    /**
+     * 处方
+     */
+    PRESCRIPTION("处方"),
+
+    /**
+     * 收费
+     */
+    CHARGE("收费");
+
+    private final String description;
+
+    TimelineEventTypeEnum(String description) {
+        this.description = description;
+    }
+}
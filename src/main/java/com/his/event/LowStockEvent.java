@@ -0,0 +1,57 @@
+package com.his.event;
+
+import java.time.LocalDateTime;
+
+import com.his.entity.Medicine;
+
+/**
+ * 低库存状态转换事件
+ *
+ * <p>仅在药品库存跨越最低库存阈值时发布一次，库存在阈值同侧变化不会产生事件</p>
+ *
+ * <ul>
+ *   <li><b>lowStock = true</b>：库存从 &gt; 最低库存 降至 &lt;= 最低库存（进入低库存）</li>
+ *   <li><b>lowStock = false</b>：库存从 &lt;= 最低库存 恢复至 &gt; 最低库存（解除低库存）</li>
+ * </ul>
+ *
+ * @param medicineId    药品ID
+ * @param medicineCode  药品编码
+ * @param medicineName  药品名称
+ * @param stockQuantity 变更后的库存数量
+ * @param minStock      最低库存阈值
+ * @param lowStock      变更后是否处于低库存状态
+ * @param occurredAt    事件发生时间
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.LowStockAlertService
+ */
+public record LowStockEvent(
+        Long medicineId,
+        String medicineCode,
+        String medicineName,
+        Integer stockQuantity,
+        Integer minStock,
+        boolean lowStock,
+        LocalDateTime occurredAt
+) {
+
+    /**
+     * 根据药品当前状态构建事件
+     *
+     * @param medicine 药品实体（库存已更新）
+     * @param lowStock 是否处于低库存状态
+     * @return 低库存事件
+     */
+    public static LowStockEvent of(Medicine medicine, boolean lowStock) {
+        return new LowStockEvent(
+                medicine.getMainId(),
+                medicine.getMedicineCode(),
+                medicine.getName(),
+                medicine.getStockQuantity(),
+                medicine.getMinStock(),
+                lowStock,
+                LocalDateTime.now()
+        );
+    }
+}
@@ -66,4 +66,11 @@ public @interface ApiLog {
      * false: 只记录参数类型和大小
      */
     boolean detailedParams() default false;
+
+    /**
+     * 详细参数和响应结果的采样率（0.0 ~ 1.0）
+     * 只作用于 detailedParams 和 recordResponse：未被采样的请求只记录参数类型，不记录响应结果
+     * 默认 1.0（每次都记录），高频接口可调低以减少日志量和序列化开销
+     */
+    double sampleRate() default 1.0;
 }
@@ -1,5 +1,6 @@
 package com.his.log.aspect;
 
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Stream;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,8 +14,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.his.log.annotation.ApiLog;
+import com.his.log.serializer.BoundedLogSerializer;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -28,6 +29,8 @@ import lombok.extern.slf4j.Slf4j;
  * 3. 记录响应信息：状态、结果（可选）
  * 4. 检测慢请求，性能监控
  * 5. 记录异常信息
+ * 6. 详细参数和响应结果按 {@link ApiLog#sampleRate()} 采样，
+ *    由 {@link BoundedLogSerializer} 限长序列化（写满上限即停止）并对敏感字段脱敏
  *
  * 日志示例：
  * <pre>
@@ -45,7 +48,7 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class ApiLogAspect {
 
-    private final ObjectMapper objectMapper;
+    private final BoundedLogSerializer logSerializer;
 
     /**
      * 拦截所有标记了 @ApiLog 的方法
@@ -75,8 +78,9 @@ public class ApiLogAspect {
         String method = request != null ? request.getMethod() : "UNKNOWN";
         String uri = request != null ? request.getRequestURI() : "UNKNOWN";
 
-        // 5. 记录请求参数
-        String params = formatParams(joinPoint.getArgs(), apiLog.detailedParams());
+        // 5. 记录请求参数（详细参数和响应结果按采样率记录）
+        boolean sampled = isSampled(apiLog.sampleRate());
+        String params = formatParams(joinPoint.getArgs(), apiLog.detailedParams() && sampled);
 
         // 6. 记录请求开始日志
         log.info("[API-START] {} {} | 操作: {} | 参数: {}",
@@ -90,7 +94,7 @@ public class ApiLogAspect {
             result = joinPoint.proceed();
 
             // 8. 记录响应结果（如果需要）
-            if (apiLog.recordResponse()) {
+            if (apiLog.recordResponse() && sampled) {
                 String response = formatResult(result);
                 log.info("[API-RESPONSE] 响应: {}", response);
             }
@@ -131,6 +135,13 @@ public class ApiLogAspect {
         }
     }
 
+    /**
+     * 本次请求是否记录详细参数和响应结果
+     */
+    static boolean isSampled(double sampleRate) {
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
     /**
      * 格式化请求参数
      *
@@ -153,14 +164,9 @@ public class ApiLogAspect {
                             .orElse(""));
         }
 
-        // 记录详细参数（注意：不要记录敏感信息）
+        // 记录详细参数（限长，敏感字段脱敏）
         try {
-            String json = objectMapper.writeValueAsString(args);
-            // 限制长度，避免日志过大
-            if (json.length() > 500) {
-                return json.substring(0, 500) + "...(总长度: " + json.length() + " 字符)";
-            }
-            return json;
+            return logSerializer.serialize(args);
         } catch (Exception e) {
             log.warn("参数序列化失败: {}", e.getMessage());
             return "[参数序列化失败]";
@@ -176,12 +182,7 @@ public class ApiLogAspect {
         }
 
         try {
-            String json = objectMapper.writeValueAsString(result);
-            // 限制长度
-            if (json.length() > 500) {
-                return json.substring(0, 500) + "...(总长度: " + json.length() + " 字符)";
-            }
-            return json;
+            return logSerializer.serialize(result);
         } catch (Exception e) {
             log.warn("结果序列化失败: {}", e.getMessage());
             return "[结果序列化失败]";
@@ -154,7 +154,7 @@ public class AuditLogAspect {
      *   <li>自动提取请求信息（TraceId、IP、User-Agent）</li>
      *   <li>记录执行状态和耗时</li>
      *   <li>失败时记录异常类型和消息</li>
-     *   <li>使用auditLogExecutor线程池异步保存</li>
+     *   <li>交给审计日志批量写入器异步写入</li>
      * </ul>
      *
      * @param auditLog 审计日志注解
@@ -1,7 +1,7 @@
 package com.his.log.filter;
 
 import java.io.IOException;
-import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -20,18 +20,26 @@ import lombok.extern.slf4j.Slf4j;
  * TraceId 过滤器
  *
  * 功能：
- * 1. 为每个请求生成唯一的 TraceId
+ * 1. 为每个请求确定唯一的 TraceId（系统中唯一设置请求 TraceId 的过滤器）
  * 2. 将 TraceId 放入 MDC（Mapped Diagnostic Context）
  * 3. 在日志中自动包含 TraceId，方便追踪分布式调用链
  * 4. 请求结束后清理 MDC，避免内存泄漏
  *
+ * TraceId 来源（按优先级）：
+ * 1. W3C Trace Context 请求头 traceparent 中的 trace-id（32 位小写十六进制）
+ * 2. 请求头 X-Trace-Id（1~64 位字母、数字、- 或 _）
+ * 3. 旧版请求头 traceId（格式要求同 X-Trace-Id，兼容仍使用旧请求头的调用方）
+ * 4. 新生成的 32 位小写十六进制 ID（ThreadLocalRandom，不经过 UUID.randomUUID() 的 SecureRandom，无锁竞争）
+ * 无论来源，TraceId 都通过响应头 X-Trace-Id 返回，同时通过旧版响应头 traceId 返回
+ *
  * 日志格式示例：
- * 2025-12-31 10:30:45.123 [http-nio-8080-exec-1] [a1b2c3d4-e5f6-7890-abcd-ef1234567890] INFO  com.his.controller.AuthController - 接收登录请求
- *                                                                 ↑ 这是 TraceId
+ * 2025-12-31 10:30:45.123 [http-nio-8080-exec-1] [4bf92f3577b34da6a3ce929d0e0e4736] INFO  com.his.controller.AuthController - 接收登录请求
+ *                                                 ↑ 这是 TraceId
  *
  * 使用方式：
  * - 自动生效，无需手动调用
  * - 在 logback-spring.xml 中通过 %X{traceId} 引用
+ * - 线程池中的任务通过 {@link com.his.config.ContextPropagatingTaskDecorator} 继承提交线程的 TraceId
  *
  * @author HIS Development Team
  * @since 1.0.0
@@ -47,10 +55,26 @@ public class TraceIdFilter extends OncePerRequestFilter {
     public static final String TRACE_ID_KEY = "traceId";
 
     /**
-     * HTTP 请求头中传递 TraceId 的键名
-     * 用于微服务场景下的链路追踪
+     * HTTP 请求头/响应头中传递 TraceId 的键名
+     */
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    /**
+     * 旧版请求头/响应头中传递 TraceId 的键名（已废弃，新调用方请使用 X-Trace-Id）
+     */
+    public static final String LEGACY_TRACE_ID_HEADER = "traceId";
+
+    /**
+     * W3C Trace Context 请求头
      */
-    private static final String TRACE_ID_HEADER = "X-Trace-Id";
+    public static final String TRACEPARENT_HEADER = "traceparent";
+
+    /**
+     * X-Trace-Id 最大长度（与 sys_audit_log.trace_id 一致）
+     */
+    private static final int MAX_TRACE_ID_LENGTH = 64;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
 
     @Override
     protected void doFilterInternal(
@@ -64,8 +88,9 @@ public class TraceIdFilter extends OncePerRequestFilter {
         // 2. 将 TraceId 放入 MDC
         MDC.put(TRACE_ID_KEY, traceId);
 
-        // 3. 将 TraceId 添加到响应头（方便前端追踪）
+        // 3. 将 TraceId 添加到响应头（方便前端追踪），旧版响应头保留给尚未迁移的调用方
         response.setHeader(TRACE_ID_HEADER, traceId);
+        response.setHeader(LEGACY_TRACE_ID_HEADER, traceId);
 
         try {
             // 4. 继续执行过滤器链
@@ -80,55 +105,133 @@ public class TraceIdFilter extends OncePerRequestFilter {
      * 生成或获取 TraceId
      *
      * 策略：
-     * 1. 如果请求头中已有 TraceId（上游服务传递），则使用
-     * 2. 否则生成新的 UUID
+     * 1. traceparent 有效时使用其中的 trace-id
+     * 2. 否则 X-Trace-Id 有效时使用（上游服务传递）
+     * 3. 否则旧版请求头 traceId 有效时使用
+     * 4. 否则生成新的 TraceId
      *
      * @param request HTTP 请求
      * @return TraceId
      */
     private String generateOrGetTraceId(HttpServletRequest request) {
-        // 尝试从请求头获取（微服务场景）
-        String traceId = request.getHeader(TRACE_ID_HEADER);
-
-        if (traceId != null && !traceId.isEmpty()) {
-            // 验证 TraceId 格式（防止注入攻击）
-            if (isValidTraceId(traceId)) {
-                log.debug("使用上游传递的 TraceId: {}", traceId);
+        String traceparent = request.getHeader(TRACEPARENT_HEADER);
+        if (traceparent != null) {
+            String traceId = parseTraceparent(traceparent);
+            if (traceId != null) {
                 return traceId;
-            } else {
-                log.warn("上游 TraceId 格式无效，将重新生成: {}", traceId);
+            }
+            log.debug("traceparent 格式无效，忽略: {}", traceparent.length() > 100 ? "(过长)" : traceparent);
+        }
+
+        for (String header : new String[] {TRACE_ID_HEADER, LEGACY_TRACE_ID_HEADER}) {
+            String traceId = request.getHeader(header);
+            if (traceId != null && !traceId.isEmpty()) {
+                if (isValidTraceId(traceId)) {
+                    return traceId;
+                }
+                log.debug("上游 TraceId 格式无效，忽略请求头 {}", header);
             }
         }
 
-        // 生成新的 TraceId
-        String newTraceId = UUID.randomUUID().toString();
-        log.debug("生成新的 TraceId: {}", newTraceId);
-        return newTraceId;
+        return newTraceId();
     }
 
     /**
-     * 验证 TraceId 格式
+     * 生成新的 TraceId：32 位小写十六进制（与 W3C trace-id 格式相同）
      *
-     * 防止恶意输入导致日志格式混乱
+     * @return 新的 TraceId
+     */
+    public static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high = random.nextLong();
+        long low = random.nextLong();
+        if (high == 0 && low == 0) {
+            low = 1;  // 全 0 的 trace-id 在 W3C 中无效
+        }
+        char[] chars = new char[32];
+        writeHex(chars, 0, high);
+        writeHex(chars, 16, low);
+        return new String(chars);
+    }
+
+    private static void writeHex(char[] chars, int offset, long value) {
+        for (int i = 15; i >= 0; i--) {
+            chars[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    /**
+     * 从 traceparent 中解析 trace-id
      *
-     * @param traceId TraceId
-     * @return 是否有效
+     * 格式：{version}-{trace-id}-{parent-id}-{trace-flags}，例如
+     * 00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01
+     *
+     * @param traceparent traceparent 请求头
+     * @return trace-id，格式无效时返回 null
      */
-    private boolean isValidTraceId(String traceId) {
-        if (traceId == null || traceId.isEmpty()) {
-            return false;
+    static String parseTraceparent(String traceparent) {
+        String value = traceparent.trim();
+        if (value.length() < 55 || value.charAt(2) != '-' || value.charAt(35) != '-' || value.charAt(52) != '-') {
+            return null;
+        }
+        String version = value.substring(0, 2);
+        if (!isLowerHex(version) || "ff".equals(version)) {
+            return null;
+        }
+        // 版本 00 长度固定；更高版本允许在末尾追加以 - 分隔的字段
+        if (value.length() > 55 && ("00".equals(version) || value.charAt(55) != '-')) {
+            return null;
         }
+        String traceId = value.substring(3, 35);
+        String parentId = value.substring(36, 52);
+        String flags = value.substring(53, 55);
+        if (!isLowerHex(traceId) || !isLowerHex(parentId) || !isLowerHex(flags)
+                || isAllZero(traceId) || isAllZero(parentId)) {
+            return null;
+        }
+        return traceId;
+    }
 
-        // 检查长度（UUID 格式：36 字符）
-        if (traceId.length() > 100) {
-            return false;
+    private static boolean isLowerHex(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
         }
+        return true;
+    }
 
-        // 检查是否包含换行符（防止日志注入攻击）
-        if (traceId.contains("\n") || traceId.contains("\r")) {
-            return false;
+    private static boolean isAllZero(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) != '0') {
+                return false;
+            }
         }
+        return true;
+    }
 
+    /**
+     * 验证 TraceId 格式
+     *
+     * 只允许字母、数字、- 和 _，防止日志注入，长度不超过审计日志 trace_id 字段长度
+     *
+     * @param traceId TraceId
+     * @return 是否有效
+     */
+    static boolean isValidTraceId(String traceId) {
+        if (traceId == null || traceId.isEmpty() || traceId.length() > MAX_TRACE_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < traceId.length(); i++) {
+            char c = traceId.charAt(i);
+            boolean valid = (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+                    || c == '-' || c == '_';
+            if (!valid) {
+                return false;
+            }
+        }
         return true;
     }
 
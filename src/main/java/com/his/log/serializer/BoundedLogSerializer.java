@@ -0,0 +1,236 @@
+package com.his.log.serializer;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import com.his.common.DataMaskingUtils;
+import com.his.common.SensitiveData;
+import com.his.common.SensitiveType;
+
+/**
+ * 限长日志序列化器
+ *
+ * <p>把请求参数、响应结果序列化为 JSON 写入日志，写满上限即停止序列化，
+ * 不会为了日志里的前几百个字符把整个对象图序列化一遍</p>
+ *
+ * <h3>实现说明</h3>
+ * <ul>
+ *   <li><b>限长</b>：输出写入按上限截断的 Writer；生成器在每个字段名、对象和数组开始前检查
+ *       已输出加缓冲中的字符数，超过上限即中止序列化，输出末尾追加 {@value #TRUNCATED_SUFFIX}</li>
+ *   <li><b>脱敏</b>：标注了 {@link SensitiveData} 的字段总是脱敏，
+ *       不受 {@link com.his.common.DataMaskingContext} 影响（管理员查看明文时日志中仍为脱敏值）</li>
+ *   <li><b>缓冲复用</b>：每个线程复用一个 StringBuilder；生成器的字符缓冲由 Jackson 按线程回收复用</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.log.aspect.ApiLogAspect
+ */
+@Component
+public class BoundedLogSerializer {
+
+    /** 截断标记 */
+    public static final String TRUNCATED_SUFFIX = "...(已截断)";
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(StringBuilder::new);
+
+    private final ObjectMapper logMapper;
+
+    private final int maxLength;
+
+    /**
+     * @param objectMapper 应用的 ObjectMapper（复制后使用，不修改原对象）
+     * @param maxLength    输出最大字符数（不含截断标记）
+     */
+    public BoundedLogSerializer(ObjectMapper objectMapper, @Value("${api.log.max-length:500}") int maxLength) {
+        if (maxLength < 1) {
+            throw new IllegalArgumentException("日志输出最大字符数必须大于0");
+        }
+        this.maxLength = maxLength;
+        this.logMapper = objectMapper.copy();
+        this.logMapper.disable(SerializationFeature.INDENT_OUTPUT);
+        this.logMapper.setAnnotationIntrospector(AnnotationIntrospector.pair(
+                new SensitiveDataIntrospector(), logMapper.getSerializationConfig().getAnnotationIntrospector()));
+    }
+
+    /**
+     * 序列化为 JSON，超过上限时截断
+     *
+     * @param value 待序列化对象
+     * @return 不超过上限的 JSON（截断时追加截断标记）
+     * @throws IOException 序列化失败（非截断原因）时抛出
+     */
+    public String serialize(Object value) throws IOException {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        BoundedWriter writer = new BoundedWriter(buffer, maxLength);
+        try (JsonGenerator generator = new BoundedGenerator(logMapper.getFactory().createGenerator(writer), writer)) {
+            logMapper.writeValue(generator, value);
+        } catch (IOException | RuntimeException e) {
+            if (!writer.limitReached) {
+                throw e;
+            }
+        }
+        return writer.limitReached ? buffer.append(TRUNCATED_SUFFIX).toString() : buffer.toString();
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * 达到上限，中止序列化（不需要堆栈）
+     */
+    private static final class LimitReachedException extends IOException {
+
+        private LimitReachedException() {
+            super("日志输出已达到上限");
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    /**
+     * 最多保留 limit 个字符，超出时抛出 {@link LimitReachedException}
+     */
+    private static final class BoundedWriter extends Writer {
+
+        private final StringBuilder sink;
+        private final int limit;
+        private boolean limitReached;
+
+        private BoundedWriter(StringBuilder sink, int limit) {
+            this.sink = sink;
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            int room = limit - sink.length();
+            if (len <= room) {
+                sink.append(cbuf, off, len);
+                return;
+            }
+            sink.append(cbuf, off, Math.max(room, 0));
+            throw reached();
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            int room = limit - sink.length();
+            if (len <= room) {
+                sink.append(str, off, off + len);
+                return;
+            }
+            sink.append(str, off, off + Math.max(room, 0));
+            throw reached();
+        }
+
+        private LimitReachedException reached() {
+            limitReached = true;
+            return new LimitReachedException();
+        }
+
+        @Override
+        public void flush() {
+            // 直接写入 StringBuilder，无需刷新
+        }
+
+        @Override
+        public void close() {
+            // 缓冲由调用方复用，不关闭
+        }
+    }
+
+    /**
+     * 在字段、对象和数组开始前检查输出长度，避免把剩余的对象图序列化进生成器缓冲
+     */
+    private static final class BoundedGenerator extends JsonGeneratorDelegate {
+
+        private final BoundedWriter writer;
+
+        private BoundedGenerator(JsonGenerator delegate, BoundedWriter writer) {
+            super(delegate);
+            this.writer = writer;
+        }
+
+        private void checkLimit() throws IOException {
+            if (writer.limitReached) {
+                throw new LimitReachedException();
+            }
+            if (writer.sink.length() + delegate.getOutputBuffered() > writer.limit) {
+                delegate.flush();
+            }
+        }
+
+        @Override
+        public void writeFieldName(String name) throws IOException {
+            checkLimit();
+            super.writeFieldName(name);
+        }
+
+        @Override
+        public void writeFieldName(SerializableString name) throws IOException {
+            checkLimit();
+            super.writeFieldName(name);
+        }
+
+        @Override
+        public void writeStartObject(Object forValue) throws IOException {
+            checkLimit();
+            super.writeStartObject(forValue);
+        }
+
+        @Override
+        public void writeStartArray(Object forValue, int size) throws IOException {
+            checkLimit();
+            super.writeStartArray(forValue, size);
+        }
+    }
+
+    /**
+     * 标注了 {@link SensitiveData} 的字段使用 {@link LogMaskingSerializer}
+     */
+    private static final class SensitiveDataIntrospector extends NopAnnotationIntrospector {
+
+        @Override
+        public Object findSerializer(Annotated annotated) {
+            SensitiveData sensitiveData = annotated.getAnnotation(SensitiveData.class);
+            return sensitiveData != null ? new LogMaskingSerializer(sensitiveData.type()) : null;
+        }
+    }
+
+    /**
+     * 总是脱敏的序列化器
+     */
+    private static final class LogMaskingSerializer extends JsonSerializer<Object> {
+
+        private final SensitiveType type;
+
+        private LogMaskingSerializer(SensitiveType type) {
+            this.type = type;
+        }
+
+        @Override
+        public void serialize(Object value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeString(DataMaskingUtils.mask(String.valueOf(value), type));
+        }
+    }
+}
@@ -69,7 +69,7 @@ import lombok.extern.slf4j.Slf4j;
  * </pre>
  *
  * <h3>与MDC集成</h3>
- * <p>本工具类自动从MDC获取TraceId（由{@link com.his.config.LogTraceFilter}设置），
+ * <p>本工具类自动从MDC获取TraceId（由{@link com.his.log.filter.TraceIdFilter}设置），
  * 并从{@link com.his.common.SecurityUtils}获取当前用户信息</p>
  *
  * <h3>最佳实践</h3>
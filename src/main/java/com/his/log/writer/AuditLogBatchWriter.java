@@ -0,0 +1,598 @@
+package com.his.log.writer;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.his.entity.AuditLogEntity;
+import com.his.enums.AuditBackpressurePolicyEnum;
+import com.his.monitoring.AuditLogWriterMetrics;
+import com.his.service.AuditLogRetentionService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 审计日志批量写入器
+ *
+ * <p>业务线程只把审计事件放入有界环形队列（{@link ArrayBlockingQueue}），由单个写入线程按批取出，
+ * 以一条多行 INSERT 写入 sys_audit_log，业务线程不再执行审计日志的数据库写入</p>
+ *
+ * <h3>批量写入</h3>
+ * <ul>
+ *   <li><b>攒批</b>：写入线程取到第一个事件后继续收集，凑满 batch-size 行或等待超过 flush-interval-ms 即写入</li>
+ *   <li><b>多行 INSERT</b>：一批事件只执行一条 {@code INSERT ... VALUES (...), (...)}，一次网络往返、一次提交</li>
+ *   <li><b>完成通知</b>：事件所在的批写入完成（成功或失败）后，提交时返回的 Future 才完成</li>
+ * </ul>
+ *
+ * <h3>背压</h3>
+ * <ul>
+ *   <li>队列已满时按 {@link AuditBackpressurePolicyEnum} 处理：等待、溢出到本地 spool 或丢弃</li>
+ * </ul>
+ *
+ * <h3>数据库故障</h3>
+ * <ul>
+ *   <li>数据库不可用（连接失败、超时等）时整批转入本地 {@link AuditLogSpool}，不在写入线程内重试，避免数据库故障时队列积压</li>
+ *   <li>写入时间没有对应分区（停机超过预建月数或分区创建失败）与数据库不可用同样处理：整批转入 spool，
+ *       补写时先创建所缺月份的分区再写入</li>
+ *   <li>数据库因数据本身拒绝写入（SQLState 22/23，如违反非空约束）时逐条重试，一条坏数据不影响同批其他审计日志；
+ *       被拒绝的那条转入 spool 的死信文件，重试也不会成功，不进入 spool</li>
+ *   <li>spool 中的事件由补写任务在数据库恢复后按追加顺序写入（{@link #replaySpool}），坏数据同样逐条补写并转入死信文件</li>
+ *   <li>字符串按 sys_audit_log 的列长度截断后绑定，超长字段不会导致整条审计日志写入失败</li>
+ * </ul>
+ *
+ * <h3>停机</h3>
+ * <ul>
+ *   <li>应用关闭时停止接收新事件进入队列，写入线程写完队列中剩余的事件后退出；spool 保留到下次启动后补写</li>
+ *   <li>写入线程停止后提交的事件由调用线程直接写入</li>
+ * </ul>
+ *
+ * <h3>配置参数</h3>
+ * <ul>
+ *   <li><b>audit.log.writer.capacity</b>：队列容量（默认8192）</li>
+ *   <li><b>audit.log.writer.batch-size</b>：每批最多行数（默认200）</li>
+ *   <li><b>audit.log.writer.flush-interval-ms</b>：攒批最长等待时间（默认200毫秒）</li>
+ *   <li><b>audit.log.writer.backpressure</b>：队列已满时的处理策略（默认 SPILL）</li>
+ *   <li><b>audit.log.writer.block-timeout-ms</b>：BLOCK 策略的最长等待时间（默认1000毫秒）</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.AuditLogService#saveAuditLogAsync
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditLogBatchWriter {
+
+    private static final String INSERT_PREFIX = "INSERT INTO sys_audit_log (module, action, audit_type, description, "
+            + "operator_id, operator_username, trace_id, request_ip, user_agent, status, execution_time, "
+            + "exception_type, exception_message, create_time) VALUES ";
+
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int COLUMN_COUNT = 14;
+
+    /**
+     * sys_audit_log 字符串列长度（V17）
+     */
+    private static final int MODULE_LENGTH = 50;
+    private static final int ACTION_LENGTH = 100;
+    private static final int AUDIT_TYPE_LENGTH = 20;
+    private static final int DESCRIPTION_LENGTH = 500;
+    private static final int OPERATOR_USERNAME_LENGTH = 50;
+    private static final int TRACE_ID_LENGTH = 64;
+    private static final int REQUEST_IP_LENGTH = 50;
+    private static final int USER_AGENT_LENGTH = 500;
+    private static final int STATUS_LENGTH = 20;
+    private static final int EXCEPTION_TYPE_LENGTH = 100;
+    private static final int EXCEPTION_MESSAGE_LENGTH = 1000;
+
+    /**
+     * PostgreSQL 单条语句最多 65535 个绑定参数
+     */
+    private static final int MAX_BATCH_SIZE = 65535 / COLUMN_COUNT;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final AuditLogWriterMetrics metrics;
+    private final AuditLogSpool spool;
+    private final AuditLogRetentionService retentionService;
+
+    @Value("${audit.log.writer.capacity:8192}")
+    private int capacity;
+
+    @Value("${audit.log.writer.batch-size:200}")
+    private int batchSize;
+
+    @Value("${audit.log.writer.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${audit.log.writer.backpressure:SPILL}")
+    private AuditBackpressurePolicyEnum backpressure;
+
+    @Value("${audit.log.writer.block-timeout-ms:1000}")
+    private long blockTimeoutMs;
+
+    @Value("${audit.log.writer.shutdown-timeout-ms:30000}")
+    private long shutdownTimeoutMs;
+
+    private BlockingQueue<AuditEvent> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    /**
+     * 启动写入线程
+     */
+    @PostConstruct
+    public void start() {
+        batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+        queue = new ArrayBlockingQueue<>(capacity);
+        metrics.bindQueue(queue);
+        running = true;
+        writerThread = new Thread(this::runLoop, "audit-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("审计日志批量写入器已启动，队列容量: {}, 每批最多: {} 行, 攒批等待: {}ms, 背压策略: {}",
+                capacity, batchSize, flushIntervalMs, backpressure);
+    }
+
+    /**
+     * 提交审计事件
+     *
+     * @param entity 审计日志实体（未设置创建时间时以提交时间为准）
+     * @return 事件写入数据库、转入本地 spool 或被丢弃后完成的 Future（不会异常完成）
+     */
+    public CompletableFuture<Void> submit(AuditLogEntity entity) {
+        if (entity.getCreateTime() == null) {
+            entity.setCreateTime(LocalDateTime.now());
+        }
+        AuditEvent event = new AuditEvent(entity, new CompletableFuture<>(), System.nanoTime());
+        if (!running) {
+            write(List.of(event));
+            return event.done();
+        }
+        if (queue.offer(event)) {
+            return event.done();
+        }
+
+        switch (backpressure) {
+            case BLOCK -> block(event);
+            case SPILL -> spill(event);
+            default -> drop(event, "drop");
+        }
+        return event.done();
+    }
+
+    /**
+     * 应用关闭时写完队列中剩余的事件
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writerThread.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            log.error("审计日志写入线程未在 {}ms 内退出，队列中仍有 {} 条审计日志未写入", shutdownTimeoutMs, queue.size());
+        } else {
+            // 停止前一刻放入队列的事件由关闭线程写入
+            List<AuditEvent> rest = new ArrayList<>();
+            queue.drainTo(rest);
+            if (!rest.isEmpty()) {
+                write(rest);
+            }
+            log.info("审计日志批量写入器已停止");
+        }
+    }
+
+    /**
+     * 按追加顺序将 spool 中的事件补写到数据库
+     *
+     * <p>每批写入成功后才移动 spool 的补写位置。所在月份没有分区时创建分区后重试该批。数据库因数据本身拒绝写入时改为逐条补写，
+     * 被拒绝的和无法解析的事件转入死信文件后跳过；数据库不可用时抛出异常，未写入的事件留在 spool 中等待下次补写</p>
+     *
+     * @param maxRecords 本次最多补写条数
+     * @return 本次补写条数（包括转入死信文件的）
+     */
+    public int replaySpool(int maxRecords) {
+        long start = System.nanoTime();
+        int replayed = 0;
+        try {
+            while (replayed < maxRecords) {
+                AuditLogSpool.Batch batch = spool.peek(Math.min(batchSize, maxRecords - replayed));
+                if (batch.payloads().isEmpty()) {
+                    break;
+                }
+                List<AuditLogEntity> entities = read(batch.payloads());
+                if (entities != null) {
+                    try {
+                        insert(entities);
+                        spool.commit(batch);
+                        replayed += batch.payloads().size();
+                        continue;
+                    } catch (RuntimeException e) {
+                        if (isMissingPartition(e) && createPartitions(entities)) {
+                            continue;
+                        }
+                        if (!isDataError(e)) {
+                            throw e;
+                        }
+                        log.warn("spool 补写被数据库拒绝，逐条补写: {} 条, error={}", entities.size(), e.getMessage());
+                    }
+                }
+                replayed += replayOneByOne(batch.payloads().size());
+            }
+        } finally {
+            if (replayed > 0) {
+                spool.recordReplayRun(replayed, System.nanoTime() - start);
+            }
+        }
+        return replayed;
+    }
+
+    /**
+     * 创建一批审计日志所在月份的分区
+     *
+     * @return 是否新建了分区；分区都已存在或创建失败时返回 false，该批不再重试，留在 spool 中等待下次补写
+     */
+    private boolean createPartitions(List<AuditLogEntity> entities) {
+        Set<YearMonth> months = new TreeSet<>();
+        for (AuditLogEntity entity : entities) {
+            months.add(YearMonth.from(entity.getCreateTime()));
+        }
+        boolean created = false;
+        for (YearMonth month : months) {
+            try {
+                created |= retentionService.ensurePartition(month);
+            } catch (RuntimeException e) {
+                log.warn("补写审计日志时创建分区失败: month={}, error={}", month, e.getMessage());
+            }
+        }
+        return created;
+    }
+
+    /**
+     * 解析一批 spool 记录
+     *
+     * @return 审计日志实体，有无法解析的记录时返回 null（改为逐条补写）
+     */
+    private List<AuditLogEntity> read(List<byte[]> payloads) {
+        List<AuditLogEntity> entities = new ArrayList<>(payloads.size());
+        for (byte[] payload : payloads) {
+            try {
+                entities.add(objectMapper.readValue(payload, AuditLogEntity.class));
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * 逐条补写：每条写入或转入死信文件后才移动补写位置
+     *
+     * @param records 最多补写条数
+     * @return 补写条数（包括转入死信文件的）
+     */
+    private int replayOneByOne(int records) {
+        int replayed = 0;
+        while (replayed < records) {
+            AuditLogSpool.Batch single = spool.peek(1);
+            if (single.payloads().isEmpty()) {
+                break;
+            }
+            byte[] payload = single.payloads().get(0);
+            try {
+                insert(List.of(objectMapper.readValue(payload, AuditLogEntity.class)));
+            } catch (IOException e) {
+                deadLetter(payload, "无法解析: " + e.getMessage());
+            } catch (RuntimeException e) {
+                if (!isDataError(e)) {
+                    throw e;
+                }
+                deadLetter(payload, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            }
+            spool.commit(single);
+            replayed++;
+        }
+        return replayed;
+    }
+
+    /**
+     * spool 中的记录转入死信文件，写入失败时抛出异常，记录留在 spool 中
+     */
+    private void deadLetter(byte[] payload, String reason) {
+        if (!spool.deadLetter(payload, reason)) {
+            throw new IllegalStateException("审计日志死信文件写入失败，记录保留在 spool 中");
+        }
+        log.error("spool 中的审计日志无法补写，已转入死信文件: {}", reason);
+    }
+
+    private void runLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        boolean interrupted = false;
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEvent first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+                write(batch);
+            } catch (InterruptedException e) {
+                // 中断标志已被清除，继续写完队列中剩余的事件，退出前恢复
+                log.warn("审计日志写入线程被中断，写完队列中剩余的审计日志后退出");
+                interrupted = true;
+                running = false;
+                if (!batch.isEmpty()) {
+                    write(batch);
+                }
+            } catch (RuntimeException e) {
+                log.error("审计日志写入线程异常", e);
+            } finally {
+                batch.clear();
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 继续收集事件，直到凑满一批或攒批等待超时
+     */
+    private void collect(List<AuditEvent> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            AuditEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        List<AuditLogEntity> entities = new ArrayList<>(batch.size());
+        for (AuditEvent event : batch) {
+            entities.add(event.entity());
+        }
+        try {
+            insert(entities);
+            metrics.recordBatch(batch.size(), System.nanoTime() - batch.get(0).submittedAt());
+            log.debug("审计日志批量写入成功: {} 条", batch.size());
+        } catch (RuntimeException e) {
+            if (isDataError(e)) {
+                log.warn("审计日志批量写入被数据库拒绝，逐条重试: {} 条, error={}", batch.size(), e.getMessage());
+                writeOneByOne(batch);
+            } else {
+                int spooled = 0;
+                for (AuditLogEntity entity : entities) {
+                    if (toSpool(entity)) {
+                        spooled++;
+                    }
+                }
+                metrics.recordFailure(batch.size() - spooled);
+                log.error("审计日志批量写入失败，{} 条中 {} 条已转入本地 spool 等待补写: error={}",
+                        batch.size(), spooled, e.getMessage());
+            }
+        } finally {
+            for (AuditEvent event : batch) {
+                event.done().complete(null);
+            }
+        }
+    }
+
+    /**
+     * 批量写入被数据库拒绝后逐条写入：被拒绝的转入死信文件，数据库不可用时转入本地 spool
+     */
+    private void writeOneByOne(List<AuditEvent> batch) {
+        int written = 0;
+        int deadLettered = 0;
+        int spooled = 0;
+        RuntimeException lastError = null;
+        for (AuditEvent event : batch) {
+            try {
+                insert(List.of(event.entity()));
+                written++;
+            } catch (RuntimeException e) {
+                lastError = e;
+                if (isDataError(e)) {
+                    if (toDeadLetter(event.entity(), e)) {
+                        deadLettered++;
+                    }
+                } else if (toSpool(event.entity())) {
+                    spooled++;
+                }
+            }
+        }
+        if (written > 0) {
+            metrics.recordBatch(written, System.nanoTime() - batch.get(0).submittedAt());
+        }
+        if (lastError != null) {
+            int failed = batch.size() - written;
+            metrics.recordFailure(failed - deadLettered - spooled);
+            log.error("审计日志逐条写入失败，{} 条中 {} 条已转入死信文件，{} 条已转入本地 spool 等待补写: error={}",
+                    failed, deadLettered, spooled, lastError.getMessage());
+        }
+    }
+
+    /**
+     * 数据库因数据本身拒绝写入，重试也不会成功：SQLState 22（数据异常）或 23（违反约束）
+     *
+     * <p>没有对应分区（PostgreSQL 同样报 23514）不属于此类，分区创建后即可写入</p>
+     */
+    static boolean isDataError(Throwable e) {
+        if (isMissingPartition(e)) {
+            return false;
+        }
+        if (e instanceof DataIntegrityViolationException) {
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null
+                    && (sqlException.getSQLState().startsWith("22") || sqlException.getSQLState().startsWith("23"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 写入时间没有对应分区："no partition of relation ... found for row"
+     */
+    static boolean isMissingPartition(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains("no partition of relation")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 以一条多行 INSERT 写入
+     */
+    private void insert(List<AuditLogEntity> entities) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + entities.size() * (ROW_PLACEHOLDER.length() + 2))
+                .append(INSERT_PREFIX);
+        for (int i = 0; i < entities.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDER);
+        }
+        jdbcTemplate.update(sql.toString(), ps -> {
+            int index = 1;
+            for (AuditLogEntity entity : entities) {
+                index = bind(ps, index, entity);
+            }
+        });
+    }
+
+    private static int bind(PreparedStatement ps, int index, AuditLogEntity entity) throws SQLException {
+        ps.setString(index++, truncate(entity.getModule(), MODULE_LENGTH));
+        ps.setString(index++, truncate(entity.getAction(), ACTION_LENGTH));
+        ps.setString(index++, truncate(entity.getAuditType(), AUDIT_TYPE_LENGTH));
+        ps.setString(index++, truncate(entity.getDescription(), DESCRIPTION_LENGTH));
+        ps.setObject(index++, entity.getOperatorId(), Types.BIGINT);
+        ps.setString(index++, truncate(entity.getOperatorUsername(), OPERATOR_USERNAME_LENGTH));
+        ps.setString(index++, truncate(entity.getTraceId(), TRACE_ID_LENGTH));
+        ps.setString(index++, truncate(entity.getRequestIp(), REQUEST_IP_LENGTH));
+        ps.setString(index++, truncate(entity.getUserAgent(), USER_AGENT_LENGTH));
+        ps.setString(index++, truncate(entity.getStatus(), STATUS_LENGTH));
+        ps.setObject(index++, entity.getExecutionTime(), Types.BIGINT);
+        ps.setString(index++, truncate(entity.getExceptionType(), EXCEPTION_TYPE_LENGTH));
+        ps.setString(index++, truncate(entity.getExceptionMessage(), EXCEPTION_MESSAGE_LENGTH));
+        ps.setObject(index++, entity.getCreateTime());
+        return index;
+    }
+
+    /**
+     * 按列长度截断，不拆开代理对
+     */
+    static String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        int end = Character.isHighSurrogate(value.charAt(maxLength - 1)) ? maxLength - 1 : maxLength;
+        return value.substring(0, end);
+    }
+
+    private void block(AuditEvent event) {
+        try {
+            if (queue.offer(event, blockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drop(event, "block_timeout");
+    }
+
+    private void drop(AuditEvent event, String outcome) {
+        metrics.recordRejected(outcome);
+        log.error("审计日志写入队列已满，丢弃审计日志: module={}, action={}, operator={}",
+                event.entity().getModule(), event.entity().getAction(), event.entity().getOperatorUsername());
+        event.done().complete(null);
+    }
+
+    /**
+     * 队列已满时转入本地 spool
+     */
+    private void spill(AuditEvent event) {
+        if (toSpool(event.entity())) {
+            metrics.recordRejected("spill");
+            event.done().complete(null);
+        } else {
+            drop(event, "drop");
+        }
+    }
+
+    private boolean toSpool(AuditLogEntity entity) {
+        try {
+            long submittedAt = entity.getCreateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            return spool.append(objectMapper.writeValueAsBytes(entity), submittedAt);
+        } catch (JsonProcessingException e) {
+            log.error("审计日志序列化失败，无法转入 spool: {}", e.getOriginalMessage());
+            return false;
+        }
+    }
+
+    private boolean toDeadLetter(AuditLogEntity entity, RuntimeException e) {
+        try {
+            String reason = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            return spool.deadLetter(objectMapper.writeValueAsBytes(entity), reason);
+        } catch (JsonProcessingException ex) {
+            log.error("审计日志序列化失败，无法转入死信文件: {}", ex.getOriginalMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 队列中的审计事件
+     *
+     * @param entity      审计日志实体
+     * @param done        写入完成通知
+     * @param submittedAt 提交时间（纳秒，用于计算写入延迟）
+     */
+    private record AuditEvent(AuditLogEntity entity, CompletableFuture<Void> done, long submittedAt) {
+    }
+}
@@ -0,0 +1,489 @@
+package com.his.log.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 审计日志本地 spool（分段内存映射文件）
+ *
+ * <p>数据库写入饱和或失败时，审计事件追加到本地 spool，由补写任务在数据库恢复后按追加顺序写入 sys_audit_log</p>
+ *
+ * <h3>文件格式</h3>
+ * <ul>
+ *   <li><b>分段</b>：spool 由固定大小的段文件组成（audit-spool-序号.seg），写满后新建下一段，补写完的段删除</li>
+ *   <li><b>段头</b>：前 8 字节为已补写位置，每批补写成功后更新，重启后从该位置继续补写</li>
+ *   <li><b>记录</b>：长度（4 字节）+ 提交时间（8 字节，毫秒）+ 审计事件 JSON；先写内容后写长度，
+ *       长度为 0 表示段内数据结束，进程崩溃时不会留下半条记录</li>
+ * </ul>
+ *
+ * <h3>持久性</h3>
+ * <ul>
+ *   <li>追加只写入内存映射区域（页缓存），进程崩溃不丢失；补写任务每次运行和应用关闭时刷盘，
+ *       操作系统崩溃最多丢失一个补写周期内追加的记录</li>
+ *   <li>补写为至少一次：写入数据库成功后、更新段头前进程崩溃，重启后该批会再写入一次</li>
+ * </ul>
+ *
+ * <h3>死信</h3>
+ * <ul>
+ *   <li>数据库因数据本身拒绝写入（如违反非空约束）的审计事件重试也不会成功，
+ *       追加到同目录的 dead-letter.log（每行：时间、原因、审计事件 JSON，以制表符分隔），不留在 spool 中阻塞后续补写</li>
+ *   <li>死信文件不计入 spool 上限，也不会自动清理。未处理的条数见指标 audit.log.spool.dead.letter.pending，
+ *       启动时不为空会输出警告</li>
+ *   <li>人工处理：按原因修正 dead-letter.log 中的审计事件 JSON（或删除不需要保留的行），
+ *       再调用 POST /actuator/auditspool（{@link #requeueDeadLetters}）重新追加到 spool，由补写任务写入数据库；
+ *       处理前的文件改名为 dead-letter-requeued-时间.log 保留</li>
+ * </ul>
+ *
+ * <h3>配置参数</h3>
+ * <ul>
+ *   <li><b>audit.log.spool.dir</b>：段文件目录（应使用持久化的本地磁盘）</li>
+ *   <li><b>audit.log.spool.require-persistent-dir</b>：目录位于 java.io.tmpdir 下时拒绝启动（默认false，只输出警告）</li>
+ *   <li><b>audit.log.spool.segment-size-kb</b>：段大小（默认16MB）</li>
+ *   <li><b>audit.log.spool.max-size-mb</b>：spool 最大占用磁盘空间（默认1GB），超出时拒绝追加</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see AuditLogBatchWriter
+ * @see com.his.scheduled.AuditLogSpoolReplayTask
+ */
+@Slf4j
+@Component
+public class AuditLogSpool {
+
+    private static final int SEGMENT_HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 12;
+    private static final String SEGMENT_PREFIX = "audit-spool-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String DEAD_LETTER_FILE = "dead-letter.log";
+    private static final DateTimeFormatter REQUEUED_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    @Value("${audit.log.spool.dir:${java.io.tmpdir}/his/audit-spool}")
+    private String dir;
+
+    @Value("${audit.log.spool.segment-size-kb:16384}")
+    private int segmentSizeKb;
+
+    @Value("${audit.log.spool.max-size-mb:1024}")
+    private long maxSizeMb;
+
+    @Value("${audit.log.spool.require-persistent-dir:false}")
+    private boolean requirePersistentDir;
+
+    /**
+     * 未删除的段，队首最早
+     */
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private long nextSequence;
+
+    private long pendingRecords;
+    private long pendingBytes;
+    private long appendedTotal;
+    private long replayedTotal;
+    private long rejectedTotal;
+    private long deadLetteredTotal;
+    private long deadLetterPending;
+
+    private long lastReplayAt;
+    private long lastReplayRecords;
+    private long lastReplayNanos;
+
+    /**
+     * 打开已有段文件，恢复补写位置和未补写的记录数
+     */
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        Path directory = Paths.get(dir);
+        checkPersistent(directory);
+        Files.createDirectories(directory);
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        // 序号定长补零，文件名顺序即追加顺序
+        files.sort(null);
+
+        for (Path file : files) {
+            Segment segment = recover(file);
+            segments.addLast(segment);
+            nextSequence = segment.sequence + 1;
+        }
+        // 已补写完的段（最后一段仍用于追加）
+        while (segments.size() > 1 && segments.peekFirst().isDrained()) {
+            deleteHead();
+        }
+        if (pendingRecords > 0) {
+            log.warn("审计日志 spool 中有 {} 条未补写的审计日志（{} 个段），将在数据库可用时补写",
+                    pendingRecords, segments.size());
+        }
+        deadLetterPending = countDeadLetters();
+        if (deadLetterPending > 0) {
+            log.warn("审计日志死信文件中有 {} 条未处理的审计日志: {}，修正后调用 POST /actuator/auditspool 重新补写",
+                    deadLetterPending, directory.resolve(DEAD_LETTER_FILE));
+        }
+        log.info("审计日志 spool 已打开，目录: {}, 段大小: {}KB, 上限: {}MB", directory, segmentSizeKb, maxSizeMb);
+    }
+
+    /**
+     * 追加一条审计事件
+     *
+     * @param payload     审计事件 JSON
+     * @param submittedAt 提交时间（毫秒）
+     * @return 是否追加成功（spool 已满或磁盘写入失败时返回 false）
+     */
+    public synchronized boolean append(byte[] payload, long submittedAt) {
+        long segmentSize = segmentSizeKb * 1024L;
+        int size = RECORD_HEADER_SIZE + payload.length;
+        if (size > segmentSize - SEGMENT_HEADER_SIZE) {
+            log.error("审计事件超过 spool 段大小，无法追加: {} 字节", payload.length);
+            rejectedTotal++;
+            return false;
+        }
+
+        Segment active = segments.peekLast();
+        if (active == null || active.capacity() - active.writePosition < size) {
+            if ((segments.size() + 1) * segmentSize > maxSizeMb * 1024 * 1024) {
+                log.error("审计日志 spool 已达上限 {}MB，拒绝追加", maxSizeMb);
+                rejectedTotal++;
+                return false;
+            }
+            try {
+                active = createSegment(nextSequence++);
+            } catch (IOException e) {
+                log.error("创建审计日志 spool 段失败: {}", e.getMessage());
+                rejectedTotal++;
+                return false;
+            }
+            segments.addLast(active);
+        }
+
+        MappedByteBuffer buffer = active.buffer;
+        int position = active.writePosition;
+        buffer.putLong(position + 4, submittedAt);
+        buffer.put(position + RECORD_HEADER_SIZE, payload);
+        buffer.putInt(position, payload.length);
+        active.writePosition += size;
+
+        pendingRecords++;
+        pendingBytes += size;
+        appendedTotal++;
+        return true;
+    }
+
+    /**
+     * 追加到死信文件
+     *
+     * @param payload 审计事件 JSON（或无法解析的原始内容）
+     * @param reason  无法写入数据库的原因
+     * @return 是否写入成功
+     */
+    public synchronized boolean deadLetter(byte[] payload, String reason) {
+        String prefix = LocalDateTime.now() + "\t" + String.valueOf(reason).replaceAll("\\s+", " ") + "\t";
+        try (OutputStream out = Files.newOutputStream(Paths.get(dir, DEAD_LETTER_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write(prefix.getBytes(StandardCharsets.UTF_8));
+            out.write(payload);
+            out.write('\n');
+            deadLetteredTotal++;
+            deadLetterPending++;
+            return true;
+        } catch (IOException e) {
+            log.error("写入审计日志死信文件失败: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 将死信文件中的审计事件重新追加到 spool，由补写任务写入数据库
+     *
+     * <p>处理前的死信文件改名保留；追加失败（spool 已满）或格式不正确的行写回死信文件</p>
+     *
+     * @return 重新追加的条数
+     * @throws IOException 读写死信文件失败时抛出
+     */
+    public synchronized int requeueDeadLetters() throws IOException {
+        Path file = Paths.get(dir, DEAD_LETTER_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        Path requeued = Paths.get(dir, "dead-letter-requeued-" + LocalDateTime.now().format(REQUEUED_SUFFIX) + ".log");
+        Files.move(file, requeued);
+
+        List<String> remaining = new ArrayList<>();
+        int appended = 0;
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] fields = line.split("\t", 3);
+            if (fields.length == 3 && append(fields[2].getBytes(StandardCharsets.UTF_8), System.currentTimeMillis())) {
+                appended++;
+            } else {
+                remaining.add(line);
+            }
+        }
+        if (!remaining.isEmpty()) {
+            Files.write(file, remaining, StandardCharsets.UTF_8);
+        }
+        deadLetterPending = remaining.size();
+        log.info("审计日志死信已重新追加到 spool: {} 条，仍留在死信文件: {} 条，原文件: {}",
+                appended, remaining.size(), requeued.getFileName());
+        return appended;
+    }
+
+    /**
+     * 读取最早的一批未补写记录（不移动补写位置）
+     *
+     * @param maxRecords 最多读取条数
+     * @return 记录批次，只包含同一段内的记录
+     */
+    public synchronized Batch peek(int maxRecords) {
+        while (segments.size() > 1 && segments.peekFirst().isDrained()) {
+            deleteHead();
+        }
+        Segment head = segments.peekFirst();
+        if (head == null || head.isDrained()) {
+            return Batch.EMPTY;
+        }
+        List<byte[]> payloads = new ArrayList<>(Math.min(maxRecords, 256));
+        int position = head.readPosition;
+        while (payloads.size() < maxRecords && position < head.writePosition) {
+            int length = head.buffer.getInt(position);
+            byte[] payload = new byte[length];
+            head.buffer.get(position + RECORD_HEADER_SIZE, payload);
+            payloads.add(payload);
+            position += RECORD_HEADER_SIZE + length;
+        }
+        return new Batch(head.sequence, position, position - head.readPosition, payloads);
+    }
+
+    /**
+     * 批次写入数据库后移动补写位置，补写完的段（非追加中的段）删除
+     *
+     * @param batch 已写入数据库的批次
+     */
+    public synchronized void commit(Batch batch) {
+        Segment head = segments.peekFirst();
+        if (batch.payloads().isEmpty() || head == null || head.sequence != batch.sequence()) {
+            return;
+        }
+        head.readPosition = batch.endPosition();
+        head.buffer.putLong(0, head.readPosition);
+        pendingRecords -= batch.payloads().size();
+        pendingBytes -= batch.bytes();
+        replayedTotal += batch.payloads().size();
+        if (head.isDrained() && segments.size() > 1) {
+            deleteHead();
+        }
+    }
+
+    /**
+     * 记录一次补写运行，用于计算补写速率
+     *
+     * @param records 本次补写条数
+     * @param nanos   本次补写耗时（纳秒）
+     */
+    public synchronized void recordReplayRun(long records, long nanos) {
+        lastReplayAt = System.currentTimeMillis();
+        lastReplayRecords = records;
+        lastReplayNanos = nanos;
+    }
+
+    /**
+     * 将内存映射区域刷到磁盘
+     */
+    public synchronized void force() {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+        }
+    }
+
+    /**
+     * 查询 spool 状态
+     *
+     * @return spool 状态快照
+     */
+    public synchronized Stats stats() {
+        Long oldestPendingAt = null;
+        for (Segment segment : segments) {
+            if (!segment.isDrained()) {
+                oldestPendingAt = segment.buffer.getLong(segment.readPosition + 4);
+                break;
+            }
+        }
+        long diskBytes = 0;
+        for (Segment segment : segments) {
+            diskBytes += segment.capacity();
+        }
+        double replayRate = lastReplayNanos > 0 ? lastReplayRecords * 1_000_000_000.0 / lastReplayNanos : 0.0;
+        return new Stats(pendingRecords, pendingBytes, segments.size(), diskBytes, oldestPendingAt,
+                appendedTotal, replayedTotal, rejectedTotal, deadLetteredTotal, deadLetterPending, replayRate,
+                lastReplayAt > 0 ? lastReplayAt : null);
+    }
+
+    /**
+     * 应用关闭时刷盘
+     */
+    @PreDestroy
+    public void close() {
+        force();
+        log.info("审计日志 spool 已刷盘，未补写: {} 条", stats().pendingRecords());
+    }
+
+    /**
+     * java.io.tmpdir 可能在重启时被清空（tmpfs、容器可写层），spool 中未补写的审计日志会丢失
+     */
+    private void checkPersistent(Path directory) {
+        Path tmp = Paths.get(System.getProperty("java.io.tmpdir")).toAbsolutePath().normalize();
+        if (!directory.toAbsolutePath().normalize().startsWith(tmp)) {
+            return;
+        }
+        if (requirePersistentDir) {
+            throw new IllegalStateException("审计日志 spool 目录位于临时目录下，重启后未补写的审计日志可能丢失: " + directory
+                    + "，请通过 audit.log.spool.dir（AUDIT_SPOOL_DIR）配置持久化目录");
+        }
+        log.warn("审计日志 spool 目录位于临时目录下，重启后未补写的审计日志可能丢失: {}", directory);
+    }
+
+    private long countDeadLetters() throws IOException {
+        Path file = Paths.get(dir, DEAD_LETTER_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            return lines.filter(line -> !line.isBlank()).count();
+        }
+    }
+
+    private Segment createSegment(long sequence) throws IOException {
+        Path file = Paths.get(dir, String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSizeKb * 1024L);
+            buffer.putLong(0, SEGMENT_HEADER_SIZE);
+            log.info("审计日志 spool 新建段: {}", file.getFileName());
+            return new Segment(sequence, file, buffer, SEGMENT_HEADER_SIZE, SEGMENT_HEADER_SIZE);
+        }
+    }
+
+    /**
+     * 映射已有段文件，扫描出追加位置
+     */
+    private Segment recover(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        long sequence = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int capacity = buffer.capacity();
+            int readPosition = (int) Math.max(SEGMENT_HEADER_SIZE, Math.min(buffer.getLong(0), capacity));
+            int position = readPosition;
+            while (position + RECORD_HEADER_SIZE <= capacity) {
+                int length = buffer.getInt(position);
+                if (length <= 0 || position + RECORD_HEADER_SIZE + length > capacity) {
+                    break;
+                }
+                position += RECORD_HEADER_SIZE + length;
+                pendingRecords++;
+            }
+            pendingBytes += position - readPosition;
+            return new Segment(sequence, file, buffer, readPosition, position);
+        }
+    }
+
+    private void deleteHead() {
+        Segment head = segments.pollFirst();
+        try {
+            Files.deleteIfExists(head.file);
+            log.info("审计日志 spool 段已补写完成并删除: {}", head.file.getFileName());
+        } catch (IOException e) {
+            log.warn("删除审计日志 spool 段失败: {}, error={}", head.file.getFileName(), e.getMessage());
+        }
+    }
+
+    /**
+     * 段文件
+     */
+    private static final class Segment {
+        private final long sequence;
+        private final Path file;
+        private final MappedByteBuffer buffer;
+        private int readPosition;
+        private int writePosition;
+
+        private Segment(long sequence, Path file, MappedByteBuffer buffer, int readPosition, int writePosition) {
+            this.sequence = sequence;
+            this.file = file;
+            this.buffer = buffer;
+            this.readPosition = readPosition;
+            this.writePosition = writePosition;
+        }
+
+        private int capacity() {
+            return buffer.capacity();
+        }
+
+        private boolean isDrained() {
+            return readPosition >= writePosition;
+        }
+    }
+
+    /**
+     * 一批待补写的记录
+     *
+     * @param sequence    所在段序号
+     * @param endPosition 批次结束位置（补写成功后的新补写位置）
+     * @param bytes       批次占用字节数
+     * @param payloads    审计事件 JSON
+     */
+    public record Batch(long sequence, int endPosition, long bytes, List<byte[]> payloads) {
+
+        static final Batch EMPTY = new Batch(-1, 0, 0, List.of());
+    }
+
+    /**
+     * spool 状态
+     *
+     * @param pendingRecords      未补写条数
+     * @param pendingBytes        未补写字节数
+     * @param segments            段文件数
+     * @param diskBytes           段文件占用磁盘空间
+     * @param oldestPendingAt     最早未补写记录的提交时间（毫秒），无未补写记录时为 null
+     * @param appendedTotal       累计追加条数
+     * @param replayedTotal       累计补写条数
+     * @param rejectedTotal       累计拒绝追加条数
+     * @param deadLetteredTotal   累计写入死信文件条数
+     * @param deadLetterPending   死信文件中未处理的条数
+     * @param replayRatePerSecond 最近一次补写运行的速率（条/秒）
+     * @param lastReplayAt        最近一次补写运行时间（毫秒），未运行过时为 null
+     */
+    public record Stats(long pendingRecords, long pendingBytes, int segments, long diskBytes, Long oldestPendingAt,
+                        long appendedTotal, long replayedTotal, long rejectedTotal, long deadLetteredTotal,
+                        long deadLetterPending, double replayRatePerSecond, Long lastReplayAt) {
+    }
+}
@@ -0,0 +1,104 @@
+package com.his.monitoring;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 审计日志导出监控指标
+ *
+ * <p>导出过程中按批累加行数和字节数，rate() 即为实时的每秒行数和每秒字节数</p>
+ *
+ * <p>指标名称：</p>
+ * <ul>
+ *   <li>audit.log.export.rows - 已导出的审计日志行数</li>
+ *   <li>audit.log.export.bytes - 已写出的字节数（gzip 格式为压缩后字节数）</li>
+ *   <li>audit.log.export.active - 正在进行的导出数</li>
+ *   <li>audit.log.export.duration - 单次导出耗时</li>
+ *   <li>audit.log.export.rejected - 导出数已达上限被拒绝的请求数</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class AuditLogExportMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Counter rows;
+    private final Counter bytes;
+    private final Timer duration;
+    private final Counter rejected;
+
+    /**
+     * 构造函数 - 注册所有监控指标
+     */
+    public AuditLogExportMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        this.rows = Counter.builder("audit.log.export.rows")
+                .description("审计日志导出行数")
+                .baseUnit("rows")
+                .register(meterRegistry);
+
+        this.bytes = Counter.builder("audit.log.export.bytes")
+                .description("审计日志导出字节数")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        this.duration = Timer.builder("audit.log.export.duration")
+                .description("审计日志单次导出耗时")
+                .register(meterRegistry);
+
+        this.rejected = Counter.builder("audit.log.export.rejected")
+                .description("审计日志导出数已达上限被拒绝的请求数")
+                .register(meterRegistry);
+
+        log.info("审计日志导出监控指标已注册");
+    }
+
+    /**
+     * 注册正在进行的导出数指标
+     *
+     * @param permits       导出并发许可
+     * @param maxConcurrent 最大并发导出数
+     */
+    public void bindPermits(Semaphore permits, int maxConcurrent) {
+        Gauge.builder("audit.log.export.active", permits, p -> maxConcurrent - p.availablePermits())
+                .description("正在进行的审计日志导出数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 记录导出进度
+     *
+     * @param rowDelta  新导出的行数
+     * @param byteDelta 新写出的字节数
+     */
+    public void recordProgress(long rowDelta, long byteDelta) {
+        rows.increment(rowDelta);
+        bytes.increment(byteDelta);
+    }
+
+    /**
+     * 记录一次导出完成
+     *
+     * @param nanos 导出耗时（纳秒）
+     */
+    public void recordExport(long nanos) {
+        duration.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一次被拒绝的导出
+     */
+    public void recordRejected() {
+        rejected.increment();
+    }
+}
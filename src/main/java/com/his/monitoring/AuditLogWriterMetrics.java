@@ -0,0 +1,105 @@
+package com.his.monitoring;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 审计日志批量写入监控指标
+ *
+ * <p>记录审计日志写入队列的积压、批量大小和写入延迟</p>
+ *
+ * <p>指标名称：</p>
+ * <ul>
+ *   <li>audit.log.writer.queue.depth - 写入队列中等待写入的审计事件数</li>
+ *   <li>audit.log.writer.batch.size - 每批写入的行数</li>
+ *   <li>audit.log.writer.lag - 审计事件从提交到写入数据库的延迟（按批内最早的事件计算）</li>
+ *   <li>audit.log.writer.rejected - 队列已满时的处理次数（按背压策略分类：block_timeout, spill, drop）</li>
+ *   <li>audit.log.writer.failure - 写入数据库失败的审计事件数</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class AuditLogWriterMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary batchSize;
+    private final Timer lag;
+    private final Counter failure;
+
+    /**
+     * 构造函数 - 注册所有监控指标
+     */
+    public AuditLogWriterMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        this.batchSize = DistributionSummary.builder("audit.log.writer.batch.size")
+                .description("审计日志每批写入行数")
+                .baseUnit("rows")
+                .register(meterRegistry);
+
+        this.lag = Timer.builder("audit.log.writer.lag")
+                .description("审计日志从提交到写入数据库的延迟")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+
+        this.failure = Counter.builder("audit.log.writer.failure")
+                .description("审计日志写入失败条数")
+                .register(meterRegistry);
+
+        log.info("审计日志批量写入监控指标已注册");
+    }
+
+    /**
+     * 注册写入队列积压指标
+     *
+     * @param queue 写入队列
+     */
+    public void bindQueue(Collection<?> queue) {
+        Gauge.builder("audit.log.writer.queue.depth", queue, Collection::size)
+                .description("审计日志写入队列积压数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 记录一批写入
+     *
+     * @param rows     写入行数
+     * @param lagNanos 批内最早的事件从提交到写入完成的延迟（纳秒）
+     */
+    public void recordBatch(int rows, long lagNanos) {
+        batchSize.record(rows);
+        lag.record(lagNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录写入失败
+     *
+     * @param rows 写入失败的行数
+     */
+    public void recordFailure(int rows) {
+        failure.increment(rows);
+    }
+
+    /**
+     * 记录队列已满时的处理
+     *
+     * @param outcome 处理结果（block_timeout, spill, drop）
+     */
+    public void recordRejected(String outcome) {
+        Counter.builder("audit.log.writer.rejected")
+                .description("审计日志写入队列已满时的处理次数")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,124 @@
+package com.his.monitoring;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import com.his.log.writer.AuditLogSpool;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 审计日志 spool 监控端点
+ *
+ * <p>通过 /actuator/auditspool 查看本地 spool 的积压、补写速率和最早未补写审计日志的滞留时间；
+ * 死信文件人工修正后通过 POST /actuator/auditspool 重新追加到 spool 补写（仅管理员，见 SecurityConfig）</p>
+ *
+ * <p>指标名称：</p>
+ * <ul>
+ *   <li>audit.log.spool.pending - spool 中未补写的审计日志条数</li>
+ *   <li>audit.log.spool.bytes - spool 段文件占用的磁盘空间</li>
+ *   <li>audit.log.spool.oldest.age - 最早未补写审计日志的滞留时间（秒）</li>
+ *   <li>audit.log.spool.appended - 累计追加到 spool 的条数</li>
+ *   <li>audit.log.spool.replayed - 累计补写到数据库的条数</li>
+ *   <li>audit.log.spool.rejected - spool 已满或磁盘写入失败时拒绝追加的条数</li>
+ *   <li>audit.log.spool.dead.letter - 数据库拒绝写入、转入死信文件的条数</li>
+ *   <li>audit.log.spool.dead.letter.pending - 死信文件中未处理的条数（大于 0 时应告警）</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@Endpoint(id = "auditspool")
+public class AuditSpoolEndpoint {
+
+    private final AuditLogSpool spool;
+
+    /**
+     * 构造函数 - 注册所有监控指标
+     */
+    public AuditSpoolEndpoint(AuditLogSpool spool, MeterRegistry meterRegistry) {
+        this.spool = spool;
+
+        Gauge.builder("audit.log.spool.pending", spool, s -> s.stats().pendingRecords())
+                .description("审计日志 spool 未补写条数")
+                .register(meterRegistry);
+        Gauge.builder("audit.log.spool.bytes", spool, s -> s.stats().diskBytes())
+                .description("审计日志 spool 占用磁盘空间")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("audit.log.spool.oldest.age", this, AuditSpoolEndpoint::oldestAgeSeconds)
+                .description("最早未补写审计日志的滞留时间")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        FunctionCounter.builder("audit.log.spool.appended", spool, s -> s.stats().appendedTotal())
+                .description("累计追加到审计日志 spool 的条数")
+                .register(meterRegistry);
+        FunctionCounter.builder("audit.log.spool.replayed", spool, s -> s.stats().replayedTotal())
+                .description("累计从审计日志 spool 补写的条数")
+                .register(meterRegistry);
+        FunctionCounter.builder("audit.log.spool.rejected", spool, s -> s.stats().rejectedTotal())
+                .description("审计日志 spool 拒绝追加的条数")
+                .register(meterRegistry);
+        FunctionCounter.builder("audit.log.spool.dead.letter", spool, s -> s.stats().deadLetteredTotal())
+                .description("转入审计日志死信文件的条数")
+                .register(meterRegistry);
+        Gauge.builder("audit.log.spool.dead.letter.pending", spool, s -> s.stats().deadLetterPending())
+                .description("审计日志死信文件中未处理的条数")
+                .register(meterRegistry);
+
+        log.info("审计日志 spool 监控指标已注册");
+    }
+
+    /**
+     * 查询 spool 状态
+     *
+     * @return spool 状态
+     */
+    @ReadOperation
+    public Map<String, Object> status() {
+        AuditLogSpool.Stats stats = spool.stats();
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("pendingRecords", stats.pendingRecords());
+        status.put("pendingBytes", stats.pendingBytes());
+        status.put("segments", stats.segments());
+        status.put("diskBytes", stats.diskBytes());
+        status.put("oldestUnreplayedAgeSeconds", oldestAgeSeconds());
+        status.put("appendedTotal", stats.appendedTotal());
+        status.put("replayedTotal", stats.replayedTotal());
+        status.put("rejectedTotal", stats.rejectedTotal());
+        status.put("deadLetteredTotal", stats.deadLetteredTotal());
+        status.put("deadLetterPending", stats.deadLetterPending());
+        status.put("replayRatePerSecond", stats.replayRatePerSecond());
+        status.put("lastReplayAt", stats.lastReplayAt());
+        return status;
+    }
+
+    /**
+     * 将死信文件中的审计事件重新追加到 spool
+     *
+     * @return 重新追加的条数和仍留在死信文件中的条数
+     * @throws IOException 读写死信文件失败时抛出
+     */
+    @WriteOperation
+    public Map<String, Object> requeueDeadLetters() throws IOException {
+        int requeued = spool.requeueDeadLetters();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requeued", requeued);
+        result.put("deadLetterPending", spool.stats().deadLetterPending());
+        return result;
+    }
+
+    private double oldestAgeSeconds() {
+        Long oldestPendingAt = spool.stats().oldestPendingAt();
+        return oldestPendingAt == null ? 0.0 : Math.max(0, System.currentTimeMillis() - oldestPendingAt) / 1000.0;
+    }
+}
@@ -0,0 +1,143 @@
+package com.his.monitoring;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * 记录慢 SQL 的数据源代理
+ *
+ * <p>包装连接池（Hikari），为 {@link Statement}、{@code PreparedStatement} 和 {@code CallableStatement}
+ * 记录绑定参数并计时，执行完成后交给 {@link SlowSqlRecorder} 判断是否超过阈值</p>
+ *
+ * <p>{@code unwrap}/{@code isWrapperFor} 透传给连接池，连接池指标和健康检查不受影响</p>
+ *
+ * @see SlowSqlDataSourcePostProcessor
+ */
+public class SlowSqlDataSource extends DelegatingDataSource {
+
+    private final SlowSqlRecorder recorder;
+
+    public SlowSqlDataSource(DataSource targetDataSource, SlowSqlRecorder recorder) {
+        super(targetDataSource);
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        if (!recorder.isEnabled()) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * 连接代理：创建语句时返回语句代理
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SlowSqlDataSource.invoke(target, method, args);
+            String name = method.getName();
+            if (result instanceof Statement && (name.equals("createStatement")
+                    || name.equals("prepareStatement") || name.equals("prepareCall"))) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                        new Class<?>[] {method.getReturnType()}, new StatementHandler((Statement) result, sql));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 语句代理：记录绑定参数，执行时计时
+     */
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final List<Object> params = new ArrayList<>();
+        private String sql;
+        private int batchSize;
+
+        private StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args, name.equals("executeBatch") || name.equals("executeLargeBatch"));
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                setParam(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                params.clear();
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+                if (args != null && args.length == 1 && args[0] instanceof String batchSql) {
+                    sql = batchSql;
+                }
+            } else if (name.equals("clearBatch")) {
+                batchSize = 0;
+            }
+            return SlowSqlDataSource.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args, boolean batch) throws Throwable {
+            String executedSql = !batch && args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+            long start = System.nanoTime();
+            try {
+                return SlowSqlDataSource.invoke(target, method, args);
+            } finally {
+                recorder.record(executedSql, params, batch ? batchSize : 0, System.nanoTime() - start);
+                if (batch) {
+                    batchSize = 0;
+                }
+            }
+        }
+
+        private void setParam(int index, Object value) {
+            while (params.size() < index) {
+                params.add(null);
+            }
+            params.set(index - 1, value);
+        }
+    }
+}
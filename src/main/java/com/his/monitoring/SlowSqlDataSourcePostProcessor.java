@@ -0,0 +1,35 @@
+package com.his.monitoring;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 用 {@link SlowSqlDataSource} 包装容器中的数据源
+ *
+ * <p>{@link SlowSqlRecorder} 通过 {@link ObjectProvider} 在包装数据源时才获取，
+ * 避免 BeanPostProcessor 提前初始化 MeterRegistry</p>
+ */
+@Slf4j
+@Component
+public class SlowSqlDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<SlowSqlRecorder> recorder;
+
+    public SlowSqlDataSourcePostProcessor(ObjectProvider<SlowSqlRecorder> recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof SlowSqlDataSource)) {
+            log.info("数据源 {} 已启用慢 SQL 记录", beanName);
+            return new SlowSqlDataSource(dataSource, recorder.getObject());
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,155 @@
+package com.his.monitoring;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 慢 SQL 监控端点
+ *
+ * <ul>
+ *   <li>GET /actuator/slowsql - 最近的慢 SQL（绑定参数已脱敏），最新的在前</li>
+ *   <li>POST /actuator/slowsql/{id} - 对一条慢 SQL 执行 {@code EXPLAIN (ANALYZE, BUFFERS)}</li>
+ *   <li>DELETE /actuator/slowsql - 清空已记录的慢 SQL</li>
+ * </ul>
+ *
+ * <p>{@code EXPLAIN ANALYZE} 会真正执行语句，因此只接受 SELECT/WITH 语句，
+ * 在只读事务中使用原始绑定参数执行并回滚，且设置 statement_timeout。
+ * 该端点只对管理员开放（见 SecurityConfig）</p>
+ */
+@Slf4j
+@Component
+@Endpoint(id = "slowsql")
+public class SlowSqlEndpoint {
+
+    private static final Pattern LEADING_COMMENTS = Pattern.compile("^(\\s*(/\\*.*?\\*/|--[^\\n]*\\n))*\\s*",
+            Pattern.DOTALL);
+
+    private final SlowSqlRecorder recorder;
+    private final DataSource dataSource;
+
+    /** EXPLAIN ANALYZE 的超时时间（秒） */
+    @Value("${monitoring.slow-sql.explain-timeout-seconds:30}")
+    private int explainTimeoutSeconds;
+
+    public SlowSqlEndpoint(SlowSqlRecorder recorder, DataSource dataSource) {
+        this.recorder = recorder;
+        // 直接使用连接池，EXPLAIN 本身不计入慢 SQL
+        this.dataSource = dataSource instanceof SlowSqlDataSource slowSqlDataSource
+                && slowSqlDataSource.getTargetDataSource() != null
+                ? slowSqlDataSource.getTargetDataSource() : dataSource;
+    }
+
+    /**
+     * 查询最近的慢 SQL
+     *
+     * @return 阈值、累计条数和最近的慢 SQL
+     */
+    @ReadOperation
+    public Map<String, Object> entries() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", recorder.isEnabled());
+        result.put("thresholdMs", recorder.getThresholdMs());
+        result.put("capacity", recorder.getCapacity());
+        result.put("capturedTotal", recorder.getCapturedTotal());
+        result.put("entries", recorder.entries());
+        return result;
+    }
+
+    /**
+     * 对一条慢 SQL 执行 EXPLAIN (ANALYZE, BUFFERS)
+     *
+     * @param id 慢 SQL 编号
+     * @return 慢 SQL 和执行计划；编号不存在或已被覆盖时返回 null（404）
+     */
+    @WriteOperation
+    public Map<String, Object> explain(@Selector long id) {
+        SlowSqlRecorder.Slot slot = recorder.getForExplain(id);
+        if (slot == null) {
+            return null;
+        }
+        String sql = stripLeadingComments(slot.sql());
+        if (!isReadOnlyQuery(sql)) {
+            throw new InvalidEndpointRequestException("只能对 SELECT/WITH 语句执行 EXPLAIN ANALYZE: #" + id,
+                    "Only SELECT/WITH statements can be explained");
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("entry", slot.entry());
+        try {
+            result.put("plan", explainAnalyze(sql, slot.rawParams()));
+        } catch (SQLException e) {
+            log.warn("慢 SQL #{} EXPLAIN 执行失败: {}", id, e.getMessage());
+            result.put("error", e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * 清空已记录的慢 SQL
+     */
+    @DeleteOperation
+    public void clear() {
+        recorder.clear();
+        log.info("已清空慢 SQL 记录");
+    }
+
+    private List<String> explainAnalyze(String sql, List<Object> params) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET TRANSACTION READ ONLY");
+                    statement.execute("SET LOCAL statement_timeout = " + explainTimeoutSeconds * 1000L);
+                }
+                try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + sql)) {
+                    for (int i = 0; i < params.size(); i++) {
+                        Object param = params.get(i);
+                        statement.setObject(i + 1, param == SlowSqlRecorder.NULL_PARAM ? null : param);
+                    }
+                    List<String> plan = new ArrayList<>();
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            plan.add(rs.getString(1));
+                        }
+                    }
+                    return plan;
+                }
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    static String stripLeadingComments(String sql) {
+        return LEADING_COMMENTS.matcher(sql).replaceFirst("");
+    }
+
+    static boolean isReadOnlyQuery(String sql) {
+        String lower = sql.toLowerCase(Locale.ROOT);
+        return lower.startsWith("select") || lower.startsWith("with");
+    }
+}
@@ -0,0 +1,280 @@
+package com.his.monitoring;
+
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Pattern;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.his.common.DataMaskingUtils;
+import com.his.log.filter.TraceIdFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 慢 SQL 记录器
+ *
+ * <p>保存最近 capacity 条执行时间超过阈值的 JDBC 语句（环形缓冲区，写满后覆盖最早的记录），
+ * 由 {@link SlowSqlDataSource} 在语句执行完成后调用</p>
+ *
+ * <p>每条记录包含 SQL、脱敏后的绑定参数、接口（method + uri 模板）和 TraceId。
+ * 原始绑定参数只保存在内存中供 {@code EXPLAIN} 使用，不会出现在日志和端点输出中</p>
+ *
+ * <p>指标名称：</p>
+ * <ul>
+ *   <li>sql.slow.statements - 超过慢 SQL 阈值的语句执行耗时</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class SlowSqlRecorder {
+
+    private static final String NO_ENDPOINT = "-";
+
+    private static final Pattern PHONE = Pattern.compile("1\\d{10}");
+    private static final Pattern ID_CARD = Pattern.compile("\\d{17}[\\dXx]");
+
+    /** 绑定参数中的 NULL（List.copyOf 不接受 null 元素） */
+    static final Object NULL_PARAM = new Object();
+
+    private final Timer slowStatements;
+
+    /** 是否记录慢 SQL */
+    @Value("${monitoring.slow-sql.enabled:true}")
+    private boolean enabled;
+
+    /** 慢 SQL 阈值（毫秒） */
+    @Value("${monitoring.slow-sql.threshold-ms:500}")
+    private long thresholdMs;
+
+    /** 保留的慢 SQL 条数 */
+    @Value("${monitoring.slow-sql.capacity:200}")
+    private int capacity;
+
+    /** 单条 SQL 保留的最大字符数 */
+    @Value("${monitoring.slow-sql.max-sql-length:4000}")
+    private int maxSqlLength;
+
+    private long thresholdNanos;
+    private AtomicReferenceArray<Slot> slots;
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * 构造函数 - 注册所有监控指标
+     */
+    public SlowSqlRecorder(MeterRegistry meterRegistry) {
+        this.slowStatements = Timer.builder("sql.slow.statements")
+                .description("超过慢 SQL 阈值的语句执行耗时")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (capacity < 1) {
+            throw new IllegalStateException("monitoring.slow-sql.capacity 必须大于0");
+        }
+        thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        slots = new AtomicReferenceArray<>(capacity);
+        log.info("慢 SQL 记录: enabled={}, 阈值={}ms, 保留条数={}", enabled, thresholdMs, capacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getThresholdMs() {
+        return thresholdMs;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 累计记录的慢 SQL 条数（包括已被覆盖的）
+     */
+    public long getCapturedTotal() {
+        return sequence.get();
+    }
+
+    /**
+     * 语句执行完成后调用，未超过阈值时直接返回
+     *
+     * @param sql          SQL
+     * @param params       按位置排列的绑定参数（批量执行时为最后一组），可为空
+     * @param batchSize    批量执行的语句数，非批量执行为 0
+     * @param elapsedNanos 执行耗时（纳秒）
+     */
+    public void record(String sql, List<Object> params, int batchSize, long elapsedNanos) {
+        if (elapsedNanos < thresholdNanos || sql == null) {
+            return;
+        }
+        slowStatements.record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        List<Object> rawParams = params == null ? Collections.emptyList() : List.copyOf(nullSafe(params));
+        long id = sequence.incrementAndGet();
+        Entry entry = new Entry(id, LocalDateTime.now(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                abbreviate(sql), maskParams(rawParams), batchSize, currentEndpoint(),
+                MDC.get(TraceIdFilter.TRACE_ID_KEY));
+        slots.set(index(id), new Slot(entry, sql, rawParams));
+
+        log.warn("[SQL-SLOW] #{} {}ms | {} | traceId={} | {}",
+                id, entry.elapsedMillis(), entry.endpoint(), entry.traceId(), entry.sql());
+    }
+
+    /**
+     * 最近的慢 SQL，最新的在前
+     */
+    public List<Entry> entries() {
+        long last = sequence.get();
+        List<Entry> entries = new ArrayList<>();
+        for (long id = last; id > 0 && id > last - capacity; id--) {
+            Slot slot = find(id);
+            if (slot != null) {
+                entries.add(slot.entry());
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * 按编号查找慢 SQL
+     *
+     * @return 慢 SQL，不存在或已被覆盖时返回 null
+     */
+    public Entry get(long id) {
+        Slot slot = find(id);
+        return slot == null ? null : slot.entry();
+    }
+
+    /**
+     * 完整 SQL 和原始绑定参数，只用于 {@code EXPLAIN}
+     *
+     * @return 完整 SQL 和原始绑定参数，不存在或已被覆盖时返回 null
+     */
+    Slot getForExplain(long id) {
+        return find(id);
+    }
+
+    /**
+     * 清空已记录的慢 SQL
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+
+    private Slot find(long id) {
+        if (id < 1) {
+            return null;
+        }
+        Slot slot = slots.get(index(id));
+        return slot != null && slot.entry().id() == id ? slot : null;
+    }
+
+    private int index(long id) {
+        return (int) ((id - 1) % capacity);
+    }
+
+    private String abbreviate(String sql) {
+        return sql.length() > maxSqlLength ? sql.substring(0, maxSqlLength) + "..." : sql;
+    }
+
+    /**
+     * 当前请求的接口（method + uri 模板），不在请求线程中时返回 "-"
+     */
+    private static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return NO_ENDPOINT;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+
+    private static List<Object> nullSafe(List<Object> params) {
+        List<Object> copy = new ArrayList<>(params.size());
+        for (Object param : params) {
+            copy.add(param == null ? NULL_PARAM : param);
+        }
+        return copy;
+    }
+
+    /**
+     * 绑定参数脱敏：数字、布尔和时间原样保留；手机号、身份证号按 {@link DataMaskingUtils} 规则脱敏；
+     * 其他字符串只保留首字符和长度
+     */
+    static List<String> maskParams(List<Object> params) {
+        List<String> masked = new ArrayList<>(params.size());
+        for (Object param : params) {
+            masked.add(maskParam(param));
+        }
+        return masked;
+    }
+
+    static String maskParam(Object param) {
+        if (param == null || param == NULL_PARAM) {
+            return "NULL";
+        }
+        if (param instanceof Number || param instanceof Boolean
+                || param instanceof TemporalAccessor || param instanceof Date) {
+            return param.toString();
+        }
+        if (param instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        if (!(param instanceof CharSequence)) {
+            return "<" + param.getClass().getSimpleName() + ">";
+        }
+        String value = param.toString();
+        if (PHONE.matcher(value).matches()) {
+            return "'" + DataMaskingUtils.maskPhone(value) + "'";
+        }
+        if (ID_CARD.matcher(value).matches()) {
+            return "'" + DataMaskingUtils.maskIdCard(value) + "'";
+        }
+        return value.isEmpty() ? "''" : "'" + value.charAt(0) + "***'(" + value.length() + ")";
+    }
+
+    /**
+     * 慢 SQL 记录
+     *
+     * @param id            编号（递增）
+     * @param capturedAt    记录时间
+     * @param elapsedMillis 执行耗时（毫秒）
+     * @param sql           SQL（超过最大长度时截断）
+     * @param params        脱敏后的绑定参数
+     * @param batchSize     批量执行的语句数，非批量执行为 0
+     * @param endpoint      接口（method + uri 模板），不在请求线程中时为 "-"
+     * @param traceId       TraceId
+     */
+    public record Entry(long id, LocalDateTime capturedAt, long elapsedMillis, String sql, List<String> params,
+                        int batchSize, String endpoint, String traceId) {
+    }
+
+    /**
+     * 环形缓冲区中的一项：记录、完整 SQL 和原始绑定参数
+     */
+    record Slot(Entry entry, String sql, List<Object> rawParams) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.his.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * SQL 语句计数器（Hibernate StatementInspector）
+ *
+ * <p>Hibernate 在准备每条 SQL 前调用，将语句记入当前线程的 {@link SqlStatementStats}，
+ * 不修改 SQL；不在请求统计范围内（如定时任务）时直接返回</p>
+ *
+ * <p>通过 {@code spring.jpa.properties.hibernate.session_factory.statement_inspector} 注册，
+ * 由 Hibernate 实例化，不是 Spring Bean</p>
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            stats.recordStatement(sql);
+        }
+        return sql;
+    }
+}
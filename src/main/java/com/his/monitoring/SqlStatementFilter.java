@@ -0,0 +1,210 @@
+package com.his.monitoring;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 请求 SQL 语句统计过滤器
+ *
+ * <p>在请求期间统计 Hibernate 执行的 SQL 语句数、JDBC 总耗时和重复形状的语句，
+ * 按接口记录指标，超出预算时记录 WARN 日志</p>
+ *
+ * <h3>预算</h3>
+ * <ul>
+ *   <li><b>语句数</b>：单个请求的 SQL 语句数超过 max-statements（可按接口覆盖）</li>
+ *   <li><b>重复语句</b>：同一形状的语句在一个请求中执行次数达到 repeated-threshold，视为疑似 N+1 查询</li>
+ * </ul>
+ *
+ * <p>response-header 开启时（非生产环境）在响应头 X-SQL-Count 返回开始写出响应体之前执行的语句数</p>
+ *
+ * <p>只统计经过 Hibernate 的语句（JPA Repository、实体懒加载），JdbcTemplate 查询不在统计范围内；
+ * 统计绑定在请求线程上，线程池中执行的查询不计入</p>
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)  // 紧随 TraceIdFilter，WARN 日志带有 TraceId
+@RequiredArgsConstructor
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    /** 响应头：请求执行的 SQL 语句数 */
+    public static final String SQL_COUNT_HEADER = "X-SQL-Count";
+
+    private static final String UNMATCHED_URI = "UNMATCHED";
+
+    private final SqlStatementMetrics metrics;
+
+    @Value("${monitoring.sql.enabled:true}")
+    private boolean enabled;
+
+    @Value("${monitoring.sql.max-statements:30}")
+    private int maxStatements;
+
+    @Value("${monitoring.sql.repeated-threshold:10}")
+    private int repeatedThreshold;
+
+    @Value("${monitoring.sql.endpoint-budgets:}")
+    private String endpointBudgetsConfig;
+
+    @Value("${monitoring.sql.response-header:false}")
+    private boolean responseHeader;
+
+    private Map<String, Integer> endpointBudgets = Collections.emptyMap();
+
+    @PostConstruct
+    public void init() {
+        endpointBudgets = parseEndpointBudgets(endpointBudgetsConfig);
+        log.info("请求 SQL 统计: enabled={}, 语句数预算={}, 重复语句阈值={}, 按接口预算={}, 响应头={}",
+                enabled, maxStatements, repeatedThreshold, endpointBudgets, responseHeader);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementStats.start();
+        SqlCountResponseWrapper wrapper = responseHeader ? new SqlCountResponseWrapper(response, stats) : null;
+        try {
+            filterChain.doFilter(request, wrapper != null ? wrapper : response);
+            if (wrapper != null) {
+                // 没有响应体的请求
+                wrapper.writeHeader();
+            }
+        } finally {
+            SqlStatementStats.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : UNMATCHED_URI;
+            metrics.record(request.getMethod(), uri, stats);
+            checkBudget(request.getMethod(), uri, stats);
+        }
+    }
+
+    private void checkBudget(String method, String uri, SqlStatementStats stats) {
+        int budget = endpointBudgets.getOrDefault(method + " " + uri, maxStatements);
+        if (stats.getStatementCount() > budget) {
+            metrics.recordBudgetExceeded(method, uri, "statements");
+            log.warn("[SQL-BUDGET] {} {} | SQL 语句数 {} 超过预算 {} | JDBC 耗时: {}ms",
+                    method, uri, stats.getStatementCount(), budget,
+                    TimeUnit.NANOSECONDS.toMillis(stats.getJdbcNanos()));
+        }
+        if (stats.getMaxRepeats() >= repeatedThreshold) {
+            metrics.recordBudgetExceeded(method, uri, "repeated");
+            log.warn("[SQL-N+1] {} {} | 同一语句执行 {} 次，疑似 N+1 查询: {}",
+                    method, uri, stats.getMaxRepeats(), abbreviate(stats.getMostRepeatedShape()));
+        }
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() > 300 ? sql.substring(0, 300) + "..." : sql;
+    }
+
+    /**
+     * 解析按接口预算：{@code METHOD URI模板=上限}，多个用逗号分隔
+     */
+    static Map<String, Integer> parseEndpointBudgets(String config) {
+        if (config == null || config.isBlank()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Integer> budgets = new HashMap<>();
+        for (String entry : config.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("SQL 预算配置格式错误（应为 METHOD URI=上限）: " + entry.trim());
+            }
+            String endpoint = entry.substring(0, separator).trim().replaceAll("\\s+", " ");
+            try {
+                budgets.put(endpoint, Integer.parseInt(entry.substring(separator + 1).trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("SQL 预算配置格式错误（上限应为整数）: " + entry.trim(), e);
+            }
+        }
+        return Collections.unmodifiableMap(budgets);
+    }
+
+    /**
+     * 开始写出响应体时设置 X-SQL-Count 响应头（响应头必须在提交响应之前设置）
+     */
+    private static final class SqlCountResponseWrapper extends HttpServletResponseWrapper {
+
+        private final SqlStatementStats stats;
+        private boolean headerWritten;
+
+        private SqlCountResponseWrapper(HttpServletResponse response, SqlStatementStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        private void writeHeader() {
+            if (!headerWritten) {
+                headerWritten = true;
+                if (!isCommitted()) {
+                    setHeader(SQL_COUNT_HEADER, String.valueOf(stats.getStatementCount()));
+                }
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.his.monitoring;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 请求 SQL 语句监控指标
+ *
+ * <p>按接口（method + uri 模板，与 http.server.requests 相同）记录每个请求执行的 SQL 语句</p>
+ *
+ * <p>指标名称：</p>
+ * <ul>
+ *   <li>sql.request.statements - 每个请求执行的 SQL 语句数</li>
+ *   <li>sql.request.jdbc.time - 每个请求的 JDBC 执行总耗时</li>
+ *   <li>sql.request.repeated - 每个请求中同一形状语句的最大重复次数</li>
+ *   <li>sql.request.budget.exceeded - 超出 SQL 预算的请求数（按原因分类：statements, repeated）</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class SqlStatementMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 构造函数
+     */
+    public SqlStatementMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        log.info("请求 SQL 语句监控指标已注册");
+    }
+
+    /**
+     * 记录一个请求的 SQL 统计
+     *
+     * @param method HTTP 方法
+     * @param uri    URI 模板
+     * @param stats  SQL 统计
+     */
+    public void record(String method, String uri, SqlStatementStats stats) {
+        Tags tags = Tags.of("method", method, "uri", uri);
+        DistributionSummary.builder("sql.request.statements")
+                .description("每个请求执行的 SQL 语句数")
+                .baseUnit("statements")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getStatementCount());
+        Timer.builder("sql.request.jdbc.time")
+                .description("每个请求的 JDBC 执行总耗时")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("sql.request.repeated")
+                .description("每个请求中同一形状语句的最大重复次数")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getMaxRepeats());
+    }
+
+    /**
+     * 记录一次超出 SQL 预算
+     *
+     * @param method HTTP 方法
+     * @param uri    URI 模板
+     * @param reason 原因（statements, repeated）
+     */
+    public void recordBudgetExceeded(String method, String uri, String reason) {
+        Counter.builder("sql.request.budget.exceeded")
+                .description("超出 SQL 预算的请求数")
+                .tags("method", method, "uri", uri, "reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+}
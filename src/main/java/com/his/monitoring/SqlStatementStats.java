@@ -0,0 +1,128 @@
+package com.his.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 单个请求的 SQL 语句统计
+ *
+ * <p>由 {@link SqlStatementFilter} 在请求开始时绑定到当前线程，
+ * {@link SqlStatementCounter}（Hibernate StatementInspector）和 {@link SqlTimingEventListener}
+ * 在同一线程中累加，请求结束时解绑并记录指标</p>
+ *
+ * <p>语句形状：字面量替换为 ?、IN 列表合并为一个 ?、空白合并后的 SQL；
+ * 同一形状在一个请求中重复多次通常意味着 N+1 查询（循环中触发懒加载或逐条查询）</p>
+ */
+public final class SqlStatementStats {
+
+    /** 每个请求最多记录的语句形状数，超出后只计数 */
+    static final int MAX_SHAPES = 256;
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, Integer> shapes = new HashMap<>();
+    private int statementCount;
+    private long jdbcNanos;
+    private int maxRepeats;
+    private String mostRepeatedShape;
+
+    /**
+     * 开始统计当前线程的 SQL 语句
+     *
+     * @return 绑定到当前线程的统计对象
+     */
+    public static SqlStatementStats start() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * 当前线程的统计对象
+     *
+     * @return 统计对象，不在统计范围内时返回 null
+     */
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 结束当前线程的统计
+     */
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 记录一条 SQL 语句
+     *
+     * @param sql SQL 语句
+     */
+    public void recordStatement(String sql) {
+        statementCount++;
+        String shape = shapeOf(sql);
+        Integer repeats = shapes.get(shape);
+        if (repeats == null) {
+            if (shapes.size() >= MAX_SHAPES) {
+                return;
+            }
+            repeats = 0;
+        }
+        repeats++;
+        shapes.put(shape, repeats);
+        if (repeats > maxRepeats) {
+            maxRepeats = repeats;
+            mostRepeatedShape = shape;
+        }
+    }
+
+    /**
+     * 记录一次 JDBC 执行耗时
+     *
+     * @param nanos 耗时（纳秒）
+     */
+    public void recordJdbcTime(long nanos) {
+        jdbcNanos += nanos;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    /**
+     * @return 同一形状语句的最大重复次数
+     */
+    public int getMaxRepeats() {
+        return maxRepeats;
+    }
+
+    /**
+     * @return 重复次数最多的语句形状，没有语句时返回 null
+     */
+    public String getMostRepeatedShape() {
+        return mostRepeatedShape;
+    }
+
+    /**
+     * 计算语句形状
+     *
+     * @param sql SQL 语句
+     * @return 语句形状
+     */
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,44 @@
+package com.his.monitoring;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * JDBC 执行耗时监听器（Hibernate SessionEventListener）
+ *
+ * <p>累加每条语句和每个批次的 JDBC 执行耗时到当前线程的 {@link SqlStatementStats}</p>
+ *
+ * <p>通过 {@code spring.jpa.properties.hibernate.session.events.auto} 注册，
+ * Hibernate 为每个 Session 创建一个实例，同一 Session 内的语句顺序执行</p>
+ */
+public class SqlTimingEventListener implements SessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record(statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record(batchStart);
+    }
+
+    private static void record(long start) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null && start != 0) {
+            stats.recordJdbcTime(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.his.monitoring;
+
+import org.springframework.stereotype.Component;
+
+import com.his.enums.CachedRecordTypeEnum;
+import com.his.service.TerminalRecordCacheService;
+import com.his.service.TerminalRecordCacheService.Stats;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 终态记录缓存监控指标
+ *
+ * <p>按记录类型（registration, prescription, charge）输出缓存命中率与内存占用</p>
+ *
+ * <p>指标名称：</p>
+ * <ul>
+ *   <li>record.cache.gets - 缓存读取次数（按结果分类：hit, miss, bypass）</li>
+ *   <li>record.cache.hit.ratio - 缓存命中率（命中次数 / (命中次数 + 未命中次数)）</li>
+ *   <li>record.cache.evictions - 容量或存活时间淘汰次数</li>
+ *   <li>record.cache.entries - 当前缓存条目数</li>
+ *   <li>record.cache.size - 当前缓存条目估算占用字节数</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class TerminalRecordCacheMetrics {
+
+    /**
+     * 构造函数 - 注册所有监控指标
+     */
+    public TerminalRecordCacheMetrics(MeterRegistry meterRegistry, TerminalRecordCacheService cacheService) {
+        for (CachedRecordTypeEnum type : CachedRecordTypeEnum.values()) {
+            String tag = type.name().toLowerCase();
+
+            FunctionCounter.builder("record.cache.gets", cacheService, s -> s.stats(type).hits())
+                    .description("终态记录缓存读取次数")
+                    .tag("type", tag)
+                    .tag("result", "hit")
+                    .register(meterRegistry);
+            FunctionCounter.builder("record.cache.gets", cacheService, s -> s.stats(type).misses())
+                    .description("终态记录缓存读取次数")
+                    .tag("type", tag)
+                    .tag("result", "miss")
+                    .register(meterRegistry);
+            FunctionCounter.builder("record.cache.gets", cacheService, s -> s.stats(type).bypasses())
+                    .description("终态记录缓存读取次数")
+                    .tag("type", tag)
+                    .tag("result", "bypass")
+                    .register(meterRegistry);
+            FunctionCounter.builder("record.cache.evictions", cacheService, s -> s.stats(type).evictions())
+                    .description("终态记录缓存容量或存活时间淘汰次数")
+                    .tag("type", tag)
+                    .register(meterRegistry);
+
+            Gauge.builder("record.cache.hit.ratio", cacheService, s -> hitRatio(s.stats(type)))
+                    .description("终态记录缓存命中率")
+                    .tag("type", tag)
+                    .register(meterRegistry);
+            Gauge.builder("record.cache.entries", cacheService, s -> s.stats(type).entries())
+                    .description("终态记录缓存条目数")
+                    .tag("type", tag)
+                    .register(meterRegistry);
+            Gauge.builder("record.cache.size", cacheService, s -> s.stats(type).estimatedBytes())
+                    .description("终态记录缓存估算占用字节数")
+                    .tag("type", tag)
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+
+        log.info("终态记录缓存监控指标已注册");
+    }
+
+    private static double hitRatio(Stats stats) {
+        long total = stats.hits() + stats.misses();
+        return total == 0 ? 0.0 : (double) stats.hits() / total;
+    }
+}
@@ -111,14 +111,14 @@ public interface AuditLogRepository extends JpaRepository<AuditLogEntity, Long>,
     /**
      * 删除指定时间之前的审计日志
      *
-     * <p>用于定期清理过期数据,释放存储空间</p>
-     * <p>配合定时任务使用,每天凌晨2点清理180天前的数据</p>
+     * <p>派生删除会先加载实体再逐条删除,只适用于少量数据（如测试清理）;
+     * 保留期清理由 {@link com.his.service.AuditLogRetentionService} 删除整月分区</p>
      *
      * <p><b>注意：</b>此操作不可逆,删除前建议先备份</p>
      *
      * @param time 截止时间(此时间之前的所有日志将被删除)
      * @since 1.0
-     * @see com.his.scheduled.AuditLogCleanupTask
+     * @see com.his.service.AuditLogRetentionService
      */
     void deleteByCreateTimeBefore(LocalDateTime time);
 }
@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.his.entity.Patient;
+import com.his.repository.projection.PatientSearchView;
 
 /**
  * 患者 Repository
@@ -82,15 +83,16 @@ public interface PatientRepository extends JpaRepository<Patient, Long>, JpaSpec
      *
      * @param keyword 搜索关键字（支持姓名、身份证号、手机号的模糊匹配）
      * @param pageable 分页参数（建议限制前15条）
-     * @return 匹配的患者列表，按更新时间降序排列
+     * @return 匹配的患者列表（只选择搜索结果展示的列），按更新时间降序排列
      */
-    @Query("SELECT p FROM Patient p WHERE " +
+    @Query("SELECT p.mainId AS mainId, p.patientNo AS patientNo, p.name AS name, p.idCard AS idCard, " +
+           "p.gender AS gender, p.age AS age, p.phone AS phone FROM Patient p WHERE " +
            "p.isDeleted = 0 AND " +
            "(LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "p.idCard LIKE CONCAT('%', :keyword, '%') OR " +
            "p.phone LIKE CONCAT('%', :keyword, '%')) " +
            "ORDER BY p.updatedAt DESC")
-    List<Patient> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
+    List<PatientSearchView> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
 
     // ========== 编号生成方法 - 使用数据库序列保证线程安全 ==========
 
@@ -1,5 +1,7 @@
 package com.his.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.his.dto.ActiveMedicineDTO;
 import com.his.entity.PrescriptionDetail;
 
 /**
@@ -21,6 +24,14 @@ public interface PrescriptionDetailRepository extends JpaRepository<Prescription
      */
     List<PrescriptionDetail> findByPrescription_MainIdAndIsDeletedOrderBySortOrder(Long prescriptionId, Short isDeleted);
 
+    /**
+     * 按处方ID批量查询明细列表（处方列表投影配合使用，按处方、排序号排列）
+     * 药品、处方均为懒加载关联，只读取其外键ID，不加载对应实体
+     */
+    @Query("SELECT pd FROM PrescriptionDetail pd WHERE pd.prescription.mainId IN :prescriptionIds AND pd.isDeleted = 0 " +
+            "ORDER BY pd.prescription.mainId, pd.sortOrder, pd.mainId")
+    List<PrescriptionDetail> findByPrescriptionIds(@Param("prescriptionIds") Collection<Long> prescriptionIds);
+
     /**
      * 根据药品ID查询使用记录
      */
@@ -50,6 +61,19 @@ public interface PrescriptionDetailRepository extends JpaRepository<Prescription
     @Query("SELECT COUNT(pd) FROM PrescriptionDetail pd WHERE pd.prescription.mainId = :prescriptionId AND pd.isDeleted = 0")
     long countByPrescriptionId(@Param("prescriptionId") Long prescriptionId);
 
+    /**
+     * 批量查询患者在用处方中的药品（用药冲突检查）
+     * 在用处方：状态为 pendingStatuses 之一，或在 dispensedSince 之后已发药
+     */
+    @Query("SELECT new com.his.dto.ActiveMedicineDTO(p.patient.mainId, p.mainId, p.prescriptionNo, pd.medicine.mainId, pd.medicineName) " +
+            "FROM PrescriptionDetail pd JOIN pd.prescription p " +
+            "WHERE p.patient.mainId IN :patientIds AND p.isDeleted = 0 AND pd.isDeleted = 0 " +
+            "AND (p.status IN :pendingStatuses OR (p.status = :dispensedStatus AND p.dispenseTime >= :dispensedSince))")
+    List<ActiveMedicineDTO> findActiveMedicines(@Param("patientIds") Collection<Long> patientIds,
+                                                @Param("pendingStatuses") Collection<Short> pendingStatuses,
+                                                @Param("dispensedStatus") Short dispensedStatus,
+                                                @Param("dispensedSince") LocalDateTime dispensedSince);
+
     /**
      * 根据药品名称模糊查询
      */
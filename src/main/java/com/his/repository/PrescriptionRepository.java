@@ -1,16 +1,22 @@
 package com.his.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.his.entity.Prescription;
+import com.his.repository.projection.PrescriptionListView;
 
 /**
  * 处方 Repository
@@ -18,6 +24,18 @@ import com.his.entity.Prescription;
 @Repository
 public interface PrescriptionRepository extends JpaRepository<Prescription, Long>, JpaSpecificationExecutor<Prescription> {
 
+    /**
+     * 处方列表投影的选择列与连接（别名与 {@link PrescriptionListView} 的属性一一对应）
+     */
+    String PRESCRIPTION_LIST_COLUMNS = "p.mainId AS mainId, p.prescriptionNo AS prescriptionNo, " +
+            "p.medicalRecord.mainId AS recordId, pa.mainId AS patientId, pa.name AS patientName, " +
+            "d.mainId AS doctorId, d.name AS doctorName, p.prescriptionType AS prescriptionType, " +
+            "p.totalAmount AS totalAmount, p.itemCount AS itemCount, p.status AS status, p.validityDays AS validityDays, " +
+            "rd.mainId AS reviewDoctorId, rd.name AS reviewDoctorName, p.reviewTime AS reviewTime, " +
+            "p.reviewRemark AS reviewRemark, p.dispenseTime AS dispenseTime, p.dispenseBy AS dispenseBy, " +
+            "p.claimedBy AS claimedBy, p.claimExpiresAt AS claimExpiresAt, p.createdAt AS createdAt, p.updatedAt AS updatedAt " +
+            "FROM Prescription p LEFT JOIN p.patient pa LEFT JOIN p.doctor d LEFT JOIN p.reviewDoctor rd";
+
     /**
      * 根据处方号查询（未删除）
      */
@@ -85,31 +103,86 @@ public interface PrescriptionRepository extends JpaRepository<Prescription, Long
     @Query("SELECT p FROM Prescription p LEFT JOIN FETCH p.patient LEFT JOIN FETCH p.details WHERE p.mainId = :mainId AND p.isDeleted = 0")
     Optional<Prescription> findByIdWithDetails(@Param("mainId") Long mainId);
 
+    /**
+     * 分页查询指定状态的处方工作队列（按开方时间先后排序）
+     * 使用 @EntityGraph 一次性加载患者、开方医生、审核医生，避免逐行懒加载；
+     * 仅抓取单值关联，分页在数据库中完成（依赖索引 idx_his_prescription_status_created）。
+     * 待审核队列使用：用药冲突检查需要患者过敏史；只展示列表的队列使用 {@link #findQueueViewsByStatus}
+     */
+    @EntityGraph(attributePaths = {"patient", "doctor", "reviewDoctor"})
+    @Query(value = "SELECT p FROM Prescription p WHERE p.status = :status AND p.isDeleted = 0 ORDER BY p.createdAt, p.mainId",
+           countQuery = "SELECT COUNT(p) FROM Prescription p WHERE p.status = :status AND p.isDeleted = 0")
+    Page<Prescription> findQueueByStatus(@Param("status") Short status, Pageable pageable);
+
+    /**
+     * 分页查询指定状态的处方列表投影（按开方时间先后排序，待发药队列）
+     * 只选择列表需要的列，一条连接查询完成，不加载患者和病历实体；
+     * 分页在数据库中完成（依赖索引 idx_his_prescription_status_created）
+     */
+    @Query(value = "SELECT " + PRESCRIPTION_LIST_COLUMNS + " WHERE p.status = :status AND p.isDeleted = 0 ORDER BY p.createdAt, p.mainId",
+           countQuery = "SELECT COUNT(p) FROM Prescription p WHERE p.status = :status AND p.isDeleted = 0")
+    Page<PrescriptionListView> findQueueViewsByStatus(@Param("status") Short status, Pageable pageable);
+
+    /**
+     * 按ID批量查询处方列表投影（按开方时间先后排序，药师领取结果）
+     */
+    @Query("SELECT " + PRESCRIPTION_LIST_COLUMNS + " WHERE p.mainId IN :ids ORDER BY p.createdAt, p.mainId")
+    List<PrescriptionListView> findViewsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 查询病历下的处方列表投影（按开方时间先后排序）
+     */
+    @Query("SELECT " + PRESCRIPTION_LIST_COLUMNS + " WHERE p.medicalRecord.mainId = :recordId AND p.isDeleted = 0 " +
+           "ORDER BY p.createdAt, p.mainId")
+    List<PrescriptionListView> findViewsByRecordId(@Param("recordId") Long recordId);
+
+    /**
+     * 批量加载处方明细
+     * 与 {@link #findQueueByStatus} 配合使用：对当前页的处方ID一次性 JOIN FETCH 明细，
+     * 已在持久化上下文中的处方实例会直接完成明细集合初始化
+     */
+    @Query("SELECT DISTINCT p FROM Prescription p LEFT JOIN FETCH p.details WHERE p.mainId IN :ids")
+    List<Prescription> fetchDetailsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 锁定可领取的处方ID（发药队列领取）
+     * 可领取：未被领取、已被当前药师领取（续租）、或租约已过期；
+     * FOR UPDATE SKIP LOCKED 使并发领取的药师跳过彼此正在锁定的行，必须在事务中调用
+     */
+    @Query(value = "SELECT main_id FROM his_prescription " +
+            "WHERE status = :status AND is_deleted = 0 " +
+            "AND (claimed_by IS NULL OR claimed_by = :pharmacistId OR claim_expires_at < :now) " +
+            "ORDER BY created_at, main_id " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockClaimableIds(@Param("status") Short status,
+                                @Param("pharmacistId") Long pharmacistId,
+                                @Param("now") LocalDateTime now,
+                                @Param("limit") int limit);
+
+    /**
+     * 写入领取药师与租约到期时间
+     * 批量更新绕过持久化上下文，执行后清空上下文，避免随后读取到未包含领取信息的旧实例
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Prescription p SET p.claimedBy = :pharmacistId, p.claimExpiresAt = :expiresAt WHERE p.mainId IN :ids")
+    int claimByIds(@Param("ids") Collection<Long> ids,
+                   @Param("pharmacistId") Long pharmacistId,
+                   @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * 释放领取（仅领取人本人可释放）
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Prescription p SET p.claimedBy = NULL, p.claimExpiresAt = NULL WHERE p.mainId = :id AND p.claimedBy = :pharmacistId")
+    int releaseClaim(@Param("id") Long id, @Param("pharmacistId") Long pharmacistId);
+
     /**
      * 统计医生的处方数量
      */
     @Query("SELECT COUNT(p) FROM Prescription p WHERE p.doctor.mainId = :doctorId AND p.isDeleted = 0")
     long countByDoctorId(@Param("doctorId") Long doctorId);
 
-    /**
-     * 获取药师今日工作统计
-     * @param pharmacistId 药师ID
-     * @param startTime 开始时间
-     * @param endTime 结束时间
-     * @return 统计数据
-     */
-    @Query("SELECT new com.his.dto.PharmacistStatisticsDTO(" +
-            "COUNT(p), " +
-            "COALESCE(SUM(p.totalAmount), 0), " +
-            "COALESCE(SUM(p.itemCount), 0)) " +
-            "FROM Prescription p " +
-            "WHERE p.dispenseBy = :pharmacistId " +
-            "AND p.dispenseTime BETWEEN :startTime AND :endTime " +
-            "AND p.isDeleted = 0")
-    com.his.dto.PharmacistStatisticsDTO getPharmacistStatistics(@Param("pharmacistId") Long pharmacistId,
-                                                                @Param("startTime") LocalDateTime startTime,
-                                                                @Param("endTime") LocalDateTime endTime);
-
     // ========== 编号生成方法 - 使用数据库序列保证线程安全 ==========
 
     /**
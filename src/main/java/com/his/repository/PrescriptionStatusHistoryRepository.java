@@ -0,0 +1,37 @@
+package com.his.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.his.entity.PrescriptionStatusHistory;
+
+/**
+ * 处方状态转换历史 Repository
+ */
+@Repository
+public interface PrescriptionStatusHistoryRepository extends JpaRepository<PrescriptionStatusHistory, Long> {
+
+    /**
+     * 根据处方ID查询状态转换历史（按时间先后排序）
+     * 使用索引 idx_prescription_status_history_prescription
+     */
+    List<PrescriptionStatusHistory> findByPrescriptionMainIdOrderByCreatedAtAscMainIdAsc(Long prescriptionMainId);
+
+    /**
+     * 按时间范围分页查询状态转换历史
+     * 使用索引 idx_prescription_status_history_created_at
+     */
+    Page<PrescriptionStatusHistory> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    /**
+     * 按目标状态与时间范围分页查询状态转换历史
+     * 使用索引 idx_prescription_status_history_to_status_created
+     */
+    Page<PrescriptionStatusHistory> findByToStatusAndCreatedAtBetween(Short toStatus, LocalDateTime start,
+                                                                      LocalDateTime end, Pageable pageable);
+}
@@ -11,6 +11,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.his.entity.Registration;
+import com.his.repository.projection.NurseRegistrationView;
+import com.his.repository.projection.RegistrationListView;
 
 /**
  * 挂号记录 Repository
@@ -18,6 +20,20 @@ import com.his.entity.Registration;
 @Repository
 public interface RegistrationRepository extends JpaRepository<Registration, Long>, JpaSpecificationExecutor<Registration> {
 
+    /**
+     * 挂号列表投影的选择列（别名与 {@link RegistrationListView} 的属性一一对应）
+     */
+    String REGISTRATION_LIST_COLUMNS = "r.mainId AS mainId, r.regNo AS regNo, " +
+            "p.mainId AS patientId, p.name AS patientName, p.gender AS gender, p.age AS age, " +
+            "dep.mainId AS deptId, dep.name AS deptName, d.mainId AS doctorId, d.name AS doctorName, " +
+            "r.status AS status, r.visitDate AS visitDate, r.registrationFee AS registrationFee, " +
+            "r.queueNo AS queueNo, r.appointmentTime AS appointmentTime, r.createdAt AS createdAt ";
+
+    /**
+     * 挂号列表投影的连接（患者、科室、医生）
+     */
+    String REGISTRATION_LIST_JOINS = "FROM Registration r LEFT JOIN r.patient p LEFT JOIN r.department dep LEFT JOIN r.doctor d";
+
     /**
      * 根据挂号流水号查询（未删除）
      */
@@ -114,14 +130,15 @@ public interface RegistrationRepository extends JpaRepository<Registration, Long
 
     /**
      * 查询指定科室、指定日期、多个状态的挂号记录，按排队号升序排列（医生工作站 - 科室视图）
-     * 用于医生查看候诊列表，包含待就诊和已缴费状态的患者
+     * 用于医生查看候诊列表，包含待就诊和已缴费状态的患者；
+     * 只选择列表需要的列，一条连接查询完成，不加载患者和病历实体
      */
-    @Query("SELECT r FROM Registration r WHERE r.visitDate = :date " +
+    @Query("SELECT " + REGISTRATION_LIST_COLUMNS + REGISTRATION_LIST_JOINS + " WHERE r.visitDate = :date " +
            "AND r.department.mainId = :deptId " +
            "AND r.status IN :statuses " +
            "AND r.isDeleted = 0 " +
            "ORDER BY r.queueNo ASC")
-    List<Registration> findByDepartmentAndStatuses(
+    List<RegistrationListView> findByDepartmentAndStatuses(
             @Param("date") LocalDate date,
             @Param("deptId") Long deptId,
             @Param("statuses") List<Short> statuses
@@ -129,19 +146,48 @@ public interface RegistrationRepository extends JpaRepository<Registration, Long
 
     /**
      * 查询指定医生、指定日期、多个状态的挂号记录，按排队号升序排列（医生工作站 - 个人视图）
-     * 用于医生查看候诊列表，包含待就诊和已缴费状态的患者
+     * 用于医生查看候诊列表，包含待就诊和已缴费状态的患者；
+     * 只选择列表需要的列，一条连接查询完成，不加载患者和病历实体
      */
-    @Query("SELECT r FROM Registration r WHERE r.visitDate = :date " +
+    @Query("SELECT " + REGISTRATION_LIST_COLUMNS + REGISTRATION_LIST_JOINS + " WHERE r.visitDate = :date " +
            "AND r.doctor.mainId = :doctorId " +
            "AND r.status IN :statuses " +
            "AND r.isDeleted = 0 " +
            "ORDER BY r.queueNo ASC")
-    List<Registration> findByDoctorAndStatuses(
+    List<RegistrationListView> findByDoctorAndStatuses(
             @Param("date") LocalDate date,
             @Param("doctorId") Long doctorId,
             @Param("statuses") List<Short> statuses
     );
 
+    /**
+     * 护士工作站挂号列表（就诊日期必填，其余条件为空时不参与过滤），按创建时间升序排列；
+     * 只选择列表需要的列，病历只连接到主键用于判断是否已有病历，不加载患者和病历实体
+     *
+     * @param visitDate 就诊日期
+     * @param deptId 科室ID（可为空）
+     * @param status 挂号状态（可为空）
+     * @param visitType 就诊类型（可为空）
+     * @param keyword 患者姓名或挂号号的 LIKE 模式（可为空）
+     */
+    @Query("SELECT " + REGISTRATION_LIST_COLUMNS + ", r.visitType AS visitType, p.idCard AS idCard, p.phone AS phone, " +
+           "d.title AS doctorTitle, CASE WHEN mr.mainId IS NULL THEN false ELSE true END AS hasMedicalRecord " +
+           REGISTRATION_LIST_JOINS + " LEFT JOIN r.medicalRecord mr " +
+           "WHERE r.visitDate = :visitDate " +
+           "AND r.isDeleted = 0 " +
+           "AND (:deptId IS NULL OR dep.mainId = :deptId) " +
+           "AND (:status IS NULL OR r.status = :status) " +
+           "AND (:visitType IS NULL OR r.visitType = :visitType) " +
+           "AND (:keyword IS NULL OR p.name LIKE :keyword OR r.regNo LIKE :keyword) " +
+           "ORDER BY r.createdAt ASC")
+    List<NurseRegistrationView> findNurseList(
+            @Param("visitDate") LocalDate visitDate,
+            @Param("deptId") Long deptId,
+            @Param("status") Short status,
+            @Param("visitType") Short visitType,
+            @Param("keyword") String keyword
+    );
+
     // ========== 编号生成方法 - 使用数据库序列保证线程安全 ==========
 
     /**
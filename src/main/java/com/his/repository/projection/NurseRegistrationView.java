@@ -0,0 +1,25 @@
+package com.his.repository.projection;
+
+/**
+ * 护士工作站挂号列表投影
+ *
+ * <p>在 {@link RegistrationListView} 的基础上增加护士站列表展示的就诊类型、患者证件号与电话、医生职称，
+ * 以及是否已有病历（只判断病历ID是否存在，不读取病历内容）</p>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.repository.RegistrationRepository#findNurseList
+ */
+public interface NurseRegistrationView extends RegistrationListView {
+
+    Short getVisitType();
+
+    String getIdCard();
+
+    String getPhone();
+
+    String getDoctorTitle();
+
+    Boolean getHasMedicalRecord();
+}
@@ -0,0 +1,28 @@
+package com.his.repository.projection;
+
+/**
+ * 患者搜索结果投影
+ *
+ * <p>只包含搜索结果列表展示的字段，查询时只选择这些列，不读取过敏史、既往病史、住址等大字段</p>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.repository.PatientRepository#searchByKeyword
+ */
+public interface PatientSearchView {
+
+    Long getMainId();
+
+    String getPatientNo();
+
+    String getName();
+
+    String getIdCard();
+
+    Short getGender();
+
+    Short getAge();
+
+    String getPhone();
+}
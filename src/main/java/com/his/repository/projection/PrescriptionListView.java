@@ -0,0 +1,62 @@
+package com.his.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 处方列表投影
+ *
+ * <p>待发药队列、药师领取结果、病历处方列表只需要处方本身的字段以及患者、开方医生、审核医生的名称，
+ * 一条连接查询取回全部字段，不加载患者（过敏史、既往病史）和病历实体及其大字段；明细另行按处方ID批量查询</p>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.converter.VoConverter#toPrescriptionVO(PrescriptionListView, java.util.List)
+ */
+public interface PrescriptionListView {
+
+    Long getMainId();
+
+    String getPrescriptionNo();
+
+    Long getRecordId();
+
+    Long getPatientId();
+
+    String getPatientName();
+
+    Long getDoctorId();
+
+    String getDoctorName();
+
+    Short getPrescriptionType();
+
+    BigDecimal getTotalAmount();
+
+    Integer getItemCount();
+
+    Short getStatus();
+
+    Integer getValidityDays();
+
+    Long getReviewDoctorId();
+
+    String getReviewDoctorName();
+
+    LocalDateTime getReviewTime();
+
+    String getReviewRemark();
+
+    LocalDateTime getDispenseTime();
+
+    Long getDispenseBy();
+
+    Long getClaimedBy();
+
+    LocalDateTime getClaimExpiresAt();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,51 @@
+package com.his.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 挂号列表投影
+ *
+ * <p>候诊列表等挂号列表只需要挂号单本身的字段以及患者、科室、医生的名称，
+ * 一条连接查询取回全部字段，不加载患者、病历实体及其大字段，也不会逐行懒加载关联</p>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.converter.VoConverter#toRegistrationVO(RegistrationListView)
+ */
+public interface RegistrationListView {
+
+    Long getMainId();
+
+    String getRegNo();
+
+    Long getPatientId();
+
+    String getPatientName();
+
+    Short getGender();
+
+    Short getAge();
+
+    Long getDeptId();
+
+    String getDeptName();
+
+    Long getDoctorId();
+
+    String getDoctorName();
+
+    Short getStatus();
+
+    LocalDate getVisitDate();
+
+    BigDecimal getRegistrationFee();
+
+    String getQueueNo();
+
+    LocalDateTime getAppointmentTime();
+
+    LocalDateTime getCreatedAt();
+}
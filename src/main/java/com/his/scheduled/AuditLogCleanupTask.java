@@ -3,10 +3,12 @@ package com.his.scheduled;
 import java.time.LocalDateTime;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import com.his.repository.AuditLogRepository;
+import com.his.service.AuditLogRetentionService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,19 +16,23 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * 审计日志定期清理任务
  *
- * <p>定时清理过期的审计日志,释放存储空间</p>
+ * <p>定时维护审计日志月分区并清理过期的审计日志,释放存储空间</p>
  *
  * <h3>主要功能</h3>
  * <ul>
+ *   <li><b>分区维护</b>：应用启动时和每次清理前提前创建未来月份的分区</li>
  *   <li><b>定时清理</b>：每天凌晨2点自动执行</li>
  *   <li><b>可配置保留期</b>：默认保留180天,可通过配置调整</li>
- *   <li><b>自动删除</b>：删除指定日期之前的所有审计日志</li>
- *   <li><b>执行日志</b>：记录删除的日志数量和执行时间</li>
+ *   <li><b>分区删除</b>：sys_audit_log 已分区时删除整月过期的分区,毫秒级完成;
+ *       未分区时按批删除过期行（见 {@link AuditLogRetentionService}）</li>
+ *   <li><b>执行日志</b>：记录删除的分区或行数和执行时间</li>
  * </ul>
  *
  * <h3>配置参数</h3>
  * <ul>
  *   <li><b>audit.log.retention.days</b>：审计日志保留天数（默认180天）</li>
+ *   <li><b>audit.log.retention.delete-chunk-size</b>：未分区时每批删除行数（默认5000）</li>
+ *   <li><b>audit.log.partition.premake-months</b>：提前创建的未来月分区数（默认3）</li>
  * </ul>
  *
  * <h3>执行时间</h3>
@@ -45,7 +51,7 @@ import lombok.extern.slf4j.Slf4j;
  * <h3>注意事项</h3>
  * <ul>
  *   <li><b>数据归档</b>：清理前建议先备份或归档重要数据</li>
- *   <li><b>性能影响</b>：删除大量数据可能影响性能,建议在低峰期执行</li>
+ *   <li><b>保留粒度</b>：按分区清理时以月为单位,截止时间所在月份的数据保留到整月过期</li>
  *   <li><b>监控日志</b>：关注任务执行日志,确保正常清理</li>
  *   <li><b>保留期限</b>：根据合规要求设置合理的保留期（如HIPAA要求6年）</li>
  * </ul>
@@ -53,14 +59,14 @@ import lombok.extern.slf4j.Slf4j;
  * @author HIS 开发团队
  * @version 1.0
  * @since 1.0
- * @see com.his.repository.AuditLogRepository#deleteByCreateTimeBefore(LocalDateTime)
+ * @see com.his.service.AuditLogRetentionService
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class AuditLogCleanupTask {
 
-    private final AuditLogRepository auditLogRepository;
+    private final AuditLogRetentionService auditLogRetentionService;
 
     /**
      * 审计日志保留天数（从配置文件读取）
@@ -71,26 +77,32 @@ public class AuditLogCleanupTask {
     @Value("${audit.log.retention.days:180}")
     private int retentionDays;
 
+    /**
+     * 应用启动完成后创建未来月份的分区
+     *
+     * <p>应用停机超过预建月数后重新启动时,保证当前月份的分区存在</p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensurePartitionsOnStartup() {
+        try {
+            int created = auditLogRetentionService.ensurePartitions();
+            log.info("审计日志分区检查完成，新建分区数: {}", created);
+        } catch (Exception e) {
+            log.error("审计日志分区创建失败，无对应分区的审计日志将转入本地 spool", e);
+        }
+    }
+
     /**
      * 每天凌晨2点执行清理
      *
      * <p>Cron表达式：0 0 2 * * ?</p>
-     * <ul>
-     *   <li>0 - 秒：第0秒</li>
-     *   <li>0 - 分：第0分</li>
-     *   <li>2 - 时：凌晨2点</li>
-     *   <li>* - 日：每天</li>
-     *   <li>* - 月：每月</li>
-     *   <li>* - 星期：每周</li>
-     *   <li>? - 不指定</li>
-     * </ul>
      *
      * <p><b>执行逻辑：</b></p>
      * <ol>
+     *   <li>创建未来月份的分区</li>
      *   <li>计算截止日期（当前时间 - 保留天数）</li>
-     *   <li>统计当前日志总数</li>
-     *   <li>删除截止日期之前的所有日志</li>
-     *   <li>计算删除数量并记录日志</li>
+     *   <li>删除整月过期的分区,未分区时分批删除过期行</li>
+     *   <li>记录删除结果</li>
      * </ol>
      *
      * @since 1.0
@@ -101,36 +113,25 @@ public class AuditLogCleanupTask {
         log.info("保留期限: {} 天", retentionDays);
 
         try {
-            // 计算截止日期
-            LocalDateTime cutoffDate = LocalDateTime.now().minusDays(retentionDays);
-            log.info("截止日期: {} (将删除此日期之前的所有日志)", cutoffDate);
-
-            // 统计删除前的记录数
-            long countBefore = auditLogRepository.count();
-            log.info("清理前总记录数: {}", countBefore);
-
-            if (countBefore == 0) {
-                log.info("没有需要清理的审计日志,任务结束");
-                return;
+            int created = auditLogRetentionService.ensurePartitions();
+            if (created > 0) {
+                log.info("新建审计日志分区数: {}", created);
             }
 
-            // 执行删除
-            auditLogRepository.deleteByCreateTimeBefore(cutoffDate);
+            // 计算截止日期
+            LocalDateTime cutoffDate = LocalDateTime.now().minusDays(retentionDays);
+            log.info("截止日期: {} (将删除此日期之前的日志)", cutoffDate);
 
-            // 统计删除后的记录数
-            long countAfter = auditLogRepository.count();
-            long deleted = countBefore - countAfter;
+            AuditLogRetentionService.PurgeResult result = auditLogRetentionService.purgeBefore(cutoffDate);
 
             log.info("=== 审计日志清理完成 ===");
-            log.info("删除记录数: {}", deleted);
-            log.info("剩余记录数: {}", countAfter);
-            log.info("保留期限: {} 天", retentionDays);
-            log.info("====================");
-
-            // 如果没有删除任何记录,给出警告
-            if (deleted == 0) {
-                log.warn("警告: 没有删除任何记录,可能所有日志都在保留期内");
+            if (result.partitioned()) {
+                log.info("删除分区数: {} {}", result.droppedPartitions().size(), result.droppedPartitions());
+            } else {
+                log.info("删除记录数: {}（未分区，分批删除）", result.deletedRows());
             }
+            log.info("耗时: {} ms", result.elapsedMillis());
+            log.info("====================");
 
         } catch (Exception e) {
             log.error("审计日志清理失败", e);
@@ -162,45 +163,4 @@ public class AuditLogCleanupTask {
     public int getRetentionDays() {
         return retentionDays;
     }
-
-    /**
-     * 获取清理统计信息
-     *
-     * <p>用于监控和展示</p>
-     *
-     * @return 清理统计信息
-     * @since 1.0
-     */
-    public CleanupStats getCleanupStats() {
-        long totalCount = auditLogRepository.count();
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(retentionDays);
-
-        // 估算将被删除的记录数（不准确,仅供参考）
-        // 注意：这个操作比较耗时,实际应用中可以考虑缓存
-        long estimatedToDelete = 0;
-        try {
-            // 简单估算：假设数据分布均匀
-            // 实际应用中可以通过添加查询方法精确统计
-            estimatedToDelete = totalCount / (retentionDays + 1); // 粗略估算
-        } catch (Exception e) {
-            log.warn("估算待删除记录数失败", e);
-        }
-
-        return new CleanupStats(
-                totalCount,
-                retentionDays,
-                cutoffDate,
-                estimatedToDelete
-        );
-    }
-
-    /**
-     * 清理统计信息
-     */
-    public record CleanupStats(
-            long totalRecords,         // 当前总记录数
-            int retentionDays,          // 保留天数
-            LocalDateTime cutoffDate,   // 截止日期
-            long estimatedToDelete      // 估算将被删除的记录数
-    ) {}
 }
@@ -0,0 +1,61 @@
+package com.his.scheduled;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.his.log.writer.AuditLogBatchWriter;
+import com.his.log.writer.AuditLogSpool;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 审计日志 spool 补写任务
+ *
+ * <h3>主要功能</h3>
+ * <ul>
+ *   <li><b>按序补写</b>：按追加顺序将本地 spool 中的审计日志写入数据库，每批成功后才移动补写位置</li>
+ *   <li><b>故障等待</b>：数据库仍不可用时本次补写中止，未写入的审计日志留在 spool 中，下个周期重试</li>
+ *   <li><b>定期刷盘</b>：每次运行后将 spool 的内存映射区域刷到磁盘</li>
+ * </ul>
+ *
+ * <h3>配置参数</h3>
+ * <ul>
+ *   <li><b>audit.log.spool.replay-interval-ms</b>：补写间隔（默认5秒）</li>
+ *   <li><b>audit.log.spool.replay-max-records</b>：每次最多补写条数（默认5000），避免积压较多时长时间占用数据库</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.log.writer.AuditLogSpool
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditLogSpoolReplayTask {
+
+    private final AuditLogBatchWriter auditLogBatchWriter;
+    private final AuditLogSpool auditLogSpool;
+
+    @Value("${audit.log.spool.replay-max-records:5000}")
+    private int replayMaxRecords;
+
+    /**
+     * 定期补写 spool 中的审计日志
+     */
+    @Scheduled(fixedDelayString = "${audit.log.spool.replay-interval-ms:5000}")
+    public void replay() {
+        try {
+            int replayed = auditLogBatchWriter.replaySpool(replayMaxRecords);
+            if (replayed > 0) {
+                log.info("审计日志 spool 补写: {} 条，剩余: {} 条", replayed, auditLogSpool.stats().pendingRecords());
+            }
+        } catch (Exception e) {
+            log.warn("审计日志 spool 补写失败，数据库可能不可用，将在下个周期重试: {}", e.getMessage());
+        } finally {
+            auditLogSpool.force();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.his.scheduled;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.his.service.DrugConflictService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 用药冲突规则加载任务
+ *
+ * <h3>主要功能</h3>
+ * <ul>
+ *   <li><b>启动加载</b>：应用启动完成后加载用药冲突规则索引</li>
+ *   <li><b>热加载</b>：定期比对规则表签名，规则变更后自动重新加载，无需重启服务</li>
+ * </ul>
+ *
+ * <h3>配置参数</h3>
+ * <ul>
+ *   <li><b>pharmacy.conflict.refresh-interval-ms</b>：规则变更检查间隔（默认1分钟）</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.DrugConflictService
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DrugConflictRuleTask {
+
+    private final DrugConflictService drugConflictService;
+
+    /**
+     * 应用启动完成后加载规则索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        log.info("应用启动完成，加载用药冲突规则");
+        try {
+            drugConflictService.reload();
+        } catch (Exception e) {
+            log.error("用药冲突规则加载失败，将在下个周期重试", e);
+        }
+    }
+
+    /**
+     * 定期检查规则变更
+     */
+    @Scheduled(
+        fixedDelayString = "${pharmacy.conflict.refresh-interval-ms:60000}",
+        initialDelayString = "${pharmacy.conflict.refresh-interval-ms:60000}"
+    )
+    public void reloadIfChanged() {
+        try {
+            drugConflictService.reloadIfChanged();
+        } catch (Exception e) {
+            log.error("用药冲突规则变更检查失败，将在下个周期重试", e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.his.scheduled;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.his.service.LowStockAlertService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 低库存集合定时对账任务
+ *
+ * <p>低库存集合由库存变更事件驱动维护，本任务负责兜底修正</p>
+ *
+ * <h3>主要功能</h3>
+ * <ul>
+ *   <li><b>启动加载</b>：应用启动完成后从数据库加载一次低库存集合</li>
+ *   <li><b>定期对账</b>：修正绕过服务层的库存变更（如直接执行SQL、批量导入）</li>
+ * </ul>
+ *
+ * <h3>配置参数</h3>
+ * <ul>
+ *   <li><b>pharmacy.low-stock.reconcile-interval-ms</b>：对账间隔（默认5分钟）</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.LowStockAlertService#reconcile()
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LowStockReconcileTask {
+
+    private final LowStockAlertService lowStockAlertService;
+
+    /**
+     * 应用启动完成后加载低库存集合
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        log.info("应用启动完成，加载低库存药品集合");
+        reconcileLowStock();
+    }
+
+    /**
+     * 定期与数据库对账
+     */
+    @Scheduled(
+        fixedDelayString = "${pharmacy.low-stock.reconcile-interval-ms:300000}",
+        initialDelayString = "${pharmacy.low-stock.reconcile-interval-ms:300000}"
+    )
+    public void reconcileLowStock() {
+        try {
+            lowStockAlertService.reconcile();
+        } catch (Exception e) {
+            log.error("低库存对账失败，将在下个周期重试", e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.his.scheduled;
+
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.his.service.MedicalRecordDraftService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 病历草稿写入任务
+ *
+ * <h3>主要功能</h3>
+ * <ul>
+ *   <li><b>定期写入</b>：将合并窗口已到期的草稿补丁写入数据库</li>
+ *   <li><b>关闭前写入</b>：应用关闭时写入全部未落库的草稿补丁，避免丢失医生的编辑内容</li>
+ * </ul>
+ *
+ * <h3>配置参数</h3>
+ * <ul>
+ *   <li><b>medical-record.draft.flush-interval-ms</b>：到期检查间隔（默认500毫秒）</li>
+ *   <li><b>medical-record.draft.coalesce-window-ms</b>：合并窗口，最后一次补丁后空闲超过该时长即写入（默认2秒）</li>
+ *   <li><b>medical-record.draft.max-delay-ms</b>：最长延迟，持续编辑时首个补丁最多等待该时长（默认10秒）</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.MedicalRecordDraftService
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MedicalRecordDraftFlushTask {
+
+    private final MedicalRecordDraftService medicalRecordDraftService;
+
+    /**
+     * 定期写入到期的草稿补丁
+     */
+    @Scheduled(fixedDelayString = "${medical-record.draft.flush-interval-ms:500}")
+    public void flushDue() {
+        try {
+            medicalRecordDraftService.flushDue();
+        } catch (Exception e) {
+            log.error("病历草稿写入失败，将在下个周期重试", e);
+        }
+    }
+
+    /**
+     * 应用关闭前写入全部草稿补丁
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void flushOnShutdown() {
+        try {
+            int flushed = medicalRecordDraftService.flushAll();
+            log.info("应用关闭，已写入未落库的病历草稿，病历数: {}", flushed);
+        } catch (Exception e) {
+            log.error("应用关闭时写入病历草稿失败", e);
+        }
+    }
+}
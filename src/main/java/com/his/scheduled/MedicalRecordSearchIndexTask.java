@@ -0,0 +1,71 @@
+package com.his.scheduled;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.his.service.MedicalRecordSearchService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 病历检索索引补建任务
+ *
+ * <h3>主要功能</h3>
+ * <ul>
+ *   <li><b>启动补建</b>：应用启动完成后为尚无索引的病历（含升级前的历史病历）建立检索索引</li>
+ *   <li><b>定期补建</b>：未经病历服务修改的病历（如数据修复脚本）在下个周期重新建立索引</li>
+ * </ul>
+ *
+ * <h3>配置参数</h3>
+ * <ul>
+ *   <li><b>medical-record.search.reindex-interval-ms</b>：补建检查间隔（默认5分钟）</li>
+ *   <li><b>medical-record.search.reindex-batch-size</b>：每批处理的病历数（默认500）</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.MedicalRecordSearchService
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MedicalRecordSearchIndexTask {
+
+    private final MedicalRecordSearchService medicalRecordSearchService;
+
+    @Value("${medical-record.search.reindex-batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 应用启动完成后补建索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexOnStartup() {
+        log.info("应用启动完成，补建病历检索索引");
+        try {
+            medicalRecordSearchService.reindexStale(batchSize);
+        } catch (Exception e) {
+            log.error("病历检索索引补建失败，将在下个周期重试", e);
+        }
+    }
+
+    /**
+     * 定期补建缺失或过期的索引
+     */
+    @Scheduled(
+        fixedDelayString = "${medical-record.search.reindex-interval-ms:300000}",
+        initialDelayString = "${medical-record.search.reindex-interval-ms:300000}"
+    )
+    public void reindexStale() {
+        try {
+            medicalRecordSearchService.reindexStale(batchSize);
+        } catch (Exception e) {
+            log.error("病历检索索引补建失败，将在下个周期重试", e);
+        }
+    }
+}
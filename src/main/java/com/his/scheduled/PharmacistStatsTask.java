@@ -0,0 +1,64 @@
+package com.his.scheduled;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.his.service.PharmacistStatsService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 药师工作量统计桶维护任务
+ *
+ * <h3>主要功能</h3>
+ * <ul>
+ *   <li><b>启动加载</b>：应用启动完成后从汇总表重建内存统计桶</li>
+ *   <li><b>每日淘汰</b>：淘汰超出内存窗口的统计桶，更早的查询改为读取汇总表</li>
+ * </ul>
+ *
+ * <h3>配置参数</h3>
+ * <ul>
+ *   <li><b>pharmacy.stats.memory-days</b>：内存保留天数（默认90天）</li>
+ *   <li><b>pharmacy.stats.evict-cron</b>：淘汰执行时间（默认每天凌晨 00:05）</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.PharmacistStatsService
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PharmacistStatsTask {
+
+    private final PharmacistStatsService pharmacistStatsService;
+
+    /**
+     * 应用启动完成后重建内存统计桶
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        log.info("应用启动完成，加载药师工作量统计桶");
+        try {
+            pharmacistStatsService.rebuild();
+        } catch (Exception e) {
+            log.error("药师工作量统计桶加载失败，统计查询将读取汇总表", e);
+        }
+    }
+
+    /**
+     * 每日淘汰过期统计桶
+     */
+    @Scheduled(cron = "${pharmacy.stats.evict-cron:0 5 0 * * ?}")
+    public void evictExpired() {
+        try {
+            pharmacistStatsService.evictExpired();
+        } catch (Exception e) {
+            log.error("药师工作量统计桶淘汰失败，将在下个周期重试", e);
+        }
+    }
+}
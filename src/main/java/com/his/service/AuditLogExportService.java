@@ -0,0 +1,84 @@
+package com.his.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.his.dto.AuditLogExportDTO;
+import com.his.enums.AuditExportFormatEnum;
+
+/**
+ * 审计日志导出服务接口
+ *
+ * <p>用于监管部门调取某个操作人或模块全年审计日志等合规场景，
+ * 按排序键分块读取并逐块写出，内存占用与导出行数无关</p>
+ *
+ * <h3>导出方式</h3>
+ * <ul>
+ *   <li><b>顺序</b>：按 (创建时间, ID) 正序导出</li>
+ *   <li><b>续传</b>：每行带有该行的游标（NDJSON 的 cursor 字段 / CSV 的 cursor 列），
+ *       连接中断后以收到的最后一行的游标重新请求，从下一行继续；CSV 续传时不再输出 BOM 和表头</li>
+ *   <li><b>限流</b>：并发导出数和每秒行数有上限，导出使用独立的小连接池，不占用业务连接池</li>
+ * </ul>
+ *
+ * <h3>使用方式</h3>
+ * <pre>
+ * try (AuditLogExportService.Export export = auditLogExportService.open(criteria, format, cursor)) {
+ *     // 设置响应头
+ *     AuditLogExportService.Result result = export.writeTo(response.getOutputStream());
+ * }
+ * </pre>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.monitoring.AuditLogExportMetrics
+ */
+public interface AuditLogExportService {
+
+    /**
+     * 开始一次导出：校验条件并占用一个导出许可
+     *
+     * @param criteria 导出条件
+     * @param format   导出格式
+     * @param cursor   续传游标（上次导出收到的最后一行的 cursor，为空表示从头导出）
+     * @return 导出句柄，关闭时释放导出许可
+     * @throws IllegalArgumentException 导出条件或游标无效时抛出
+     * @throws IllegalStateException    正在进行的导出数已达上限时抛出
+     */
+    Export open(AuditLogExportDTO criteria, AuditExportFormatEnum format, String cursor);
+
+    /**
+     * 导出句柄
+     */
+    interface Export extends AutoCloseable {
+
+        /**
+         * 流式写出全部符合条件的审计日志（不关闭输出流）
+         *
+         * @param out 输出流
+         * @return 导出结果
+         * @throws IOException 写出失败（如客户端断开连接）时抛出
+         */
+        Result writeTo(OutputStream out) throws IOException;
+
+        /**
+         * 释放导出许可
+         */
+        @Override
+        void close();
+    }
+
+    /**
+     * 导出结果
+     *
+     * @param rows           导出行数
+     * @param bytes          写出字节数（gzip 格式为压缩后字节数）
+     * @param elapsedMillis  耗时（毫秒）
+     * @param rowsPerSecond  每秒行数
+     * @param bytesPerSecond 每秒字节数
+     * @param lastCursor     最后一行的游标，未导出任何行时为 null
+     */
+    record Result(long rows, long bytes, long elapsedMillis, double rowsPerSecond, double bytesPerSecond,
+                  String lastCursor) {
+    }
+}
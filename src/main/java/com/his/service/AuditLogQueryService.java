@@ -1,41 +1,41 @@
 package com.his.service;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-
-import com.his.entity.AuditLogEntity;
+import com.his.vo.AuditLogPageVO;
 
 /**
  * 审计日志查询服务接口
  *
- * <p>提供审计日志的查询功能,支持分页、过滤、排序等</p>
+ * <p>提供审计日志的查询功能,支持过滤和游标分页</p>
  *
  * <h3>主要功能</h3>
  * <ul>
  *   <li><b>综合查询</b>：支持多条件组合查询（模块、操作、操作人、类型、时间范围）</li>
  *   <li><b>TraceId查询</b>：根据TraceId查询整个请求链路的审计日志</li>
- *   <li><b>操作人查询</b>：查询某个用户的所有审计日志</li>
- *   <li><b>分页支持</b>：所有查询都支持分页和排序</li>
+ *   <li><b>操作人查询</b>：查询某个用户的审计日志</li>
+ *   <li><b>游标分页</b>：所有查询按 (创建时间, ID) 倒序键集分页,任意深度的一页耗时与首页相同</li>
+ *   <li><b>估算总数</b>：首页返回数据库统计信息估算的记录数,不执行 count(*)</li>
  * </ul>
  *
  * <h3>使用示例</h3>
  * <pre>
  * // 综合查询：查询某个时间范围内、特定模块的审计日志
- * Pageable pageable = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createTime"));
- * Page&lt;AuditLogEntity&gt; logs = auditLogQueryService.searchAuditLogs(
+ * AuditLogPageVO page = auditLogQueryService.searchAuditLogs(
  *     "挂号管理", null, null, null,
  *     LocalDateTime.now().minusDays(7), LocalDateTime.now(),
- *     pageable
+ *     null, 20
  * );
  *
- * // 根据TraceId查询
- * List&lt;AuditLogEntity&gt; logs = auditLogQueryService.getAuditLogsByTraceId(traceId);
+ * // 下一页
+ * AuditLogPageVO next = auditLogQueryService.searchAuditLogs(
+ *     "挂号管理", null, null, null,
+ *     LocalDateTime.now().minusDays(7), LocalDateTime.now(),
+ *     page.getNextCursor(), 20
+ * );
  *
- * // 查询某个用户的所有审计日志
- * List&lt;AuditLogEntity&gt; logs = auditLogQueryService.getAuditLogsByOperator(userId);
+ * // 根据TraceId查询
+ * AuditLogPageVO logs = auditLogQueryService.getAuditLogsByTraceId(traceId, null, 100);
  * </pre>
  *
  * @author HIS 开发团队
@@ -46,9 +46,9 @@ import com.his.entity.AuditLogEntity;
 public interface AuditLogQueryService {
 
     /**
-     * 综合查询审计日志（支持分页）
+     * 综合查询审计日志（游标分页）
      *
-     * <p>支持多条件组合查询,所有参数都是可选的</p>
+     * <p>支持多条件组合查询,所有过滤参数都是可选的</p>
      *
      * <p><b>查询条件：</b></p>
      * <ul>
@@ -60,28 +60,8 @@ public interface AuditLogQueryService {
      *   <li><b>endTime</b>：查询结束时间</li>
      * </ul>
      *
-     * <p><b>分页和排序：</b></p>
-     * <ul>
-     *   <li>使用Pageable指定页码、每页大小、排序规则</li>
-     *   <li>建议按createTime倒序排列（最新的在前）</li>
-     * </ul>
-     *
-     * <p><b>使用示例：</b></p>
-     * <pre>
-     * // 查询最近7天的所有审计日志（分页）
-     * Pageable pageable = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createTime"));
-     * Page&lt;AuditLogEntity&gt; logs = auditLogQueryService.searchAuditLogs(
-     *     null, null, null, null,
-     *     LocalDateTime.now().minusDays(7), LocalDateTime.now(),
-     *     pageable
-     * );
-     *
-     * // 查询特定模块的敏感操作日志
-     * Page&lt;AuditLogEntity&gt; logs = auditLogQueryService.searchAuditLogs(
-     *     "认证管理", null, null, "SENSITIVE_OPERATION",
-     *     null, null, pageable
-     * );
-     * </pre>
+     * <p><b>分页：</b>固定按创建时间倒序（同一时刻按ID倒序），取下一页时传入上一页返回的 nextCursor；
+     * 翻页时过滤条件必须与首页一致</p>
      *
      * @param module 模块名称(可选)
      * @param action 操作描述(可选)
@@ -89,22 +69,25 @@ public interface AuditLogQueryService {
      * @param auditType 审计类型(可选)
      * @param startTime 查询开始时间(可选)
      * @param endTime 查询结束时间(可选)
-     * @param pageable 分页和排序参数
-     * @return 分页查询结果
+     * @param cursor 分页游标(首页为空)
+     * @param size 每页条数
+     * @return 一页审计日志
+     * @throws IllegalArgumentException 每页条数超出范围或游标无效时抛出
      * @since 1.0
      */
-    Page<AuditLogEntity> searchAuditLogs(
+    AuditLogPageVO searchAuditLogs(
         String module,
         String action,
         String operatorUsername,
         String auditType,
         LocalDateTime startTime,
         LocalDateTime endTime,
-        Pageable pageable
+        String cursor,
+        int size
     );
 
     /**
-     * 根据TraceId查询审计日志
+     * 根据TraceId查询审计日志（游标分页）
      *
      * <p>用于查询整个请求链路的所有审计日志</p>
      * <p>TraceId由MDC自动生成,在同一个请求链路中保持一致</p>
@@ -117,15 +100,18 @@ public interface AuditLogQueryService {
      * </ul>
      *
      * @param traceId 链路追踪ID(32位十六进制字符串)
-     * @return 该TraceId对应的所有审计日志(按创建时间倒序)
+     * @param cursor 分页游标(首页为空)
+     * @param size 每页条数
+     * @return 该TraceId对应的一页审计日志(按创建时间倒序)
+     * @throws IllegalArgumentException TraceId为空、每页条数超出范围或游标无效时抛出
      * @since 1.0
      */
-    List<AuditLogEntity> getAuditLogsByTraceId(String traceId);
+    AuditLogPageVO getAuditLogsByTraceId(String traceId, String cursor, int size);
 
     /**
-     * 查询操作人的审计日志
+     * 查询操作人的审计日志（游标分页）
      *
-     * <p>查询某个用户的所有审计日志,包括敏感操作和业务操作</p>
+     * <p>查询某个用户的审计日志,包括敏感操作和业务操作</p>
      *
      * <p><b>使用场景：</b></p>
      * <ul>
@@ -135,8 +121,11 @@ public interface AuditLogQueryService {
      * </ul>
      *
      * @param operatorId 操作人ID(sys_user.id)
-     * @return 该操作人的所有审计日志(按创建时间倒序)
+     * @param cursor 分页游标(首页为空)
+     * @param size 每页条数
+     * @return 该操作人的一页审计日志(按创建时间倒序)
+     * @throws IllegalArgumentException 操作人ID为空、每页条数超出范围或游标无效时抛出
      * @since 1.0
      */
-    List<AuditLogEntity> getAuditLogsByOperator(Long operatorId);
+    AuditLogPageVO getAuditLogsByOperator(Long operatorId, String cursor, int size);
 }
@@ -0,0 +1,71 @@
+package com.his.service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * 审计日志保留期服务接口
+ *
+ * <p>维护 sys_audit_log 的月分区，并按保留期清理过期审计日志</p>
+ *
+ * <h3>清理方式</h3>
+ * <ul>
+ *   <li><b>分区表</b>：删除上界不晚于截止时间的月分区（sys_audit_log_pYYYYMM），不逐行删除；
+ *       截止时间所在月份的分区保留到整月过期，实际保留期最多比配置多一个月</li>
+ *   <li><b>未分区表</b>（未执行 V17 迁移的环境）：按主键分批删除截止时间之前的行，
+ *       每批一条 DELETE 语句、单独提交，避免长事务和大量锁</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.scheduled.AuditLogCleanupTask
+ */
+public interface AuditLogRetentionService {
+
+    /**
+     * sys_audit_log 是否为分区表
+     *
+     * @return 是否已分区
+     */
+    boolean isPartitioned();
+
+    /**
+     * 提前创建当前月及未来 {@code audit.log.partition.premake-months} 个月的分区
+     *
+     * <p>未分区时不做任何操作</p>
+     *
+     * @return 本次新建的分区数
+     */
+    int ensurePartitions();
+
+    /**
+     * 创建指定月份的分区
+     *
+     * <p>用于补写停机期间超出预建范围的月份；未分区或分区已存在时不做任何操作</p>
+     *
+     * @param month 月份
+     * @return 是否新建了分区
+     */
+    boolean ensurePartition(YearMonth month);
+
+    /**
+     * 清理截止时间之前的审计日志
+     *
+     * @param cutoff 截止时间
+     * @return 清理结果
+     */
+    PurgeResult purgeBefore(LocalDateTime cutoff);
+
+    /**
+     * 清理结果
+     *
+     * @param partitioned       是否按分区清理
+     * @param droppedPartitions 删除的分区名
+     * @param deletedRows       分批删除的行数（按分区清理时为 0）
+     * @param elapsedMillis     耗时（毫秒）
+     */
+    record PurgeResult(boolean partitioned, List<String> droppedPartitions, long deletedRows, long elapsedMillis) {
+    }
+}
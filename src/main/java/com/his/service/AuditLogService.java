@@ -11,7 +11,7 @@ import com.his.entity.AuditLogEntity;
  *
  * <h3>主要功能</h3>
  * <ul>
- *   <li><b>异步保存</b>：使用CompletableFuture异步保存审计日志,不阻塞业务线程</li>
+ *   <li><b>异步保存</b>：审计日志入队后由写入线程批量写入,返回CompletableFuture,不阻塞业务线程</li>
  *   <li><b>构建实体</b>：根据操作信息构建完整的AuditLogEntity实体</li>
  * </ul>
  *
@@ -40,13 +40,13 @@ public interface AuditLogService {
      *
      * <p><b>实现说明：</b></p>
      * <ul>
-     *   <li>使用@Async注解实现异步执行</li>
-     *   <li>使用auditLogExecutor线程池(核心2,最大5,队列100)</li>
+     *   <li>放入批量写入器的有界队列,由单个写入线程攒批后以多行INSERT写入</li>
+     *   <li>队列已满时按背压策略(等待/溢出到本地文件/丢弃)处理,业务线程不执行数据库写入</li>
      *   <li>保存失败时记录error日志,不抛出异常</li>
      * </ul>
      *
      * @param entity 审计日志实体
-     * @return CompletableFuture<Void>,可用于等待保存完成或添加回调
+     * @return CompletableFuture<Void>,所在批次写入完成后完成,可用于等待保存完成或添加回调
      * @since 1.0
      */
     CompletableFuture<Void> saveAuditLogAsync(AuditLogEntity entity);
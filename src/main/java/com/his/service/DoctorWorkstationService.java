@@ -0,0 +1,35 @@
+package com.his.service;
+
+import com.his.vo.DoctorWorkstationVO;
+
+/**
+ * 医生工作站首屏加载服务接口
+ *
+ * <p>医生打开患者时，前端原本依次调用患者信息、病历、处方、候诊列表四个接口，
+ * 每次调用都要重复 JWT 解析、过滤器链和事务开销；本服务将四项查询合并为一次请求并行执行</p>
+ *
+ * <h3>执行方式</h3>
+ * <ul>
+ *   <li>三条查询链并行执行：患者信息；病历 → 处方；医生校验 → 候诊列表</li>
+ *   <li>在 doctorWorkstationExecutor 线程池中执行，当前用户的 SecurityContext 随任务传递到工作线程</li>
+ *   <li>任一查询失败时整个请求失败，异常与单独调用对应接口时一致</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+public interface DoctorWorkstationService {
+
+    /**
+     * 加载医生工作站首屏数据
+     *
+     * @param patientId      患者ID
+     * @param registrationId 挂号单ID
+     * @param doctorId       候诊列表所属医生ID，为 null 时不查询候诊列表
+     * @param showAll        候诊列表是否显示科室所有患者
+     * @return 首屏数据
+     * @throws IllegalArgumentException 患者或医生不存在、参数无效
+     */
+    DoctorWorkstationVO bootstrap(Long patientId, Long registrationId, Long doctorId, boolean showAll);
+}
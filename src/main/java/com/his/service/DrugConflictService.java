@@ -0,0 +1,77 @@
+package com.his.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.his.entity.Prescription;
+import com.his.vo.DrugConflictWarningVO;
+
+/**
+ * 用药冲突检查服务接口
+ *
+ * <p>检查处方中的药物相互作用与过敏冲突，结果作为警示返回给开方医生和审核药师</p>
+ *
+ * <h3>检查范围</h3>
+ * <ul>
+ *   <li><b>处方内</b>：同一处方中药品两两之间的相互作用</li>
+ *   <li><b>在用处方</b>：与患者其他未发药处方、以及近期已发药处方中的药品之间的相互作用</li>
+ *   <li><b>过敏史</b>：药品所属过敏原分类与患者过敏史（关键词匹配）之间的冲突</li>
+ * </ul>
+ *
+ * <h3>实现方式</h3>
+ * <ul>
+ *   <li>规则表整体加载为内存位图索引，检查时不访问规则表</li>
+ *   <li>每次检查（含整页审核队列）只查询一次患者在用处方药品</li>
+ *   <li>规则变更后定期自动重新加载，也可调用 {@link #reload()} 立即生效，无需重启服务</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.scheduled.DrugConflictRuleTask
+ */
+public interface DrugConflictService {
+
+    /**
+     * 检查一张处方
+     *
+     * @param prescription 处方（需包含明细与患者）
+     * @return 冲突警示（按严重程度从高到低排序），无冲突时为空列表
+     */
+    List<DrugConflictWarningVO> check(Prescription prescription);
+
+    /**
+     * 批量检查处方（如药师审核队列的一页）
+     *
+     * @param prescriptions 处方列表（需包含明细与患者）
+     * @return 处方ID → 冲突警示，无冲突的处方不包含在结果中
+     */
+    Map<Long, List<DrugConflictWarningVO>> checkAll(Collection<Prescription> prescriptions);
+
+    /**
+     * 从规则表重新加载索引
+     *
+     * @return 加载后的规则统计
+     */
+    RuleStats reload();
+
+    /**
+     * 规则表发生变化时重新加载索引
+     *
+     * @return 是否重新加载
+     */
+    boolean reloadIfChanged();
+
+    /**
+     * 当前索引的规则统计
+     *
+     * @param medicines       参与规则的药品数
+     * @param interactions    药物相互作用规则数
+     * @param allergenClasses 过敏原分类数
+     * @param loadedAt        加载时间
+     */
+    record RuleStats(int medicines, int interactions, int allergenClasses, LocalDateTime loadedAt) {
+    }
+}
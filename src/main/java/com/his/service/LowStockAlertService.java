@@ -0,0 +1,71 @@
+package com.his.service;
+
+import java.util.List;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.his.entity.Medicine;
+import com.his.event.LowStockEvent;
+import com.his.vo.LowStockMedicineVO;
+
+/**
+ * 低库存预警服务接口
+ *
+ * <p>在库存变更路径上检测最低库存阈值的跨越，维护内存中的低库存集合，并实时推送给药师</p>
+ *
+ * <h3>主要功能</h3>
+ * <ul>
+ *   <li><b>阈值检测</b>：库存变更时比较变更前后状态，仅在跨越阈值时发布 {@link LowStockEvent}</li>
+ *   <li><b>低库存集合</b>：事务提交后更新内存集合，查询无需扫描药品表</li>
+ *   <li><b>实时推送</b>：通过 SSE 将低库存事件推送给已订阅的药师工作站</li>
+ *   <li><b>定时对账</b>：定期与数据库对账，修正绕过服务层的库存变更</li>
+ * </ul>
+ *
+ * <h3>判定规则</h3>
+ * <p>与 {@link com.his.repository.MedicineRepository#findLowStock()} 保持一致：库存 &lt;= 最低库存 即为低库存</p>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.event.LowStockEvent
+ */
+public interface LowStockAlertService {
+
+    /**
+     * 库存变更通知
+     *
+     * <p>在库存变更路径上调用（须在药品库存已更新之后），仅当库存跨越最低库存阈值时发布事件</p>
+     * <p>事件在事务提交后才会更新低库存集合并推送，事务回滚不会产生误报</p>
+     *
+     * @param medicine 药品实体（库存已更新）
+     * @param previousStock 变更前的库存数量
+     */
+    void onStockChanged(Medicine medicine, int previousStock);
+
+    /**
+     * 查询当前低库存药品
+     *
+     * @return 低库存药品列表（按药品ID排序）
+     */
+    List<LowStockMedicineVO> getCurrentLowStock();
+
+    /**
+     * 订阅低库存事件流（SSE）
+     *
+     * <p>订阅成功后立即推送一次当前低库存快照（事件名 snapshot），
+     * 之后每次阈值跨越推送一条事件（事件名 low-stock / stock-recovered）</p>
+     *
+     * @return SSE 发射器
+     */
+    SseEmitter subscribe();
+
+    /**
+     * 与数据库对账
+     *
+     * <p>以 {@link com.his.repository.MedicineRepository#findLowStock()} 为准修正内存集合，
+     * 对遗漏的阈值跨越补发事件</p>
+     *
+     * @return 修正（补发事件）的药品数量
+     */
+    int reconcile();
+}
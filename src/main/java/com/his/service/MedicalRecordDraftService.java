@@ -0,0 +1,80 @@
+package com.his.service;
+
+import java.util.Map;
+
+import com.his.enums.MedicalRecordFieldEnum;
+import com.his.vo.MedicalRecordDraftVO;
+
+/**
+ * 病历草稿自动保存服务接口
+ *
+ * <p>医生编辑病历时前端频繁提交字段级补丁，同一病历的补丁在内存中合并，短暂空闲后只写入变化的列</p>
+ *
+ * <h3>合并与落库</h3>
+ * <ul>
+ *   <li><b>合并</b>：同一病历的补丁按字段覆盖合并，一个合并窗口内只执行一次 UPDATE</li>
+ *   <li><b>乐观锁</b>：UPDATE 以合并窗口开始时的版本号为条件且不递增版本号：
+ *       同一编辑会话随后的完整保存仍使用加载时的版本号，而期间发生的完整保存或提交会使补丁匹配 0 行被丢弃</li>
+ *   <li><b>落库时机</b>：最后一次补丁后空闲超过合并窗口，或首个补丁等待超过最长延迟时写入</li>
+ *   <li><b>只写变化的列</b>：UPDATE 只包含补丁中出现的字段，不重新读取挂号单、患者和医生</li>
+ *   <li><b>提交病历</b>：提交前同步写入该病历未落库的补丁，保证提交的是最新内容</li>
+ *   <li><b>完整保存</b>：完整保存以请求内容为准，丢弃该病历未落库的补丁</li>
+ * </ul>
+ *
+ * <h3>限制</h3>
+ * <ul>
+ *   <li>只允许修改草稿状态的病历；落库前病历已被提交时补丁被丢弃</li>
+ *   <li>查询接口返回已落库的内容，未落库的补丁最多延迟一个合并窗口可见</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.scheduled.MedicalRecordDraftFlushTask
+ */
+public interface MedicalRecordDraftService {
+
+    /**
+     * 接收草稿补丁
+     *
+     * @param recordId 病历ID
+     * @param doctorId 当前医生ID，为 null 表示管理员（不校验病历归属）
+     * @param version  客户端加载病历时的版本号，为 null 时不校验
+     * @param fields   变化的字段及其最新内容（值为 null 表示清空）
+     * @return 合并后尚未落库的字段及最晚写入时间
+     * @throws IllegalArgumentException 病历不存在或字段内容超长
+     * @throws IllegalStateException    病历不是草稿状态、不属于当前医生或版本号不一致
+     */
+    MedicalRecordDraftVO patch(Long recordId, Long doctorId, Integer version, Map<MedicalRecordFieldEnum, String> fields);
+
+    /**
+     * 同步写入指定病历未落库的补丁
+     *
+     * <p>在事务中调用时随事务提交；事务回滚时补丁重新放回内存，等待下次写入</p>
+     *
+     * @param recordId 病历ID
+     * @return 是否有补丁被写入
+     */
+    boolean flush(Long recordId);
+
+    /**
+     * 丢弃指定病历未落库的补丁
+     *
+     * @param recordId 病历ID
+     */
+    void discard(Long recordId);
+
+    /**
+     * 写入已到期的补丁
+     *
+     * @return 写入的病历数
+     */
+    int flushDue();
+
+    /**
+     * 写入全部未落库的补丁（应用关闭时调用）
+     *
+     * @return 写入的病历数
+     */
+    int flushAll();
+}
@@ -0,0 +1,62 @@
+package com.his.service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.his.entity.MedicalRecord;
+import com.his.vo.MedicalRecordSearchHitVO;
+
+/**
+ * 病历全文检索服务接口
+ *
+ * <p>按主诉、诊断、诊断编码、治疗方案检索病历，帮助医生查找相似病例</p>
+ *
+ * <h3>索引维护</h3>
+ * <ul>
+ *   <li><b>增量更新</b>：病历保存、提交时调用 {@link #index(MedicalRecord)}，随业务事务一同提交，回滚时不写入</li>
+ *   <li><b>补建</b>：尚无索引或索引早于病历更新时间的病历由 {@link #reindexStale(int)} 定期补建</li>
+ * </ul>
+ *
+ * <h3>检索范围</h3>
+ * <ul>
+ *   <li><b>个人</b>：当前医生自己的病历（含草稿）</li>
+ *   <li><b>科室</b>：同科室医生的已提交病历，以及自己的草稿</li>
+ *   <li><b>管理员</b>：全部病历</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.scheduled.MedicalRecordSearchIndexTask
+ */
+public interface MedicalRecordSearchService {
+
+    /**
+     * 更新病历的检索索引
+     *
+     * <p>在事务中调用时于事务提交前写入；无事务时立即写入</p>
+     *
+     * @param record 已保存的病历（需包含主键）
+     */
+    void index(MedicalRecord record);
+
+    /**
+     * 检索病历
+     *
+     * @param keyword         检索词
+     * @param doctorId        当前医生ID，为 null 表示管理员检索全部病历
+     * @param departmentScope 是否检索同科室病历（doctorId 为 null 时忽略）
+     * @param pageable        分页参数（排序固定为相关度）
+     * @return 按相关度排序的分页结果
+     * @throws IllegalArgumentException 检索词为空、过长或无有效内容
+     */
+    Page<MedicalRecordSearchHitVO> search(String keyword, Long doctorId, boolean departmentScope, Pageable pageable);
+
+    /**
+     * 补建缺失或过期的索引
+     *
+     * @param batchSize 每批处理的病历数
+     * @return 补建的病历数
+     */
+    int reindexStale(int batchSize);
+}
@@ -0,0 +1,57 @@
+package com.his.service;
+
+/**
+ * 药品目录快照服务接口
+ *
+ * <p>为公共药品目录接口提供按角色视图预序列化的快照，避免每次请求重复查询与序列化</p>
+ *
+ * <h3>主要功能</h3>
+ * <ul>
+ *   <li><b>预序列化</b>：每个药品按 Public / Doctor / Pharmacist 三种视图各序列化一次</li>
+ *   <li><b>快照缓存</b>：按（视图 + 常用筛选条件）缓存完整响应体与强 ETag</li>
+ *   <li><b>增量重建</b>：药品变更后仅重新读取、重新序列化发生变化的药品</li>
+ *   <li><b>兜底重建</b>：快照超过最大存活时间后全量重建，修正绕过服务层的数据变更</li>
+ * </ul>
+ *
+ * <h3>筛选条件</h3>
+ * <p>仅支持与 {@link com.his.specification.MedicineSpecification#buildDoctorQuery} 一致的常用筛选：
+ * 分类、是否处方药、是否有货；关键字等高级筛选请使用分页查询接口</p>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.controller.CommonMedicineController
+ */
+public interface MedicineCatalogService {
+
+    /**
+     * 获取药品目录快照
+     *
+     * @param view           JsonView视图类型（Public/Doctor/Pharmacist）
+     * @param category       药品分类（可选）
+     * @param isPrescription 是否处方药（可选）
+     * @param inStock        是否只显示有货药品（可选）
+     * @return 目录快照（已序列化的响应体及 ETag）
+     */
+    Snapshot getSnapshot(Class<?> view, String category, Short isPrescription, Boolean inStock);
+
+    /**
+     * 药品变更通知
+     *
+     * <p>在药品数据变更路径上调用；存在事务时在事务提交后才标记变更，回滚不会触发重建</p>
+     *
+     * @param medicineId 药品ID
+     */
+    void markChanged(Long medicineId);
+
+    /**
+     * 药品目录快照
+     *
+     * @param body    序列化后的响应体（{@link com.his.common.Result} 格式，UTF-8）
+     * @param etag    强 ETag（基于视图与目录内容计算，带双引号）
+     * @param size    快照中的药品数量
+     * @param version 目录版本号（药品数据每次实际变化时递增）
+     */
+    record Snapshot(byte[] body, String etag, int size, long version) {
+    }
+}
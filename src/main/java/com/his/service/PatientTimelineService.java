@@ -0,0 +1,35 @@
+package com.his.service;
+
+import com.his.vo.PatientTimelineVO;
+
+/**
+ * 患者就诊时间线服务接口
+ *
+ * <p>将患者的挂号、病历、处方、收费记录合并为一条按时间倒序、键集分页的事件流</p>
+ *
+ * <h3>实现方式</h3>
+ * <ul>
+ *   <li>每页固定执行四条投影查询（每类事件一条），并行执行后在内存中归并</li>
+ *   <li>每条查询按 (patient_main_id, created_at, main_id) 索引定位游标，只读取一页所需的行，
+ *       耗时与患者历史记录数量无关</li>
+ *   <li>只查询摘要字段，不加载实体及其懒加载关联</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+public interface PatientTimelineService {
+
+    /**
+     * 查询患者时间线的一页
+     *
+     * @param patientId 患者ID
+     * @param doctorId  当前医生ID，为 null 表示管理员；其他医生的草稿病历不出现在时间线中
+     * @param cursor    上一页返回的 nextCursor，首页为空
+     * @param size      每页事件数（1-100）
+     * @return 按时间倒序的一页事件
+     * @throws IllegalArgumentException 患者不存在、游标无效或每页数量超出范围
+     */
+    PatientTimelineVO getTimeline(Long patientId, Long doctorId, String cursor, int size);
+}
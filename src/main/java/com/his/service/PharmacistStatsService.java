@@ -0,0 +1,94 @@
+package com.his.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.his.dto.PharmacistStatisticsDTO;
+import com.his.enums.StatsGranularityEnum;
+import com.his.vo.PharmacistStatsVO;
+
+/**
+ * 药师工作量统计服务接口
+ *
+ * <p>按药师、按小时维护发药/退药计数，统计查询不再聚合扫描处方表</p>
+ *
+ * <h3>数据结构</h3>
+ * <ul>
+ *   <li><b>内存</b>：每个药师一组按小时排序的统计桶（发药单数、发药金额、发药药品数、退药单数、退药金额），
+ *       保留最近 {@code pharmacy.stats.memory-days} 天</li>
+ *   <li><b>汇总表</b>：{@code his_pharmacist_hourly_stats}，每个药师每小时一行，发药/退药事务提交前以增量 UPSERT 写入</li>
+ *   <li><b>启动重建</b>：应用启动时从汇总表加载内存窗口内的统计桶，尚未提交的事务计数并入新加载的统计桶</li>
+ * </ul>
+ *
+ * <h3>查询方式</h3>
+ * <ul>
+ *   <li>查询范围在内存窗口内时直接由内存统计桶汇总</li>
+ *   <li>查询范围早于内存窗口时读取汇总表（每个药师每小时至多一行）</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.scheduled.PharmacistStatsTask
+ */
+public interface PharmacistStatsService {
+
+    /**
+     * 记录一次发药
+     *
+     * <p>立即计入内存统计；存在事务时随事务提交写入汇总表，事务回滚时撤销内存计数；
+     * 不存在事务时在独立事务中写入汇总表</p>
+     *
+     * @param pharmacistId 发药药师ID
+     * @param dispenseTime 发药时间
+     * @param amount       处方金额
+     * @param items        处方明细项数
+     */
+    void recordDispense(Long pharmacistId, LocalDateTime dispenseTime, BigDecimal amount, Integer items);
+
+    /**
+     * 记录一次退药（计入原发药药师）
+     *
+     * @param pharmacistId 原发药药师ID
+     * @param returnTime   退药时间
+     * @param amount       处方金额
+     */
+    void recordReturn(Long pharmacistId, LocalDateTime returnTime, BigDecimal amount);
+
+    /**
+     * 统计药师在时间范围内的发药合计
+     *
+     * @param pharmacistId 药师ID
+     * @param start        开始时间（包含）
+     * @param end          结束时间（不包含）
+     * @return 发药单数、发药金额、发药药品数
+     */
+    PharmacistStatisticsDTO getTotals(Long pharmacistId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * 按粒度统计药师在时间范围内的工作量
+     *
+     * @param pharmacistId 药师ID
+     * @param start        开始时间（包含）
+     * @param end          结束时间（不包含）
+     * @param granularity  统计粒度（小时/天/周）
+     * @return 合计与按粒度划分的统计序列
+     * @throws IllegalArgumentException 如果时间范围无效或超过上限
+     */
+    PharmacistStatsVO getStats(Long pharmacistId, LocalDateTime start, LocalDateTime end,
+                               StatsGranularityEnum granularity);
+
+    /**
+     * 从汇总表重建内存统计桶
+     *
+     * <p>重建期间短暂阻塞汇总表写入；已计入内存但尚未写入汇总表的事务增量保留在新统计桶中</p>
+     */
+    void rebuild();
+
+    /**
+     * 淘汰超出内存窗口的统计桶
+     *
+     * @return 淘汰的统计桶数量
+     */
+    int evictExpired();
+}
@@ -1,7 +1,11 @@
 package com.his.service;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
 import com.his.dto.PrescriptionDTO;
 import com.his.entity.Prescription;
+import com.his.vo.PrescriptionVO;
 
 /**
  * 处方服务接口
@@ -33,9 +37,9 @@ public interface PrescriptionService {
      * 根据病历ID查询处方列表
      *
      * @param recordId 病历ID
-     * @return 处方列表
+     * @return 处方列表（含明细）
      */
-    java.util.List<Prescription> getByRecordId(Long recordId);
+    java.util.List<PrescriptionVO> getByRecordId(Long recordId);
 
     /**
      * 审核处方
@@ -47,20 +51,41 @@ public interface PrescriptionService {
     void review(Long id, Long reviewDoctorId, String remark);
 
     /**
-     * 获取待发药处方列表
-     * 已审核(status=2)且未发药的处方
+     * 分页获取待发药处方列表
+     * 已缴费(PAID)且未发药的处方，按开方时间先后排序
+     *
+     * @param pageable 分页参数（排序固定为开方时间升序，忽略传入的排序）
+     * @return 处方分页数据（含明细）
+     */
+    Page<PrescriptionVO> getPendingDispenseList(Pageable pageable);
+
+    /**
+     * 分页获取待审核处方列表
+     * 状态为ISSUED（已开方）的处方，等待药师审核，按开方时间先后排序
+     *
+     * @param pageable 分页参数（排序固定为开方时间升序，忽略传入的排序）
+     * @return 待审核处方分页数据（患者、医生及明细已加载）
+     */
+    Page<Prescription> getPendingReviewList(Pageable pageable);
+
+    /**
+     * 领取待发药处方
+     * 按开方时间先后领取最多 limit 张未被领取（或租约已过期）的已缴费处方，
+     * 并发领取的药师互不重复；当前药师已领取且未发药的处方会一并返回并续租
      *
-     * @return 处方列表
+     * @param pharmacistId 药师ID
+     * @param limit 领取数量（1-50）
+     * @return 领取到的处方列表（含明细），队列为空时返回空列表
      */
-    java.util.List<Prescription> getPendingDispenseList();
+    java.util.List<PrescriptionVO> claimPendingDispense(Long pharmacistId, int limit);
 
     /**
-     * 获取待审核处方列表
-     * 状态为ISSUED（已开方）的处方，等待药师审核
+     * 释放领取的处方，使其立即回到待发药队列
      *
-     * @return 待审核处方列表
+     * @param id 处方ID
+     * @param pharmacistId 药师ID（只能释放本人领取的处方）
      */
-    java.util.List<Prescription> getPendingReviewList();
+    void releaseClaim(Long id, Long pharmacistId);
 
     /**
      * 发药
@@ -74,6 +99,17 @@ public interface PrescriptionService {
      */
     void dispense(Long id, Long dispenseBy);
 
+    /**
+     * 批量发药
+     * 一次加载全部处方明细与药品，按药品汇总扣减库存，校验通过的处方在同一事务中一起更新为已发药；
+     * 校验不通过的处方单独标记失败，不影响其他处方
+     *
+     * @param prescriptionIds 处方ID列表（最多50个，重复ID只处理一次）
+     * @param dispenseBy 发药人ID
+     * @return 每张处方的发药结果
+     */
+    com.his.vo.BatchDispenseResultVO batchDispense(java.util.List<Long> prescriptionIds, Long dispenseBy);
+
     /**
      * 退药
      * 1. 检查状态是否为已发药(status=3)
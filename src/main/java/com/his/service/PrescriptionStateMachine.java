@@ -48,7 +48,7 @@ import com.his.enums.PrescriptionStatusEnum;
  * <h3>最佳实践</h3>
  * <ul>
  *   <li>所有状态转换必须通过状态机执行，不得直接修改状态</li>
- *   <li>状态机自动记录审计日志，无需手动创建历史记录</li>
+ *   <li>状态机自动记录审计日志（his_prescription_status_history），无需手动创建历史记录</li>
  *   <li>非法状态转换会抛出 IllegalStateException</li>
  *   <li>终态（DISPENSED、REFUNDED）不可逆向转换</li>
  * </ul>
@@ -57,7 +57,7 @@ import com.his.enums.PrescriptionStatusEnum;
  * @version 1.0
  * @since 1.0
  * @see Prescription
- * @see PrescriptionStatusHistory
+ * @see com.his.entity.PrescriptionStatusHistory
  * @see PrescriptionStatusEnum
  */
 public interface PrescriptionStateMachine {
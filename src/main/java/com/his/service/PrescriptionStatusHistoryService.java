@@ -0,0 +1,64 @@
+package com.his.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.his.entity.PrescriptionStatusHistory;
+import com.his.enums.PrescriptionStatusEnum;
+
+/**
+ * 处方状态转换历史服务接口
+ *
+ * <p>记录并查询处方状态机的每一次状态转换，用于药房纠纷追溯与审计</p>
+ *
+ * <h3>写入方式（事务内批量写入）</h3>
+ * <ul>
+ *   <li><b>同事务</b>：存在事务时，历史记录先在事务内收集，于事务提交前写入，与状态更新一起提交或回滚</li>
+ *   <li><b>批量插入</b>：无论本事务转换了多少张处方，只执行一次 JDBC 批量插入</li>
+ *   <li><b>无事务</b>：不存在事务时立即写入</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.PrescriptionStateMachine
+ * @see PrescriptionStatusHistory
+ */
+public interface PrescriptionStatusHistoryService {
+
+    /**
+     * 记录一次状态转换
+     *
+     * @param prescriptionId 处方ID
+     * @param fromStatus     源状态
+     * @param toStatus       目标状态
+     * @param operatorId     操作人ID（为空表示系统自动执行）
+     * @param operatorName   操作人姓名
+     * @param reason         状态转换原因
+     */
+    void record(Long prescriptionId, PrescriptionStatusEnum fromStatus, PrescriptionStatusEnum toStatus,
+                Long operatorId, String operatorName, String reason);
+
+    /**
+     * 查询处方的完整状态流转历史（按时间先后排序）
+     *
+     * @param prescriptionId 处方ID
+     * @return 状态转换历史列表
+     */
+    List<PrescriptionStatusHistory> getByPrescriptionId(Long prescriptionId);
+
+    /**
+     * 按时间范围分页查询状态转换历史（按时间先后排序）
+     *
+     * @param start    开始时间（包含）
+     * @param end      结束时间（包含）
+     * @param toStatus 目标状态（可选，如只查询发药记录）
+     * @param pageable 分页参数
+     * @return 状态转换历史分页数据
+     * @throws IllegalArgumentException 如果时间范围为空或开始时间晚于结束时间
+     */
+    Page<PrescriptionStatusHistory> search(LocalDateTime start, LocalDateTime end, Short toStatus, Pageable pageable);
+}
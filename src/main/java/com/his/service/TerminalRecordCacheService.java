@@ -0,0 +1,79 @@
+package com.his.service;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.his.enums.CachedRecordTypeEnum;
+
+/**
+ * 终态记录缓存服务接口
+ *
+ * <p>挂号、处方、收费单进入终态后不再变化，而终态记录恰恰是挂号、收费和审计最常查询的记录。
+ * 本服务缓存这些记录组装完成的 VO，命中时不访问数据库、不开启事务</p>
+ *
+ * <h3>缓存策略</h3>
+ * <ul>
+ *   <li><b>读穿透</b>：未命中时调用加载函数，加载结果处于终态才进入缓存，非终态记录每次都重新查询</li>
+ *   <li><b>容量</b>：按条目数限制容量，超出时淘汰最久未访问的记录（LRU）；条目超过最大存活时间后重新加载，
+ *       以刷新关联的患者、科室、医生名称</li>
+ *   <li><b>绕过</b>：管理员更正数据后可绕过缓存读取，读取结果替换原缓存条目</li>
+ *   <li><b>淘汰</b>：终态之后仍可能发生的状态转换（已发药 → 已退费）由状态机调用 {@link #evict} 淘汰</li>
+ * </ul>
+ *
+ * <h3>限制</h3>
+ * <ul>
+ *   <li>缓存的 VO 由所有请求共享，调用方不得修改返回的对象</li>
+ *   <li>缓存为单实例内存缓存，多实例部署时各实例独立缓存</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.monitoring.TerminalRecordCacheMetrics
+ */
+public interface TerminalRecordCacheService {
+
+    /**
+     * 读取记录 VO，未命中时加载并在记录处于终态时放入缓存
+     *
+     * @param type     记录类型
+     * @param id       记录ID
+     * @param bypass   是否绕过缓存（管理员更正数据后读取最新内容）
+     * @param loader   加载函数（查询并组装 VO，记录不存在时抛出异常）
+     * @param statusOf 从 VO 中取出状态码
+     * @param <V>      VO 类型
+     * @return 记录 VO
+     */
+    <V> V get(CachedRecordTypeEnum type, Long id, boolean bypass, Supplier<V> loader, Function<V, Short> statusOf);
+
+    /**
+     * 淘汰缓存条目
+     *
+     * <p>在事务中调用时，事务结束后再次淘汰，防止并发请求在提交前读到旧状态并重新放入缓存</p>
+     *
+     * @param type 记录类型
+     * @param id   记录ID
+     */
+    void evict(CachedRecordTypeEnum type, Long id);
+
+    /**
+     * 查询指定记录类型的缓存统计
+     *
+     * @param type 记录类型
+     * @return 缓存统计
+     */
+    Stats stats(CachedRecordTypeEnum type);
+
+    /**
+     * 缓存统计
+     *
+     * @param hits           命中次数
+     * @param misses         未命中次数
+     * @param bypasses       绕过缓存次数
+     * @param evictions      容量或存活时间淘汰次数
+     * @param entries        当前条目数
+     * @param estimatedBytes 当前条目估算占用字节数（按 JSON 序列化长度估算）
+     */
+    record Stats(long hits, long misses, long bypasses, long evictions, long entries, long estimatedBytes) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.his.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 审计日志游标：一条审计日志的排序键 (创建时间, ID)
+ *
+ * <p>经 Base64URL 编码后对前端不透明；查询按倒序翻页，导出按正序续传，编码格式相同</p>
+ *
+ * @param time 创建时间
+ * @param id   审计日志ID
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+record AuditLogCursor(LocalDateTime time, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 解码游标
+     *
+     * @param cursor 编码后的游标，为空表示从头开始
+     * @return 游标，输入为空时返回 null
+     * @throws IllegalArgumentException 游标无效时抛出
+     */
+    static AuditLogCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARATOR);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("分页游标无效");
+            }
+            return new AuditLogCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("分页游标无效", e);
+        }
+    }
+
+    /**
+     * 编码游标
+     *
+     * @param time 创建时间
+     * @param id   审计日志ID
+     * @return Base64URL 编码的游标
+     */
+    static String encode(LocalDateTime time, Long id) {
+        String raw = time + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
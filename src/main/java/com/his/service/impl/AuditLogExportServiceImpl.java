@@ -0,0 +1,531 @@
+package com.his.service.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+import javax.sql.DataSource;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.his.dto.AuditLogExportDTO;
+import com.his.enums.AuditExportFormatEnum;
+import com.his.monitoring.AuditLogExportMetrics;
+import com.his.service.AuditLogExportService;
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 审计日志导出服务实现类
+ *
+ * <p>按 (create_time, id) 正序分块读取，每块一次键集查询，边读边写，内存占用只与 chunk-size 有关</p>
+ *
+ * <h3>实现说明</h3>
+ * <ul>
+ *   <li><b>独立连接池</b>：导出连接来自首次导出时创建的只读小连接池（最大连接数 = 最大并发导出数），
+ *       不借用业务连接池</li>
+ *   <li><b>分块读取</b>：每块以 {@code (create_time, id) > (?, ?) ORDER BY create_time, id LIMIT chunk-size}
+ *       查询，在一个短的只读事务中读完后回滚并归还连接；长时间导出不会让一个事务长期持有快照，
+ *       阻碍 VACUUM 清理和分区维护。各块不在同一快照中，导出期间新写入的审计日志按排序键出现在后续块中</li>
+ *   <li><b>写出</b>：每块先写入内存缓冲，归还连接后再写到输出流，客户端读得慢时不占用数据库连接</li>
+ *   <li><b>续传</b>：游标与查询接口相同（{@link AuditLogCursor}），续传条件与分块条件相同；
+ *       CSV 续传时不再写 BOM 和表头，客户端可直接追加到已收到的内容之后</li>
+ *   <li><b>限流</b>：超过最大并发导出数时直接拒绝；单次导出超过每秒行数上限时在两块之间暂停，暂停期间不持有连接</li>
+ *   <li><b>进度</b>：每块刷新一次输出流并累加监控指标</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.AuditLogExportService
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuditLogExportServiceImpl implements AuditLogExportService {
+
+    private static final String SELECT_SQL = "SELECT id, module, action, audit_type, description, operator_id, "
+            + "operator_username, trace_id, request_ip, user_agent, status, execution_time, exception_type, "
+            + "exception_message, create_time FROM sys_audit_log";
+
+    private static final String[] CSV_HEADER = {"cursor", "id", "create_time", "module", "action", "audit_type",
+            "description", "operator_id", "operator_username", "trace_id", "request_ip", "user_agent", "status",
+            "execution_time", "exception_type", "exception_message"};
+
+    private final DataSourceProperties dataSourceProperties;
+
+    private final Environment environment;
+
+    private final ObjectMapper objectMapper;
+
+    private final AuditLogExportMetrics metrics;
+
+    @Value("${audit.log.export.max-concurrent:2}")
+    private int maxConcurrent;
+
+    @Value("${audit.log.export.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${audit.log.export.max-rows-per-second:20000}")
+    private int maxRowsPerSecond;
+
+    private Semaphore permits;
+
+    /** 导出专用连接池，首次导出时创建 */
+    private volatile DataSource exportDataSource;
+
+    private HikariDataSource ownedDataSource;
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(maxConcurrent);
+        metrics.bindPermits(permits, maxConcurrent);
+        log.info("审计日志导出已启用: 最大并发={}, 每块行数={}, 每秒行数上限={}",
+                maxConcurrent, chunkSize, maxRowsPerSecond);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (ownedDataSource != null) {
+            ownedDataSource.close();
+            ownedDataSource = null;
+        }
+    }
+
+    @Override
+    public Export open(AuditLogExportDTO criteria, AuditExportFormatEnum format, String cursor) {
+        if (criteria == null) {
+            throw new IllegalArgumentException("导出条件不能为空");
+        }
+        if (format == null) {
+            throw new IllegalArgumentException("导出格式不能为空");
+        }
+        if (criteria.getStartTime() != null && criteria.getEndTime() != null
+                && criteria.getStartTime().isAfter(criteria.getEndTime())) {
+            throw new IllegalArgumentException("开始时间不能晚于结束时间");
+        }
+        AuditLogCursor after = AuditLogCursor.decode(cursor);
+
+        if (!permits.tryAcquire()) {
+            metrics.recordRejected();
+            throw new IllegalStateException("正在进行的审计日志导出已达上限（" + maxConcurrent + "），请稍后重试");
+        }
+        log.info("开始导出审计日志: criteria={}, format={}, cursor={}", criteria, format, cursor);
+        return new StreamingExport(criteria, format, after);
+    }
+
+    /**
+     * 导出专用连接池（与业务连接池使用相同的数据库和账号）
+     *
+     * <p>超时、连接寿命、连接校验等沿用 spring.datasource.hikari.* 配置，只覆盖池名、大小、只读和自动提交</p>
+     */
+    private DataSource exportDataSource() {
+        DataSource dataSource = exportDataSource;
+        if (dataSource == null) {
+            synchronized (this) {
+                dataSource = exportDataSource;
+                if (dataSource == null) {
+                    HikariDataSource hikari = dataSourceProperties.initializeDataSourceBuilder()
+                            .type(HikariDataSource.class)
+                            .build();
+                    Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(hikari));
+                    hikari.setPoolName("HisAuditExportPool");
+                    hikari.setMaximumPoolSize(maxConcurrent);
+                    hikari.setMinimumIdle(0);
+                    hikari.setReadOnly(true);
+                    hikari.setAutoCommit(false);
+                    ownedDataSource = hikari;
+                    exportDataSource = hikari;
+                    dataSource = hikari;
+                }
+            }
+        }
+        return dataSource;
+    }
+
+    /**
+     * 一次导出，持有一个导出许可
+     */
+    private final class StreamingExport implements Export {
+
+        private final AuditLogExportDTO criteria;
+        private final AuditExportFormatEnum format;
+        private final AuditLogCursor after;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private StreamingExport(AuditLogExportDTO criteria, AuditExportFormatEnum format, AuditLogCursor after) {
+            this.criteria = criteria;
+            this.format = format;
+            this.after = after;
+        }
+
+        @Override
+        public Result writeTo(OutputStream out) throws IOException {
+            long start = System.nanoTime();
+            CountingOutputStream counting = new CountingOutputStream(out);
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+            RowWriter writer = format == AuditExportFormatEnum.NDJSON
+                    ? new NdjsonRowWriter(buffer)
+                    : new CsvRowWriter(buffer, after == null);
+
+            long rows = 0;
+            long reportedBytes = 0;
+            AuditLogCursor position = after;
+            String lastCursor = null;
+            Chunk chunk;
+            do {
+                chunk = readChunk(position, writer);
+                // 连接已归还，再写到输出流
+                writer.flush();
+                buffer.writeTo(counting);
+                buffer.reset();
+                counting.flush();
+                rows += chunk.rows();
+                metrics.recordProgress(chunk.rows(), counting.count - reportedBytes);
+                reportedBytes = counting.count;
+                if (chunk.rows() > 0) {
+                    position = chunk.last();
+                    lastCursor = AuditLogCursor.encode(position.time(), position.id());
+                }
+                if (chunk.rows() == chunkSize) {
+                    throttle(rows, start);
+                }
+            } while (chunk.rows() == chunkSize);
+            writer.finish();
+            buffer.writeTo(counting);
+            counting.flush();
+            metrics.recordProgress(0, counting.count - reportedBytes);
+
+            long elapsedNanos = System.nanoTime() - start;
+            metrics.recordExport(elapsedNanos);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+            double seconds = Math.max(elapsedNanos, 1) / 1_000_000_000.0;
+            Result result = new Result(rows, counting.count, elapsedMillis,
+                    rows / seconds, counting.count / seconds, lastCursor);
+            log.info("审计日志导出完成: format={}, 行数={}, 字节数={}, 耗时={}ms, {} 行/秒, {} 字节/秒",
+                    format, rows, counting.count, elapsedMillis,
+                    Math.round(result.rowsPerSecond()), Math.round(result.bytesPerSecond()));
+            return result;
+        }
+
+        /**
+         * 在一个只读短事务中读取下一块，结束后回滚并归还连接
+         */
+        private Chunk readChunk(AuditLogCursor position, RowWriter writer) throws IOException {
+            List<Object> args = new ArrayList<>();
+            String sql = buildSql(criteria, position, args) + " LIMIT ?";
+            args.add(chunkSize);
+
+            int rows = 0;
+            LocalDateTime lastTime = null;
+            long lastId = 0;
+            try (Connection connection = exportDataSource().getConnection()) {
+                connection.setAutoCommit(false);
+                connection.setReadOnly(true);
+                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                    for (int i = 0; i < args.size(); i++) {
+                        ps.setObject(i + 1, args.get(i));
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            lastTime = rs.getObject("create_time", LocalDateTime.class);
+                            lastId = rs.getLong("id");
+                            writer.write(AuditLogCursor.encode(lastTime, lastId), rs);
+                            rows++;
+                        }
+                    }
+                } finally {
+                    connection.rollback();
+                }
+            } catch (SQLException e) {
+                throw new DataAccessResourceFailureException("审计日志导出查询失败: " + e.getMessage(), e);
+            }
+            return new Chunk(rows, rows > 0 ? new AuditLogCursor(lastTime, lastId) : null);
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * 一块导出结果
+     *
+     * @param rows 行数
+     * @param last 最后一行的排序键，没有行时为 null
+     */
+    private record Chunk(int rows, AuditLogCursor last) {
+    }
+
+    /**
+     * 超过每秒行数上限时暂停，使平均速率不超过上限
+     */
+    private void throttle(long rows, long startNanos) throws IOException {
+        if (maxRowsPerSecond <= 0) {
+            return;
+        }
+        long expectedNanos = rows * 1_000_000_000L / maxRowsPerSecond;
+        long aheadNanos = expectedNanos - (System.nanoTime() - startNanos);
+        if (aheadNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(aheadNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("审计日志导出被中断", e);
+            }
+        }
+    }
+
+    private static String buildSql(AuditLogExportDTO criteria, AuditLogCursor after, List<Object> args) {
+        List<String> clauses = new ArrayList<>();
+        addEq(clauses, args, "module", criteria.getModule());
+        addEq(clauses, args, "action", criteria.getAction());
+        addEq(clauses, args, "operator_username", criteria.getOperatorUsername());
+        addEq(clauses, args, "audit_type", criteria.getAuditType());
+        if (criteria.getOperatorId() != null) {
+            clauses.add("operator_id = ?");
+            args.add(criteria.getOperatorId());
+        }
+        if (criteria.getStartTime() != null) {
+            clauses.add("create_time >= ?");
+            args.add(criteria.getStartTime());
+        }
+        if (criteria.getEndTime() != null) {
+            clauses.add("create_time <= ?");
+            args.add(criteria.getEndTime());
+        }
+        if (after != null) {
+            clauses.add("(create_time, id) > (?, ?)");
+            args.add(after.time());
+            args.add(after.id());
+        }
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        if (!clauses.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", clauses));
+        }
+        return sql.append(" ORDER BY create_time, id").toString();
+    }
+
+    private static String formatTime(ResultSet rs) throws SQLException {
+        LocalDateTime time = rs.getObject("create_time", LocalDateTime.class);
+        return time == null ? null : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(time);
+    }
+
+    private static void addEq(List<String> clauses, List<Object> args, String column, String value) {
+        if (value != null && !value.isEmpty()) {
+            clauses.add(column + " = ?");
+            args.add(value);
+        }
+    }
+
+    /**
+     * 按行写出
+     */
+    private interface RowWriter {
+        void write(String cursor, ResultSet rs) throws IOException, SQLException;
+
+        void flush() throws IOException;
+
+        /** 写完所有行（不关闭底层输出流） */
+        void finish() throws IOException;
+    }
+
+    /**
+     * 每行一个 JSON 对象
+     */
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(String cursor, ResultSet rs) throws IOException, SQLException {
+            generator.writeStartObject();
+            generator.writeStringField("cursor", cursor);
+            generator.writeNumberField("id", rs.getLong("id"));
+            generator.writeStringField("createTime", formatTime(rs));
+            generator.writeStringField("module", rs.getString("module"));
+            generator.writeStringField("action", rs.getString("action"));
+            generator.writeStringField("auditType", rs.getString("audit_type"));
+            generator.writeStringField("description", rs.getString("description"));
+            writeNullableLong("operatorId", rs.getObject("operator_id", Long.class));
+            generator.writeStringField("operatorUsername", rs.getString("operator_username"));
+            generator.writeStringField("traceId", rs.getString("trace_id"));
+            generator.writeStringField("requestIp", rs.getString("request_ip"));
+            generator.writeStringField("userAgent", rs.getString("user_agent"));
+            generator.writeStringField("status", rs.getString("status"));
+            writeNullableLong("executionTime", rs.getObject("execution_time", Long.class));
+            generator.writeStringField("exceptionType", rs.getString("exception_type"));
+            generator.writeStringField("exceptionMessage", rs.getString("exception_message"));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void writeNullableLong(String field, Long value) throws IOException {
+            if (value == null) {
+                generator.writeNullField(field);
+            } else {
+                generator.writeNumberField(field, value);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+
+    /**
+     * gzip 压缩的 CSV（RFC 4180，UTF-8 带 BOM 以便表格工具正确识别中文）
+     *
+     * <p>以 = + - @ 制表符或回车开头的字段前加单引号，表格工具打开时按文本显示，不会作为公式执行（CSV 注入）</p>
+     *
+     * <p>续传时不写 BOM 和表头，解压后可直接追加到上次收到的内容之后</p>
+     */
+    private static final class CsvRowWriter implements RowWriter {
+
+        /** 表格工具会当作公式解析的首字符 */
+        private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+        private final GZIPOutputStream gzip;
+        private final Writer writer;
+
+        private CsvRowWriter(OutputStream out, boolean header) throws IOException {
+            this.gzip = new GZIPOutputStream(out, 8192, true);
+            this.writer = new OutputStreamWriter(gzip, StandardCharsets.UTF_8);
+            if (header) {
+                writer.write('\uFEFF');
+                writeRow(CSV_HEADER);
+            }
+        }
+
+        @Override
+        public void write(String cursor, ResultSet rs) throws IOException, SQLException {
+            writeRow(new String[]{
+                    cursor,
+                    String.valueOf(rs.getLong("id")),
+                    formatTime(rs),
+                    rs.getString("module"),
+                    rs.getString("action"),
+                    rs.getString("audit_type"),
+                    rs.getString("description"),
+                    toText(rs.getObject("operator_id", Long.class)),
+                    rs.getString("operator_username"),
+                    rs.getString("trace_id"),
+                    rs.getString("request_ip"),
+                    rs.getString("user_agent"),
+                    rs.getString("status"),
+                    toText(rs.getObject("execution_time", Long.class)),
+                    rs.getString("exception_type"),
+                    rs.getString("exception_message")
+            });
+        }
+
+        private void writeRow(String[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(values[i]));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+            gzip.finish();
+            gzip.flush();
+        }
+
+        private static String toText(Long value) {
+            return value == null ? "" : value.toString();
+        }
+
+        static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+                value = "'" + value;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    /**
+     * 统计写出字节数
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -1,19 +1,19 @@
 package com.his.service.impl;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
-import jakarta.persistence.criteria.Predicate;
-
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.his.entity.AuditLogEntity;
-import com.his.repository.AuditLogRepository;
 import com.his.service.AuditLogQueryService;
+import com.his.vo.AuditLogPageVO;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,13 +21,15 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * 审计日志查询服务实现类
  *
- * <p>提供审计日志的综合查询功能,支持多条件组合查询和分页</p>
+ * <p>三类查询共用一条按 (create_time, id) 倒序的键集分页 SQL,只拼接非空的过滤条件</p>
  *
- * <h3>主要功能</h3>
+ * <h3>实现说明</h3>
  * <ul>
- *   <li><b>动态查询</b>：使用JPA Specification实现动态条件拼接</li>
- *   <li><b>分页支持</b>：所有查询都支持分页和排序</li>
- *   <li><b>性能优化</b>：利用数据库索引,避免全表扫描</li>
+ *   <li><b>游标</b>：上一页最后一条的 (创建时间, ID)（{@link AuditLogCursor}）,对前端不透明;
+ *       下一页条件为 {@code (create_time, id) < (?, ?)},由 V18 的复合索引直接定位,不使用 OFFSET</li>
+ *   <li><b>下一页判断</b>：多取一行,不执行 count(*)</li>
+ *   <li><b>估算总数</b>：首页执行 {@code EXPLAIN (FORMAT JSON)} 取规划器估算的行数（Plan Rows）,
+ *       只读取统计信息,耗时与表大小无关;结果只有一页时直接返回本页条数</li>
  * </ul>
  *
  * @author HIS 开发团队
@@ -40,114 +42,160 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class AuditLogQueryServiceImpl implements AuditLogQueryService {
 
-    private final AuditLogRepository auditLogRepository;
+    /** 每页最大条数 */
+    static final int MAX_PAGE_SIZE = 200;
+
+    private static final String SELECT_SQL = "SELECT id, module, action, audit_type, description, operator_id, "
+            + "operator_username, trace_id, request_ip, user_agent, status, execution_time, exception_type, "
+            + "exception_message, create_time FROM sys_audit_log";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
 
-    /**
-     * 综合查询审计日志（支持分页）
-     *
-     * <p>使用JPA Specification动态构建查询条件</p>
-     *
-     * <p><b>实现说明：</b></p>
-     * <ul>
-     *   <li>所有条件都是可选的,只拼接非空条件</li>
-     *   <li>使用Criteria API动态构建WHERE子句</li>
-     *   <li>充分利用数据库索引(idx_audit_module, idx_audit_operator等)</li>
-     * </ul>
-     *
-     * @param module 模块名称(可选)
-     * @param action 操作描述(可选)
-     * @param operatorUsername 操作人用户名(可选)
-     * @param auditType 审计类型(可选)
-     * @param startTime 查询开始时间(可选)
-     * @param endTime 查询结束时间(可选)
-     * @param pageable 分页和排序参数
-     * @return 分页查询结果
-     */
     @Override
-    public Page<AuditLogEntity> searchAuditLogs(
+    public AuditLogPageVO searchAuditLogs(
             String module, String action, String operatorUsername, String auditType,
             LocalDateTime startTime, LocalDateTime endTime,
-            Pageable pageable) {
+            String cursor, int size) {
 
         log.debug("综合查询审计日志: module={}, action={}, operator={}, type={}, startTime={}, endTime={}",
                 module, action, operatorUsername, auditType, startTime, endTime);
 
-        // 构建动态查询条件
-        Specification<AuditLogEntity> spec = (root, query, criteriaBuilder) -> {
-            List<Predicate> predicates = new ArrayList<>();
-
-            // 模块名称条件
-            if (module != null && !module.isEmpty()) {
-                predicates.add(criteriaBuilder.equal(root.get("module"), module));
-            }
-
-            // 操作描述条件
-            if (action != null && !action.isEmpty()) {
-                predicates.add(criteriaBuilder.equal(root.get("action"), action));
-            }
-
-            // 操作人用户名条件
-            if (operatorUsername != null && !operatorUsername.isEmpty()) {
-                predicates.add(criteriaBuilder.equal(root.get("operatorUsername"), operatorUsername));
-            }
-
-            // 审计类型条件
-            if (auditType != null && !auditType.isEmpty()) {
-                predicates.add(criteriaBuilder.equal(root.get("auditType"), auditType));
-            }
-
-            // 时间范围条件
-            if (startTime != null) {
-                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("createTime"), startTime));
-            }
-            if (endTime != null) {
-                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("createTime"), endTime));
-            }
-
-            // 组合所有条件（AND关系）
-            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
-        };
-
-        // 执行分页查询
-        Page<AuditLogEntity> result = auditLogRepository.findAll(spec, pageable);
-
-        log.debug("查询到 {} 条审计日志", result.getTotalElements());
-        return result;
+        Filter filter = new Filter()
+                .eq("module", module)
+                .eq("action", action)
+                .eq("operator_username", operatorUsername)
+                .eq("audit_type", auditType);
+        if (startTime != null) {
+            filter.add("create_time >= ?", startTime);
+        }
+        if (endTime != null) {
+            filter.add("create_time <= ?", endTime);
+        }
+        return page(filter, cursor, size);
     }
 
-    /**
-     * 根据TraceId查询审计日志
-     *
-     * <p>直接调用Repository方法,利用idx_audit_trace_id索引</p>
-     *
-     * @param traceId 链路追踪ID
-     * @return 该TraceId对应的所有审计日志(按创建时间倒序)
-     */
     @Override
-    public List<AuditLogEntity> getAuditLogsByTraceId(String traceId) {
+    public AuditLogPageVO getAuditLogsByTraceId(String traceId, String cursor, int size) {
+        if (traceId == null || traceId.isBlank()) {
+            throw new IllegalArgumentException("TraceId不能为空");
+        }
         log.debug("根据TraceId查询审计日志: traceId={}", traceId);
+        return page(new Filter().eq("trace_id", traceId), cursor, size);
+    }
 
-        List<AuditLogEntity> logs = auditLogRepository.findByTraceIdOrderByCreateTimeDesc(traceId);
+    @Override
+    public AuditLogPageVO getAuditLogsByOperator(Long operatorId, String cursor, int size) {
+        if (operatorId == null) {
+            throw new IllegalArgumentException("操作人ID不能为空");
+        }
+        log.debug("查询操作人的审计日志: operatorId={}", operatorId);
+        return page(new Filter().add("operator_id = ?", operatorId), cursor, size);
+    }
 
-        log.debug("查询到 {} 条审计日志", logs.size());
-        return logs;
+    /**
+     * 查询游标之后的一页
+     */
+    private AuditLogPageVO page(Filter filter, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("每页数量必须在1到" + MAX_PAGE_SIZE + "之间");
+        }
+        AuditLogCursor after = AuditLogCursor.decode(cursor);
+
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> args = new ArrayList<>(filter.args);
+        List<String> clauses = new ArrayList<>(filter.clauses);
+        if (after != null) {
+            clauses.add("(create_time, id) < (?, ?)");
+            args.add(after.time());
+            args.add(after.id());
+        }
+        appendWhere(sql, clauses);
+        sql.append(" ORDER BY create_time DESC, id DESC LIMIT ?");
+        args.add(size + 1);
+
+        List<AuditLogEntity> rows = jdbcTemplate.query(sql.toString(),
+                (rs, rowNum) -> mapAuditLog(rs), args.toArray());
+
+        boolean hasMore = rows.size() > size;
+        List<AuditLogEntity> items = hasMore ? new ArrayList<>(rows.subList(0, size)) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            AuditLogEntity last = items.get(items.size() - 1);
+            nextCursor = AuditLogCursor.encode(last.getCreateTime(), last.getId());
+        }
+
+        Long estimatedTotal = null;
+        if (after == null) {
+            estimatedTotal = hasMore ? estimateRows(filter) : Long.valueOf(items.size());
+        }
+
+        log.debug("查询到 {} 条审计日志, 是否有下一页: {}", items.size(), hasMore);
+        return AuditLogPageVO.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .estimatedTotal(estimatedTotal)
+                .build();
     }
 
     /**
-     * 查询操作人的审计日志
-     *
-     * <p>直接调用Repository方法,利用idx_audit_operator索引</p>
-     *
-     * @param operatorId 操作人ID
-     * @return 该操作人的所有审计日志(按创建时间倒序)
+     * 规划器估算的符合条件的行数,估算失败时返回 null
      */
-    @Override
-    public List<AuditLogEntity> getAuditLogsByOperator(Long operatorId) {
-        log.debug("查询操作人的审计日志: operatorId={}", operatorId);
+    private Long estimateRows(Filter filter) {
+        StringBuilder sql = new StringBuilder("EXPLAIN (FORMAT JSON) SELECT 1 FROM sys_audit_log");
+        appendWhere(sql, filter.clauses);
+        try {
+            String plan = jdbcTemplate.queryForObject(sql.toString(), String.class, filter.args.toArray());
+            JsonNode rows = objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows");
+            return rows.isNumber() ? rows.asLong() : null;
+        } catch (Exception e) {
+            log.warn("审计日志记录数估算失败: {}", e.getMessage());
+            return null;
+        }
+    }
 
-        List<AuditLogEntity> logs = auditLogRepository.findByOperatorIdOrderByCreateTimeDesc(operatorId);
+    private static void appendWhere(StringBuilder sql, List<String> clauses) {
+        if (!clauses.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", clauses));
+        }
+    }
+
+    private static AuditLogEntity mapAuditLog(ResultSet rs) throws SQLException {
+        AuditLogEntity entity = new AuditLogEntity();
+        entity.setId(rs.getLong("id"));
+        entity.setModule(rs.getString("module"));
+        entity.setAction(rs.getString("action"));
+        entity.setAuditType(rs.getString("audit_type"));
+        entity.setDescription(rs.getString("description"));
+        entity.setOperatorId(rs.getObject("operator_id", Long.class));
+        entity.setOperatorUsername(rs.getString("operator_username"));
+        entity.setTraceId(rs.getString("trace_id"));
+        entity.setRequestIp(rs.getString("request_ip"));
+        entity.setUserAgent(rs.getString("user_agent"));
+        entity.setStatus(rs.getString("status"));
+        entity.setExecutionTime(rs.getObject("execution_time", Long.class));
+        entity.setExceptionType(rs.getString("exception_type"));
+        entity.setExceptionMessage(rs.getString("exception_message"));
+        entity.setCreateTime(rs.getObject("create_time", LocalDateTime.class));
+        return entity;
+    }
 
-        log.debug("查询到 {} 条审计日志", logs.size());
-        return logs;
+    /**
+     * 过滤条件（不含游标），列名均为常量
+     */
+    private static final class Filter {
+        private final List<String> clauses = new ArrayList<>();
+        private final List<Object> args = new ArrayList<>();
+
+        private Filter add(String clause, Object arg) {
+            clauses.add(clause);
+            args.add(arg);
+            return this;
+        }
+
+        private Filter eq(String column, String value) {
+            return value == null || value.isEmpty() ? this : add(column + " = ?", value);
+        }
     }
 }
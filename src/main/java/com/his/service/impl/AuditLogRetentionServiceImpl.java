@@ -0,0 +1,150 @@
+package com.his.service.impl;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.his.service.AuditLogRetentionService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 审计日志保留期服务实现类
+ *
+ * <h3>实现说明</h3>
+ * <ul>
+ *   <li><b>分区判断</b>：每次调用时查询 pg_partitioned_table，迁移前后无需修改配置</li>
+ *   <li><b>分区创建</b>：调用 V17 迁移中的 {@code create_audit_log_partition()}，与迁移使用同一命名规则</li>
+ *   <li><b>分区删除</b>：只删除名称符合 sys_audit_log_pYYYYMM 的分区，分区名由名称解析出月份后再拼接到 DDL 中</li>
+ *   <li><b>分批删除</b>：{@code DELETE ... WHERE id IN (SELECT id ... LIMIT ?)}，
+ *       不在事务中执行，每批自动提交，删除行数小于批大小时结束</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuditLogRetentionServiceImpl implements AuditLogRetentionService {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("sys_audit_log_p(\\d{6})");
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String PARTITIONED_SQL = "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt "
+            + "JOIN pg_class c ON c.oid = pt.partrelid WHERE c.relname = 'sys_audit_log' AND pg_table_is_visible(c.oid))";
+
+    private static final String PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'sys_audit_log'::regclass ORDER BY c.relname";
+
+    private static final String CHUNK_DELETE_SQL = "DELETE FROM sys_audit_log WHERE id IN "
+            + "(SELECT id FROM sys_audit_log WHERE create_time < ? LIMIT ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${audit.log.partition.premake-months:3}")
+    private int premakeMonths;
+
+    @Value("${audit.log.retention.delete-chunk-size:5000}")
+    private int deleteChunkSize;
+
+    @Override
+    public boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(PARTITIONED_SQL, Boolean.class));
+    }
+
+    @Override
+    public int ensurePartitions() {
+        if (!isPartitioned()) {
+            log.debug("sys_audit_log 未分区，跳过分区创建");
+            return 0;
+        }
+        YearMonth current = YearMonth.now();
+        int created = 0;
+        for (int i = 0; i <= premakeMonths; i++) {
+            if (createPartition(current.plusMonths(i))) {
+                created++;
+            }
+        }
+        return created;
+    }
+
+    @Override
+    public boolean ensurePartition(YearMonth month) {
+        if (month == null) {
+            throw new IllegalArgumentException("月份不能为空");
+        }
+        return isPartitioned() && createPartition(month);
+    }
+
+    private boolean createPartition(YearMonth month) {
+        LocalDate monthStart = month.atDay(1);
+        Boolean result = jdbcTemplate.queryForObject("SELECT create_audit_log_partition(?)", Boolean.class,
+                Date.valueOf(monthStart));
+        if (Boolean.TRUE.equals(result)) {
+            log.info("审计日志分区已创建: sys_audit_log_p{}", monthStart.format(PARTITION_MONTH));
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public PurgeResult purgeBefore(LocalDateTime cutoff) {
+        if (cutoff == null) {
+            throw new IllegalArgumentException("截止时间不能为空");
+        }
+        long start = System.currentTimeMillis();
+        if (isPartitioned()) {
+            List<String> dropped = dropExpiredPartitions(cutoff);
+            return new PurgeResult(true, dropped, 0, System.currentTimeMillis() - start);
+        }
+        long deleted = deleteInChunks(cutoff);
+        return new PurgeResult(false, List.of(), deleted, System.currentTimeMillis() - start);
+    }
+
+    private List<String> dropExpiredPartitions(LocalDateTime cutoff) {
+        List<String> dropped = new ArrayList<>();
+        for (String partition : jdbcTemplate.queryForList(PARTITIONS_SQL, String.class)) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                log.warn("审计日志分区名不符合 sys_audit_log_pYYYYMM，跳过: {}", partition);
+                continue;
+            }
+            YearMonth month = YearMonth.parse(matcher.group(1), PARTITION_MONTH);
+            // 分区上界（下月1日）不晚于截止时间时，分区内所有行均已过期
+            if (month.plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff)) {
+                continue;
+            }
+            jdbcTemplate.execute("DROP TABLE IF EXISTS sys_audit_log_p" + month.format(PARTITION_MONTH));
+            dropped.add(partition);
+            log.info("审计日志过期分区已删除: {}", partition);
+        }
+        return dropped;
+    }
+
+    private long deleteInChunks(LocalDateTime cutoff) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(CHUNK_DELETE_SQL, Timestamp.valueOf(cutoff), deleteChunkSize);
+            total += deleted;
+            if (deleted > 0) {
+                log.debug("审计日志分批删除: {} 行，累计: {} 行", deleted, total);
+            }
+        } while (deleted >= deleteChunkSize);
+        return total;
+    }
+}
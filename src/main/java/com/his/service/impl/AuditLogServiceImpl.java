@@ -4,14 +4,14 @@ import java.util.concurrent.CompletableFuture;
 
 import jakarta.servlet.http.HttpServletRequest;
 
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import com.his.common.SecurityUtils;
 import com.his.entity.AuditLogEntity;
-import com.his.repository.AuditLogRepository;
+import com.his.log.filter.TraceIdFilter;
+import com.his.log.writer.AuditLogBatchWriter;
 import com.his.service.AuditLogService;
 
 import lombok.RequiredArgsConstructor;
@@ -24,18 +24,15 @@ import lombok.extern.slf4j.Slf4j;
  *
  * <h3>主要功能</h3>
  * <ul>
- *   <li><b>异步保存</b>：使用@Async注解实现异步保存,不阻塞业务线程</li>
+ *   <li><b>异步保存</b>：审计日志交给批量写入器入队,由写入线程攒批写入,不阻塞业务线程</li>
  *   <li><b>构建实体</b>：自动提取操作人信息、请求信息、异常信息等</li>
  *   <li><b>容错处理</b>：保存失败时记录日志,不影响业务操作</li>
  * </ul>
  *
- * <h3>线程池配置</h3>
+ * <h3>写入方式</h3>
  * <ul>
- *   <li><b>线程池名称</b>：auditLogExecutor</li>
- *   <li><b>核心线程数</b>：2</li>
- *   <li><b>最大线程数</b>：5</li>
- *   <li><b>队列容量</b>：100</li>
- *   <li><b>拒绝策略</b>：CallerRunsPolicy(调用者线程执行)</li>
+ *   <li><b>批量写入器</b>：{@link AuditLogBatchWriter}，有界队列 + 单写入线程 + 多行 INSERT</li>
+ *   <li><b>队列已满</b>：按配置的背压策略等待、溢出到本地文件或丢弃,业务线程不执行数据库写入</li>
  * </ul>
  *
  * @author HIS 开发团队
@@ -48,29 +45,26 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class AuditLogServiceImpl implements AuditLogService {
 
-    private final AuditLogRepository auditLogRepository;
+    private final AuditLogBatchWriter auditLogBatchWriter;
 
     /**
      * 异步保存审计日志
      *
-     * <p>使用auditLogExecutor线程池异步保存,避免阻塞业务线程</p>
+     * <p>放入批量写入器的队列后立即返回,由写入线程攒批写入数据库</p>
      * <p>即使保存失败也不抛出异常,只记录错误日志</p>
      *
      * @param entity 审计日志实体
-     * @return CompletableFuture<Void>,可用于等待保存完成或添加回调
+     * @return CompletableFuture<Void>,所在批次写入完成后完成,可用于等待保存完成或添加回调
      */
-    @Async("auditLogExecutor")
     @Override
     public CompletableFuture<Void> saveAuditLogAsync(AuditLogEntity entity) {
         try {
-            auditLogRepository.save(entity);
-            log.debug("审计日志保存成功: id={}, module={}, action={}",
-                    entity.getId(), entity.getModule(), entity.getAction());
+            return auditLogBatchWriter.submit(entity);
         } catch (Exception e) {
             log.error("审计日志保存失败: module={}, action={}, error={}",
                     entity.getModule(), entity.getAction(), e.getMessage(), e);
+            return CompletableFuture.completedFuture(null);
         }
-        return CompletableFuture.completedFuture(null);
     }
 
     /**
@@ -124,7 +118,9 @@ public class AuditLogServiceImpl implements AuditLogService {
         if (attributes != null) {
             HttpServletRequest request = attributes.getRequest();
             entity.setRequestIp(getClientIp(request));
-            entity.setUserAgent(request.getHeader("User-Agent"));
+            // user_agent 列长度为500字符
+            String userAgent = request.getHeader("User-Agent");
+            entity.setUserAgent(userAgent != null && userAgent.length() > 500 ? userAgent.substring(0, 500) : userAgent);
             log.debug("获取请求信息成功: ip={}, userAgent={}",
                     entity.getRequestIp(),
                     entity.getUserAgent() != null
@@ -133,16 +129,16 @@ public class AuditLogServiceImpl implements AuditLogService {
         }
 
         // 获取TraceId(如果MDC中存在)
-        String traceId = org.slf4j.MDC.get("traceId");
+        String traceId = org.slf4j.MDC.get(TraceIdFilter.TRACE_ID_KEY);
         entity.setTraceId(traceId);
 
         // 记录异常信息(如果操作失败)
         if (exception != null) {
             entity.setExceptionType(exception.getClass().getSimpleName());
             String message = exception.getMessage();
-            // 限制异常消息长度为1000字符
+            // 限制异常消息长度为1000字符（含省略号）
             if (message != null && message.length() > 1000) {
-                entity.setExceptionMessage(message.substring(0, 1000) + "...");
+                entity.setExceptionMessage(message.substring(0, 997) + "...");
             } else {
                 entity.setExceptionMessage(message);
             }
@@ -21,6 +21,7 @@ import com.his.repository.DepartmentRepository;
 import com.his.repository.DoctorRepository;
 import com.his.repository.PatientRepository;
 import com.his.repository.RegistrationRepository;
+import com.his.repository.projection.RegistrationListView;
 import com.his.service.DoctorService;
 import com.his.service.RegistrationStateMachine;
 import com.his.vo.PatientDetailVO;
@@ -146,7 +147,7 @@ public class DoctorServiceImpl implements DoctorService {
             }
         }
 
-        List<Registration> registrations;
+        List<RegistrationListView> registrations;
 
         // 定义活跃患者状态列表：WAITING（待就诊）、PAID_REGISTRATION（已缴挂号费）、IN_CONSULTATION（就诊中）
         List<Short> activeStatuses = Arrays.asList(
@@ -0,0 +1,112 @@
+package com.his.service.impl;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.his.converter.VoConverter;
+import com.his.entity.Doctor;
+import com.his.entity.MedicalRecord;
+import com.his.service.DoctorService;
+import com.his.service.DoctorWorkstationService;
+import com.his.service.MedicalRecordService;
+import com.his.service.PrescriptionService;
+import com.his.vo.DoctorWorkstationVO;
+import com.his.vo.MedicalRecordVO;
+import com.his.vo.PatientDetailVO;
+import com.his.vo.PrescriptionVO;
+import com.his.vo.RegistrationVO;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 医生工作站首屏加载服务实现类
+ *
+ * <p>复用各业务服务的查询方法，用 {@link CompletableFuture} 编排三条并行查询链</p>
+ *
+ * <h3>实现说明</h3>
+ * <ul>
+ *   <li><b>依赖关系</b>：处方依赖病历ID，在病历查询完成后于同一线程池中继续执行；其余查询互不依赖</li>
+ *   <li><b>事务</b>：每项查询使用各自服务方法上的只读事务；实体在服务方法内已初始化懒加载字段，
+ *       在工作线程中转换为 VO 与控制器中转换一致</li>
+ *   <li><b>事务内调用</b>：线程池中的查询使用独立连接，看不到调用方未提交的数据，因此事务内改为在调用线程串行执行</li>
+ *   <li><b>耗时</b>：每次加载记录总耗时，用于对比合并前后的首屏加载时间</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DoctorWorkstationServiceImpl implements DoctorWorkstationService {
+
+    private final DoctorService doctorService;
+
+    private final MedicalRecordService medicalRecordService;
+
+    private final PrescriptionService prescriptionService;
+
+    private final Executor doctorWorkstationExecutor;
+
+    @Override
+    public DoctorWorkstationVO bootstrap(Long patientId, Long registrationId, Long doctorId, boolean showAll) {
+        if (patientId == null) {
+            throw new IllegalArgumentException("患者ID不能为空");
+        }
+        if (registrationId == null) {
+            throw new IllegalArgumentException("挂号单ID不能为空");
+        }
+        long start = System.nanoTime();
+
+        // 事务内的查询必须使用调用线程的事务连接
+        Executor executor = TransactionSynchronizationManager.isActualTransactionActive()
+                ? Runnable::run : doctorWorkstationExecutor;
+
+        CompletableFuture<PatientDetailVO> patient = CompletableFuture.supplyAsync(
+                () -> doctorService.getPatientDetail(patientId), executor);
+
+        CompletableFuture<MedicalRecordVO> medicalRecord = CompletableFuture.supplyAsync(() -> {
+            MedicalRecord record = medicalRecordService.getByRegistrationId(registrationId);
+            return record == null ? null : VoConverter.toMedicalRecordVO(record);
+        }, executor);
+
+        CompletableFuture<List<PrescriptionVO>> prescriptions = medicalRecord.thenApplyAsync(record -> record == null
+                ? List.of()
+                : prescriptionService.getByRecordId(record.getMainId()), executor);
+
+        CompletableFuture<List<RegistrationVO>> waitingList = doctorId == null
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.supplyAsync(() -> {
+                    Doctor doctor = doctorService.getAndValidateDoctor(doctorId);
+                    return doctorService.getWaitingList(doctorId, doctor.getDepartment().getMainId(), showAll);
+                }, executor);
+
+        try {
+            CompletableFuture.allOf(patient, prescriptions, waitingList).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+
+        DoctorWorkstationVO result = DoctorWorkstationVO.builder()
+                .patient(patient.join())
+                .medicalRecord(medicalRecord.join())
+                .prescriptions(prescriptions.join())
+                .waitingList(waitingList.join())
+                .build();
+
+        log.info("医生工作站首屏数据加载完成，患者ID: {}, 挂号单ID: {}, 耗时: {} ms",
+                patientId, registrationId, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return result;
+    }
+}
@@ -0,0 +1,296 @@
+package com.his.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.his.enums.ConflictTypeEnum;
+import com.his.vo.DrugConflictWarningVO;
+
+/**
+ * 用药冲突位图索引（不可变）
+ *
+ * <p>规则表整体加载后构建，重新加载时整体替换，检查过程无锁、不访问数据库</p>
+ *
+ * <h3>索引结构</h3>
+ * <ul>
+ *   <li><b>槽位</b>：出现在任一规则中的药品分配一个连续槽位，未出现的药品不会产生冲突</li>
+ *   <li><b>相互作用位图</b>：槽位 → 与其存在相互作用的药品槽位集合</li>
+ *   <li><b>过敏原位图</b>：槽位 → 药品所属过敏原分类序号集合</li>
+ * </ul>
+ *
+ * <p>检查一张处方时，对每种药品做一次位图求交，只在命中时查找规则说明</p>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+final class DrugConflictIndex {
+
+    /**
+     * 过敏冲突固定按重度提示
+     */
+    private static final short ALLERGY_SEVERITY = 3;
+
+    static final DrugConflictIndex EMPTY = build(List.of(), List.of(), List.of(), null, null);
+
+    private final Map<Long, Integer> slots;
+    private final BitSet[] interactions;
+    private final BitSet[] allergens;
+    private final Map<PairKey, InteractionRule> rules;
+    private final AllergenClass[] allergenClasses;
+    private final String signature;
+    private final LocalDateTime loadedAt;
+
+    private DrugConflictIndex(Map<Long, Integer> slots, BitSet[] interactions, BitSet[] allergens,
+                              Map<PairKey, InteractionRule> rules, AllergenClass[] allergenClasses,
+                              String signature, LocalDateTime loadedAt) {
+        this.slots = slots;
+        this.interactions = interactions;
+        this.allergens = allergens;
+        this.rules = rules;
+        this.allergenClasses = allergenClasses;
+        this.signature = signature;
+        this.loadedAt = loadedAt;
+    }
+
+    /**
+     * 由规则表数据构建索引
+     *
+     * @param interactionRules  药物相互作用规则
+     * @param classes           过敏原分类
+     * @param medicineAllergens 药品过敏原映射
+     * @param signature         规则表签名（用于判断是否需要重新加载）
+     * @param loadedAt          加载时间
+     */
+    static DrugConflictIndex build(List<InteractionRule> interactionRules, List<AllergenClass> classes,
+                                   List<MedicineAllergen> medicineAllergens, String signature,
+                                   LocalDateTime loadedAt) {
+        Map<Long, Integer> slots = new HashMap<>();
+        for (InteractionRule rule : interactionRules) {
+            slots.putIfAbsent(rule.medicineAId(), slots.size());
+            slots.putIfAbsent(rule.medicineBId(), slots.size());
+        }
+        Map<Long, Integer> classOrdinals = new HashMap<>();
+        for (AllergenClass allergenClass : classes) {
+            classOrdinals.put(allergenClass.id(), classOrdinals.size());
+        }
+        for (MedicineAllergen mapping : medicineAllergens) {
+            if (classOrdinals.containsKey(mapping.allergenClassId())) {
+                slots.putIfAbsent(mapping.medicineId(), slots.size());
+            }
+        }
+
+        BitSet[] interactions = new BitSet[slots.size()];
+        BitSet[] allergens = new BitSet[slots.size()];
+        for (int i = 0; i < slots.size(); i++) {
+            interactions[i] = new BitSet();
+            allergens[i] = new BitSet();
+        }
+
+        Map<PairKey, InteractionRule> rules = new HashMap<>();
+        for (InteractionRule rule : interactionRules) {
+            int a = slots.get(rule.medicineAId());
+            int b = slots.get(rule.medicineBId());
+            interactions[a].set(b);
+            interactions[b].set(a);
+            rules.put(PairKey.of(rule.medicineAId(), rule.medicineBId()), rule);
+        }
+        for (MedicineAllergen mapping : medicineAllergens) {
+            Integer ordinal = classOrdinals.get(mapping.allergenClassId());
+            if (ordinal != null) {
+                allergens[slots.get(mapping.medicineId())].set(ordinal);
+            }
+        }
+
+        return new DrugConflictIndex(slots, interactions, allergens, rules,
+                classes.toArray(new AllergenClass[0]), signature, loadedAt);
+    }
+
+    /**
+     * 检查一张处方
+     *
+     * @param current        处方中的药品
+     * @param active         患者在用处方中的药品
+     * @param allergyHistory 患者过敏史
+     * @return 冲突警示（按严重程度从高到低排序）
+     */
+    List<DrugConflictWarningVO> check(List<MedicineRef> current, List<MedicineRef> active, String allergyHistory) {
+        List<DrugConflictWarningVO> warnings = new ArrayList<>();
+        if (slots.isEmpty() || current.isEmpty()) {
+            return warnings;
+        }
+
+        Map<Integer, MedicineRef> currentBySlot = indexBySlot(current);
+        if (currentBySlot.isEmpty()) {
+            return warnings;
+        }
+        Map<Integer, MedicineRef> activeBySlot = indexBySlot(active);
+
+        BitSet currentBits = toBits(currentBySlot);
+        BitSet candidates = toBits(activeBySlot);
+        candidates.or(currentBits);
+        BitSet patientAllergens = matchAllergens(allergyHistory);
+
+        for (Map.Entry<Integer, MedicineRef> entry : currentBySlot.entrySet()) {
+            int slot = entry.getKey();
+            MedicineRef medicine = entry.getValue();
+
+            BitSet hits = (BitSet) interactions[slot].clone();
+            hits.and(candidates);
+            for (int other = hits.nextSetBit(0); other >= 0; other = hits.nextSetBit(other + 1)) {
+                if (currentBits.get(other)) {
+                    // 同一处方内的药品对只提示一次
+                    if (slot < other) {
+                        warnings.add(interactionWarning(medicine, currentBySlot.get(other)));
+                    }
+                } else {
+                    warnings.add(interactionWarning(medicine, activeBySlot.get(other)));
+                }
+            }
+
+            if (!patientAllergens.isEmpty() && allergens[slot].intersects(patientAllergens)) {
+                BitSet matched = (BitSet) allergens[slot].clone();
+                matched.and(patientAllergens);
+                for (int ordinal = matched.nextSetBit(0); ordinal >= 0; ordinal = matched.nextSetBit(ordinal + 1)) {
+                    warnings.add(allergyWarning(medicine, allergenClasses[ordinal]));
+                }
+            }
+        }
+
+        warnings.sort(Comparator.comparing(DrugConflictWarningVO::getSeverity).reversed());
+        return warnings;
+    }
+
+    /**
+     * 药品是否参与任一规则
+     */
+    boolean isIndexed(Long medicineId) {
+        return medicineId != null && slots.containsKey(medicineId);
+    }
+
+    boolean hasInteractions() {
+        return !rules.isEmpty();
+    }
+
+    int medicineCount() {
+        return slots.size();
+    }
+
+    int interactionCount() {
+        return rules.size();
+    }
+
+    int allergenClassCount() {
+        return allergenClasses.length;
+    }
+
+    String signature() {
+        return signature;
+    }
+
+    LocalDateTime loadedAt() {
+        return loadedAt;
+    }
+
+    private Map<Integer, MedicineRef> indexBySlot(List<MedicineRef> medicines) {
+        Map<Integer, MedicineRef> bySlot = new HashMap<>();
+        for (MedicineRef medicine : medicines) {
+            Integer slot = medicine.medicineId() != null ? slots.get(medicine.medicineId()) : null;
+            if (slot != null) {
+                bySlot.putIfAbsent(slot, medicine);
+            }
+        }
+        return bySlot;
+    }
+
+    private static BitSet toBits(Map<Integer, MedicineRef> bySlot) {
+        BitSet bits = new BitSet();
+        bySlot.keySet().forEach(bits::set);
+        return bits;
+    }
+
+    /**
+     * 按关键词匹配患者过敏史（不区分大小写）
+     */
+    private BitSet matchAllergens(String allergyHistory) {
+        BitSet matched = new BitSet();
+        if (allergyHistory == null || allergyHistory.isBlank()) {
+            return matched;
+        }
+        String text = allergyHistory.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < allergenClasses.length; i++) {
+            for (String keyword : allergenClasses[i].keywords()) {
+                if (text.contains(keyword)) {
+                    matched.set(i);
+                    break;
+                }
+            }
+        }
+        return matched;
+    }
+
+    private DrugConflictWarningVO interactionWarning(MedicineRef medicine, MedicineRef other) {
+        InteractionRule rule = rules.get(PairKey.of(medicine.medicineId(), other.medicineId()));
+        return DrugConflictWarningVO.builder()
+                .type(ConflictTypeEnum.INTERACTION)
+                .severity(rule.severity())
+                .medicineId(medicine.medicineId())
+                .medicineName(medicine.medicineName())
+                .conflictMedicineId(other.medicineId())
+                .conflictMedicineName(other.medicineName())
+                .conflictPrescriptionNo(other.prescriptionNo())
+                .message(rule.description())
+                .build();
+    }
+
+    private static DrugConflictWarningVO allergyWarning(MedicineRef medicine, AllergenClass allergenClass) {
+        return DrugConflictWarningVO.builder()
+                .type(ConflictTypeEnum.ALLERGY)
+                .severity(ALLERGY_SEVERITY)
+                .medicineId(medicine.medicineId())
+                .medicineName(medicine.medicineName())
+                .allergenClass(allergenClass.name())
+                .message("患者过敏史包含" + allergenClass.name() + "，" + medicine.medicineName() + "属于该过敏原分类")
+                .build();
+    }
+
+    /**
+     * 药物相互作用规则
+     */
+    record InteractionRule(Long medicineAId, Long medicineBId, Short severity, String description) {
+    }
+
+    /**
+     * 过敏原分类（关键词已转为小写）
+     */
+    record AllergenClass(Long id, String name, List<String> keywords) {
+    }
+
+    /**
+     * 药品所属过敏原分类
+     */
+    record MedicineAllergen(Long medicineId, Long allergenClassId) {
+    }
+
+    /**
+     * 参与检查的药品（prescriptionNo 为空表示当前处方）
+     */
+    record MedicineRef(Long medicineId, String medicineName, String prescriptionNo) {
+    }
+
+    /**
+     * 无序药品对
+     */
+    private record PairKey(Long low, Long high) {
+
+        static PairKey of(Long a, Long b) {
+            return a <= b ? new PairKey(a, b) : new PairKey(b, a);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.his.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.his.common.CommonConstants;
+import com.his.dto.ActiveMedicineDTO;
+import com.his.entity.Patient;
+import com.his.entity.Prescription;
+import com.his.entity.PrescriptionDetail;
+import com.his.enums.PrescriptionStatusEnum;
+import com.his.repository.PrescriptionDetailRepository;
+import com.his.service.DrugConflictService;
+import com.his.service.impl.DrugConflictIndex.AllergenClass;
+import com.his.service.impl.DrugConflictIndex.InteractionRule;
+import com.his.service.impl.DrugConflictIndex.MedicineAllergen;
+import com.his.service.impl.DrugConflictIndex.MedicineRef;
+import com.his.vo.DrugConflictWarningVO;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 用药冲突检查服务实现类
+ *
+ * <p>规则表加载为不可变的 {@link DrugConflictIndex}，通过 volatile 引用整体替换实现热加载</p>
+ *
+ * <h3>实现说明</h3>
+ * <ul>
+ *   <li><b>加载</b>：签名（三张规则表的行数与最后修改时间）先于规则读取，
+ *       读取期间发生的变更会在下一次比对时触发再次加载</li>
+ *   <li><b>检查</b>：只有处方中包含参与规则的药品时才查询患者在用处方药品，整批处方只查询一次</li>
+ *   <li><b>在用处方</b>：已开方、已审核、已缴费，以及最近 {@code pharmacy.conflict.dispensed-active-days} 天内已发药的处方</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DrugConflictServiceImpl implements DrugConflictService {
+
+    private static final String INTERACTION_SQL = "SELECT medicine_a_id, medicine_b_id, severity, description "
+            + "FROM his_drug_interaction WHERE is_deleted = 0";
+
+    private static final String ALLERGEN_CLASS_SQL = "SELECT main_id, name, keywords "
+            + "FROM his_allergen_class WHERE is_deleted = 0 ORDER BY main_id";
+
+    private static final String MEDICINE_ALLERGEN_SQL = "SELECT medicine_id, allergen_class_id FROM his_medicine_allergen";
+
+    private static final String SIGNATURE_SQL = "SELECT "
+            + "(SELECT COUNT(*) || ':' || COALESCE(MAX(updated_at)::text, '-') FROM his_drug_interaction) || '|' || "
+            + "(SELECT COUNT(*) || ':' || COALESCE(MAX(updated_at)::text, '-') FROM his_allergen_class) || '|' || "
+            + "(SELECT COUNT(*) || ':' || COALESCE(MAX(created_at)::text, '-') FROM his_medicine_allergen)";
+
+    private static final List<Short> PENDING_STATUSES = List.of(
+            PrescriptionStatusEnum.ISSUED.getCode(),
+            PrescriptionStatusEnum.REVIEWED.getCode(),
+            PrescriptionStatusEnum.PAID.getCode());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PrescriptionDetailRepository prescriptionDetailRepository;
+
+    @Value("${pharmacy.conflict.dispensed-active-days:7}")
+    private int dispensedActiveDays;
+
+    private volatile DrugConflictIndex index = DrugConflictIndex.EMPTY;
+
+    @Override
+    public List<DrugConflictWarningVO> check(Prescription prescription) {
+        if (prescription == null) {
+            return List.of();
+        }
+        return checkAll(List.of(prescription)).getOrDefault(prescription.getMainId(), List.of());
+    }
+
+    @Override
+    public Map<Long, List<DrugConflictWarningVO>> checkAll(Collection<Prescription> prescriptions) {
+        DrugConflictIndex current = index;
+        if (prescriptions == null || prescriptions.isEmpty() || current.medicineCount() == 0) {
+            return Map.of();
+        }
+
+        List<Prescription> candidates = new ArrayList<>();
+        Map<Long, List<MedicineRef>> medicinesByPrescription = new HashMap<>();
+        for (Prescription prescription : prescriptions) {
+            List<MedicineRef> medicines = currentMedicines(prescription);
+            if (medicines.stream().anyMatch(m -> current.isIndexed(m.medicineId()))) {
+                candidates.add(prescription);
+                medicinesByPrescription.put(prescription.getMainId(), medicines);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, List<ActiveMedicineDTO>> activeByPatient = current.hasInteractions()
+                ? loadActiveMedicines(candidates, current)
+                : Map.of();
+
+        long start = System.nanoTime();
+        Map<Long, List<DrugConflictWarningVO>> result = new HashMap<>();
+        for (Prescription prescription : candidates) {
+            Long patientId = prescription.getPatient() != null ? prescription.getPatient().getMainId() : null;
+            List<MedicineRef> active = activeByPatient.getOrDefault(patientId, List.of()).stream()
+                    .filter(a -> !a.prescriptionId().equals(prescription.getMainId()))
+                    .map(a -> new MedicineRef(a.medicineId(), a.medicineName(), a.prescriptionNo()))
+                    .toList();
+            String allergyHistory = prescription.getPatient() != null ? prescription.getPatient().getAllergyHistory() : null;
+
+            List<DrugConflictWarningVO> warnings = current.check(
+                    medicinesByPrescription.get(prescription.getMainId()), active, allergyHistory);
+            if (!warnings.isEmpty()) {
+                result.put(prescription.getMainId(), warnings);
+            }
+        }
+        log.debug("用药冲突检查完成，处方数: {}, 有冲突处方数: {}, 耗时: {} μs",
+                candidates.size(), result.size(), (System.nanoTime() - start) / 1_000);
+        return result;
+    }
+
+    @Override
+    public synchronized RuleStats reload() {
+        String signature = jdbcTemplate.queryForObject(SIGNATURE_SQL, String.class);
+
+        List<InteractionRule> interactions = jdbcTemplate.query(INTERACTION_SQL, (rs, rowNum) -> new InteractionRule(
+                rs.getLong("medicine_a_id"), rs.getLong("medicine_b_id"), rs.getShort("severity"), rs.getString("description")));
+        List<AllergenClass> classes = jdbcTemplate.query(ALLERGEN_CLASS_SQL, (rs, rowNum) -> new AllergenClass(
+                rs.getLong("main_id"), rs.getString("name"), parseKeywords(rs.getString("keywords"))));
+        List<MedicineAllergen> mappings = jdbcTemplate.query(MEDICINE_ALLERGEN_SQL, (rs, rowNum) -> new MedicineAllergen(
+                rs.getLong("medicine_id"), rs.getLong("allergen_class_id")));
+
+        DrugConflictIndex rebuilt = DrugConflictIndex.build(interactions, classes, mappings, signature, LocalDateTime.now());
+        index = rebuilt;
+
+        log.info("用药冲突规则已加载，药品数: {}, 相互作用规则数: {}, 过敏原分类数: {}",
+                rebuilt.medicineCount(), rebuilt.interactionCount(), rebuilt.allergenClassCount());
+        return toStats(rebuilt);
+    }
+
+    @Override
+    public boolean reloadIfChanged() {
+        String signature = jdbcTemplate.queryForObject(SIGNATURE_SQL, String.class);
+        if (Objects.equals(signature, index.signature())) {
+            return false;
+        }
+        log.info("用药冲突规则已变更，重新加载");
+        reload();
+        return true;
+    }
+
+    /**
+     * 一次查询整批处方涉及患者的在用处方药品，仅保留参与规则的药品
+     */
+    private Map<Long, List<ActiveMedicineDTO>> loadActiveMedicines(Collection<Prescription> prescriptions,
+                                                                   DrugConflictIndex current) {
+        Set<Long> patientIds = prescriptions.stream()
+                .map(Prescription::getPatient)
+                .filter(Objects::nonNull)
+                .map(Patient::getMainId)
+                .collect(Collectors.toSet());
+        if (patientIds.isEmpty()) {
+            return Map.of();
+        }
+
+        LocalDateTime dispensedSince = LocalDateTime.now().minusDays(dispensedActiveDays);
+        return prescriptionDetailRepository.findActiveMedicines(patientIds, PENDING_STATUSES,
+                        PrescriptionStatusEnum.DISPENSED.getCode(), dispensedSince).stream()
+                .filter(a -> current.isIndexed(a.medicineId()))
+                .collect(Collectors.groupingBy(ActiveMedicineDTO::patientId));
+    }
+
+    private static List<MedicineRef> currentMedicines(Prescription prescription) {
+        if (prescription.getDetails() == null) {
+            return List.of();
+        }
+        List<MedicineRef> medicines = new ArrayList<>(prescription.getDetails().size());
+        for (PrescriptionDetail detail : prescription.getDetails()) {
+            if (detail.getMedicine() == null || CommonConstants.DELETED.equals(detail.getIsDeleted())) {
+                continue;
+            }
+            medicines.add(new MedicineRef(detail.getMedicine().getMainId(), detail.getMedicineName(), null));
+        }
+        return medicines;
+    }
+
+    private static List<String> parseKeywords(String keywords) {
+        if (keywords == null) {
+            return List.of();
+        }
+        return Arrays.stream(keywords.split(","))
+                .map(String::trim)
+                .filter(k -> !k.isEmpty())
+                .map(k -> k.toLowerCase(Locale.ROOT))
+                .toList();
+    }
+
+    private static RuleStats toStats(DrugConflictIndex index) {
+        return new RuleStats(index.medicineCount(), index.interactionCount(), index.allergenClassCount(),
+                index.loadedAt());
+    }
+}
@@ -0,0 +1,251 @@
+package com.his.service.impl;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.his.entity.Medicine;
+import com.his.event.LowStockEvent;
+import com.his.repository.MedicineRepository;
+import com.his.service.LowStockAlertService;
+import com.his.vo.LowStockMedicineVO;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 低库存预警服务实现类
+ *
+ * <p>基于事件驱动检测低库存，替代按需扫描 stock_quantity &lt;= min_stock</p>
+ *
+ * <h3>实现要点</h3>
+ * <ul>
+ *   <li><b>转换检测</b>：库存变更时比较变更前后是否低于阈值，只有状态翻转才发布事件</li>
+ *   <li><b>提交后生效</b>：使用 {@link TransactionalEventListener}（AFTER_COMMIT）更新集合并推送，回滚的变更不会推送</li>
+ *   <li><b>内存集合</b>：ConcurrentHashMap 保存低库存药品，查询为 O(n) 内存遍历，不访问数据库</li>
+ *   <li><b>SSE 推送</b>：CopyOnWriteArrayList 保存订阅者；推送在 lowStockBroadcastExecutor 单线程中执行，
+ *       事务提交线程不等待网络写入；发送失败或超时的订阅者移除并结束连接</li>
+ * </ul>
+ *
+ * <h3>配置参数</h3>
+ * <ul>
+ *   <li><b>pharmacy.low-stock.sse-timeout-ms</b>：SSE 连接超时时间（默认30分钟，客户端需自动重连）</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.LowStockAlertService
+ * @see com.his.scheduled.LowStockReconcileTask
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LowStockAlertServiceImpl implements LowStockAlertService {
+
+    /** SSE 事件名：进入低库存 */
+    static final String EVENT_LOW_STOCK = "low-stock";
+
+    /** SSE 事件名：解除低库存 */
+    static final String EVENT_STOCK_RECOVERED = "stock-recovered";
+
+    /** SSE 事件名：订阅时推送的当前快照 */
+    static final String EVENT_SNAPSHOT = "snapshot";
+
+    private final MedicineRepository medicineRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Executor lowStockBroadcastExecutor;
+
+    /**
+     * 当前低库存药品（key: 药品ID）
+     */
+    private final Map<Long, LowStockMedicineVO> lowStockMedicines = new ConcurrentHashMap<>();
+
+    /**
+     * SSE 订阅者
+     */
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    /**
+     * SSE 连接超时时间（毫秒）
+     */
+    @Value("${pharmacy.low-stock.sse-timeout-ms:1800000}")
+    private long sseTimeoutMs;
+
+    @Override
+    public void onStockChanged(Medicine medicine, int previousStock) {
+        boolean wasLow = isLowStock(previousStock, medicine.getMinStock());
+        boolean nowLow = isLowStock(medicine.getStockQuantity(), medicine.getMinStock());
+
+        if (wasLow == nowLow) {
+            return;
+        }
+
+        log.info("药品库存跨越最低库存阈值：药品ID={}, 名称={}, 库存 {} -> {}, 最低库存={}",
+                medicine.getMainId(), medicine.getName(), previousStock,
+                medicine.getStockQuantity(), medicine.getMinStock());
+
+        eventPublisher.publishEvent(LowStockEvent.of(medicine, nowLow));
+    }
+
+    /**
+     * 处理低库存事件（事务提交后执行）
+     *
+     * <p>没有事务时（如定时对账）直接执行；低库存集合在当前线程更新，SSE 推送提交到推送线程池</p>
+     *
+     * @param event 低库存事件
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleLowStockEvent(LowStockEvent event) {
+        apply(event);
+        broadcast(event);
+    }
+
+    @Override
+    public List<LowStockMedicineVO> getCurrentLowStock() {
+        List<LowStockMedicineVO> result = new ArrayList<>(lowStockMedicines.values());
+        result.sort(Comparator.comparing(LowStockMedicineVO::getMedicineId));
+        return result;
+    }
+
+    @Override
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> {
+            emitters.remove(emitter);
+            emitter.complete();
+        });
+        emitter.onError(e -> emitters.remove(emitter));
+        emitters.add(emitter);
+
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_SNAPSHOT).data(getCurrentLowStock()));
+        } catch (IOException e) {
+            log.warn("推送低库存快照失败，订阅已关闭: {}", e.getMessage());
+            emitters.remove(emitter);
+            emitter.completeWithError(e);
+        }
+
+        log.info("新增低库存事件订阅，当前订阅数: {}", emitters.size());
+        return emitter;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int reconcile() {
+        List<Medicine> actualLowStock = medicineRepository.findLowStock();
+        Set<Long> actualIds = new HashSet<>();
+        int corrections = 0;
+
+        for (Medicine medicine : actualLowStock) {
+            actualIds.add(medicine.getMainId());
+            LowStockMedicineVO tracked = lowStockMedicines.get(medicine.getMainId());
+            if (tracked == null) {
+                // 遗漏了进入低库存的事件（如直接修改数据库），补发
+                handleLowStockEvent(LowStockEvent.of(medicine, true));
+                corrections++;
+            } else {
+                tracked.setStockQuantity(medicine.getStockQuantity());
+                tracked.setMinStock(medicine.getMinStock());
+            }
+        }
+
+        List<Long> recoveredIds = lowStockMedicines.keySet().stream()
+                .filter(id -> !actualIds.contains(id))
+                .toList();
+        if (!recoveredIds.isEmpty()) {
+            Map<Long, Medicine> current = new HashMap<>();
+            medicineRepository.findAllById(recoveredIds).forEach(m -> current.put(m.getMainId(), m));
+            for (Long id : recoveredIds) {
+                Medicine medicine = current.get(id);
+                if (medicine != null) {
+                    handleLowStockEvent(LowStockEvent.of(medicine, false));
+                } else {
+                    // 药品已不存在，静默移除
+                    lowStockMedicines.remove(id);
+                }
+                corrections++;
+            }
+        }
+
+        if (corrections > 0) {
+            log.info("低库存对账完成，修正 {} 条，当前低库存药品 {} 个", corrections, lowStockMedicines.size());
+        } else {
+            log.debug("低库存对账完成，无差异，当前低库存药品 {} 个", lowStockMedicines.size());
+        }
+        return corrections;
+    }
+
+    /**
+     * 判断是否处于低库存状态（与 MedicineRepository.findLowStock 一致）
+     */
+    static boolean isLowStock(Integer stockQuantity, Integer minStock) {
+        return stockQuantity != null && minStock != null && stockQuantity <= minStock;
+    }
+
+    private void apply(LowStockEvent event) {
+        if (event.lowStock()) {
+            lowStockMedicines.put(event.medicineId(), LowStockMedicineVO.builder()
+                    .medicineId(event.medicineId())
+                    .medicineCode(event.medicineCode())
+                    .name(event.medicineName())
+                    .stockQuantity(event.stockQuantity())
+                    .minStock(event.minStock())
+                    .since(event.occurredAt() != null ? event.occurredAt() : LocalDateTime.now())
+                    .build());
+        } else {
+            lowStockMedicines.remove(event.medicineId());
+        }
+    }
+
+    /**
+     * 将推送提交到推送线程池；队列已满时丢弃本次推送，订阅者重连时的快照会补齐状态
+     */
+    private void broadcast(LowStockEvent event) {
+        if (emitters.isEmpty()) {
+            return;
+        }
+        try {
+            lowStockBroadcastExecutor.execute(() -> send(event));
+        } catch (TaskRejectedException e) {
+            log.warn("低库存事件推送队列已满，丢弃本次推送：药品ID={}, 低库存={}", event.medicineId(), event.lowStock());
+        }
+    }
+
+    /**
+     * 向全部订阅者推送事件（推送线程中执行）
+     *
+     * <p>发送失败（连接已断开、写入超时或连接已结束）的订阅者移除并结束连接</p>
+     */
+    private void send(LowStockEvent event) {
+        String eventName = event.lowStock() ? EVENT_LOW_STOCK : EVENT_STOCK_RECOVERED;
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name(eventName).data(event));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("低库存事件推送失败，移除订阅: {}", e.getMessage());
+                emitters.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.his.service.impl;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.his.enums.MedicalRecordFieldEnum;
+import com.his.enums.MedicalRecordStatusEnum;
+import com.his.service.MedicalRecordDraftService;
+import com.his.vo.MedicalRecordDraftVO;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 病历草稿自动保存服务实现类
+ *
+ * <p>补丁按病历合并在内存中，到期后按字段组合分组，以 JdbcTemplate 批量 UPDATE 只写入变化的列</p>
+ *
+ * <h3>实现说明</h3>
+ * <ul>
+ *   <li><b>合并</b>：{@link ConcurrentHashMap#merge} 原子合并同一病历的补丁，后到的字段覆盖先到的</li>
+ *   <li><b>归属校验</b>：只在病历的首个补丁时查询一次病历状态与归属医生，同一合并窗口内的后续补丁不再访问数据库</li>
+ *   <li><b>写入</b>：UPDATE 带 {@code status = 0} 和合并窗口开始时的 {@code version} 条件，不递增 version；
+ *       落库前病历已被提交或完整保存时更新行数为 0，补丁被丢弃</li>
+ *   <li><b>失败恢复</b>：写入失败或所在事务回滚时，补丁重新合并回内存（内存中更新的字段优先）</li>
+ *   <li>updated_at 由数据库触发器维护，病历检索索引由补建任务根据 updated_at 自动更新</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MedicalRecordDraftServiceImpl implements MedicalRecordDraftService {
+
+    private static final String OWNER_SQL = "SELECT doctor_main_id, status, version FROM his_medical_record "
+            + "WHERE main_id = ? AND is_deleted = 0";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 病历ID → 未落库的补丁
+     */
+    private final Map<Long, PendingDraft> pending = new ConcurrentHashMap<>();
+
+    @Value("${medical-record.draft.coalesce-window-ms:2000}")
+    private long coalesceWindowMs;
+
+    @Value("${medical-record.draft.max-delay-ms:10000}")
+    private long maxDelayMs;
+
+    @Override
+    public MedicalRecordDraftVO patch(Long recordId, Long doctorId, Integer version,
+                                      Map<MedicalRecordFieldEnum, String> fields) {
+        if (recordId == null) {
+            throw new IllegalArgumentException("病历ID不能为空");
+        }
+        if (fields == null || fields.isEmpty()) {
+            throw new IllegalArgumentException("草稿字段不能为空");
+        }
+        Map<MedicalRecordFieldEnum, String> patch = new EnumMap<>(MedicalRecordFieldEnum.class);
+        fields.forEach((field, value) -> {
+            if (field == null) {
+                throw new IllegalArgumentException("草稿字段名不能为空");
+            }
+            if (value != null && value.length() > field.getMaxLength()) {
+                throw new IllegalArgumentException(
+                        field.getDescription() + "长度不能超过" + field.getMaxLength() + "个字符");
+            }
+            patch.put(field, value == null && !field.isNullable() ? "" : value);
+        });
+
+        PendingDraft current = pending.get(recordId);
+        RecordOwner owner = current != null
+                ? new RecordOwner(current.ownerDoctorId(), MedicalRecordStatusEnum.DRAFT.getCode(), current.baseVersion())
+                : loadEditableOwner(recordId);
+        if (doctorId != null && !doctorId.equals(owner.doctorId())) {
+            log.warn("草稿保存被拒绝：病历不属于当前医生，病历ID: {}, 医生ID: {}", recordId, doctorId);
+            throw new IllegalStateException("无权修改此病历");
+        }
+        if (version != null && !version.equals(owner.version())) {
+            log.warn("草稿保存被拒绝：版本号不一致，病历ID: {}, 请求版本: {}, 当前版本: {}",
+                    recordId, version, owner.version());
+            throw new IllegalStateException("病历已被他人修改，请刷新后重试");
+        }
+
+        long now = System.currentTimeMillis();
+        PendingDraft merged = pending.merge(recordId,
+                new PendingDraft(owner.doctorId(), owner.version(), patch, now, now), PendingDraft::mergeWith);
+        log.debug("病历草稿补丁已合并，病历ID: {}, 待写入字段: {}", recordId, merged.fields().keySet());
+
+        return MedicalRecordDraftVO.builder()
+                .recordId(recordId)
+                .pendingFields(EnumSet.copyOf(merged.fields().keySet()))
+                .flushBefore(LocalDateTime.ofInstant(
+                        Instant.ofEpochMilli(merged.dueAt(coalesceWindowMs, maxDelayMs)), ZoneId.systemDefault()))
+                .build();
+    }
+
+    @Override
+    public boolean flush(Long recordId) {
+        PendingDraft draft = recordId == null ? null : pending.remove(recordId);
+        if (draft == null) {
+            return false;
+        }
+        Map<Long, PendingDraft> drafts = Map.of(recordId, draft);
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        if (inTransaction) {
+            TransactionSynchronizationManager.registerSynchronization(new RestoreOnRollback(this, drafts));
+        }
+        try {
+            write(drafts);
+        } catch (RuntimeException e) {
+            if (!inTransaction) {
+                restore(drafts);
+            }
+            throw e;
+        }
+        return true;
+    }
+
+    @Override
+    public void discard(Long recordId) {
+        if (recordId != null && pending.remove(recordId) != null) {
+            log.info("完整保存覆盖病历草稿，丢弃未落库的补丁，病历ID: {}", recordId);
+        }
+    }
+
+    @Override
+    public int flushDue() {
+        long now = System.currentTimeMillis();
+        return flushWhere(draft -> draft.dueAt(coalesceWindowMs, maxDelayMs) <= now);
+    }
+
+    @Override
+    public int flushAll() {
+        return flushWhere(draft -> true);
+    }
+
+    /**
+     * 取出满足条件的补丁并写入，写入失败时放回内存
+     */
+    private int flushWhere(Predicate<PendingDraft> condition) {
+        Map<Long, PendingDraft> drafts = new LinkedHashMap<>();
+        pending.forEach((recordId, draft) -> {
+            // 只有取出时仍是同一份补丁才写入；期间又有新补丁合并进来的，留到下个周期
+            if (condition.test(draft) && pending.remove(recordId, draft)) {
+                drafts.put(recordId, draft);
+            }
+        });
+        if (drafts.isEmpty()) {
+            return 0;
+        }
+        try {
+            write(drafts);
+        } catch (RuntimeException e) {
+            restore(drafts);
+            log.error("病历草稿写入失败，{} 份补丁已放回内存等待重试", drafts.size(), e);
+            return 0;
+        }
+        return drafts.size();
+    }
+
+    /**
+     * 按字段组合分组，每组一条只包含变化列的批量 UPDATE
+     */
+    private void write(Map<Long, PendingDraft> drafts) {
+        Map<Set<MedicalRecordFieldEnum>, List<Map.Entry<Long, PendingDraft>>> groups = new LinkedHashMap<>();
+        for (Map.Entry<Long, PendingDraft> entry : drafts.entrySet()) {
+            groups.computeIfAbsent(EnumSet.copyOf(entry.getValue().fields().keySet()), k -> new ArrayList<>()).add(entry);
+        }
+
+        List<Long> dropped = new ArrayList<>();
+        groups.forEach((columns, entries) -> {
+            int[][] counts = jdbcTemplate.batchUpdate(updateSql(columns), entries, entries.size(), (ps, entry) -> {
+                int index = 1;
+                for (MedicalRecordFieldEnum field : columns) {
+                    ps.setString(index++, entry.getValue().fields().get(field));
+                }
+                ps.setLong(index++, entry.getKey());
+                ps.setInt(index, entry.getValue().baseVersion());
+            });
+            int i = 0;
+            for (int[] batch : counts) {
+                for (int count : batch) {
+                    if (count == 0) {
+                        dropped.add(entries.get(i).getKey());
+                    }
+                    i++;
+                }
+            }
+        });
+
+        if (!dropped.isEmpty()) {
+            log.warn("病历已提交、已删除或已被完整保存，丢弃未落库的草稿补丁，病历ID: {}", dropped);
+        }
+        log.debug("病历草稿已写入，病历数: {}, 语句数: {}", drafts.size(), groups.size());
+    }
+
+    private static String updateSql(Set<MedicalRecordFieldEnum> columns) {
+        StringJoiner assignments = new StringJoiner(", ", "UPDATE his_medical_record SET ", "");
+        for (MedicalRecordFieldEnum field : columns) {
+            assignments.add(field.getColumn() + " = ?");
+        }
+        return assignments + " WHERE main_id = ? AND version = ? AND status = "
+                + MedicalRecordStatusEnum.DRAFT.getCode() + " AND is_deleted = 0";
+    }
+
+    /**
+     * 将写入失败的补丁合并回内存，内存中更新的字段优先
+     */
+    private void restore(Map<Long, PendingDraft> drafts) {
+        drafts.forEach((recordId, draft) -> pending.merge(recordId, draft, (newer, older) -> older.mergeWith(newer)));
+    }
+
+    /**
+     * 查询病历归属医生，病历必须存在且为草稿状态
+     */
+    private RecordOwner loadEditableOwner(Long recordId) {
+        List<RecordOwner> owners = jdbcTemplate.query(OWNER_SQL,
+                (rs, rowNum) -> new RecordOwner(rs.getLong("doctor_main_id"), rs.getShort("status"), rs.getInt("version")),
+                recordId);
+        if (owners.isEmpty()) {
+            throw new IllegalArgumentException("病历不存在，ID: " + recordId);
+        }
+        RecordOwner owner = owners.get(0);
+        if (!MedicalRecordStatusEnum.DRAFT.getCode().equals(owner.status())) {
+            throw new IllegalStateException("已提交或已审核的病历不允许修改");
+        }
+        return owner;
+    }
+
+    /**
+     * 病历归属、状态与版本号
+     */
+    private record RecordOwner(Long doctorId, Short status, Integer version) {
+    }
+
+    /**
+     * 单个病历未落库的补丁（不可变，合并时生成新实例）
+     *
+     * @param ownerDoctorId 病历归属医生ID
+     * @param baseVersion   合并窗口开始时的病历版本号，写入时作为乐观锁条件
+     * @param fields        字段 → 最新内容
+     * @param firstPatchAt  首个补丁时间（毫秒）
+     * @param lastPatchAt   最后一个补丁时间（毫秒）
+     */
+    private record PendingDraft(Long ownerDoctorId, Integer baseVersion, Map<MedicalRecordFieldEnum, String> fields,
+                                long firstPatchAt, long lastPatchAt) {
+
+        PendingDraft {
+            fields = Collections.unmodifiableMap(new EnumMap<>(fields));
+        }
+
+        PendingDraft mergeWith(PendingDraft newer) {
+            Map<MedicalRecordFieldEnum, String> merged = new EnumMap<>(fields);
+            merged.putAll(newer.fields);
+            return new PendingDraft(ownerDoctorId, baseVersion, merged,
+                    Math.min(firstPatchAt, newer.firstPatchAt), Math.max(lastPatchAt, newer.lastPatchAt));
+        }
+
+        long dueAt(long coalesceWindowMs, long maxDelayMs) {
+            return Math.min(lastPatchAt + coalesceWindowMs, firstPatchAt + maxDelayMs);
+        }
+    }
+
+    /**
+     * 同步写入所在事务回滚时，将补丁放回内存
+     */
+    private static final class RestoreOnRollback implements TransactionSynchronization {
+
+        private final MedicalRecordDraftServiceImpl owner;
+        private final Map<Long, PendingDraft> drafts;
+
+        private RestoreOnRollback(MedicalRecordDraftServiceImpl owner, Map<Long, PendingDraft> drafts) {
+            this.owner = owner;
+            this.drafts = drafts;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_ROLLED_BACK) {
+                owner.restore(drafts);
+            }
+        }
+    }
+}
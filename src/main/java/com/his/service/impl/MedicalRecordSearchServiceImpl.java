@@ -0,0 +1,269 @@
+package com.his.service.impl;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.his.entity.MedicalRecord;
+import com.his.service.MedicalRecordSearchService;
+import com.his.service.impl.MedicalRecordTokenizer.Field;
+import com.his.vo.MedicalRecordSearchHitVO;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 病历全文检索服务实现类
+ *
+ * <p>应用内分词生成 tsvector 写入 his_medical_record_search，由 PostgreSQL GIN 倒排索引完成匹配、ts_rank_cd 完成排序</p>
+ *
+ * <h3>实现说明</h3>
+ * <ul>
+ *   <li><b>分词</b>：见 {@link MedicalRecordTokenizer}，中文按单字 + 二元组切分，不依赖数据库中文分词扩展</li>
+ *   <li><b>增量写入</b>：每个事务注册一个 {@link PendingDocuments} 同步器，同一病历多次保存只保留最后一次内容，
+ *       {@code beforeCommit} 中一次批量 upsert；JdbcTemplate 与 JPA 共用同一事务连接，事务回滚时索引不变</li>
+ *   <li><b>索引内容取自实体字段</b>：beforeCommit 早于 JPA flush，不能从病历表回读</li>
+ *   <li><b>补建</b>：按主键游标分批扫描缺失或过期（indexed_at 早于病历 updated_at）的索引行；
+ *       补建以读取到的病历 updated_at 作为 indexed_at，且不覆盖更新的索引行，避免与并发保存互相覆盖</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MedicalRecordSearchServiceImpl implements MedicalRecordSearchService {
+
+    /** 检索词最大长度 */
+    static final int MAX_KEYWORD_LENGTH = 100;
+
+    /** 每页最大条数 */
+    static final int MAX_PAGE_SIZE = 100;
+
+    private static final String UPSERT_SQL = "INSERT INTO his_medical_record_search (record_id, search_vector, indexed_at) "
+            + "VALUES (?, CAST(? AS tsvector), clock_timestamp()) "
+            + "ON CONFLICT (record_id) DO UPDATE SET search_vector = EXCLUDED.search_vector, indexed_at = EXCLUDED.indexed_at";
+
+    private static final String REINDEX_UPSERT_SQL = "INSERT INTO his_medical_record_search (record_id, search_vector, indexed_at) "
+            + "VALUES (?, CAST(? AS tsvector), ?) "
+            + "ON CONFLICT (record_id) DO UPDATE SET search_vector = EXCLUDED.search_vector, indexed_at = EXCLUDED.indexed_at "
+            + "WHERE his_medical_record_search.indexed_at < EXCLUDED.indexed_at";
+
+    private static final String STALE_SQL = "SELECT r.main_id, r.chief_complaint, r.diagnosis, r.diagnosis_code, "
+            + "r.treatment_plan, COALESCE(r.updated_at, r.created_at, now()) AS source_time "
+            + "FROM his_medical_record r "
+            + "LEFT JOIN his_medical_record_search s ON s.record_id = r.main_id "
+            + "WHERE r.main_id > ? AND r.is_deleted = 0 "
+            + "AND (s.record_id IS NULL OR s.indexed_at < r.updated_at) "
+            + "ORDER BY r.main_id LIMIT ?";
+
+    private static final String MATCH_FROM = " FROM his_medical_record_search s "
+            + "JOIN his_medical_record r ON r.main_id = s.record_id AND r.is_deleted = 0 "
+            + "JOIN his_doctor d ON d.main_id = r.doctor_main_id "
+            + "JOIN his_patient p ON p.main_id = r.patient_main_id "
+            + "WHERE s.search_vector @@ CAST(? AS tsquery)";
+
+    private static final String DOCTOR_SCOPE = " AND r.doctor_main_id = ?";
+
+    private static final String DEPARTMENT_SCOPE = " AND d.department_main_id = "
+            + "(SELECT department_main_id FROM his_doctor WHERE main_id = ?) "
+            + "AND (r.status <> 0 OR r.doctor_main_id = ?)";
+
+    private static final String HIT_COLUMNS = "SELECT r.main_id, r.record_no, r.status, r.visit_time, "
+            + "r.chief_complaint, r.diagnosis, r.diagnosis_code, r.doctor_main_id, d.name AS doctor_name, "
+            + "p.name AS patient_name, ts_rank_cd(s.search_vector, CAST(? AS tsquery)) AS score";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void index(MedicalRecord record) {
+        if (record == null || record.getMainId() == null) {
+            throw new IllegalArgumentException("病历未保存，无法建立检索索引");
+        }
+        Document document = new Document(record.getMainId(), toVector(record.getChiefComplaint(),
+                record.getDiagnosis(), record.getDiagnosisCode(), record.getTreatmentPlan()), null);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            upsert(List.of(document));
+            return;
+        }
+        currentPending().documents.put(document.recordId(), document);
+    }
+
+    @Override
+    public Page<MedicalRecordSearchHitVO> search(String keyword, Long doctorId, boolean departmentScope,
+                                                 Pageable pageable) {
+        if (keyword == null || keyword.isBlank()) {
+            throw new IllegalArgumentException("检索关键词不能为空");
+        }
+        if (keyword.length() > MAX_KEYWORD_LENGTH) {
+            throw new IllegalArgumentException("检索关键词不能超过" + MAX_KEYWORD_LENGTH + "个字符");
+        }
+        String query = MedicalRecordTokenizer.toQuery(keyword);
+        if (query.isEmpty()) {
+            throw new IllegalArgumentException("检索关键词不包含可检索的文字");
+        }
+        Pageable page = PageRequest.of(pageable.getPageNumber(), Math.min(pageable.getPageSize(), MAX_PAGE_SIZE));
+
+        StringBuilder where = new StringBuilder(MATCH_FROM);
+        List<Object> args = new ArrayList<>();
+        args.add(query);
+        if (doctorId != null) {
+            if (departmentScope) {
+                where.append(DEPARTMENT_SCOPE);
+                args.add(doctorId);
+                args.add(doctorId);
+            } else {
+                where.append(DOCTOR_SCOPE);
+                args.add(doctorId);
+            }
+        }
+
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*)" + where, Long.class, args.toArray());
+        if (total == null || total == 0 || page.getOffset() >= total) {
+            return new PageImpl<>(List.of(), page, total == null ? 0 : total);
+        }
+
+        List<Object> hitArgs = new ArrayList<>();
+        hitArgs.add(query);
+        hitArgs.addAll(args);
+        hitArgs.add(page.getPageSize());
+        hitArgs.add(page.getOffset());
+        List<MedicalRecordSearchHitVO> hits = jdbcTemplate.query(
+                HIT_COLUMNS + where + " ORDER BY score DESC, r.main_id DESC LIMIT ? OFFSET ?",
+                this::mapHit, hitArgs.toArray());
+
+        log.info("病历检索完成，检索词: {}, 医生ID: {}, 科室范围: {}, 命中: {}", keyword, doctorId, departmentScope, total);
+        return new PageImpl<>(hits, page, total);
+    }
+
+    @Override
+    public int reindexStale(int batchSize) {
+        int reindexed = 0;
+        long lastId = 0;
+        while (true) {
+            List<Document> batch = jdbcTemplate.query(STALE_SQL, (rs, rowNum) -> new Document(
+                    rs.getLong("main_id"),
+                    toVector(rs.getString("chief_complaint"), rs.getString("diagnosis"),
+                            rs.getString("diagnosis_code"), rs.getString("treatment_plan")),
+                    rs.getTimestamp("source_time")), lastId, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            jdbcTemplate.batchUpdate(REINDEX_UPSERT_SQL, batch, batch.size(), (ps, document) -> {
+                bind(ps, document);
+                ps.setTimestamp(3, document.sourceTime());
+            });
+            reindexed += batch.size();
+            lastId = batch.get(batch.size() - 1).recordId();
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        if (reindexed > 0) {
+            log.info("病历检索索引补建完成，病历数: {}", reindexed);
+        }
+        return reindexed;
+    }
+
+    /**
+     * 获取当前事务的待写入索引，首次调用时注册同步器
+     */
+    private PendingDocuments currentPending() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingDocuments pending && pending.owner == this) {
+                return pending;
+            }
+        }
+        PendingDocuments pending = new PendingDocuments(this);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    /**
+     * 一次批量 upsert 写入全部索引
+     */
+    private void upsert(List<Document> documents) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, documents, documents.size(), this::bind);
+        log.debug("病历检索索引已更新，病历数: {}", documents.size());
+    }
+
+    private void bind(PreparedStatement ps, Document document) throws SQLException {
+        ps.setLong(1, document.recordId());
+        ps.setString(2, document.vector());
+    }
+
+    private MedicalRecordSearchHitVO mapHit(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp visitTime = rs.getTimestamp("visit_time");
+        return MedicalRecordSearchHitVO.builder()
+                .recordId(rs.getLong("main_id"))
+                .recordNo(rs.getString("record_no"))
+                .patientName(rs.getString("patient_name"))
+                .doctorId(rs.getLong("doctor_main_id"))
+                .doctorName(rs.getString("doctor_name"))
+                .status(rs.getShort("status"))
+                .visitTime(visitTime == null ? null : visitTime.toLocalDateTime())
+                .chiefComplaint(rs.getString("chief_complaint"))
+                .diagnosis(rs.getString("diagnosis"))
+                .diagnosisCode(rs.getString("diagnosis_code"))
+                .score(rs.getDouble("score"))
+                .build();
+    }
+
+    /**
+     * 诊断编码、诊断权重最高，其次主诉，治疗方案最低
+     */
+    private static String toVector(String chiefComplaint, String diagnosis, String diagnosisCode, String treatmentPlan) {
+        return MedicalRecordTokenizer.toVector(
+                new Field(diagnosisCode, 'A'),
+                new Field(diagnosis, 'A'),
+                new Field(chiefComplaint, 'B'),
+                new Field(treatmentPlan, 'C'));
+    }
+
+    /**
+     * 待写入的病历索引
+     *
+     * @param recordId   病历ID
+     * @param vector     tsvector 文本
+     * @param sourceTime 补建时读取到的病历更新时间（增量写入时为空）
+     */
+    private record Document(Long recordId, String vector, Timestamp sourceTime) {
+    }
+
+    /**
+     * 单个事务内待写入的病历索引
+     */
+    private static final class PendingDocuments implements TransactionSynchronization {
+
+        private final MedicalRecordSearchServiceImpl owner;
+        private final Map<Long, Document> documents = new LinkedHashMap<>();
+
+        private PendingDocuments(MedicalRecordSearchServiceImpl owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!documents.isEmpty()) {
+                owner.upsert(new ArrayList<>(documents.values()));
+            }
+        }
+    }
+}
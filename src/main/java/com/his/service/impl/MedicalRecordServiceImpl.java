@@ -13,6 +13,8 @@ import com.his.entity.Registration;
 import com.his.enums.MedicalRecordStatusEnum;
 import com.his.repository.MedicalRecordRepository;
 import com.his.repository.RegistrationRepository;
+import com.his.service.MedicalRecordDraftService;
+import com.his.service.MedicalRecordSearchService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,6 +31,8 @@ import lombok.extern.slf4j.Slf4j;
  *   <li>病历查询：根据ID或挂号单ID查询病历</li>
  *   <li>病历提交：将草稿状态的病历提交为正式病历</li>
  *   <li>懒加载处理：自动初始化关联实体，避免LazyInitializationException</li>
+ *   <li>检索索引：保存、提交时更新病历全文检索索引，随事务一同提交</li>
+ *   <li>草稿自动保存：提交前同步写入未落库的草稿补丁，完整保存时丢弃未落库的补丁</li>
  * </ul>
  *
  * <h3>业务规则</h3>
@@ -65,6 +69,8 @@ public class MedicalRecordServiceImpl implements com.his.service.MedicalRecordSe
 
     private final MedicalRecordRepository medicalRecordRepository;
     private final RegistrationRepository registrationRepository;
+    private final MedicalRecordSearchService medicalRecordSearchService;
+    private final MedicalRecordDraftService medicalRecordDraftService;
 
     /**
      * 保存或更新病历
@@ -87,6 +93,7 @@ public class MedicalRecordServiceImpl implements com.his.service.MedicalRecordSe
      *   <li>病历编号自动生成（格式：MR+yyyyMMddHHmmss+3位随机数）</li>
      *   <li>新病历默认状态为草稿（status=0）</li>
      *   <li>自动关联挂号单的患者和医生信息</li>
+     *   <li>更新时请求携带版本号的，必须与当前版本号一致；加载到提交之间的并发修改由 @Version 在写入时检测</li>
      * </ul>
      *
      * <p><b>前置条件：</b></p>
@@ -120,6 +127,7 @@ public class MedicalRecordServiceImpl implements com.his.service.MedicalRecordSe
      * @return 保存或更新后的病历实体
      * @throws IllegalArgumentException 如果挂号单ID为空
      * @throws IllegalArgumentException 如果挂号单不存在或已删除
+     * @throws IllegalStateException 如果病历已被他人修改（版本号不一致）
      * @since 1.0
      */
     @Override
@@ -163,8 +171,16 @@ public class MedicalRecordServiceImpl implements com.his.service.MedicalRecordSe
                 throw new IllegalStateException("已提交或已审核的病历不允许修改");
             }
 
-            // 更新现有病历
+            // 乐观锁：客户端编辑的版本已被他人保存覆盖时拒绝，避免静默覆盖
+            if (dto.getVersion() != null && !dto.getVersion().equals(medicalRecord.getVersion())) {
+                log.warn("保存/更新病历被拒绝：版本号不一致，ID: {}, 请求版本: {}, 当前版本: {}",
+                        medicalRecord.getMainId(), dto.getVersion(), medicalRecord.getVersion());
+                throw new IllegalStateException("病历已被他人修改，请刷新后重试");
+            }
+
+            // 更新现有病历：完整保存以请求内容为准，未落库的草稿补丁作废
             log.info("找到现有病历，ID: {}，进行更新", medicalRecord.getMainId());
+            medicalRecordDraftService.discard(medicalRecord.getMainId());
             updateMedicalRecord(medicalRecord, dto);
         } else {
             // 创建新病历
@@ -175,6 +191,7 @@ public class MedicalRecordServiceImpl implements com.his.service.MedicalRecordSe
         // 4. 保存病历
         MedicalRecord savedRecord = medicalRecordRepository.save(medicalRecord);
         log.info("病历保存成功，ID: {}, 病历编号: {}", savedRecord.getMainId(), savedRecord.getRecordNo());
+        medicalRecordSearchService.index(savedRecord);
 
         // 5. 初始化懒加载字段，避免LazyInitializationException
         initializeLazyFields(savedRecord);
@@ -306,6 +323,8 @@ public class MedicalRecordServiceImpl implements com.his.service.MedicalRecordSe
     public void submit(Long id) {
         log.info("提交病历，ID: {}", id);
 
+        // 先同步写入未落库的草稿补丁，保证提交的是最新内容
+        medicalRecordDraftService.flush(id);
         MedicalRecord record = getById(id);
 
         // 幂等处理：如果病历已经提交，则直接返回成功，避免重复点击报错
@@ -321,6 +340,7 @@ public class MedicalRecordServiceImpl implements com.his.service.MedicalRecordSe
         record.setStatus(MedicalRecordStatusEnum.SUBMITTED.getCode());
         record.setUpdatedAt(LocalDateTime.now());
         medicalRecordRepository.save(record);
+        medicalRecordSearchService.index(record);
 
         log.info("病历提交成功，ID: {}", id);
     }
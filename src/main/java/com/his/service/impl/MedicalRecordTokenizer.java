@@ -0,0 +1,193 @@
+package com.his.service.impl;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 病历全文检索分词器
+ *
+ * <p>PostgreSQL 内置文本检索配置不支持中文，分词在应用内完成，直接生成 tsvector / tsquery 文本</p>
+ *
+ * <h3>分词规则</h3>
+ * <ul>
+ *   <li><b>中文</b>：单字 + 相邻二元组，单字用于单字检索，二元组提供词序与相邻度（ts_rank_cd 据此排序）</li>
+ *   <li><b>字母/数字</b>：连续的字母数字（可含小数点）作为一个词，统一小写</li>
+ *   <li><b>诊断编码</b>：含小数点的编码额外生成小数点前的类目，如 J06.901 同时可按 J06 检索</li>
+ *   <li>其余字符（标点、空白）作为分隔符</li>
+ * </ul>
+ *
+ * <h3>检索语义</h3>
+ * <p>检索词按同样规则切分，多字中文片段只使用二元组，所有词项以 AND 连接</p>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+final class MedicalRecordTokenizer {
+
+    /** tsvector 最大位置，超过的位置会被 PostgreSQL 截断 */
+    static final int MAX_POSITION = 16383;
+
+    /** 单个字母数字词的最大长度，超长的视为噪声丢弃 */
+    private static final int MAX_WORD_LENGTH = 64;
+
+    private MedicalRecordTokenizer() {
+    }
+
+    /**
+     * 带权重的待索引字段
+     *
+     * @param text   字段内容（可为空）
+     * @param weight tsvector 权重（A/B/C/D）
+     */
+    record Field(String text, char weight) {
+    }
+
+    /**
+     * 生成 tsvector 文本，位置在各字段间连续递增
+     *
+     * @return tsvector 文本；所有字段均无可索引内容时返回空字符串
+     */
+    static String toVector(Field... fields) {
+        Map<String, StringBuilder> lexemes = new LinkedHashMap<>();
+        int position = 0;
+        for (Field field : fields) {
+            for (List<String> tokensAtPosition : tokenize(field.text(), false)) {
+                position = Math.min(position + 1, MAX_POSITION);
+                for (String token : tokensAtPosition) {
+                    StringBuilder positions = lexemes.get(token);
+                    if (positions == null) {
+                        lexemes.put(token, new StringBuilder().append(position).append(field.weight()));
+                    } else {
+                        positions.append(',').append(position).append(field.weight());
+                    }
+                }
+            }
+        }
+
+        StringBuilder vector = new StringBuilder();
+        lexemes.forEach((lexeme, positions) -> {
+            if (vector.length() > 0) {
+                vector.append(' ');
+            }
+            vector.append(quote(lexeme)).append(':').append(positions);
+        });
+        return vector.toString();
+    }
+
+    /**
+     * 生成 tsquery 文本，所有词项以 AND 连接
+     *
+     * @return tsquery 文本；检索词无有效内容时返回空字符串
+     */
+    static String toQuery(String keyword) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (List<String> tokensAtPosition : tokenize(keyword, true)) {
+            terms.addAll(tokensAtPosition);
+        }
+        StringBuilder query = new StringBuilder();
+        for (String term : terms) {
+            if (query.length() > 0) {
+                query.append(" & ");
+            }
+            query.append(quote(term));
+        }
+        return query.toString();
+    }
+
+    /**
+     * 切分文本，返回按位置排列的词项
+     *
+     * @param forQuery 为 true 时多字中文片段只输出二元组
+     */
+    static List<List<String>> tokenize(String text, boolean forQuery) {
+        List<List<String>> result = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return result;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+
+        int i = 0;
+        int length = normalized.length();
+        while (i < length) {
+            int codePoint = normalized.codePointAt(i);
+            if (isCjk(codePoint)) {
+                int end = i;
+                while (end < length && isCjk(normalized.codePointAt(end))) {
+                    end += Character.charCount(normalized.codePointAt(end));
+                }
+                addCjkRun(normalized.substring(i, end), forQuery, result);
+                i = end;
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                int end = i;
+                while (end < length && isWordPart(normalized, end)) {
+                    end += Character.charCount(normalized.codePointAt(end));
+                }
+                addWord(normalized.substring(i, end), result);
+                i = end;
+            } else {
+                i += Character.charCount(codePoint);
+            }
+        }
+        return result;
+    }
+
+    private static void addCjkRun(String run, boolean forQuery, List<List<String>> result) {
+        int[] chars = run.codePoints().toArray();
+        if (forQuery && chars.length > 1) {
+            for (int k = 0; k + 1 < chars.length; k++) {
+                result.add(List.of(new String(chars, k, 2)));
+            }
+            return;
+        }
+        for (int k = 0; k < chars.length; k++) {
+            String unigram = new String(chars, k, 1);
+            result.add(k + 1 < chars.length ? List.of(unigram, new String(chars, k, 2)) : List.of(unigram));
+        }
+    }
+
+    private static void addWord(String word, List<List<String>> result) {
+        if (word.length() > MAX_WORD_LENGTH) {
+            return;
+        }
+        int dot = word.indexOf('.');
+        if (dot > 0 && Character.isLetter(word.charAt(0))) {
+            result.add(List.of(word, word.substring(0, dot)));
+        } else {
+            result.add(List.of(word));
+        }
+    }
+
+    /**
+     * 字母数字词的组成部分：字母、数字，以及两侧均为字母数字的小数点
+     */
+    private static boolean isWordPart(String text, int index) {
+        int codePoint = text.codePointAt(index);
+        if (isCjk(codePoint)) {
+            return false;
+        }
+        if (Character.isLetterOrDigit(codePoint)) {
+            return true;
+        }
+        return codePoint == '.' && index + 1 < text.length()
+                && Character.isLetterOrDigit(text.codePointAt(index + 1))
+                && !isCjk(text.codePointAt(index + 1));
+    }
+
+    private static boolean isCjk(int codePoint) {
+        return Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.HAN;
+    }
+
+    /**
+     * 按 tsvector / tsquery 文本语法为词项加引号
+     */
+    private static String quote(String lexeme) {
+        return "'" + lexeme.replace("\\", "\\\\").replace("'", "''") + "'";
+    }
+}
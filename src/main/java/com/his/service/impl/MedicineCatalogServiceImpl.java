@@ -0,0 +1,359 @@
+package com.his.service.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.his.common.CommonConstants;
+import com.his.common.Result;
+import com.his.converter.VoConverter;
+import com.his.entity.Medicine;
+import com.his.repository.MedicineRepository;
+import com.his.service.MedicineCatalogService;
+import com.his.vo.views.MedicineViews;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 药品目录快照服务实现类
+ *
+ * <p>维护一份按视图预序列化的药品目录，读请求只做字节拼接，不再执行 Specification 查询和逐条序列化</p>
+ *
+ * <h3>实现要点</h3>
+ * <ul>
+ *   <li><b>不可变状态</b>：目录状态整体替换（volatile），读请求无锁</li>
+ *   <li><b>变更标记</b>：{@link #markChanged(Long)} 在事务提交后记录变更的药品ID</li>
+ *   <li><b>增量刷新</b>：下次读取时只重新查询、序列化被标记的药品；内容未变化时版本号不变</li>
+ *   <li><b>快照缓存</b>：按（版本 + 视图 + 筛选条件）缓存响应体，版本变化时整体失效</li>
+ *   <li><b>强 ETag</b>：对视图和药品数据字节计算 MD5，内容不变则 ETag 不变（与版本号、重启无关）</li>
+ * </ul>
+ *
+ * <h3>配置参数</h3>
+ * <ul>
+ *   <li><b>pharmacy.catalog.snapshot-max-age-ms</b>：目录最大存活时间，超过后全量重建（默认5分钟，0 表示不过期）</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.MedicineCatalogService
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MedicineCatalogServiceImpl implements MedicineCatalogService {
+
+    /**
+     * 预序列化的视图（下标即 {@link CatalogEntry#json()} 的下标）
+     */
+    private static final List<Class<?>> VIEWS = List.of(
+            MedicineViews.Public.class,
+            MedicineViews.Doctor.class,
+            MedicineViews.Pharmacist.class
+    );
+
+    /**
+     * 快照缓存上限（视图 × 分类 × 处方药 × 有货的组合数远小于此值，超出说明存在异常参数）
+     */
+    private static final int MAX_CACHED_SNAPSHOTS = 256;
+
+    /**
+     * 目录排序：与分页查询默认排序一致（名称升序），名称相同时按ID
+     */
+    private static final Comparator<CatalogEntry> CATALOG_ORDER = Comparator
+            .comparing(CatalogEntry::name, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(CatalogEntry::medicineId);
+
+    private final MedicineRepository medicineRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 目录最大存活时间（毫秒）
+     */
+    @Value("${pharmacy.catalog.snapshot-max-age-ms:300000}")
+    private long maxAgeMs;
+
+    /**
+     * 当前目录状态（未加载时为 null）
+     */
+    private volatile CatalogState state;
+
+    /**
+     * 已提交但尚未刷新的药品ID
+     */
+    private final Set<Long> dirtyIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 已组装的快照
+     */
+    private final Map<SnapshotKey, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    private final Object rebuildLock = new Object();
+
+    @Override
+    public Snapshot getSnapshot(Class<?> view, String category, Short isPrescription, Boolean inStock) {
+        CatalogState current = currentState();
+        SnapshotKey key = new SnapshotKey(current.version(), viewIndex(view),
+                category == null || category.isBlank() ? null : category, isPrescription, inStock);
+
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot == null) {
+            if (snapshots.size() >= MAX_CACHED_SNAPSHOTS) {
+                snapshots.clear();
+            }
+            snapshot = snapshots.computeIfAbsent(key, k -> assemble(current, k));
+        }
+        return snapshot;
+    }
+
+    @Override
+    public void markChanged(Long medicineId) {
+        if (medicineId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // 提交后再标记，避免在提交前刷新读到旧数据
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dirtyIds.add(medicineId);
+                }
+            });
+        } else {
+            dirtyIds.add(medicineId);
+        }
+    }
+
+    /**
+     * 获取最新的目录状态（必要时全量重建或增量刷新）
+     */
+    private CatalogState currentState() {
+        CatalogState current = state;
+        if (current != null && dirtyIds.isEmpty() && !isExpired(current)) {
+            return current;
+        }
+
+        synchronized (rebuildLock) {
+            current = state;
+            if (current == null || isExpired(current)) {
+                // 先清空标记再读取：读取期间提交的变更会重新标记，下次增量刷新
+                dirtyIds.clear();
+                current = rebuild(current);
+            } else if (!dirtyIds.isEmpty()) {
+                current = refresh(current);
+            }
+            return current;
+        }
+    }
+
+    private boolean isExpired(CatalogState current) {
+        return maxAgeMs > 0 && System.currentTimeMillis() - current.loadedAt() > maxAgeMs;
+    }
+
+    /**
+     * 全量重建目录
+     */
+    private CatalogState rebuild(CatalogState previous) {
+        long start = System.currentTimeMillis();
+        Map<Long, CatalogEntry> entries = new HashMap<>();
+        for (Medicine medicine : medicineRepository.findAllActive()) {
+            entries.put(medicine.getMainId(), toEntry(medicine));
+        }
+
+        boolean changed = previous == null || !sameContent(previous.entries(), entries);
+        long version = previous == null ? 1 : (changed ? previous.version() + 1 : previous.version());
+        CatalogState rebuilt = new CatalogState(version, entries, sort(entries), System.currentTimeMillis());
+        publish(rebuilt, changed);
+
+        log.info("药品目录全量重建完成，药品数: {}, 版本: {}, 耗时: {}ms",
+                entries.size(), version, System.currentTimeMillis() - start);
+        return rebuilt;
+    }
+
+    /**
+     * 增量刷新被标记的药品
+     */
+    private CatalogState refresh(CatalogState previous) {
+        List<Long> ids = new ArrayList<>(dirtyIds);
+        ids.forEach(dirtyIds::remove);
+
+        Map<Long, CatalogEntry> entries = new HashMap<>(previous.entries());
+        boolean changed = false;
+
+        Map<Long, Medicine> latest = new HashMap<>();
+        medicineRepository.findAllById(ids).forEach(m -> latest.put(m.getMainId(), m));
+
+        for (Long id : ids) {
+            Medicine medicine = latest.get(id);
+            if (medicine != null && isActive(medicine)) {
+                CatalogEntry entry = toEntry(medicine);
+                CatalogEntry old = entries.put(id, entry);
+                changed |= old == null || !old.sameContent(entry);
+            } else {
+                // 已删除或停用：从目录中移除
+                changed |= entries.remove(id) != null;
+            }
+        }
+
+        if (!changed) {
+            log.debug("药品目录增量刷新：{} 个药品内容无变化", ids.size());
+            return previous;
+        }
+
+        CatalogState refreshed = new CatalogState(previous.version() + 1, entries, sort(entries), previous.loadedAt());
+        publish(refreshed, true);
+        log.info("药品目录增量刷新完成，刷新药品数: {}, 版本: {}", ids.size(), refreshed.version());
+        return refreshed;
+    }
+
+    private void publish(CatalogState newState, boolean changed) {
+        state = newState;
+        if (changed) {
+            snapshots.clear();
+        }
+    }
+
+    /**
+     * 按筛选条件拼接预序列化的药品JSON，组装完整响应体
+     */
+    private Snapshot assemble(CatalogState current, SnapshotKey key) {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        data.write('[');
+        int count = 0;
+        for (CatalogEntry entry : current.sorted()) {
+            if (!entry.matches(key)) {
+                continue;
+            }
+            if (count > 0) {
+                data.write(',');
+            }
+            data.writeBytes(entry.json()[key.viewIndex()]);
+            count++;
+        }
+        data.write(']');
+        byte[] dataBytes = data.toByteArray();
+
+        String etag = "\"" + DigestUtils.md5DigestAsHex(
+                concat(VIEWS.get(key.viewIndex()).getSimpleName().getBytes(StandardCharsets.UTF_8), dataBytes)) + "\"";
+
+        Result<RawValue> result = Result.success(
+                String.format("查询成功，共 %d 条记录", count),
+                new RawValue(new String(dataBytes, StandardCharsets.UTF_8)));
+        return new Snapshot(serialize(result), etag, count, current.version());
+    }
+
+    private CatalogEntry toEntry(Medicine medicine) {
+        byte[][] json = new byte[VIEWS.size()][];
+        for (int i = 0; i < VIEWS.size(); i++) {
+            json[i] = serialize(VoConverter.toMedicineVO(medicine, VIEWS.get(i)));
+        }
+        return new CatalogEntry(medicine.getMainId(), medicine.getName(), medicine.getCategory(),
+                medicine.getIsPrescription(), medicine.getStockQuantity(), json);
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("药品目录序列化失败", e);
+        }
+    }
+
+    private static boolean isActive(Medicine medicine) {
+        return CommonConstants.NORMAL.equals(medicine.getIsDeleted())
+                && medicine.getStatus() != null && medicine.getStatus() == 1;
+    }
+
+    private static boolean sameContent(Map<Long, CatalogEntry> a, Map<Long, CatalogEntry> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (Map.Entry<Long, CatalogEntry> e : b.entrySet()) {
+            CatalogEntry other = a.get(e.getKey());
+            if (other == null || !other.sameContent(e.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<CatalogEntry> sort(Map<Long, CatalogEntry> entries) {
+        List<CatalogEntry> sorted = new ArrayList<>(entries.values());
+        sorted.sort(CATALOG_ORDER);
+        return List.copyOf(sorted);
+    }
+
+    private static int viewIndex(Class<?> view) {
+        int index = VIEWS.indexOf(view);
+        return index >= 0 ? index : 0;
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] result = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+
+    /**
+     * 目录状态（不可变）
+     */
+    private record CatalogState(long version, Map<Long, CatalogEntry> entries,
+                                List<CatalogEntry> sorted, long loadedAt) {
+    }
+
+    /**
+     * 快照缓存键
+     */
+    private record SnapshotKey(long version, int viewIndex, String category,
+                               Short isPrescription, Boolean inStock) {
+    }
+
+    /**
+     * 目录条目：筛选字段 + 各视图的预序列化JSON
+     */
+    private record CatalogEntry(Long medicineId, String name, String category, Short isPrescription,
+                                Integer stockQuantity, byte[][] json) {
+
+        /**
+         * 与 MedicineSpecification.buildDoctorQuery 的筛选语义保持一致
+         */
+        boolean matches(SnapshotKey key) {
+            if (key.category() != null && !key.category().equals(category)) {
+                return false;
+            }
+            if (key.isPrescription() != null && !key.isPrescription().equals(isPrescription)) {
+                return false;
+            }
+            if (key.inStock() != null) {
+                if (stockQuantity == null) {
+                    return false;
+                }
+                return key.inStock() ? stockQuantity > 0 : stockQuantity == 0;
+            }
+            return true;
+        }
+
+        boolean sameContent(CatalogEntry other) {
+            // 药师视图包含全部字段，比较它即可判断内容是否变化
+            int last = json.length - 1;
+            return Arrays.equals(json[last], other.json[last]);
+        }
+    }
+}
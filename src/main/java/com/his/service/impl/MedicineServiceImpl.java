@@ -13,6 +13,8 @@ import com.his.common.CommonConstants;
 import com.his.dto.InventoryStatsVO;
 import com.his.entity.Medicine;
 import com.his.repository.MedicineRepository;
+import com.his.service.LowStockAlertService;
+import com.his.service.MedicineCatalogService;
 import com.his.service.MedicineService;
 import com.his.specification.MedicineSpecification;
 
@@ -37,6 +39,8 @@ import lombok.extern.slf4j.Slf4j;
  *   <li>模糊搜索支持药品名称和编码（medicineCode）</li>
  *   <li>库存变动数量不能为0，且扣减后库存不能为负</li>
  *   <li>正数表示增加库存，负数表示扣减库存</li>
+ *   <li>库存跨越最低库存阈值时通过 {@link LowStockAlertService} 发布低库存事件</li>
+ *   <li>库存变更后通知 {@link MedicineCatalogService} 增量刷新药品目录快照</li>
  * </ul>
  *
  * <h3>相关实体</h3>
@@ -55,6 +59,8 @@ import lombok.extern.slf4j.Slf4j;
 public class MedicineServiceImpl implements MedicineService {
 
     private final MedicineRepository medicineRepository;
+    private final LowStockAlertService lowStockAlertService;
+    private final MedicineCatalogService medicineCatalogService;
 
     /**
      * 模糊搜索药品
@@ -245,6 +251,10 @@ public class MedicineServiceImpl implements MedicineService {
         // 实际保存
         medicineRepository.save(medicine);
 
+        // 库存跨越最低库存阈值时发布低库存事件
+        lowStockAlertService.onStockChanged(medicine, (int) (newStock - quantity));
+        medicineCatalogService.markChanged(medicine.getMainId());
+
         log.info("库存更新成功：药品ID={}, 原库存={}, 新库存={}, 原因={}",
                 medicine.getMainId(), newStock - quantity, newStock, reason);
     }
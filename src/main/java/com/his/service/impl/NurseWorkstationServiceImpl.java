@@ -1,13 +1,9 @@
 package com.his.service.impl;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import jakarta.persistence.criteria.Predicate;
-
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -24,6 +20,7 @@ import com.his.enums.RegStatusEnum;
 import com.his.enums.VisitTypeEnum;
 import com.his.repository.ChargeRepository;
 import com.his.repository.RegistrationRepository;
+import com.his.repository.projection.NurseRegistrationView;
 import com.his.service.ChargeService;
 import com.his.service.NurseWorkstationService;
 import com.his.vo.ChargeVO;
@@ -126,45 +123,17 @@ public class NurseWorkstationServiceImpl implements NurseWorkstationService {
         // 默认查询当天
         LocalDate visitDate = dto != null && dto.getVisitDate() != null ? dto.getVisitDate() : LocalDate.now();
 
-        // 构建动态查询条件
-        Specification<Registration> spec = (root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
-
-            // 未删除
-            predicates.add(cb.equal(root.get("isDeleted"), CommonConstants.NORMAL));
-
-            // 就诊日期
-            predicates.add(cb.equal(root.get("visitDate"), visitDate));
-
-            // 科室ID
-            if (dto != null && dto.getDepartmentId() != null) {
-                predicates.add(cb.equal(root.get("department").get("mainId"), dto.getDepartmentId()));
-            }
-
-            // 状态
-            if (dto != null && dto.getStatus() != null) {
-                predicates.add(cb.equal(root.get("status"), dto.getStatus()));
-            }
-
-            // 就诊类型
-            if (dto != null && dto.getVisitType() != null) {
-                predicates.add(cb.equal(root.get("visitType"), dto.getVisitType()));
-            }
-
-            // 关键字查询（患者姓名或挂号号）
-            if (dto != null && StringUtils.hasText(dto.getKeyword())) {
-                String keyword = "%" + dto.getKeyword().trim() + "%";
-                Predicate namePredicate = cb.like(root.get("patient").get("name"), keyword);
-                Predicate regNoPredicate = cb.like(root.get("regNo"), keyword);
-                predicates.add(cb.or(namePredicate, regNoPredicate));
-            }
-
-            return cb.and(predicates.toArray(new Predicate[0]));
-        };
+        Long deptId = dto != null ? dto.getDepartmentId() : null;
+        Short status = dto != null ? dto.getStatus() : null;
+        Short visitType = dto != null ? dto.getVisitType() : null;
+        // 关键字查询（患者姓名或挂号号）
+        String keyword = dto != null && StringUtils.hasText(dto.getKeyword())
+                ? "%" + dto.getKeyword().trim() + "%"
+                : null;
 
-        // 按创建时间排序
-        List<Registration> registrations = registrationRepository.findAll(spec,
-                org.springframework.data.domain.Sort.by(org.springframework.data.domain.Sort.Direction.ASC, "createdAt"));
+        // 投影查询：只选择列表需要的列，不加载患者、病历实体
+        List<NurseRegistrationView> registrations = registrationRepository.findNurseList(
+                visitDate, deptId, status, visitType, keyword);
 
         log.info("查询到 {} 条挂号记录，日期: {}", registrations.size(), visitDate);
 
@@ -175,9 +144,9 @@ public class NurseWorkstationServiceImpl implements NurseWorkstationService {
     }
 
     /**
-     * 将 Registration 实体转换为护士工作站 VO
+     * 将挂号列表投影转换为护士工作站 VO
      */
-    private NurseRegistrationVO convertToNurseVO(Registration reg) {
+    private NurseRegistrationVO convertToNurseVO(NurseRegistrationView reg) {
         NurseRegistrationVO vo = new NurseRegistrationVO();
 
         vo.setId(reg.getMainId());
@@ -193,31 +162,31 @@ public class NurseWorkstationServiceImpl implements NurseWorkstationService {
         vo.setCreatedAt(reg.getCreatedAt());
 
         // 患者信息
-        if (reg.getPatient() != null) {
-            vo.setPatientId(reg.getPatient().getMainId());
-            vo.setPatientName(reg.getPatient().getName());
-            vo.setAge(reg.getPatient().getAge());
-            vo.setGenderDesc(getGenderDesc(reg.getPatient().getGender()));
+        if (reg.getPatientId() != null) {
+            vo.setPatientId(reg.getPatientId());
+            vo.setPatientName(reg.getPatientName());
+            vo.setAge(reg.getAge());
+            vo.setGenderDesc(getGenderDesc(reg.getGender()));
             // 脱敏处理
-            vo.setIdCard(maskIdCard(reg.getPatient().getIdCard()));
-            vo.setPhone(maskPhone(reg.getPatient().getPhone()));
+            vo.setIdCard(maskIdCard(reg.getIdCard()));
+            vo.setPhone(maskPhone(reg.getPhone()));
         }
 
         // 科室信息
-        if (reg.getDepartment() != null) {
-            vo.setDeptId(reg.getDepartment().getMainId());
-            vo.setDeptName(reg.getDepartment().getName());
+        if (reg.getDeptId() != null) {
+            vo.setDeptId(reg.getDeptId());
+            vo.setDeptName(reg.getDeptName());
         }
 
         // 医生信息
-        if (reg.getDoctor() != null) {
-            vo.setDoctorId(reg.getDoctor().getMainId());
-            vo.setDoctorName(reg.getDoctor().getName());
-            vo.setDoctorTitle(reg.getDoctor().getTitle());
+        if (reg.getDoctorId() != null) {
+            vo.setDoctorId(reg.getDoctorId());
+            vo.setDoctorName(reg.getDoctorName());
+            vo.setDoctorTitle(reg.getDoctorTitle());
         }
 
         // 是否有病历
-        vo.setHasMedicalRecord(reg.getMedicalRecord() != null);
+        vo.setHasMedicalRecord(Boolean.TRUE.equals(reg.getHasMedicalRecord()));
 
         return vo;
     }
@@ -8,9 +8,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
-import com.his.entity.Patient;
 import com.his.enums.GenderEnum;
 import com.his.repository.PatientRepository;
+import com.his.repository.projection.PatientSearchView;
 import com.his.service.PatientService;
 import com.his.vo.PatientSearchVO;
 
@@ -52,7 +52,7 @@ public class PatientServiceImpl implements PatientService {
         log.info("患者搜索，关键字: [{}], 清洗后: [{}]", keyword, sanitizedKeyword);
 
         // 3. 执行搜索
-        List<Patient> patients = patientRepository.searchByKeyword(
+        List<PatientSearchView> patients = patientRepository.searchByKeyword(
                 sanitizedKeyword,
                 PageRequest.of(0, MAX_SEARCH_RESULTS)
         );
@@ -108,10 +108,10 @@ public class PatientServiceImpl implements PatientService {
     /**
      * 转换为搜索 VO（不脱敏）
      *
-     * @param patient 患者实体
+     * @param patient 患者搜索结果投影
      * @return 搜索 VO
      */
-    private PatientSearchVO convertToSearchVO(Patient patient) {
+    private PatientSearchVO convertToSearchVO(PatientSearchView patient) {
         // 解析性别描述
         String genderDesc = "未知";
         try {
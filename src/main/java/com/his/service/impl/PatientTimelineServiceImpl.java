@@ -0,0 +1,262 @@
+package com.his.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.his.enums.ChargeTypeEnum;
+import com.his.enums.MedicalRecordStatusEnum;
+import com.his.enums.TimelineEventTypeEnum;
+import com.his.service.PatientTimelineService;
+import com.his.vo.PatientTimelineEventVO;
+import com.his.vo.PatientTimelineVO;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 患者就诊时间线服务实现类
+ *
+ * <p>四类事件各执行一条 JdbcTemplate 投影查询，在 patientTimelineExecutor 线程池中并行执行，结果在内存中归并为一页</p>
+ *
+ * <h3>实现说明</h3>
+ * <ul>
+ *   <li><b>排序</b>：创建时间倒序 → 事件类型声明顺序倒序 → ID 倒序，保证同一时刻的多个事件顺序稳定</li>
+ *   <li><b>游标</b>：上一页最后一个事件的 (创建时间, 类型, ID) 经 Base64URL 编码，对前端不透明；
+ *       每条查询只取游标之后的 size + 1 行，全局前 size 个事件必然落在四条结果的并集中</li>
+ *   <li><b>投影</b>：只查询列表展示字段，摘要文本截断为 {@value #SUMMARY_LENGTH} 个字符，不加载实体与懒加载关联</li>
+ *   <li><b>事务内调用</b>：线程池中的查询使用独立连接，看不到调用方未提交的数据，因此事务内改为在调用线程串行执行</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PatientTimelineServiceImpl implements PatientTimelineService {
+
+    /** 每页最大事件数 */
+    static final int MAX_PAGE_SIZE = 100;
+
+    /** 摘要最大长度 */
+    static final int SUMMARY_LENGTH = 100;
+
+    private static final String PATIENT_EXISTS_SQL = "SELECT COUNT(*) FROM his_patient WHERE main_id = ? AND is_deleted = 0";
+
+    private static final String CURSOR_SEPARATOR = "|";
+
+    /**
+     * 事件类型 → 投影查询（SELECT ... WHERE 患者条件），每条查询的列别名一致，共用一个 RowMapper
+     */
+    private static final Map<TimelineEventTypeEnum, EventQuery> QUERIES = new EnumMap<>(TimelineEventTypeEnum.class);
+
+    static {
+        QUERIES.put(TimelineEventTypeEnum.REGISTRATION, new EventQuery("r",
+                "SELECT r.main_id, r.reg_no AS number, r.created_at, r.status, dep.name AS summary, "
+                        + "d.name AS doctor_name, r.registration_fee AS amount "
+                        + "FROM his_registration r "
+                        + "LEFT JOIN his_doctor d ON d.main_id = r.doctor_main_id "
+                        + "LEFT JOIN his_department dep ON dep.main_id = r.department_main_id "
+                        + "WHERE r.patient_main_id = ? AND r.is_deleted = 0"));
+        QUERIES.put(TimelineEventTypeEnum.MEDICAL_RECORD, new EventQuery("m",
+                "SELECT m.main_id, m.record_no AS number, m.created_at, m.status, "
+                        + "LEFT(COALESCE(NULLIF(m.diagnosis, ''), m.chief_complaint), " + SUMMARY_LENGTH + ") AS summary, "
+                        + "d.name AS doctor_name, CAST(NULL AS NUMERIC) AS amount "
+                        + "FROM his_medical_record m "
+                        + "LEFT JOIN his_doctor d ON d.main_id = m.doctor_main_id "
+                        + "WHERE m.patient_main_id = ? AND m.is_deleted = 0"));
+        QUERIES.put(TimelineEventTypeEnum.PRESCRIPTION, new EventQuery("p",
+                "SELECT p.main_id, p.prescription_no AS number, p.created_at, p.status, "
+                        + "CONCAT(p.item_count, '种药品') AS summary, "
+                        + "d.name AS doctor_name, p.total_amount AS amount "
+                        + "FROM his_prescription p "
+                        + "LEFT JOIN his_doctor d ON d.main_id = p.doctor_main_id "
+                        + "WHERE p.patient_main_id = ? AND p.is_deleted = 0"));
+        QUERIES.put(TimelineEventTypeEnum.CHARGE, new EventQuery("c",
+                "SELECT c.main_id, c.charge_no AS number, c.created_at, c.status, "
+                        + chargeTypeCase("c.charge_type") + " AS summary, "
+                        + "CAST(NULL AS VARCHAR) AS doctor_name, c.actual_amount AS amount "
+                        + "FROM his_charge c "
+                        + "WHERE c.patient_main_id = ? AND c.is_deleted = 0"));
+    }
+
+    private static final Comparator<PatientTimelineEventVO> TIMELINE_ORDER = Comparator
+            .comparing(PatientTimelineEventVO::getEventTime)
+            .thenComparing(PatientTimelineEventVO::getType)
+            .thenComparing(PatientTimelineEventVO::getId)
+            .reversed();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Executor patientTimelineExecutor;
+
+    @Override
+    public PatientTimelineVO getTimeline(Long patientId, Long doctorId, String cursor, int size) {
+        if (patientId == null) {
+            throw new IllegalArgumentException("患者ID不能为空");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("每页数量必须在1到" + MAX_PAGE_SIZE + "之间");
+        }
+        Cursor after = Cursor.decode(cursor);
+
+        Long count = jdbcTemplate.queryForObject(PATIENT_EXISTS_SQL, Long.class, patientId);
+        if (count == null || count == 0) {
+            throw new IllegalArgumentException("患者不存在，ID: " + patientId);
+        }
+
+        // 事务内的查询必须使用调用线程的事务连接
+        Executor executor = TransactionSynchronizationManager.isActualTransactionActive()
+                ? Runnable::run : patientTimelineExecutor;
+        List<CompletableFuture<List<PatientTimelineEventVO>>> futures = new ArrayList<>();
+        QUERIES.forEach((type, query) -> futures.add(CompletableFuture.supplyAsync(
+                () -> queryEvents(type, query, patientId, doctorId, after, size + 1), executor)));
+
+        List<PatientTimelineEventVO> events = new ArrayList<>();
+        try {
+            futures.forEach(future -> events.addAll(future.join()));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        events.sort(TIMELINE_ORDER);
+
+        boolean hasMore = events.size() > size;
+        List<PatientTimelineEventVO> page = hasMore ? new ArrayList<>(events.subList(0, size)) : events;
+        String nextCursor = hasMore ? Cursor.of(page.get(page.size() - 1)).encode() : null;
+
+        log.debug("查询患者时间线，患者ID: {}, 本页事件数: {}, 是否有下一页: {}", patientId, page.size(), hasMore);
+        return PatientTimelineVO.builder()
+                .patientId(patientId)
+                .events(page)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * 查询一类事件中位于游标之后的前 limit 行
+     */
+    private List<PatientTimelineEventVO> queryEvents(TimelineEventTypeEnum type, EventQuery query,
+                                                     Long patientId, Long doctorId, Cursor after, int limit) {
+        String alias = query.alias();
+        StringBuilder sql = new StringBuilder(query.select());
+        List<Object> args = new ArrayList<>();
+        args.add(patientId);
+
+        if (type == TimelineEventTypeEnum.MEDICAL_RECORD && doctorId != null) {
+            // 其他医生的草稿病历不对外可见
+            sql.append(" AND (m.status <> ").append(MedicalRecordStatusEnum.DRAFT.getCode())
+                    .append(" OR m.doctor_main_id = ?)");
+            args.add(doctorId);
+        }
+
+        if (after != null) {
+            int compare = type.compareTo(after.type());
+            if (compare < 0) {
+                // 同一时刻排在游标之后
+                sql.append(" AND ").append(alias).append(".created_at <= ?");
+                args.add(after.time());
+            } else if (compare == 0) {
+                sql.append(" AND (").append(alias).append(".created_at, ").append(alias).append(".main_id) < (?, ?)");
+                args.add(after.time());
+                args.add(after.id());
+            } else {
+                // 同一时刻排在游标之前，已在上一页返回
+                sql.append(" AND ").append(alias).append(".created_at < ?");
+                args.add(after.time());
+            }
+        } else {
+            sql.append(" AND ").append(alias).append(".created_at IS NOT NULL");
+        }
+
+        sql.append(" ORDER BY ").append(alias).append(".created_at DESC, ")
+                .append(alias).append(".main_id DESC LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> mapEvent(type, rs), args.toArray());
+    }
+
+    private static PatientTimelineEventVO mapEvent(TimelineEventTypeEnum type, ResultSet rs) throws SQLException {
+        return PatientTimelineEventVO.builder()
+                .type(type)
+                .id(rs.getLong("main_id"))
+                .number(rs.getString("number"))
+                .eventTime(rs.getObject("created_at", LocalDateTime.class))
+                .status(rs.getShort("status"))
+                .summary(rs.getString("summary"))
+                .doctorName(rs.getString("doctor_name"))
+                .amount(rs.getBigDecimal("amount"))
+                .build();
+    }
+
+    /**
+     * 收费类型代码 → 描述的 CASE 表达式，描述取自 {@link ChargeTypeEnum}
+     */
+    private static String chargeTypeCase(String column) {
+        StringBuilder sql = new StringBuilder("CASE ").append(column);
+        for (ChargeTypeEnum type : ChargeTypeEnum.values()) {
+            sql.append(" WHEN ").append(type.getCode()).append(" THEN '").append(type.getDescription()).append('\'');
+        }
+        return sql.append(" ELSE '收费' END").toString();
+    }
+
+    /**
+     * 一类事件的投影查询
+     *
+     * @param alias  主表别名
+     * @param select SELECT 子句与患者过滤条件
+     */
+    private record EventQuery(String alias, String select) {
+    }
+
+    /**
+     * 分页游标：上一页最后一个事件的排序键
+     */
+    private record Cursor(LocalDateTime time, TimelineEventTypeEnum type, Long id) {
+
+        static Cursor of(PatientTimelineEventVO event) {
+            return new Cursor(event.getEventTime(), event.getType(), event.getId());
+        }
+
+        static Cursor decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return null;
+            }
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                        .split("\\" + CURSOR_SEPARATOR);
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("分页游标无效");
+                }
+                return new Cursor(LocalDateTime.parse(parts[0]),
+                        TimelineEventTypeEnum.values()[Integer.parseInt(parts[1])],
+                        Long.parseLong(parts[2]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("分页游标无效", e);
+            }
+        }
+
+        String encode() {
+            String raw = time + CURSOR_SEPARATOR + type.ordinal() + CURSOR_SEPARATOR + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
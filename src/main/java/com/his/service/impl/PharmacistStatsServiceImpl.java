@@ -0,0 +1,462 @@
+package com.his.service.impl;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.his.dto.PharmacistStatisticsDTO;
+import com.his.enums.StatsGranularityEnum;
+import com.his.service.PharmacistStatsService;
+import com.his.vo.PharmacistStatsVO;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 药师工作量统计服务实现类
+ *
+ * <p>内存中按药师维护按小时排序的统计桶，汇总表随业务事务增量写入</p>
+ *
+ * <h3>实现说明</h3>
+ * <ul>
+ *   <li><b>内存结构</b>：药师ID → {@link ConcurrentSkipListMap}（整点 → 不可变计数），
+ *       计数更新通过 {@code merge} 原子完成，无需加锁</li>
+ *   <li><b>写入</b>：计数立即生效于内存；每个事务注册一个 {@link PendingDeltas} 同步器，
+ *       按（药师, 小时）合并增量后在 {@code beforeCommit} 中以一次批量 UPSERT 写入汇总表</li>
+ *   <li><b>回滚</b>：事务回滚时从内存中撤销本事务的增量，汇总表不会写入</li>
+ *   <li><b>内存窗口</b>：启动时从汇总表加载最近 {@code pharmacy.stats.memory-days} 天，
+ *       每日淘汰过期统计桶；更早的查询读取汇总表</li>
+ *   <li><b>重建</b>：以 SHARE 锁读取汇总表，等待已写入汇总表的事务结束并阻止新的写入；
+ *       替换内存后把尚未写入汇总表的事务增量并入新统计桶，这些事务此后的计数与回滚撤销也作用于新统计桶，
+ *       重建期间的计数既不丢失也不重复</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PharmacistStatsServiceImpl implements PharmacistStatsService {
+
+    /**
+     * 单次统计查询的最大时间跨度（天）
+     */
+    private static final int MAX_RANGE_DAYS = 366;
+
+    private static final String UPSERT_SQL = "INSERT INTO his_pharmacist_hourly_stats "
+            + "(pharmacist_id, bucket_hour, dispensed_count, dispensed_amount, dispensed_items, "
+            + "returned_count, returned_amount, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (pharmacist_id, bucket_hour) DO UPDATE SET "
+            + "dispensed_count = his_pharmacist_hourly_stats.dispensed_count + EXCLUDED.dispensed_count, "
+            + "dispensed_amount = his_pharmacist_hourly_stats.dispensed_amount + EXCLUDED.dispensed_amount, "
+            + "dispensed_items = his_pharmacist_hourly_stats.dispensed_items + EXCLUDED.dispensed_items, "
+            + "returned_count = his_pharmacist_hourly_stats.returned_count + EXCLUDED.returned_count, "
+            + "returned_amount = his_pharmacist_hourly_stats.returned_amount + EXCLUDED.returned_amount, "
+            + "updated_at = EXCLUDED.updated_at";
+
+    private static final String SELECT_COLUMNS = "SELECT pharmacist_id, bucket_hour, dispensed_count, dispensed_amount, "
+            + "dispensed_items, returned_count, returned_amount FROM his_pharmacist_hourly_stats ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${pharmacy.stats.memory-days:90}")
+    private int memoryDays;
+
+    /**
+     * 药师ID → 整点 → 计数
+     */
+    private volatile ConcurrentHashMap<Long, ConcurrentSkipListMap<LocalDateTime, Counts>> buckets =
+            new ConcurrentHashMap<>();
+
+    /**
+     * 内存窗口起点（包含），为空表示尚未加载，所有查询读取汇总表
+     */
+    private volatile LocalDateTime memoryFrom;
+
+    /**
+     * 保证事务增量登记与内存替换互斥：登记时取得的统计桶要么是替换后的，要么会在重建时被迁移
+     */
+    private final Object windowLock = new Object();
+
+    /**
+     * 已计入内存、尚未完成的事务增量
+     */
+    private final Set<PendingDeltas> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void recordDispense(Long pharmacistId, LocalDateTime dispenseTime, BigDecimal amount, Integer items) {
+        record(pharmacistId, dispenseTime, new Counts(1, nonNull(amount), items == null ? 0 : items, 0, BigDecimal.ZERO));
+    }
+
+    @Override
+    public void recordReturn(Long pharmacistId, LocalDateTime returnTime, BigDecimal amount) {
+        record(pharmacistId, returnTime, new Counts(0, BigDecimal.ZERO, 0, 1, nonNull(amount)));
+    }
+
+    @Override
+    public PharmacistStatisticsDTO getTotals(Long pharmacistId, LocalDateTime start, LocalDateTime end) {
+        validateRange(pharmacistId, start, end);
+
+        Counts total = Counts.ZERO;
+        for (Counts counts : hourlyCounts(pharmacistId, start, end).values()) {
+            total = total.plus(counts);
+        }
+        return new PharmacistStatisticsDTO(total.dispensedCount(), total.dispensedAmount(), total.dispensedItems());
+    }
+
+    @Override
+    public PharmacistStatsVO getStats(Long pharmacistId, LocalDateTime start, LocalDateTime end,
+                                      StatsGranularityEnum granularity) {
+        validateRange(pharmacistId, start, end);
+        if (Duration.between(start, end).toDays() > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("统计时间范围不能超过" + MAX_RANGE_DAYS + "天");
+        }
+        StatsGranularityEnum effective = granularity != null ? granularity : StatsGranularityEnum.DAY;
+
+        TreeMap<LocalDateTime, Counts> grouped = new TreeMap<>();
+        Counts total = Counts.ZERO;
+        for (Map.Entry<LocalDateTime, Counts> entry : hourlyCounts(pharmacistId, start, end).entrySet()) {
+            grouped.merge(effective.truncate(entry.getKey()), entry.getValue(), Counts::plus);
+            total = total.plus(entry.getValue());
+        }
+
+        List<PharmacistStatsVO.Bucket> series = new ArrayList<>(grouped.size());
+        grouped.forEach((bucketStart, counts) -> series.add(counts.toBucket(bucketStart)));
+
+        return PharmacistStatsVO.builder()
+                .pharmacistId(pharmacistId)
+                .granularity(effective)
+                .startTime(start)
+                .endTime(end)
+                .total(total.toBucket(null))
+                .buckets(series)
+                .build();
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void rebuild() {
+        LocalDateTime horizon = horizon();
+        ConcurrentHashMap<Long, ConcurrentSkipListMap<LocalDateTime, Counts>> loaded = new ConcurrentHashMap<>();
+        int[] rows = {0};
+
+        // 已在 beforeCommit 写入汇总表的事务持有行锁，SHARE 锁等待其结束；之后的写入被阻塞到重建事务结束，
+        // 因此读到的汇总表恰好不含仍未写入的事务增量
+        jdbcTemplate.execute("LOCK TABLE his_pharmacist_hourly_stats IN SHARE MODE");
+        jdbcTemplate.query(SELECT_COLUMNS + "WHERE bucket_hour >= ?", rs -> {
+            loaded.computeIfAbsent(rs.getLong("pharmacist_id"), k -> new ConcurrentSkipListMap<>())
+                    .put(rs.getTimestamp("bucket_hour").toLocalDateTime(), mapCounts(rs));
+            rows[0]++;
+        }, Timestamp.valueOf(horizon));
+
+        List<PendingDeltas> pending;
+        synchronized (windowLock) {
+            buckets = loaded;
+            memoryFrom = horizon;
+            pending = new ArrayList<>(inFlight);
+        }
+        pending.forEach(p -> p.moveTo(loaded, horizon));
+        log.info("药师工作量统计已重建，药师数: {}, 统计桶数: {}, 内存窗口起点: {}", loaded.size(), rows[0], horizon);
+    }
+
+    @Override
+    public int evictExpired() {
+        if (memoryFrom == null) {
+            return 0;
+        }
+        LocalDateTime horizon = horizon();
+        memoryFrom = horizon;
+
+        int evicted = 0;
+        for (ConcurrentSkipListMap<LocalDateTime, Counts> hours : buckets.values()) {
+            NavigableMap<LocalDateTime, Counts> expired = hours.headMap(horizon, false);
+            evicted += expired.size();
+            expired.clear();
+        }
+        log.info("药师工作量统计桶淘汰完成，淘汰数: {}, 内存窗口起点: {}", evicted, horizon);
+        return evicted;
+    }
+
+    private void record(Long pharmacistId, LocalDateTime time, Counts delta) {
+        if (pharmacistId == null || time == null) {
+            log.warn("药师工作量统计缺少药师或时间，忽略本次计数: pharmacistId={}, time={}", pharmacistId, time);
+            return;
+        }
+        HourKey key = new HourKey(pharmacistId, time.truncatedTo(ChronoUnit.HOURS));
+
+        // 无事务时在独立事务中写入，使重建时能够区分该增量是否已写入汇总表
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionTemplate.executeWithoutResult(status -> currentPending().add(key, delta));
+            return;
+        }
+        currentPending().add(key, delta);
+    }
+
+    /**
+     * 将增量计入内存统计桶
+     *
+     * <p>撤销（负增量）只作用于内存中已有的统计桶：统计桶已被淘汰或重建后未加载时跳过，
+     * 避免生成负数计数；汇总表中对应的增量未写入，查询汇总表时结果本就正确</p>
+     */
+    private void applyToMemory(ConcurrentHashMap<Long, ConcurrentSkipListMap<LocalDateTime, Counts>> target,
+                               HourKey key, Counts delta) {
+        LocalDateTime from = memoryFrom;
+        if (target == null || from == null || key.hour().isBefore(from)) {
+            return;
+        }
+        mergeInto(target, key, delta);
+    }
+
+    private static void mergeInto(ConcurrentHashMap<Long, ConcurrentSkipListMap<LocalDateTime, Counts>> target,
+                                  HourKey key, Counts delta) {
+        if (delta.hasNegative()) {
+            ConcurrentSkipListMap<LocalDateTime, Counts> hours = target.get(key.pharmacistId());
+            if (hours != null) {
+                hours.computeIfPresent(key.hour(), (hour, current) -> Counts.plusOrRemove(current, delta));
+            }
+            return;
+        }
+        target.computeIfAbsent(key.pharmacistId(), k -> new ConcurrentSkipListMap<>())
+                .merge(key.hour(), delta, Counts::plusOrRemove);
+    }
+
+    /**
+     * 查询时间范围内的按小时计数：位于内存窗口内时读取内存，否则读取汇总表
+     */
+    private NavigableMap<LocalDateTime, Counts> hourlyCounts(Long pharmacistId, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime from = start.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime windowStart = memoryFrom;
+        if (windowStart != null && !from.isBefore(windowStart)) {
+            ConcurrentSkipListMap<LocalDateTime, Counts> hours = buckets.get(pharmacistId);
+            return hours == null ? new TreeMap<>() : hours.subMap(from, true, end, false);
+        }
+
+        TreeMap<LocalDateTime, Counts> result = new TreeMap<>();
+        jdbcTemplate.query(SELECT_COLUMNS + "WHERE pharmacist_id = ? AND bucket_hour >= ? AND bucket_hour < ?",
+                rs -> {
+                    result.put(rs.getTimestamp("bucket_hour").toLocalDateTime(), mapCounts(rs));
+                }, pharmacistId, Timestamp.valueOf(from), Timestamp.valueOf(end));
+        return result;
+    }
+
+    /**
+     * 获取当前事务的待写入增量，首次调用时注册同步器
+     */
+    private PendingDeltas currentPending() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingDeltas pending && pending.owner == this) {
+                return pending;
+            }
+        }
+        PendingDeltas pending;
+        synchronized (windowLock) {
+            pending = new PendingDeltas(this, buckets);
+            inFlight.add(pending);
+        }
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    /**
+     * 一次批量 UPSERT 写入全部增量
+     */
+    private void upsertBatch(Map<HourKey, Counts> deltas) {
+        List<Map.Entry<HourKey, Counts>> entries = new ArrayList<>(deltas.entrySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            Counts counts = entry.getValue();
+            ps.setLong(1, entry.getKey().pharmacistId());
+            ps.setTimestamp(2, Timestamp.valueOf(entry.getKey().hour()));
+            ps.setLong(3, counts.dispensedCount());
+            ps.setBigDecimal(4, counts.dispensedAmount());
+            ps.setLong(5, counts.dispensedItems());
+            ps.setLong(6, counts.returnedCount());
+            ps.setBigDecimal(7, counts.returnedAmount());
+            ps.setTimestamp(8, now);
+        });
+        log.debug("药师工作量统计已写入汇总表，统计桶数: {}", entries.size());
+    }
+
+    private void validateRange(Long pharmacistId, LocalDateTime start, LocalDateTime end) {
+        if (pharmacistId == null) {
+            throw new IllegalArgumentException("药师ID不能为空");
+        }
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("开始时间和结束时间不能为空");
+        }
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("开始时间必须早于结束时间");
+        }
+    }
+
+    private LocalDateTime horizon() {
+        return LocalDate.now().minusDays(memoryDays).atStartOfDay();
+    }
+
+    private static Counts mapCounts(ResultSet rs) throws SQLException {
+        return new Counts(rs.getLong("dispensed_count"), rs.getBigDecimal("dispensed_amount"),
+                rs.getLong("dispensed_items"), rs.getLong("returned_count"), rs.getBigDecimal("returned_amount"));
+    }
+
+    private static BigDecimal nonNull(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+
+    /**
+     * 统计桶键：药师 + 整点
+     */
+    private record HourKey(Long pharmacistId, LocalDateTime hour) {
+    }
+
+    /**
+     * 单个统计桶的不可变计数
+     */
+    private record Counts(long dispensedCount, BigDecimal dispensedAmount, long dispensedItems,
+                          long returnedCount, BigDecimal returnedAmount) {
+
+        static final Counts ZERO = new Counts(0, BigDecimal.ZERO, 0, 0, BigDecimal.ZERO);
+
+        Counts plus(Counts other) {
+            return new Counts(dispensedCount + other.dispensedCount,
+                    dispensedAmount.add(other.dispensedAmount),
+                    dispensedItems + other.dispensedItems,
+                    returnedCount + other.returnedCount,
+                    returnedAmount.add(other.returnedAmount));
+        }
+
+        Counts negate() {
+            return new Counts(-dispensedCount, dispensedAmount.negate(), -dispensedItems,
+                    -returnedCount, returnedAmount.negate());
+        }
+
+        boolean hasNegative() {
+            return dispensedCount < 0 || dispensedItems < 0 || returnedCount < 0
+                    || dispensedAmount.signum() < 0 || returnedAmount.signum() < 0;
+        }
+
+        /**
+         * 各项计数不小于 0
+         */
+        Counts clampAtZero() {
+            return new Counts(Math.max(dispensedCount, 0), dispensedAmount.max(BigDecimal.ZERO),
+                    Math.max(dispensedItems, 0), Math.max(returnedCount, 0), returnedAmount.max(BigDecimal.ZERO));
+        }
+
+        /**
+         * 合并后计数全部归零（如回滚撤销）时返回 null，使统计桶从内存中移除；计数不会低于 0
+         */
+        static Counts plusOrRemove(Counts current, Counts delta) {
+            Counts merged = current.plus(delta).clampAtZero();
+            boolean empty = merged.dispensedCount == 0 && merged.dispensedItems == 0 && merged.returnedCount == 0
+                    && merged.dispensedAmount.signum() == 0 && merged.returnedAmount.signum() == 0;
+            return empty ? null : merged;
+        }
+
+        PharmacistStatsVO.Bucket toBucket(LocalDateTime bucketStart) {
+            return PharmacistStatsVO.Bucket.builder()
+                    .bucketStart(bucketStart)
+                    .dispensedCount(dispensedCount)
+                    .dispensedAmount(dispensedAmount)
+                    .dispensedItems(dispensedItems)
+                    .returnedCount(returnedCount)
+                    .returnedAmount(returnedAmount)
+                    .build();
+        }
+    }
+
+    /**
+     * 单个事务内待写入汇总表的增量（按药师、小时合并）
+     *
+     * <p>状态变更与重建时的迁移通过对象锁互斥；写入汇总表期间不持有该锁，避免与重建的表锁互相等待</p>
+     */
+    private static final class PendingDeltas implements TransactionSynchronization {
+
+        private final PharmacistStatsServiceImpl owner;
+        private final Map<HourKey, Counts> deltas = new LinkedHashMap<>();
+
+        /**
+         * 本事务增量所计入的内存统计桶；重建后指向新统计桶，已写入汇总表的事务在重建后为空
+         */
+        private ConcurrentHashMap<Long, ConcurrentSkipListMap<LocalDateTime, Counts>> target;
+        private boolean written;
+        private boolean completed;
+
+        private PendingDeltas(PharmacistStatsServiceImpl owner,
+                              ConcurrentHashMap<Long, ConcurrentSkipListMap<LocalDateTime, Counts>> target) {
+            this.owner = owner;
+            this.target = target;
+        }
+
+        synchronized void add(HourKey key, Counts delta) {
+            deltas.merge(key, delta, Counts::plus);
+            owner.applyToMemory(target, key, delta);
+        }
+
+        /**
+         * 重建时迁移：未写入汇总表的增量并入新统计桶；已写入或已结束的事务不再影响内存
+         */
+        synchronized void moveTo(ConcurrentHashMap<Long, ConcurrentSkipListMap<LocalDateTime, Counts>> loaded,
+                                 LocalDateTime horizon) {
+            if (written || completed) {
+                target = null;
+                return;
+            }
+            deltas.forEach((key, delta) -> {
+                if (!key.hour().isBefore(horizon)) {
+                    mergeInto(loaded, key, delta);
+                }
+            });
+            target = loaded;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            Map<HourKey, Counts> snapshot;
+            synchronized (this) {
+                snapshot = new LinkedHashMap<>(deltas);
+            }
+            if (!snapshot.isEmpty()) {
+                owner.upsertBatch(snapshot);
+            }
+            synchronized (this) {
+                written = true;
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            synchronized (this) {
+                if (status == STATUS_ROLLED_BACK) {
+                    deltas.forEach((key, delta) -> owner.applyToMemory(target, key, delta.negate()));
+                }
+                completed = true;
+            }
+            owner.inFlight.remove(this);
+        }
+    }
+}
@@ -4,19 +4,38 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.his.common.CommonConstants;
+import com.his.common.SecurityUtils;
+import com.his.converter.VoConverter;
 import com.his.dto.PrescriptionDTO;
 import com.his.entity.*;
 import com.his.enums.PrescriptionStatusEnum;
 import com.his.enums.PrescriptionTypeEnum;
 import com.his.repository.*;
+import com.his.repository.projection.PrescriptionListView;
+import com.his.service.LowStockAlertService;
+import com.his.service.MedicineCatalogService;
+import com.his.service.PharmacistStatsService;
 import com.his.service.PrescriptionService;
 import com.his.service.PrescriptionStateMachine;
+import com.his.vo.BatchDispenseResultVO;
+import com.his.vo.PrescriptionVO;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -77,6 +96,25 @@ public class PrescriptionServiceImpl implements PrescriptionService {
     private final RegistrationRepository registrationRepository;
     private final MedicineRepository medicineRepository;
     private final PrescriptionStateMachine prescriptionStateMachine;
+    private final LowStockAlertService lowStockAlertService;
+    private final MedicineCatalogService medicineCatalogService;
+    private final PharmacistStatsService pharmacistStatsService;
+
+    /**
+     * 单次领取处方数量上限
+     */
+    private static final int MAX_CLAIM_SIZE = 50;
+
+    /**
+     * 单次批量发药处方数量上限
+     */
+    private static final int MAX_BATCH_DISPENSE_SIZE = 50;
+
+    /**
+     * 领取租约时长（秒），到期未发药的处方自动回到待发药队列
+     */
+    @Value("${pharmacy.claim.lease-seconds:300}")
+    private long claimLeaseSeconds;
 
     /**
      * 创建处方
@@ -97,7 +135,7 @@ public class PrescriptionServiceImpl implements PrescriptionService {
      * <ul>
      *   <li>处方必须关联有效的挂号单且挂号单未删除</li>
      *   <li>必须先创建病历才能开具处方</li>
-     *   <li>药品必须存在且未删除、未停用</li>
+     *   <li>药品必须存在且未删除、未停用（一次批量查询，所有不合法明细汇总在同一个异常中返回）</li>
      *   <li>药品数量必须大于0</li>
      *   <li>处方号自动生成（格式：PRE+yyyyMMdd+6位序列号）</li>
      *   <li>处方总金额保留2位小数（四舍五入）</li>
@@ -159,29 +197,25 @@ public class PrescriptionServiceImpl implements PrescriptionService {
                 .orElseThrow(() -> new IllegalArgumentException(
                         "请先创建病历再开处方，挂号单ID: " + dto.getRegistrationId()));
 
+        Map<Long, Medicine> medicines = resolveMedicines(dto.getItems());
+
         Prescription prescription = createPrescriptionEntity(registration, medicalRecord, dto);
 
-        List<PrescriptionDetail> details = new ArrayList<>();
+        List<PrescriptionDetail> details = new ArrayList<>(dto.getItems().size());
         BigDecimal totalAmount = BigDecimal.ZERO;
         int itemCount = 0;
 
         for (PrescriptionDTO.PrescriptionItemDTO itemDTO : dto.getItems()) {
-            Medicine medicine = medicineRepository.findById(itemDTO.getMedicineId())
-                    .orElseThrow(() -> new IllegalArgumentException("药品不存在，ID: " + itemDTO.getMedicineId()));
-
-            if (CommonConstants.DELETED.equals(medicine.getIsDeleted())) {
-                throw new IllegalArgumentException("药品已被删除，ID: " + itemDTO.getMedicineId());
-            }
-
-            if (!CommonConstants.STATUS_ENABLED.equals(medicine.getStatus())) {
-                throw new IllegalArgumentException("药品已停用，ID: " + itemDTO.getMedicineId());
-            }
+            Medicine medicine = medicines.get(itemDTO.getMedicineId());
 
             BigDecimal unitPrice = medicine.getRetailPrice();
             int quantity = itemDTO.getQuantity();
 
-            BigDecimal subtotal = unitPrice.multiply(BigDecimal.valueOf(quantity))
-                    .setScale(2, RoundingMode.HALF_UP);
+            // 零售价通常已是2位小数，整数倍后无需重新舍入
+            BigDecimal subtotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+            if (subtotal.scale() != 2) {
+                subtotal = subtotal.setScale(2, RoundingMode.HALF_UP);
+            }
 
             totalAmount = totalAmount.add(subtotal);
             itemCount += quantity;
@@ -235,6 +269,7 @@ public class PrescriptionServiceImpl implements PrescriptionService {
             detail.setPrescription(savedPrescription);
         }
         prescriptionDetailRepository.saveAll(details);
+        savedPrescription.getDetails().addAll(details);
         log.info("处方明细保存成功，共 {} 条", details.size());
 
         initializeLazyFields(savedPrescription);
@@ -278,7 +313,7 @@ public class PrescriptionServiceImpl implements PrescriptionService {
     /**
      * 根据病历ID查询处方列表
      *
-     * <p>查询指定病历的所有未删除处方</p>
+     * <p>查询指定病历的所有未删除处方（投影查询，不加载病历、患者实体）</p>
      *
      * @param recordId 病历ID
      * @return 处方列表
@@ -287,18 +322,14 @@ public class PrescriptionServiceImpl implements PrescriptionService {
      */
     @Override
     @Transactional(readOnly = true)
-    public List<Prescription> getByRecordId(Long recordId) {
+    public List<PrescriptionVO> getByRecordId(Long recordId) {
         log.info("根据病历ID查询处方列表，病历ID: {}", recordId);
 
         if (recordId == null) {
             throw new IllegalArgumentException("病历ID不能为空");
         }
 
-        List<Prescription> prescriptions = prescriptionRepository.findByMedicalRecord_MainIdAndIsDeleted(recordId, CommonConstants.NORMAL);
-
-        prescriptions.forEach(this::initializeLazyFields);
-
-        return prescriptions;
+        return toListVOs(prescriptionRepository.findViewsByRecordId(recordId));
     }
 
     /**
@@ -379,51 +410,118 @@ public class PrescriptionServiceImpl implements PrescriptionService {
     }
 
     /**
-     * 查询待发药处方列表
+     * 分页查询待发药处方列表
      *
-     * <p>查询所有状态为 PAID（已缴费）的处方</p>
+     * <p>查询状态为 PAID（已缴费）的处方，按开方时间先后排序</p>
      *
      * <p><b>使用场景：</b></p>
      * <ul>
-     *   <li>药师工作站：获取待发药处方列表</li>
+     *   <li>药师工作站：获取待发药处方队列</li>
      * </ul>
      *
-     * @return 待发药处方列表
+     * <p>每页固定 3 条 SQL：分页投影查询、计数、批量加载明细，不加载患者和病历实体</p>
+     *
+     * @param pageable 分页参数
+     * @return 待发药处方分页数据
      * @since 1.0
      */
     @Override
     @Transactional(readOnly = true)
-    public List<Prescription> getPendingDispenseList() {
-        log.info("查询待发药处方列表");
-        // 查询状态为已缴费(5)的处方
-        List<Prescription> prescriptions = prescriptionRepository.findByStatusAndIsDeleted(
-                PrescriptionStatusEnum.PAID.getCode(), CommonConstants.NORMAL);
-        prescriptions.forEach(this::initializeLazyFields);
-        return prescriptions;
+    public Page<PrescriptionVO> getPendingDispenseList(Pageable pageable) {
+        log.info("查询待发药处方列表，page: {}, size: {}", pageable.getPageNumber(), pageable.getPageSize());
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Page<PrescriptionListView> page = prescriptionRepository.findQueueViewsByStatus(
+                PrescriptionStatusEnum.PAID.getCode(), unsorted);
+        return new PageImpl<>(toListVOs(page.getContent()), page.getPageable(), page.getTotalElements());
     }
 
     /**
-     * 查询待审核处方列表
+     * 分页查询待审核处方列表
      *
-     * <p>查询所有状态为 ISSUED（已开方）的处方</p>
+     * <p>查询状态为 ISSUED（已开方）的处方，按开方时间先后排序</p>
      *
      * <p><b>使用场景：</b></p>
      * <ul>
-     *   <li>药师工作站：获取待审核处方列表</li>
+     *   <li>药师工作站：获取待审核处方队列</li>
      * </ul>
      *
-     * @return 待审核处方列表
+     * @param pageable 分页参数
+     * @return 待审核处方分页数据
      * @since 1.0
      */
     @Override
     @Transactional(readOnly = true)
-    public List<Prescription> getPendingReviewList() {
-        log.info("查询待审核处方列表");
-        // Repository已有方法直接调用，查询状态为已开方(1)的处方
-        List<Prescription> prescriptions = prescriptionRepository.findPendingReview();
-        // 初始化懒加载字段，避免LazyInitializationException
-        prescriptions.forEach(this::initializeLazyFields);
-        return prescriptions;
+    public Page<Prescription> getPendingReviewList(Pageable pageable) {
+        log.info("查询待审核处方列表，page: {}, size: {}", pageable.getPageNumber(), pageable.getPageSize());
+        return findQueue(PrescriptionStatusEnum.ISSUED, pageable);
+    }
+
+    /**
+     * 领取待发药处方
+     *
+     * <p>多名药师并发处理同一待发药队列时，每人领取互不重复的一批处方</p>
+     *
+     * <p><b>实现方式：</b></p>
+     * <ol>
+     *   <li>{@code SELECT ... FOR UPDATE SKIP LOCKED} 锁定最早的 limit 张可领取处方，跳过其他药师正在领取的行</li>
+     *   <li>在同一事务中写入领取药师与租约到期时间，提交后释放行锁</li>
+     *   <li>投影查询领取结果并批量加载明细，不加载患者和病历实体</li>
+     * </ol>
+     *
+     * <p><b>租约规则：</b></p>
+     * <ul>
+     *   <li>租约时长由 {@code pharmacy.claim.lease-seconds} 配置（默认300秒）</li>
+     *   <li>租约到期仍未发药的处方可被其他药师重新领取，无需定时任务回收</li>
+     *   <li>再次领取时，本人已领取且未发药的处方会一并返回并续租</li>
+     * </ul>
+     *
+     * @param pharmacistId 药师ID
+     * @param limit 领取数量（1-50）
+     * @return 领取到的处方列表，队列为空时返回空列表
+     * @throws IllegalArgumentException 如果药师ID为空或领取数量超出范围
+     * @since 1.0
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public List<PrescriptionVO> claimPendingDispense(Long pharmacistId, int limit) {
+        if (pharmacistId == null) {
+            throw new IllegalArgumentException("药师ID不能为空");
+        }
+        if (limit < 1 || limit > MAX_CLAIM_SIZE) {
+            throw new IllegalArgumentException("领取数量必须在1到" + MAX_CLAIM_SIZE + "之间");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = prescriptionRepository.lockClaimableIds(
+                PrescriptionStatusEnum.PAID.getCode(), pharmacistId, now, limit);
+        if (ids.isEmpty()) {
+            log.info("待发药队列为空，药师ID: {}", pharmacistId);
+            return List.of();
+        }
+
+        prescriptionRepository.claimByIds(ids, pharmacistId, now.plusSeconds(claimLeaseSeconds));
+
+        List<PrescriptionVO> claimed = toListVOs(prescriptionRepository.findViewsByIds(ids));
+
+        log.info("药师领取待发药处方，药师ID: {}, 领取数量: {}", pharmacistId, claimed.size());
+        return claimed;
+    }
+
+    /**
+     * 释放领取的处方
+     *
+     * @param id 处方ID
+     * @param pharmacistId 药师ID
+     * @throws IllegalStateException 如果处方未被该药师领取
+     * @since 1.0
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void releaseClaim(Long id, Long pharmacistId) {
+        if (prescriptionRepository.releaseClaim(id, pharmacistId) == 0) {
+            throw new IllegalStateException("处方未被当前药师领取，无法释放，处方ID: " + id);
+        }
+        log.info("药师释放处方领取，处方ID: {}, 药师ID: {}", id, pharmacistId);
     }
 
     /**
@@ -442,6 +540,7 @@ public class PrescriptionServiceImpl implements PrescriptionService {
      * <p><b>业务规则：</b></p>
      * <ul>
      *   <li>只有状态为 PAID（已缴费）的处方才能发药</li>
+     *   <li>已被其他药师领取且租约未过期的处方不能发药；发药后清除领取信息</li>
      *   <li>发药时检查每个药品的库存是否充足</li>
      *   <li>如果任意药品库存不足，抛出异常并终止发药流程</li>
      *   <li>发药成功后扣减所有药品的库存</li>
@@ -483,6 +582,14 @@ public class PrescriptionServiceImpl implements PrescriptionService {
             throw new IllegalStateException("只有已缴费状态的处方才能发药，当前状态: " + prescription.getStatus());
         }
 
+        // 已被其他药师领取且租约未过期的处方不能发药
+        if (prescription.getClaimedBy() != null
+                && !prescription.getClaimedBy().equals(dispenseBy)
+                && prescription.getClaimExpiresAt() != null
+                && prescription.getClaimExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new IllegalStateException("处方已被其他药师领取，领取到期时间: " + prescription.getClaimExpiresAt());
+        }
+
         // 直接查询处方明细列表
         List<PrescriptionDetail> details = prescriptionDetailRepository.findByPrescription_MainIdAndIsDeletedOrderBySortOrder(id, CommonConstants.NORMAL);
         if (details == null || details.isEmpty()) {
@@ -498,9 +605,12 @@ public class PrescriptionServiceImpl implements PrescriptionService {
                         + medicine.getStockQuantity() + ", 需求数量: " + detail.getQuantity());
             }
 
-            medicine.setStockQuantity(medicine.getStockQuantity() - detail.getQuantity());
+            int previousStock = medicine.getStockQuantity();
+            medicine.setStockQuantity(previousStock - detail.getQuantity());
             medicine.setUpdatedAt(LocalDateTime.now());
             medicineRepository.save(medicine);
+            lowStockAlertService.onStockChanged(medicine, previousStock);
+            medicineCatalogService.markChanged(medicine.getMainId());
 
             log.info("药品库存已扣减：药品ID={}, 名称={}, 扣减数量={}, 剩余库存={}",
                     medicine.getMainId(), medicine.getName(), detail.getQuantity(), medicine.getStockQuantity());
@@ -531,8 +641,12 @@ public class PrescriptionServiceImpl implements PrescriptionService {
             // 更新发药相关信息
             prescription.setDispenseBy(dispenseBy);
             prescription.setDispenseTime(LocalDateTime.now());
+            prescription.setClaimedBy(null);
+            prescription.setClaimExpiresAt(null);
             prescription.setUpdatedAt(LocalDateTime.now());
             prescriptionRepository.save(prescription);
+            pharmacistStatsService.recordDispense(dispenseBy, prescription.getDispenseTime(),
+                    prescription.getTotalAmount(), prescription.getItemCount());
 
             log.info("发药成功，处方ID: {}", id);
         } catch (Exception e) {
@@ -541,6 +655,161 @@ public class PrescriptionServiceImpl implements PrescriptionService {
         }
     }
 
+    /**
+     * 批量发药
+     *
+     * <p>药房窗口一次性为多张已缴费处方发药，往返次数与单次事务开销不随处方数量增长</p>
+     *
+     * <p><b>业务流程：</b></p>
+     * <ol>
+     *   <li>一次查询加载全部处方及明细，一次查询加载涉及的全部药品</li>
+     *   <li>按请求顺序逐张校验处方（状态、领取、明细）并在内存中预占库存</li>
+     *   <li>逐张执行状态转换 PAID → DISPENSED，转换被拒绝的处方标记失败并释放预占的库存</li>
+     *   <li>按药品汇总扣减库存，每种药品只更新一次</li>
+     *   <li>发药成功的处方一起保存，由 JDBC 批量写入</li>
+     * </ol>
+     *
+     * <p><b>业务规则：</b></p>
+     * <ul>
+     *   <li>校验规则与单张发药 {@link #dispense(Long, Long)} 一致</li>
+     *   <li>校验不通过、库存不足或状态转换被拒绝的处方单独标记失败，不影响其他处方，成功的处方照常提交</li>
+     *   <li>库存按请求顺序预占：同一药品库存不足时，靠后的处方发药失败</li>
+     *   <li>数据库异常使整个事务无法继续，此时整批回滚，没有处方发药</li>
+     * </ul>
+     *
+     * @param prescriptionIds 处方ID列表
+     * @param dispenseBy 发药人ID
+     * @return 每张处方的发药结果
+     * @throws IllegalArgumentException 如果处方ID列表为空或超过上限
+     * @throws IllegalStateException 如果当前用户未登录，或状态转换出现数据库异常（整批回滚）
+     * @since 1.0
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public BatchDispenseResultVO batchDispense(List<Long> prescriptionIds, Long dispenseBy) {
+        List<Long> ids = prescriptionIds == null ? List.of()
+                : prescriptionIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("处方ID列表不能为空");
+        }
+        if (ids.size() > MAX_BATCH_DISPENSE_SIZE) {
+            throw new IllegalArgumentException("单次批量发药最多" + MAX_BATCH_DISPENSE_SIZE + "张处方");
+        }
+        log.info("开始批量发药，处方数量: {}, 发药人ID: {}", ids.size(), dispenseBy);
+
+        // 一次查询加载全部处方及明细
+        Map<Long, Prescription> prescriptions = prescriptionRepository.fetchDetailsByIds(ids).stream()
+                .filter(p -> CommonConstants.NORMAL.equals(p.getIsDeleted()))
+                .collect(Collectors.toMap(Prescription::getMainId, Function.identity()));
+        Map<Long, List<PrescriptionDetail>> detailsById = new HashMap<>();
+        prescriptions.forEach((id, p) -> detailsById.put(id, p.getDetails().stream()
+                .filter(d -> CommonConstants.NORMAL.equals(d.getIsDeleted()))
+                .toList()));
+
+        // 一次查询加载涉及的全部药品
+        List<Long> medicineIds = detailsById.values().stream()
+                .flatMap(List::stream)
+                .map(d -> d.getMedicine().getMainId())
+                .distinct()
+                .toList();
+        Map<Long, Medicine> medicines = medicineRepository.findAllById(medicineIds).stream()
+                .collect(Collectors.toMap(Medicine::getMainId, Function.identity()));
+        Map<Long, Integer> remainingStock = new HashMap<>();
+        medicines.forEach((id, m) -> remainingStock.put(id, m.getStockQuantity()));
+
+        // 逐张校验并预占库存
+        LocalDateTime now = LocalDateTime.now();
+        List<BatchDispenseResultVO.Item> results = new ArrayList<>();
+        List<Prescription> reserved = new ArrayList<>();
+        Map<Long, BatchDispenseResultVO.Item> itemsById = new HashMap<>();
+        for (Long id : ids) {
+            Prescription prescription = prescriptions.get(id);
+            String rejectReason = prescription == null
+                    ? "处方不存在"
+                    : reserveStock(prescription, detailsById.get(id), dispenseBy, now, medicines, remainingStock);
+
+            BatchDispenseResultVO.Item item = BatchDispenseResultVO.Item.builder()
+                    .prescriptionId(id)
+                    .prescriptionNo(prescription == null ? null : prescription.getPrescriptionNo())
+                    .success(rejectReason == null)
+                    .message(rejectReason == null ? "发药成功" : rejectReason)
+                    .build();
+            if (rejectReason == null) {
+                reserved.add(prescription);
+            }
+            itemsById.put(id, item);
+            results.add(item);
+        }
+
+        // 逐张转换状态：被状态机拒绝的处方标记失败并释放预占库存
+        String operatorName = SecurityUtils.getCurrentUsername();
+        List<Prescription> accepted = new ArrayList<>();
+        for (Prescription prescription : reserved) {
+            try {
+                prescriptionStateMachine.transition(
+                    prescription.getMainId(),
+                    PrescriptionStatusEnum.PAID,
+                    PrescriptionStatusEnum.DISPENSED,
+                    dispenseBy,
+                    operatorName,
+                    "药师批量发药"
+                );
+                accepted.add(prescription);
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                log.warn("批量发药中处方状态转换被拒绝，处方ID: {}, 原因: {}", prescription.getMainId(), e.getMessage());
+                BatchDispenseResultVO.Item item = itemsById.get(prescription.getMainId());
+                item.setSuccess(false);
+                item.setMessage(e.getMessage());
+                requiredQuantities(detailsById.get(prescription.getMainId()))
+                        .forEach((medicineId, quantity) -> remainingStock.merge(medicineId, quantity, Integer::sum));
+            } catch (Exception e) {
+                log.error("状态机转换失败，处方ID: {}", prescription.getMainId(), e);
+                throw new IllegalStateException("批量发药失败，处方ID: " + prescription.getMainId() + "，" + e.getMessage());
+            }
+        }
+
+        // 按药品汇总扣减库存
+        List<Medicine> changedMedicines = new ArrayList<>();
+        Map<Long, Integer> previousStock = new HashMap<>();
+        for (Medicine medicine : medicines.values()) {
+            int remaining = remainingStock.get(medicine.getMainId());
+            if (remaining != medicine.getStockQuantity()) {
+                previousStock.put(medicine.getMainId(), medicine.getStockQuantity());
+                medicine.setStockQuantity(remaining);
+                medicine.setUpdatedAt(now);
+                changedMedicines.add(medicine);
+            }
+        }
+        medicineRepository.saveAll(changedMedicines);
+        for (Medicine medicine : changedMedicines) {
+            lowStockAlertService.onStockChanged(medicine, previousStock.get(medicine.getMainId()));
+            medicineCatalogService.markChanged(medicine.getMainId());
+            log.info("药品库存已扣减：药品ID={}, 名称={}, 扣减数量={}, 剩余库存={}",
+                    medicine.getMainId(), medicine.getName(),
+                    previousStock.get(medicine.getMainId()) - medicine.getStockQuantity(), medicine.getStockQuantity());
+        }
+
+        // 发药成功的处方一起保存
+        for (Prescription prescription : accepted) {
+            prescription.setDispenseBy(dispenseBy);
+            prescription.setDispenseTime(now);
+            prescription.setClaimedBy(null);
+            prescription.setClaimExpiresAt(null);
+            prescription.setUpdatedAt(now);
+            pharmacistStatsService.recordDispense(dispenseBy, now, prescription.getTotalAmount(),
+                    prescription.getItemCount());
+        }
+        prescriptionRepository.saveAll(accepted);
+
+        log.info("批量发药完成，成功: {}, 失败: {}", accepted.size(), ids.size() - accepted.size());
+        return BatchDispenseResultVO.builder()
+                .total(ids.size())
+                .successCount(accepted.size())
+                .failureCount(ids.size() - accepted.size())
+                .results(results)
+                .build();
+    }
+
     /**
      * 退药
      *
@@ -620,6 +889,8 @@ public class PrescriptionServiceImpl implements PrescriptionService {
             prescription.setReturnTime(LocalDateTime.now());
             prescription.setUpdatedAt(LocalDateTime.now());
             prescriptionRepository.save(prescription);
+            pharmacistStatsService.recordReturn(prescription.getDispenseBy(), prescription.getReturnTime(),
+                    prescription.getTotalAmount());
 
             log.info("退药成功，处方ID: {}", id);
         } catch (Exception e) {
@@ -662,9 +933,12 @@ public class PrescriptionServiceImpl implements PrescriptionService {
                 Medicine medicine = medicineRepository.findById(detail.getMedicine().getMainId())
                         .orElseThrow(() -> new IllegalArgumentException("药品不存在，ID: " + detail.getMedicine().getMainId()));
 
-                medicine.setStockQuantity(medicine.getStockQuantity() + detail.getQuantity());
+                int previousStock = medicine.getStockQuantity();
+                medicine.setStockQuantity(previousStock + detail.getQuantity());
                 medicine.setUpdatedAt(LocalDateTime.now());
                 medicineRepository.save(medicine);
+                lowStockAlertService.onStockChanged(medicine, previousStock);
+                medicineCatalogService.markChanged(medicine.getMainId());
 
                 log.info("药品库存已恢复：药品ID={}, 名称={}, 恢复数量={}, 当前库存={}",
                         medicine.getMainId(), medicine.getName(), detail.getQuantity(), medicine.getStockQuantity());
@@ -685,6 +959,9 @@ public class PrescriptionServiceImpl implements PrescriptionService {
      *   <li>药品总数：该药师当天发放的药品总数量</li>
      * </ul>
      *
+     * <p>统计数据来自按小时维护的工作量统计桶，不扫描处方表，
+     * 见 {@link PharmacistStatsService}</p>
+     *
      * <p><b>使用场景：</b></p>
      * <ul>
      *   <li>药师工作绩效考核</li>
@@ -706,13 +983,9 @@ public class PrescriptionServiceImpl implements PrescriptionService {
         }
 
         LocalDateTime startTime = java.time.LocalDate.now().atStartOfDay();
-        LocalDateTime endTime = java.time.LocalDate.now().atTime(java.time.LocalTime.MAX);
+        LocalDateTime endTime = startTime.plusDays(1);
 
-        com.his.dto.PharmacistStatisticsDTO stats = prescriptionRepository.getPharmacistStatistics(pharmacistId, startTime, endTime);
-
-        if (stats == null) {
-            return new com.his.dto.PharmacistStatisticsDTO();
-        }
+        com.his.dto.PharmacistStatisticsDTO stats = pharmacistStatsService.getTotals(pharmacistId, startTime, endTime);
 
         log.info("统计结果: 发药单数={}, 总金额={}, 药品总数={}",
                 stats.getDispensedCount(), stats.getTotalAmount(), stats.getTotalItems());
@@ -740,6 +1013,45 @@ public class PrescriptionServiceImpl implements PrescriptionService {
         }
     }
 
+    /**
+     * 批量解析并校验处方明细中的药品
+     *
+     * <p>一次查询取回全部药品，逐行校验后汇总所有不合法的明细，统一抛出一个异常</p>
+     *
+     * @param items 处方明细列表（已通过基础参数校验）
+     * @return 药品ID到药品实体的映射
+     * @throws IllegalArgumentException 如果存在不存在、已删除或已停用的药品（消息包含所有问题行）
+     */
+    private Map<Long, Medicine> resolveMedicines(List<PrescriptionDTO.PrescriptionItemDTO> items) {
+        List<Long> medicineIds = items.stream()
+                .map(PrescriptionDTO.PrescriptionItemDTO::getMedicineId)
+                .distinct()
+                .toList();
+
+        Map<Long, Medicine> medicines = new HashMap<>();
+        for (Medicine medicine : medicineRepository.findByMainIdInAndIsDeleted(medicineIds, CommonConstants.NORMAL)) {
+            medicines.put(medicine.getMainId(), medicine);
+        }
+
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            Long medicineId = items.get(i).getMedicineId();
+            Medicine medicine = medicines.get(medicineId);
+            if (medicine == null) {
+                errors.add("第" + (i + 1) + "行药品不存在或已被删除，ID: " + medicineId);
+            } else if (!CommonConstants.STATUS_ENABLED.equals(medicine.getStatus())) {
+                errors.add("第" + (i + 1) + "行药品已停用，ID: " + medicineId + "（" + medicine.getName() + "）");
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            log.warn("处方明细校验失败，共 {} 行不合法: {}", errors.size(), errors);
+            throw new IllegalArgumentException("处方明细校验失败：" + String.join("；", errors));
+        }
+
+        return medicines;
+    }
+
     private Prescription createPrescriptionEntity(Registration registration, MedicalRecord medicalRecord, PrescriptionDTO dto) {
         Prescription prescription = new Prescription();
         String prescriptionNo = generatePrescriptionNo();
@@ -804,6 +1116,87 @@ public class PrescriptionServiceImpl implements PrescriptionService {
         }
     }
 
+    /**
+     * 处方列表投影转 VO：按处方ID一次性查询全部明细后按处方分组
+     */
+    private List<PrescriptionVO> toListVOs(List<PrescriptionListView> views) {
+        if (views.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = views.stream().map(PrescriptionListView::getMainId).toList();
+        Map<Long, List<PrescriptionDetail>> details = prescriptionDetailRepository.findByPrescriptionIds(ids).stream()
+                .collect(Collectors.groupingBy(detail -> detail.getPrescription().getMainId()));
+        return views.stream()
+                .map(view -> VoConverter.toPrescriptionVO(view, details.getOrDefault(view.getMainId(), List.of())))
+                .toList();
+    }
+
+    /**
+     * 分页查询处方工作队列
+     *
+     * <p>每页固定 3 条 SQL：分页查询（EntityGraph 加载患者/医生/审核医生）、计数、批量加载明细，
+     * 不再逐行触发懒加载</p>
+     */
+    private Page<Prescription> findQueue(PrescriptionStatusEnum status, Pageable pageable) {
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Page<Prescription> page = prescriptionRepository.findQueueByStatus(status.getCode(), unsorted);
+
+        if (page.hasContent()) {
+            List<Long> ids = page.getContent().stream().map(Prescription::getMainId).toList();
+            prescriptionRepository.fetchDetailsByIds(ids);
+        }
+        return page;
+    }
+
+    /**
+     * 批量发药：校验单张处方并预占库存
+     *
+     * <p>校验通过时从 remainingStock 中扣除该处方所需数量；任一校验不通过则不预占任何库存</p>
+     *
+     * @return 拒绝原因，校验通过时返回 null
+     */
+    private String reserveStock(Prescription prescription, List<PrescriptionDetail> details, Long dispenseBy,
+                                LocalDateTime now, Map<Long, Medicine> medicines, Map<Long, Integer> remainingStock) {
+        if (!PrescriptionStatusEnum.PAID.getCode().equals(prescription.getStatus())) {
+            return "只有已缴费状态的处方才能发药，当前状态: " + prescription.getStatus();
+        }
+        if (prescription.getClaimedBy() != null
+                && !prescription.getClaimedBy().equals(dispenseBy)
+                && prescription.getClaimExpiresAt() != null
+                && prescription.getClaimExpiresAt().isAfter(now)) {
+            return "处方已被其他药师领取，领取到期时间: " + prescription.getClaimExpiresAt();
+        }
+        if (details == null || details.isEmpty()) {
+            return "处方明细为空，无法发药";
+        }
+
+        Map<Long, Integer> required = requiredQuantities(details);
+        for (Map.Entry<Long, Integer> entry : required.entrySet()) {
+            Medicine medicine = medicines.get(entry.getKey());
+            if (medicine == null) {
+                return "药品不存在，ID: " + entry.getKey();
+            }
+            int available = remainingStock.get(entry.getKey());
+            if (available < entry.getValue()) {
+                return "药品 [" + medicine.getName() + "] 库存不足，当前可用库存: "
+                        + available + ", 需求数量: " + entry.getValue();
+            }
+        }
+        required.forEach((medicineId, quantity) -> remainingStock.merge(medicineId, -quantity, Integer::sum));
+        return null;
+    }
+
+    /**
+     * 按药品汇总处方明细的需求数量
+     */
+    private static Map<Long, Integer> requiredQuantities(List<PrescriptionDetail> details) {
+        Map<Long, Integer> required = new LinkedHashMap<>();
+        for (PrescriptionDetail detail : details) {
+            required.merge(detail.getMedicine().getMainId(), detail.getQuantity(), Integer::sum);
+        }
+        return required;
+    }
+
     /**
      * 强制初始化 JPA 懒加载关联，避免 LazyInitializationException
      *
@@ -9,9 +9,12 @@ import java.util.Set;
 import org.springframework.stereotype.Service;
 
 import com.his.entity.Prescription;
+import com.his.enums.CachedRecordTypeEnum;
 import com.his.enums.PrescriptionStatusEnum;
 import com.his.repository.PrescriptionRepository;
 import com.his.service.PrescriptionStateMachine;
+import com.his.service.PrescriptionStatusHistoryService;
+import com.his.service.TerminalRecordCacheService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +30,7 @@ import lombok.extern.slf4j.Slf4j;
  *   <li><b>转换验证</b>：在转换前验证状态转换是否合法</li>
  *   <li><b>审计日志</b>：自动记录每次状态转换的详细信息</li>
  *   <li><b>原子性</b>：确保状态转换的原子性</li>
+ *   <li><b>缓存淘汰</b>：已发药处方退费时淘汰终态记录缓存</li>
  * </ul>
  *
  * <h3>状态转换规则</h3>
@@ -49,6 +53,8 @@ import lombok.extern.slf4j.Slf4j;
 public class PrescriptionStateMachineServiceImpl implements PrescriptionStateMachine {
 
     private final PrescriptionRepository prescriptionRepository;
+    private final PrescriptionStatusHistoryService statusHistoryService;
+    private final TerminalRecordCacheService terminalRecordCacheService;
 
     /**
      * 状态转换规则映射
@@ -125,7 +131,13 @@ public class PrescriptionStateMachineServiceImpl implements PrescriptionStateMac
         // 5. 保存更新后的处方
         Prescription savedPrescription = prescriptionRepository.save(prescription);
 
-        // 6. 记录审计日志
+        // 6. 记录审计日志（随当前事务提交前批量写入）
+        statusHistoryService.record(prescriptionId, fromStatus, toStatus, operatorId, operatorName, reason);
+
+        // 7. 已缓存的终态（已发药）发生转换时淘汰缓存
+        if (CachedRecordTypeEnum.PRESCRIPTION.isTerminal(fromStatus.getCode())) {
+            terminalRecordCacheService.evict(CachedRecordTypeEnum.PRESCRIPTION, prescriptionId);
+        }
         log.info("处方状态机转换成功，处方ID: {}, 原状态: {}, 新状态: {}",
                 prescriptionId, fromStatus.getDescription(), toStatus.getDescription());
 
@@ -0,0 +1,168 @@
+package com.his.service.impl;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.his.entity.PrescriptionStatusHistory;
+import com.his.enums.PrescriptionStatusEnum;
+import com.his.repository.PrescriptionStatusHistoryRepository;
+import com.his.service.PrescriptionStatusHistoryService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 处方状态转换历史服务实现类
+ *
+ * <p>采用事务内收集、提交前批量写入的方式记录处方状态转换</p>
+ *
+ * <h3>实现说明</h3>
+ * <ul>
+ *   <li><b>收集</b>：每个事务注册一个 {@link PendingHistory} 同步器，本事务内的所有转换记录追加到其中</li>
+ *   <li><b>写入</b>：{@code beforeCommit} 中以一次 {@link JdbcTemplate#batchUpdate} 写入全部记录；
+ *       JdbcTemplate 与 JPA 共用同一事务连接，写入失败时整个事务回滚，状态与历史始终一致</li>
+ *   <li><b>回滚</b>：事务回滚时不会写入任何记录</li>
+ *   <li><b>嵌套事务</b>：REQUIRES_NEW 事务拥有独立的同步器列表，历史记录随各自事务提交</li>
+ * </ul>
+ *
+ * <p>不使用 JPA 批量写入：主键为 IDENTITY 时 Hibernate 无法进行 JDBC 批处理</p>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PrescriptionStatusHistoryServiceImpl implements PrescriptionStatusHistoryService {
+
+    private static final String INSERT_SQL = "INSERT INTO his_prescription_status_history "
+            + "(prescription_main_id, from_status, to_status, operator_id, operator_name, operator_type, reason, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final Sort TIME_ORDER = Sort.by("createdAt", "mainId");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PrescriptionStatusHistoryRepository statusHistoryRepository;
+
+    @Override
+    public void record(Long prescriptionId, PrescriptionStatusEnum fromStatus, PrescriptionStatusEnum toStatus,
+                       Long operatorId, String operatorName, String reason) {
+        PrescriptionStatusHistory history = PrescriptionStatusHistory.builder()
+                .prescriptionMainId(prescriptionId)
+                .fromStatus(fromStatus.getCode())
+                .toStatus(toStatus.getCode())
+                .operatorId(operatorId)
+                .operatorName(operatorName)
+                .operatorType(operatorId == null ? "SYSTEM" : "USER")
+                .reason(reason)
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insertBatch(List.of(history));
+            return;
+        }
+        currentPending().entries.add(history);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PrescriptionStatusHistory> getByPrescriptionId(Long prescriptionId) {
+        if (prescriptionId == null || prescriptionId <= 0) {
+            return Collections.emptyList();
+        }
+        return statusHistoryRepository.findByPrescriptionMainIdOrderByCreatedAtAscMainIdAsc(prescriptionId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PrescriptionStatusHistory> search(LocalDateTime start, LocalDateTime end, Short toStatus,
+                                                  Pageable pageable) {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("开始时间和结束时间不能为空");
+        }
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("开始时间不能晚于结束时间");
+        }
+
+        Pageable ordered = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), TIME_ORDER);
+        if (toStatus != null) {
+            return statusHistoryRepository.findByToStatusAndCreatedAtBetween(toStatus, start, end, ordered);
+        }
+        return statusHistoryRepository.findByCreatedAtBetween(start, end, ordered);
+    }
+
+    /**
+     * 获取当前事务的待写入记录，首次调用时注册同步器
+     */
+    private PendingHistory currentPending() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingHistory pending && pending.owner == this) {
+                return pending;
+            }
+        }
+        PendingHistory pending = new PendingHistory(this);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    /**
+     * 一次批量插入写入全部记录
+     */
+    private void insertBatch(List<PrescriptionStatusHistory> histories) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, histories, histories.size(), this::bind);
+        log.debug("处方状态转换历史已写入，记录数: {}", histories.size());
+    }
+
+    private void bind(PreparedStatement ps, PrescriptionStatusHistory history) throws SQLException {
+        ps.setLong(1, history.getPrescriptionMainId());
+        ps.setShort(2, history.getFromStatus());
+        ps.setShort(3, history.getToStatus());
+        if (history.getOperatorId() != null) {
+            ps.setLong(4, history.getOperatorId());
+        } else {
+            ps.setNull(4, Types.BIGINT);
+        }
+        ps.setString(5, history.getOperatorName());
+        ps.setString(6, history.getOperatorType());
+        ps.setString(7, history.getReason());
+        ps.setTimestamp(8, Timestamp.valueOf(history.getCreatedAt()));
+    }
+
+    /**
+     * 单个事务内待写入的状态转换记录
+     */
+    private static final class PendingHistory implements TransactionSynchronization {
+
+        private final PrescriptionStatusHistoryServiceImpl owner;
+        private final List<PrescriptionStatusHistory> entries = new ArrayList<>();
+
+        private PendingHistory(PrescriptionStatusHistoryServiceImpl owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!entries.isEmpty()) {
+                owner.insertBatch(entries);
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.his.service.impl;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.his.enums.CachedRecordTypeEnum;
+import com.his.service.TerminalRecordCacheService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 终态记录缓存服务实现类
+ *
+ * <p>三种记录共用一个按访问顺序排列的 {@link LinkedHashMap}，超出容量时淘汰最久未访问的条目</p>
+ *
+ * <h3>实现说明</h3>
+ * <ul>
+ *   <li><b>并发</b>：读写都在同一把锁内完成（访问顺序的 LinkedHashMap 在读取时也会调整链表），
+ *       加载函数和大小估算在锁外执行</li>
+ *   <li><b>淘汰竞争</b>：每次淘汰递增淘汰序号；未命中时记下序号，加载完成后序号已变化则不放入缓存，
+ *       防止在状态转换提交前读到旧状态的请求把旧 VO 放回缓存</li>
+ *   <li><b>内存估算</b>：条目放入缓存时按 JSON 序列化长度估算占用，只在放入时计算一次</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TerminalRecordCacheServiceImpl implements TerminalRecordCacheService {
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<CachedRecordTypeEnum, Counters> counters = createCounters();
+
+    /**
+     * 记录类型 + ID → 缓存条目（按访问顺序排列，由 {@code entries} 自身加锁）
+     */
+    private final LinkedHashMap<Key, CacheEntry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, CacheEntry> eldest) {
+            if (size() <= maxEntries) {
+                return false;
+            }
+            onRemoved(eldest.getKey(), eldest.getValue());
+            counters.get(eldest.getKey().type()).evictions.increment();
+            return true;
+        }
+    };
+
+    /**
+     * 淘汰序号（由 {@code entries} 加锁保护）
+     */
+    private long invalidations;
+
+    @Value("${record-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${record-cache.max-age-ms:3600000}")
+    private long maxAgeMs;
+
+    @Override
+    public <V> V get(CachedRecordTypeEnum type, Long id, boolean bypass, Supplier<V> loader,
+                     Function<V, Short> statusOf) {
+        if (id == null || maxEntries <= 0) {
+            return loader.get();
+        }
+        Counters typeCounters = counters.get(type);
+        Key key = new Key(type, id);
+        long epoch;
+        if (bypass) {
+            typeCounters.bypasses.increment();
+            epoch = invalidate(key);
+            log.info("绕过终态记录缓存读取最新数据，类型: {}, ID: {}", type.getDescription(), id);
+        } else {
+            synchronized (entries) {
+                CacheEntry entry = entries.get(key);
+                if (entry != null && !entry.isExpired(System.currentTimeMillis(), maxAgeMs)) {
+                    typeCounters.hits.increment();
+                    @SuppressWarnings("unchecked")
+                    V value = (V) entry.value();
+                    return value;
+                }
+                if (entry != null) {
+                    entries.remove(key);
+                    onRemoved(key, entry);
+                    typeCounters.evictions.increment();
+                }
+                epoch = invalidations;
+            }
+            typeCounters.misses.increment();
+        }
+
+        V value = loader.get();
+        if (value != null && type.isTerminal(statusOf.apply(value))) {
+            admit(key, value, epoch);
+        }
+        return value;
+    }
+
+    @Override
+    public void evict(CachedRecordTypeEnum type, Long id) {
+        if (id == null) {
+            return;
+        }
+        Key key = new Key(type, id);
+        invalidate(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new InvalidateAfterCompletion(this, key));
+        }
+        log.debug("终态记录缓存已淘汰，类型: {}, ID: {}", type.getDescription(), id);
+    }
+
+    @Override
+    public Stats stats(CachedRecordTypeEnum type) {
+        Counters typeCounters = counters.get(type);
+        return new Stats(typeCounters.hits.sum(), typeCounters.misses.sum(), typeCounters.bypasses.sum(),
+                typeCounters.evictions.sum(), typeCounters.entries.get(), typeCounters.bytes.get());
+    }
+
+    /**
+     * 放入缓存；加载期间发生过淘汰时放弃
+     */
+    private void admit(Key key, Object value, long epoch) {
+        long bytes = estimateSize(value);
+        synchronized (entries) {
+            if (invalidations != epoch) {
+                log.debug("加载期间发生缓存淘汰，不放入缓存，类型: {}, ID: {}", key.type(), key.id());
+                return;
+            }
+            CacheEntry entry = new CacheEntry(value, bytes, System.currentTimeMillis());
+            Counters typeCounters = counters.get(key.type());
+            typeCounters.entries.incrementAndGet();
+            typeCounters.bytes.addAndGet(bytes);
+            CacheEntry previous = entries.put(key, entry);
+            if (previous != null) {
+                onRemoved(key, previous);
+            }
+        }
+    }
+
+    /**
+     * 移除条目并递增淘汰序号
+     *
+     * @return 递增后的淘汰序号
+     */
+    private long invalidate(Key key) {
+        synchronized (entries) {
+            CacheEntry entry = entries.remove(key);
+            if (entry != null) {
+                onRemoved(key, entry);
+            }
+            return ++invalidations;
+        }
+    }
+
+    private void onRemoved(Key key, CacheEntry entry) {
+        Counters typeCounters = counters.get(key.type());
+        typeCounters.entries.decrementAndGet();
+        typeCounters.bytes.addAndGet(-entry.bytes());
+    }
+
+    private long estimateSize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value).length;
+        } catch (JsonProcessingException e) {
+            log.debug("终态记录缓存条目大小估算失败: {}", e.getMessage());
+            return 0L;
+        }
+    }
+
+    private static Map<CachedRecordTypeEnum, Counters> createCounters() {
+        Map<CachedRecordTypeEnum, Counters> map = new EnumMap<>(CachedRecordTypeEnum.class);
+        for (CachedRecordTypeEnum type : CachedRecordTypeEnum.values()) {
+            map.put(type, new Counters());
+        }
+        return map;
+    }
+
+    /**
+     * 缓存键
+     */
+    private record Key(CachedRecordTypeEnum type, Long id) {
+    }
+
+    /**
+     * 缓存条目
+     *
+     * @param value    记录 VO
+     * @param bytes    估算占用字节数
+     * @param loadedAt 加载时间（毫秒）
+     */
+    private record CacheEntry(Object value, long bytes, long loadedAt) {
+
+        boolean isExpired(long now, long maxAgeMs) {
+            return maxAgeMs > 0 && now - loadedAt > maxAgeMs;
+        }
+    }
+
+    /**
+     * 单个记录类型的统计计数
+     */
+    private static final class Counters {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder bypasses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+        private final AtomicLong entries = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+    }
+
+    /**
+     * 事务结束后再次淘汰，覆盖事务提交前读到旧状态的并发请求
+     */
+    private static final class InvalidateAfterCompletion implements TransactionSynchronization {
+
+        private final TerminalRecordCacheServiceImpl owner;
+        private final Key key;
+
+        private InvalidateAfterCompletion(TerminalRecordCacheServiceImpl owner, Key key) {
+            this.owner = owner;
+            this.key = key;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            owner.invalidate(key);
+        }
+    }
+}
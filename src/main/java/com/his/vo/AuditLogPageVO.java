@@ -0,0 +1,39 @@
+package com.his.vo;
+
+import java.util.List;
+
+import com.his.entity.AuditLogEntity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 审计日志分页视图对象
+ *
+ * <p>按 (创建时间, ID) 倒序的一页审计日志；取下一页时将 nextCursor 作为 cursor 参数传回，nextCursor 为空表示没有更多记录</p>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.AuditLogQueryService
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "审计日志分页")
+public class AuditLogPageVO {
+
+    @Schema(description = "本页审计日志（按创建时间倒序）")
+    private List<AuditLogEntity> items;
+
+    @Schema(description = "下一页游标，为空表示没有更多记录", example = "MjAyNi0xMC0xOFQxMDowMDowMHwxMjM0NQ")
+    private String nextCursor;
+
+    @Schema(description = "符合条件的记录数估算值（来自数据库统计信息，仅首页返回；只有一页时为精确值）", example = "125000")
+    private Long estimatedTotal;
+}
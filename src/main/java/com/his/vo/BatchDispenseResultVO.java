@@ -0,0 +1,71 @@
+package com.his.vo;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量发药结果视图对象
+ *
+ * <p>返回批量发药中每张处方的处理结果</p>
+ *
+ * <h3>特殊说明</h3>
+ * <ul>
+ *   <li><b>部分成功</b>：校验不通过（状态不符、被其他药师领取、库存不足、状态转换被拒绝等）的处方单独标记失败，
+ *       不影响其他处方</li>
+ *   <li><b>同一事务</b>：发药成功的处方在同一事务中一起扣减库存并更新为已发药；只有数据库异常会使整批回滚</li>
+ *   <li><b>results</b>：顺序与请求中的处方ID顺序一致（已去重）</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.dto.BatchDispenseDTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "批量发药结果")
+public class BatchDispenseResultVO {
+
+    @Schema(description = "处方总数（去重后）", example = "3")
+    private Integer total;
+
+    @Schema(description = "发药成功数量", example = "2")
+    private Integer successCount;
+
+    @Schema(description = "发药失败数量", example = "1")
+    private Integer failureCount;
+
+    @Schema(description = "每张处方的处理结果")
+    private List<Item> results;
+
+    /**
+     * 单张处方的发药结果
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "单张处方发药结果")
+    public static class Item {
+
+        @Schema(description = "处方ID", example = "1")
+        private Long prescriptionId;
+
+        @Schema(description = "处方号", example = "PRE20260101000001")
+        private String prescriptionNo;
+
+        @Schema(description = "是否发药成功", example = "true")
+        private Boolean success;
+
+        @Schema(description = "结果说明（失败原因）", example = "发药成功")
+        private String message;
+    }
+}
@@ -0,0 +1,46 @@
+package com.his.vo;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 医生工作站首屏数据视图对象
+ *
+ * <p>医生打开患者时一次返回首屏所需的全部数据，内容与以下接口分别返回的数据一致：</p>
+ * <ul>
+ *   <li><b>patient</b>：GET /api/doctor/patients/{id}</li>
+ *   <li><b>medicalRecord</b>：GET /api/doctor/medical-records/by-registration/{registrationId}，尚未创建病历时为空</li>
+ *   <li><b>prescriptions</b>：GET /api/common/prescriptions/by-record/{recordId}，尚未创建病历时为空列表</li>
+ *   <li><b>waitingList</b>：GET /api/doctor/waiting-list，管理员未指定医生时为空</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.DoctorWorkstationService
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "医生工作站首屏数据")
+public class DoctorWorkstationVO {
+
+    @Schema(description = "患者详细信息（已脱敏）")
+    private PatientDetailVO patient;
+
+    @Schema(description = "本次挂号的病历，尚未创建时为空")
+    private MedicalRecordVO medicalRecord;
+
+    @Schema(description = "病历下的处方列表")
+    private List<PrescriptionVO> prescriptions;
+
+    @Schema(description = "今日候诊列表")
+    private List<RegistrationVO> waitingList;
+}
@@ -0,0 +1,63 @@
+package com.his.vo;
+
+import com.his.enums.ConflictTypeEnum;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 用药冲突警示视图对象
+ *
+ * <p>开方与药师审核时返回的用药冲突提示，仅作警示，不阻止开方</p>
+ *
+ * <h3>字段说明</h3>
+ * <ul>
+ *   <li><b>INTERACTION</b>：conflictMedicineId/conflictMedicineName 为相互作用的另一药品；
+ *       conflictPrescriptionNo 为空表示同一处方内的药品，否则为患者在用处方的处方号</li>
+ *   <li><b>ALLERGY</b>：allergenClass 为与患者过敏史匹配的过敏原分类</li>
+ *   <li><b>severity</b>：1=轻度, 2=中度, 3=重度（过敏冲突固定为重度）</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.DrugConflictService
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "用药冲突警示")
+public class DrugConflictWarningVO {
+
+    @Schema(description = "冲突类型", example = "INTERACTION")
+    private ConflictTypeEnum type;
+
+    @Schema(description = "严重程度（1=轻度, 2=中度, 3=重度）", example = "2")
+    private Short severity;
+
+    @Schema(description = "药品ID", example = "3")
+    private Long medicineId;
+
+    @Schema(description = "药品名称", example = "阿司匹林肠溶片")
+    private String medicineName;
+
+    @Schema(description = "相互作用的另一药品ID", example = "2")
+    private Long conflictMedicineId;
+
+    @Schema(description = "相互作用的另一药品名称", example = "布洛芬缓释胶囊")
+    private String conflictMedicineName;
+
+    @Schema(description = "另一药品所在的在用处方号（同一处方内为空）", example = "PRE20260101000001")
+    private String conflictPrescriptionNo;
+
+    @Schema(description = "匹配的过敏原分类", example = "青霉素类")
+    private String allergenClass;
+
+    @Schema(description = "冲突说明", example = "布洛芬可降低阿司匹林的抗血小板作用，合用增加胃肠道出血风险")
+    private String message;
+}
@@ -0,0 +1,58 @@
+package com.his.vo;
+
+import java.time.LocalDateTime;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 低库存药品视图对象
+ *
+ * <p>描述当前处于低库存状态（库存 &lt;= 最低库存）的药品，用于药师工作站的库存预警</p>
+ *
+ * <h3>数据来源</h3>
+ * <ul>
+ *   <li><b>库存变更</b>：发药、退药、手动调整库存跨越阈值时写入</li>
+ *   <li><b>定时对账</b>：定期与数据库对账，修正内存中的低库存集合</li>
+ * </ul>
+ *
+ * <h3>特殊说明</h3>
+ * <ul>
+ *   <li><b>stockQuantity</b>：进入低库存时（或最近一次对账时）的库存数量</li>
+ *   <li><b>since</b>：药品进入低库存状态的时间</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.LowStockAlertService
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "低库存药品")
+public class LowStockMedicineVO {
+
+    @Schema(description = "药品ID", example = "1")
+    private Long medicineId;
+
+    @Schema(description = "药品编码", example = "MED001")
+    private String medicineCode;
+
+    @Schema(description = "药品名称", example = "阿莫西林胶囊")
+    private String name;
+
+    @Schema(description = "当前库存数量", example = "8")
+    private Integer stockQuantity;
+
+    @Schema(description = "最低库存阈值", example = "10")
+    private Integer minStock;
+
+    @Schema(description = "进入低库存状态的时间", example = "2026-01-01 10:00:00")
+    private LocalDateTime since;
+}
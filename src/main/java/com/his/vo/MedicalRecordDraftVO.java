@@ -0,0 +1,40 @@
+package com.his.vo;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import com.his.enums.MedicalRecordFieldEnum;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 病历草稿自动保存结果视图对象
+ *
+ * <p>草稿补丁已被接收并与同一病历的其他未落库补丁合并，将在 flushBefore 之前写入数据库</p>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.MedicalRecordDraftService
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "病历草稿自动保存结果")
+public class MedicalRecordDraftVO {
+
+    @Schema(description = "病历ID", example = "1")
+    private Long recordId;
+
+    @Schema(description = "尚未写入数据库的字段", example = "[\"CHIEF_COMPLAINT\", \"DIAGNOSIS\"]")
+    private Set<MedicalRecordFieldEnum> pendingFields;
+
+    @Schema(description = "最晚写入时间", example = "2025-12-20T10:00:10")
+    private LocalDateTime flushBefore;
+}
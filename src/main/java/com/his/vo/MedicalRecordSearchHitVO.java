@@ -0,0 +1,64 @@
+package com.his.vo;
+
+import java.time.LocalDateTime;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 病历检索结果视图对象
+ *
+ * <p>病历全文检索的单条命中结果，只包含列表展示所需的摘要字段，查看详情请调用病历详情接口</p>
+ *
+ * <h3>排序</h3>
+ * <p>按相关度 score 从高到低排序，相关度相同时较新的病历在前</p>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.MedicalRecordSearchService
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "病历检索结果")
+public class MedicalRecordSearchHitVO {
+
+    @Schema(description = "病历ID", example = "1")
+    private Long recordId;
+
+    @Schema(description = "病历编号", example = "MR20251220100000123")
+    private String recordNo;
+
+    @Schema(description = "患者姓名", example = "张三")
+    private String patientName;
+
+    @Schema(description = "医生ID", example = "1")
+    private Long doctorId;
+
+    @Schema(description = "医生姓名", example = "李医生")
+    private String doctorName;
+
+    @Schema(description = "病历状态（0=草稿, 1=已提交, 2=已审核）", example = "1")
+    private Short status;
+
+    @Schema(description = "就诊时间", example = "2025-12-20T10:00:00")
+    private LocalDateTime visitTime;
+
+    @Schema(description = "主诉", example = "头痛发热3天")
+    private String chiefComplaint;
+
+    @Schema(description = "诊断", example = "上呼吸道感染")
+    private String diagnosis;
+
+    @Schema(description = "诊断编码", example = "J06.901")
+    private String diagnosisCode;
+
+    @Schema(description = "相关度（越大越相关）", example = "0.35")
+    private Double score;
+}
@@ -353,6 +353,14 @@ public class MedicalRecordVO {
             allowableValues = {"0", "1", "2"})
     private Short status;
 
+    /**
+     * 版本号
+     *
+     * <p>乐观锁版本号，完整保存和草稿自动保存时原样回传，病历已被他人修改时保存被拒绝</p>
+     */
+    @Schema(description = "版本号（保存时回传，用于乐观锁校验）", example = "3")
+    private Integer version;
+
     /**
      * 就诊时间
      *
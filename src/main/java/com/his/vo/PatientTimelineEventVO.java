@@ -0,0 +1,63 @@
+package com.his.vo;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.his.enums.TimelineEventTypeEnum;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 患者时间线事件视图对象
+ *
+ * <p>时间线中的一条事件，只包含列表展示所需的摘要字段，查看详情请按 type 与 id 调用对应的详情接口</p>
+ *
+ * <h3>字段说明</h3>
+ * <ul>
+ *   <li><b>number</b>：挂号单号 / 病历号 / 处方号 / 收费单号</li>
+ *   <li><b>status</b>：对应业务表的状态码</li>
+ *   <li><b>summary</b>：挂号为科室名称，病历为诊断（无诊断时为主诉），处方为药品种数，收费为收费类型</li>
+ *   <li><b>amount</b>：挂号费 / 处方金额 / 实收金额，病历为空</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.PatientTimelineService
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "患者时间线事件")
+public class PatientTimelineEventVO {
+
+    @Schema(description = "事件类型", example = "PRESCRIPTION")
+    private TimelineEventTypeEnum type;
+
+    @Schema(description = "业务记录ID", example = "1")
+    private Long id;
+
+    @Schema(description = "业务单号", example = "PRE20251220100000123")
+    private String number;
+
+    @Schema(description = "发生时间", example = "2025-12-20T10:00:00")
+    private LocalDateTime eventTime;
+
+    @Schema(description = "状态码", example = "5")
+    private Short status;
+
+    @Schema(description = "摘要", example = "3种药品")
+    private String summary;
+
+    @Schema(description = "医生姓名", example = "李医生")
+    private String doctorName;
+
+    @Schema(description = "金额", example = "58.50")
+    private BigDecimal amount;
+}
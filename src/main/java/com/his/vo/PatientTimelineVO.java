@@ -0,0 +1,37 @@
+package com.his.vo;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 患者时间线视图对象
+ *
+ * <p>按时间倒序的一页事件；取下一页时将 nextCursor 作为 cursor 参数传回，nextCursor 为空表示没有更多事件</p>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.PatientTimelineService
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "患者时间线")
+public class PatientTimelineVO {
+
+    @Schema(description = "患者ID", example = "1")
+    private Long patientId;
+
+    @Schema(description = "本页事件（按时间倒序）")
+    private List<PatientTimelineEventVO> events;
+
+    @Schema(description = "下一页游标，为空表示没有更多事件", example = "MjAyNS0xMi0yMFQxMDowMDowMHwyfDE")
+    private String nextCursor;
+}
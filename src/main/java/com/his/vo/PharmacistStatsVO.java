@@ -0,0 +1,87 @@
+package com.his.vo;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.his.enums.StatsGranularityEnum;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 药师工作量统计视图对象
+ *
+ * <p>返回药师在指定时间范围内的工作量合计以及按粒度（小时/天/周）划分的时间序列</p>
+ *
+ * <h3>特殊说明</h3>
+ * <ul>
+ *   <li><b>时间范围</b>：左闭右开 [startTime, endTime)，开始时间截断到整点</li>
+ *   <li><b>发药统计</b>：按发药时间归入发药药师，退药后不从发药统计中扣除</li>
+ *   <li><b>退药统计</b>：按退药时间归入原发药药师</li>
+ *   <li><b>buckets</b>：按时间先后排序，仅包含有数据的时间段</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.service.PharmacistStatsService
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "药师工作量统计")
+public class PharmacistStatsVO {
+
+    @Schema(description = "药师ID", example = "1")
+    private Long pharmacistId;
+
+    @Schema(description = "统计粒度", example = "DAY")
+    private StatsGranularityEnum granularity;
+
+    @Schema(description = "开始时间（包含）", example = "2026-01-01 00:00:00")
+    private LocalDateTime startTime;
+
+    @Schema(description = "结束时间（不包含）", example = "2026-01-08 00:00:00")
+    private LocalDateTime endTime;
+
+    @Schema(description = "合计")
+    private Bucket total;
+
+    @Schema(description = "按粒度划分的统计序列")
+    private List<Bucket> buckets;
+
+    /**
+     * 单个时间段的统计数据
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "时间段统计")
+    public static class Bucket {
+
+        @Schema(description = "时间段开始时间（合计中为空）", example = "2026-01-01 00:00:00")
+        private LocalDateTime bucketStart;
+
+        @Schema(description = "发药单数", example = "42")
+        private Long dispensedCount;
+
+        @Schema(description = "发药金额", example = "3560.50")
+        private BigDecimal dispensedAmount;
+
+        @Schema(description = "发药药品数", example = "118")
+        private Long dispensedItems;
+
+        @Schema(description = "退药单数", example = "1")
+        private Long returnedCount;
+
+        @Schema(description = "退药金额", example = "45.00")
+        private BigDecimal returnedAmount;
+    }
+}
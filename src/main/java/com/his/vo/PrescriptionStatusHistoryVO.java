@@ -0,0 +1,66 @@
+package com.his.vo;
+
+import java.time.LocalDateTime;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 处方状态转换历史视图对象
+ *
+ * <p>描述处方的一次状态转换，用于药房纠纷追溯与审计查询</p>
+ *
+ * <h3>状态码说明</h3>
+ * <ul>
+ *   <li>0=草稿, 1=已开方, 2=已审核, 5=已缴费, 3=已发药, 4=已退费</li>
+ * </ul>
+ *
+ * @author HIS 开发团队
+ * @version 1.0
+ * @since 1.0
+ * @see com.his.entity.PrescriptionStatusHistory
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "处方状态转换历史")
+public class PrescriptionStatusHistoryVO {
+
+    @Schema(description = "记录ID", example = "1")
+    private Long id;
+
+    @Schema(description = "处方ID", example = "1")
+    private Long prescriptionId;
+
+    @Schema(description = "源状态码", example = "5")
+    private Short fromStatus;
+
+    @Schema(description = "源状态描述", example = "已缴费")
+    private String fromStatusDescription;
+
+    @Schema(description = "目标状态码", example = "3")
+    private Short toStatus;
+
+    @Schema(description = "目标状态描述", example = "已发药")
+    private String toStatusDescription;
+
+    @Schema(description = "操作人ID", example = "3")
+    private Long operatorId;
+
+    @Schema(description = "操作人姓名", example = "王药师")
+    private String operatorName;
+
+    @Schema(description = "操作类型（SYSTEM=系统自动, USER=用户手动）", example = "USER")
+    private String operatorType;
+
+    @Schema(description = "状态转换原因", example = "药师发药")
+    private String reason;
+
+    @Schema(description = "转换时间", example = "2026-01-01T10:00:00")
+    private LocalDateTime createdAt;
+}
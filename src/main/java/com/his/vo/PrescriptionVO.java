@@ -337,6 +337,37 @@ public class PrescriptionVO {
     @Schema(description = "发药人ID", example = "3")
     private Long dispenseBy;
 
+    /**
+     * 领取药师ID
+     *
+     * <p>在待发药队列中领取该处方的药师ID</p>
+     *
+     * <p><b>数据格式：</b></p>
+     * <ul>
+     *   <li>类型：Long</li>
+     *   <li>必填：否（未被领取时为null）</li>
+     *   <li>示例：3</li>
+     * </ul>
+     */
+    @Schema(description = "领取药师ID", example = "3")
+    private Long claimedBy;
+
+    /**
+     * 领取租约到期时间
+     *
+     * <p>到期仍未发药的处方自动回到待发药队列</p>
+     *
+     * <p><b>数据格式：</b></p>
+     * <ul>
+     *   <li>类型：LocalDateTime</li>
+     *   <li>格式：yyyy-MM-ddTHH:mm:ss</li>
+     *   <li>示例："2025-12-20T16:35:00"</li>
+     *   <li>可以为空</li>
+     * </ul>
+     */
+    @Schema(description = "领取租约到期时间", example = "2025-12-20T16:35:00")
+    private LocalDateTime claimExpiresAt;
+
     /**
      * 创建时间
      *
@@ -381,6 +412,20 @@ public class PrescriptionVO {
     @Schema(description = "处方明细列表")
     private List<PrescriptionDetailVO> details;
 
+    /**
+     * 用药冲突警示
+     *
+     * <p>药物相互作用与过敏冲突提示，仅在开方响应和药师待审核队列中返回</p>
+     *
+     * <p><b>数据格式：</b></p>
+     * <ul>
+     *   <li>类型：List&lt;DrugConflictWarningVO&gt;</li>
+     *   <li>按严重程度从高到低排序，无冲突时为空</li>
+     * </ul>
+     */
+    @Schema(description = "用药冲突警示（按严重程度从高到低排序）")
+    private List<DrugConflictWarningVO> conflictWarnings;
+
     /**
      * 处方明细视图对象
      *
@@ -0,0 +1,41 @@
+-- ================================================================================
+-- Prescription Work Queue Index
+-- ================================================================================
+-- Flyway Version: V10
+-- Description: 为药师工作队列（待审核/待发药）添加 (status, created_at) 复合索引
+-- Author: HIS Development Team
+-- Date: 2026-10-18
+-- ================================================================================
+--
+-- 药师工作站的待审核（status=1）和待发药（status=5）队列按开方时间先后分页：
+--
+--   SELECT ... FROM his_prescription
+--   WHERE status = ? AND is_deleted = 0
+--   ORDER BY created_at, main_id
+--   LIMIT ? OFFSET ?
+--
+-- 复合索引使等值过滤与排序都由索引完成，避免对整张处方表排序。
+-- 原有的单列索引 idx_his_prescription_status 被新索引完全覆盖，一并删除以减少写入开销。
+--
+-- ================================================================================
+
+CREATE INDEX IF NOT EXISTS idx_his_prescription_status_created
+ON his_prescription (status, created_at, main_id)
+WHERE is_deleted = 0;
+
+COMMENT ON INDEX idx_his_prescription_status_created IS '复合索引：状态+开方时间，优化药师工作队列分页查询（仅索引未删除记录）';
+
+DROP INDEX IF EXISTS idx_his_prescription_status;
+
+-- ============================================
+-- 验证索引是否生效（可在 psql 中执行）
+-- ============================================
+
+-- EXPLAIN ANALYZE
+-- SELECT * FROM his_prescription
+-- WHERE status = 5 AND is_deleted = 0
+-- ORDER BY created_at, main_id
+-- LIMIT 20;
+
+-- 预期输出应包含：
+-- - Index Scan using idx_his_prescription_status_created
@@ -0,0 +1,29 @@
+-- ================================================================================
+-- Prescription Dispense Claim Lease
+-- ================================================================================
+-- Flyway Version: V11
+-- Description: 为待发药队列添加"领取 + 租约"字段，支持多名药师并发领取互不重复的处方
+-- Author: HIS Development Team
+-- Date: 2026-10-18
+-- ================================================================================
+--
+-- 药师通过 POST /api/pharmacist/prescriptions/claim 领取待发药处方：
+--
+--   SELECT main_id FROM his_prescription
+--   WHERE status = 5 AND is_deleted = 0
+--     AND (claimed_by IS NULL OR claimed_by = ? OR claim_expires_at < ?)
+--   ORDER BY created_at, main_id
+--   LIMIT ?
+--   FOR UPDATE SKIP LOCKED
+--
+-- SKIP LOCKED 使并发领取的药师跳过彼此正在锁定的行，各自拿到不同的处方；
+-- 领取后写入 claimed_by / claim_expires_at，租约到期未发药的处方自动可被重新领取。
+-- 扫描沿用 V10 的 idx_his_prescription_status_created 索引，无需新增索引。
+--
+-- ================================================================================
+
+ALTER TABLE his_prescription ADD COLUMN IF NOT EXISTS claimed_by BIGINT DEFAULT NULL;
+ALTER TABLE his_prescription ADD COLUMN IF NOT EXISTS claim_expires_at TIMESTAMP DEFAULT NULL;
+
+COMMENT ON COLUMN his_prescription.claimed_by IS '领取药师ID（发药队列领取，为空表示未被领取）';
+COMMENT ON COLUMN his_prescription.claim_expires_at IS '领取租约到期时间（到期后处方自动回到待发药队列）';
@@ -0,0 +1,59 @@
+-- ================================================================================
+-- HIS System - 处方状态转换审计表
+-- ================================================================================
+-- Flyway Version: V12
+-- Description: 创建处方状态转换历史审计表，记录处方状态机的每一次状态变更
+-- Author: HIS Development Team
+-- Date: 2026-10-18
+-- ================================================================================
+--
+-- 写入方式：PrescriptionStatusHistoryServiceImpl 在事务内收集本事务的所有状态转换，
+-- 于事务提交前以一次 JDBC 批量插入写入（与处方状态更新同事务提交或回滚）。
+-- 该表只追加、不更新，因此不设置 updated_at 字段与触发器。
+--
+-- ================================================================================
+
+-- ============================================
+-- 处方状态转换历史表 (his_prescription_status_history)
+-- ============================================
+CREATE TABLE his_prescription_status_history (
+    main_id                 BIGINT          GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    prescription_main_id    BIGINT          NOT NULL,
+    from_status             SMALLINT        NOT NULL,
+    to_status               SMALLINT        NOT NULL,
+    operator_id             BIGINT          DEFAULT NULL,
+    operator_name           VARCHAR(50)     DEFAULT NULL,
+    operator_type           VARCHAR(20)     DEFAULT NULL, -- 'SYSTEM', 'USER'
+    reason                  VARCHAR(500)    DEFAULT NULL,
+    created_at              TIMESTAMP       NOT NULL DEFAULT now(),
+
+    CONSTRAINT fk_prescription_status_history_prescription FOREIGN KEY (prescription_main_id)
+        REFERENCES his_prescription(main_id) ON DELETE CASCADE
+);
+
+COMMENT ON TABLE his_prescription_status_history IS '处方状态转换历史审计表（状态码：0=草稿, 1=已开方, 2=已审核, 5=已缴费, 3=已发药, 4=已退费）';
+COMMENT ON COLUMN his_prescription_status_history.main_id IS '主键ID';
+COMMENT ON COLUMN his_prescription_status_history.prescription_main_id IS '处方ID';
+COMMENT ON COLUMN his_prescription_status_history.from_status IS '源状态码';
+COMMENT ON COLUMN his_prescription_status_history.to_status IS '目标状态码';
+COMMENT ON COLUMN his_prescription_status_history.operator_id IS '操作人ID';
+COMMENT ON COLUMN his_prescription_status_history.operator_name IS '操作人姓名';
+COMMENT ON COLUMN his_prescription_status_history.operator_type IS '操作类型（SYSTEM=系统自动, USER=用户手动）';
+COMMENT ON COLUMN his_prescription_status_history.reason IS '状态转换原因';
+COMMENT ON COLUMN his_prescription_status_history.created_at IS '转换时间';
+
+-- ============================================
+-- 索引
+-- ============================================
+
+-- 按处方查询完整流转历史（纠纷追溯）：WHERE prescription_main_id = ? ORDER BY created_at
+CREATE INDEX idx_prescription_status_history_prescription
+    ON his_prescription_status_history (prescription_main_id, created_at);
+
+-- 按时间范围查询：WHERE created_at BETWEEN ? AND ? ORDER BY created_at
+CREATE INDEX idx_prescription_status_history_created_at
+    ON his_prescription_status_history (created_at);
+
+-- 按目标状态 + 时间范围查询（如某时段内的全部发药、退药）：WHERE to_status = ? AND created_at BETWEEN ? AND ?
+CREATE INDEX idx_prescription_status_history_to_status_created
+    ON his_prescription_status_history (to_status, created_at);
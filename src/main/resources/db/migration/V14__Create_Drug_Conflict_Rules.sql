@@ -0,0 +1,119 @@
+-- ================================================================================
+-- HIS System - 药物相互作用与过敏冲突规则表
+-- ================================================================================
+-- Flyway Version: V14
+-- Description: 创建药物相互作用规则、过敏原分类及药品过敏原映射表，供开方冲突检查使用
+-- Author: HIS Development Team
+-- Date: 2026-10-18
+-- ================================================================================
+--
+-- DrugConflictServiceImpl 将三张表整体加载为内存位图索引（药品 → 相互作用药品位图、过敏原分类位图），
+-- 开方与药师审核时检查处方内药品之间、处方与患者在用处方之间的相互作用，以及与患者过敏史的冲突。
+--
+-- 规则变更后无需重启：后台定期比对三张表的行数与最后修改时间（updated_at 由触发器维护），
+-- 发生变化时重新加载；也可调用 POST /api/pharmacist/medicines/conflict-rules/reload 立即重新加载。
+--
+-- ================================================================================
+
+-- ============================================
+-- 过敏原分类表 (his_allergen_class)
+-- ============================================
+CREATE TABLE his_allergen_class (
+    main_id             BIGINT          GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    class_code          VARCHAR(50)     NOT NULL UNIQUE,
+    name                VARCHAR(100)    NOT NULL,
+    keywords            VARCHAR(500)    NOT NULL,
+    is_deleted          SMALLINT        NOT NULL DEFAULT 0,
+    created_at          TIMESTAMP       NOT NULL DEFAULT now(),
+    updated_at          TIMESTAMP       NOT NULL DEFAULT now()
+);
+
+CREATE TRIGGER t_his_allergen_class_updated_at
+    BEFORE UPDATE ON his_allergen_class
+    FOR EACH ROW
+    EXECUTE FUNCTION p_set_updated_at();
+
+COMMENT ON TABLE his_allergen_class IS '过敏原分类表';
+COMMENT ON COLUMN his_allergen_class.class_code IS '分类编码';
+COMMENT ON COLUMN his_allergen_class.name IS '分类名称';
+COMMENT ON COLUMN his_allergen_class.keywords IS '匹配患者过敏史的关键词（英文逗号分隔，不区分大小写）';
+COMMENT ON COLUMN his_allergen_class.is_deleted IS '删除标记（0=正常, 1=已删除）';
+
+-- ============================================
+-- 药品过敏原映射表 (his_medicine_allergen)
+-- ============================================
+CREATE TABLE his_medicine_allergen (
+    medicine_id         BIGINT          NOT NULL,
+    allergen_class_id   BIGINT          NOT NULL,
+    created_at          TIMESTAMP       NOT NULL DEFAULT now(),
+
+    CONSTRAINT pk_medicine_allergen PRIMARY KEY (medicine_id, allergen_class_id),
+    CONSTRAINT fk_medicine_allergen_medicine FOREIGN KEY (medicine_id)
+        REFERENCES his_medicine(main_id) ON DELETE CASCADE,
+    CONSTRAINT fk_medicine_allergen_class FOREIGN KEY (allergen_class_id)
+        REFERENCES his_allergen_class(main_id) ON DELETE CASCADE
+);
+
+COMMENT ON TABLE his_medicine_allergen IS '药品过敏原映射表（药品所属的过敏原分类）';
+
+-- ============================================
+-- 药物相互作用规则表 (his_drug_interaction)
+-- ============================================
+CREATE TABLE his_drug_interaction (
+    main_id             BIGINT          GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    medicine_a_id       BIGINT          NOT NULL,
+    medicine_b_id       BIGINT          NOT NULL,
+    severity            SMALLINT        NOT NULL,
+    description         VARCHAR(500)    NOT NULL,
+    is_deleted          SMALLINT        NOT NULL DEFAULT 0,
+    created_at          TIMESTAMP       NOT NULL DEFAULT now(),
+    updated_at          TIMESTAMP       NOT NULL DEFAULT now(),
+
+    CONSTRAINT uk_drug_interaction_pair UNIQUE (medicine_a_id, medicine_b_id),
+    CONSTRAINT chk_drug_interaction_order CHECK (medicine_a_id < medicine_b_id),
+    CONSTRAINT chk_drug_interaction_severity CHECK (severity BETWEEN 1 AND 3),
+    CONSTRAINT fk_drug_interaction_medicine_a FOREIGN KEY (medicine_a_id)
+        REFERENCES his_medicine(main_id) ON DELETE CASCADE,
+    CONSTRAINT fk_drug_interaction_medicine_b FOREIGN KEY (medicine_b_id)
+        REFERENCES his_medicine(main_id) ON DELETE CASCADE
+);
+
+CREATE TRIGGER t_his_drug_interaction_updated_at
+    BEFORE UPDATE ON his_drug_interaction
+    FOR EACH ROW
+    EXECUTE FUNCTION p_set_updated_at();
+
+COMMENT ON TABLE his_drug_interaction IS '药物相互作用规则表（每对药品一行，medicine_a_id < medicine_b_id）';
+COMMENT ON COLUMN his_drug_interaction.severity IS '严重程度（1=轻度, 2=中度, 3=重度/禁止合用）';
+COMMENT ON COLUMN his_drug_interaction.description IS '相互作用说明';
+COMMENT ON COLUMN his_drug_interaction.is_deleted IS '删除标记（0=正常, 1=已删除）';
+
+-- ============================================
+-- 初始规则（按通用名匹配，药品不存在时不插入）
+-- ============================================
+
+INSERT INTO his_allergen_class (class_code, name, keywords) VALUES
+    ('PENICILLIN', '青霉素类', '青霉素,阿莫西林,氨苄西林,penicillin'),
+    ('CEPHALOSPORIN', '头孢菌素类', '头孢,cephalosporin'),
+    ('QUINOLONE', '喹诺酮类', '喹诺酮,沙星,quinolone'),
+    ('NSAID', '非甾体抗炎药', '阿司匹林,布洛芬,非甾体,aspirin,nsaid');
+
+INSERT INTO his_medicine_allergen (medicine_id, allergen_class_id)
+SELECT m.main_id, c.main_id
+FROM his_medicine m
+JOIN his_allergen_class c ON
+    (c.class_code = 'PENICILLIN' AND m.generic_name IN ('阿莫西林', '氨苄西林', '青霉素'))
+    OR (c.class_code = 'CEPHALOSPORIN' AND m.generic_name LIKE '头孢%')
+    OR (c.class_code = 'QUINOLONE' AND m.generic_name LIKE '%沙星')
+    OR (c.class_code = 'NSAID' AND m.generic_name IN ('阿司匹林', '布洛芬'))
+WHERE m.is_deleted = 0;
+
+INSERT INTO his_drug_interaction (medicine_a_id, medicine_b_id, severity, description)
+SELECT LEAST(a.main_id, b.main_id), GREATEST(a.main_id, b.main_id), r.severity, r.description
+FROM (VALUES
+        ('阿司匹林', '布洛芬', 2, '布洛芬可降低阿司匹林的抗血小板作用，合用增加胃肠道出血风险'),
+        ('对乙酰氨基酚', '复方氨酚烷胺', 3, '复方氨酚烷胺含对乙酰氨基酚，重复用药可致过量与肝损伤')
+     ) AS r(name_a, name_b, severity, description)
+JOIN his_medicine a ON a.generic_name = r.name_a AND a.is_deleted = 0
+JOIN his_medicine b ON b.generic_name = r.name_b AND b.is_deleted = 0
+ON CONFLICT (medicine_a_id, medicine_b_id) DO NOTHING;
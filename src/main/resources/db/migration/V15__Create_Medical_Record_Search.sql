@@ -0,0 +1,41 @@
+-- ================================================================================
+-- HIS System - 病历全文检索索引表
+-- ================================================================================
+-- Flyway Version: V15
+-- Description: 创建病历全文检索倒排索引表（tsvector + GIN），支持按主诉、诊断、诊断编码、治疗方案检索相似病例
+-- Author: HIS Development Team
+-- Date: 2026-10-18
+-- ================================================================================
+--
+-- PostgreSQL 内置的文本检索配置不支持中文分词，服务器上也无法假定安装了 zhparser / pg_jieba 扩展，
+-- 因此分词在应用内完成（MedicalRecordTokenizer）：
+--
+--   - 中文：单字 + 相邻二元组（"头痛发热" → 头 头痛 痛 痛发 发 发热 热）
+--   - 字母/数字：整词小写（"CT" → ct）
+--   - 诊断编码：完整编码 + 小数点前的类目（"J06.901" → j06.901 j06）
+--
+-- 应用直接生成带位置和权重的 tsvector 文本写入本表，数据库只负责 GIN 倒排索引与 ts_rank_cd 排序。
+-- 权重：诊断编码/诊断 = A，主诉 = B，治疗方案 = C。
+--
+-- 增量更新：MedicalRecordServiceImpl.saveOrUpdate/submit 在事务提交前 upsert 本表对应行；
+-- 未经服务层修改的病历（indexed_at 早于病历 updated_at，或尚无索引行）由后台任务补建，
+-- 因此本迁移无需回填历史病历，应用启动后自动建立索引。
+--
+-- ================================================================================
+
+CREATE TABLE his_medical_record_search (
+    record_id           BIGINT          PRIMARY KEY,
+    search_vector       TSVECTOR        NOT NULL,
+    indexed_at          TIMESTAMP       NOT NULL DEFAULT now(),
+
+    CONSTRAINT fk_medical_record_search_record FOREIGN KEY (record_id)
+        REFERENCES his_medical_record(main_id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_his_medical_record_search_vector
+ON his_medical_record_search USING GIN (search_vector);
+
+COMMENT ON TABLE his_medical_record_search IS '病历全文检索索引表（应用内分词生成的 tsvector）';
+COMMENT ON COLUMN his_medical_record_search.record_id IS '病历ID';
+COMMENT ON COLUMN his_medical_record_search.search_vector IS '检索向量（诊断编码/诊断=A，主诉=B，治疗方案=C）';
+COMMENT ON COLUMN his_medical_record_search.indexed_at IS '索引时间（早于病历 updated_at 时由后台任务重建）';
@@ -0,0 +1,62 @@
+-- ================================================================================
+-- Patient Timeline Indexes
+-- ================================================================================
+-- Flyway Version: V16
+-- Description: 为患者就诊时间线添加 (patient_main_id, created_at, main_id) 复合索引
+-- Author: HIS Development Team
+-- Date: 2026-10-18
+-- ================================================================================
+--
+-- 患者时间线（GET /api/doctor/patients/{id}/timeline）并行查询挂号、病历、处方、收费四张表，
+-- 每张表按创建时间倒序做键集分页：
+--
+--   SELECT ... FROM his_registration
+--   WHERE patient_main_id = ? AND is_deleted = 0
+--     AND (created_at, main_id) < (?, ?)
+--   ORDER BY created_at DESC, main_id DESC
+--   LIMIT ?
+--
+-- 复合索引使过滤、游标定位与排序都由索引完成，每页只读取 LIMIT 行，
+-- 就诊次数再多首页耗时也保持不变。
+-- 原有的 patient_main_id 单列索引被新索引完全覆盖，一并删除以减少写入开销。
+--
+-- ================================================================================
+
+CREATE INDEX IF NOT EXISTS idx_his_registration_patient_created
+ON his_registration (patient_main_id, created_at DESC, main_id DESC)
+WHERE is_deleted = 0;
+
+CREATE INDEX IF NOT EXISTS idx_his_medical_record_patient_created
+ON his_medical_record (patient_main_id, created_at DESC, main_id DESC)
+WHERE is_deleted = 0;
+
+CREATE INDEX IF NOT EXISTS idx_his_prescription_patient_created
+ON his_prescription (patient_main_id, created_at DESC, main_id DESC)
+WHERE is_deleted = 0;
+
+CREATE INDEX IF NOT EXISTS idx_his_charge_patient_created
+ON his_charge (patient_main_id, created_at DESC, main_id DESC)
+WHERE is_deleted = 0;
+
+COMMENT ON INDEX idx_his_registration_patient_created IS '复合索引：患者+创建时间，优化患者时间线键集分页（仅索引未删除记录）';
+COMMENT ON INDEX idx_his_medical_record_patient_created IS '复合索引：患者+创建时间，优化患者时间线键集分页（仅索引未删除记录）';
+COMMENT ON INDEX idx_his_prescription_patient_created IS '复合索引：患者+创建时间，优化患者时间线键集分页（仅索引未删除记录）';
+COMMENT ON INDEX idx_his_charge_patient_created IS '复合索引：患者+创建时间，优化患者时间线键集分页（仅索引未删除记录）';
+
+DROP INDEX IF EXISTS idx_his_registration_patient;
+DROP INDEX IF EXISTS idx_his_medical_record_patient;
+DROP INDEX IF EXISTS idx_his_prescription_patient;
+DROP INDEX IF EXISTS idx_his_charge_patient;
+
+-- ============================================
+-- 验证索引是否生效（可在 psql 中执行）
+-- ============================================
+
+-- EXPLAIN ANALYZE
+-- SELECT main_id, created_at FROM his_prescription
+-- WHERE patient_main_id = 1 AND is_deleted = 0
+-- ORDER BY created_at DESC, main_id DESC
+-- LIMIT 21;
+
+-- 预期输出应包含：
+-- - Index Scan using idx_his_prescription_patient_created
@@ -0,0 +1,166 @@
+-- ================================================================================
+-- Monthly Range Partitioning for sys_audit_log
+-- ================================================================================
+-- Flyway Version: V17
+-- Description: 将审计日志表改为按 create_time 按月范围分区，保留期清理改为删除整个分区
+-- Author: HIS Development Team
+-- Date: 2026-10-18
+-- ================================================================================
+--
+-- 原保留期清理按实体逐行删除 180 天前的审计日志，业务量大时每晚删除数百万行，
+-- 产生大量 WAL 和死元组。分区后每个月一个子表（sys_audit_log_pYYYYMM），
+-- 清理时直接 DROP 已整体过期的分区，耗时为毫秒级，且不产生死元组。
+--
+--   - 主键改为 (id, create_time)：分区表的唯一约束必须包含分区键；id 仍由原序列生成，全局唯一
+--   - 未来分区由应用启动时和每日清理任务调用 create_audit_log_partition() 提前创建
+--     （audit.log.partition.premake-months），不设默认分区，避免默认分区中的数据阻塞新分区创建
+--   - 写入时间没有对应分区时插入失败，审计事件由批量写入器转入本地 spool，分区创建后补写
+--
+-- 本迁移在一个事务内复制现有数据，审计日志较多时请在维护窗口执行。
+--
+-- ================================================================================
+
+-- ================================================================================
+-- 1. 分区创建函数（迁移与应用共用，保证分区命名一致）
+-- ================================================================================
+
+/**
+ * 创建指定月份的审计日志分区
+ *
+ * @param month_start 月份内任意一天
+ * @return 新建分区时返回 true，分区已存在时返回 false
+ */
+CREATE OR REPLACE FUNCTION create_audit_log_partition(month_start DATE)
+RETURNS BOOLEAN AS $$
+DECLARE
+    range_start DATE := date_trunc('month', month_start)::DATE;
+    range_end DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::DATE;
+    partition_name TEXT := 'sys_audit_log_p' || to_char(month_start, 'YYYYMM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE %I PARTITION OF sys_audit_log FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, range_start, range_end);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON FUNCTION create_audit_log_partition(DATE) IS '创建审计日志月分区 sys_audit_log_pYYYYMM（已存在时跳过）';
+
+-- ================================================================================
+-- 2. 原表改名，序列与原表解除关联（删除原表时保留序列）
+-- ================================================================================
+
+ALTER SEQUENCE sys_audit_log_id_seq OWNED BY NONE;
+ALTER TABLE sys_audit_log RENAME TO sys_audit_log_legacy;
+ALTER TABLE sys_audit_log_legacy RENAME CONSTRAINT sys_audit_log_pkey TO sys_audit_log_legacy_pkey;
+
+DROP INDEX IF EXISTS idx_audit_module;
+DROP INDEX IF EXISTS idx_audit_operator;
+DROP INDEX IF EXISTS idx_audit_trace_id;
+DROP INDEX IF EXISTS idx_audit_create_time;
+DROP INDEX IF EXISTS idx_audit_type;
+
+-- ================================================================================
+-- 3. 创建分区表
+-- ================================================================================
+
+CREATE TABLE sys_audit_log (
+    id BIGINT NOT NULL DEFAULT nextval('sys_audit_log_id_seq'),
+    module VARCHAR(50) NOT NULL,
+    action VARCHAR(100) NOT NULL,
+    audit_type VARCHAR(20),
+    description VARCHAR(500),
+    operator_id BIGINT,
+    operator_username VARCHAR(50),
+    trace_id VARCHAR(64),
+    request_ip VARCHAR(50),
+    user_agent VARCHAR(500),
+    status VARCHAR(20),
+    execution_time BIGINT,
+    exception_type VARCHAR(100),
+    exception_message VARCHAR(1000),
+    create_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT sys_audit_log_pkey PRIMARY KEY (id, create_time)
+) PARTITION BY RANGE (create_time);
+
+ALTER SEQUENCE sys_audit_log_id_seq OWNED BY sys_audit_log.id;
+
+-- 分区表上的索引自动在每个分区上创建
+CREATE INDEX idx_audit_module ON sys_audit_log(module);
+CREATE INDEX idx_audit_operator ON sys_audit_log(operator_id);
+CREATE INDEX idx_audit_trace_id ON sys_audit_log(trace_id);
+CREATE INDEX idx_audit_create_time ON sys_audit_log(create_time);
+CREATE INDEX idx_audit_type ON sys_audit_log(audit_type);
+
+-- ================================================================================
+-- 4. 创建覆盖现有数据和未来 3 个月的分区
+-- ================================================================================
+
+DO $$
+DECLARE
+    month_start DATE;
+    last_month DATE;
+BEGIN
+    SELECT COALESCE(date_trunc('month', MIN(create_time)), date_trunc('month', CURRENT_DATE))::DATE,
+           GREATEST(COALESCE(date_trunc('month', MAX(create_time)), date_trunc('month', CURRENT_DATE)),
+                    date_trunc('month', CURRENT_DATE) + INTERVAL '3 months')::DATE
+    INTO month_start, last_month
+    FROM sys_audit_log_legacy;
+
+    WHILE month_start <= last_month LOOP
+        PERFORM create_audit_log_partition(month_start);
+        month_start := (month_start + INTERVAL '1 month')::DATE;
+    END LOOP;
+END;
+$$;
+
+-- ================================================================================
+-- 5. 复制数据并删除原表
+-- ================================================================================
+
+INSERT INTO sys_audit_log (id, module, action, audit_type, description, operator_id, operator_username,
+                           trace_id, request_ip, user_agent, status, execution_time,
+                           exception_type, exception_message, create_time)
+SELECT id, module, action, audit_type, description, operator_id, operator_username,
+       trace_id, request_ip, user_agent, status, execution_time,
+       exception_type, exception_message, create_time
+FROM sys_audit_log_legacy;
+
+DROP TABLE sys_audit_log_legacy;
+
+ANALYZE sys_audit_log;
+
+-- ================================================================================
+-- 6. 注释
+-- ================================================================================
+
+COMMENT ON TABLE sys_audit_log IS '系统审计日志表,满足HIPAA和等保三级要求,记录所有关键业务操作（按 create_time 按月分区）';
+COMMENT ON COLUMN sys_audit_log.module IS '业务模块名称 (认证管理、挂号管理、处方管理、药房管理、收费管理)';
+COMMENT ON COLUMN sys_audit_log.action IS '操作描述 (用户登录、患者挂号、开具处方、发药、收费)';
+COMMENT ON COLUMN sys_audit_log.audit_type IS '审计类型: SENSITIVE_OPERATION(敏感操作)、BUSINESS(业务操作)、DATA_ACCESS(数据访问)';
+COMMENT ON COLUMN sys_audit_log.description IS '操作描述详情,说明本次操作的具体内容';
+COMMENT ON COLUMN sys_audit_log.operator_id IS '操作人ID,关联sys_user表,为null表示系统操作';
+COMMENT ON COLUMN sys_audit_log.operator_username IS '操作人用户名,冗余存储便于查询,避免频繁关联查询';
+COMMENT ON COLUMN sys_audit_log.trace_id IS '链路追踪ID,32位十六进制字符串,用于关联整个请求链路的所有日志';
+COMMENT ON COLUMN sys_audit_log.request_ip IS '客户端IP地址,支持反向代理(X-Forwarded-For),记录真实客户端IP';
+COMMENT ON COLUMN sys_audit_log.user_agent IS '用户代理(User-Agent),记录客户端浏览器、操作系统等信息';
+COMMENT ON COLUMN sys_audit_log.status IS '执行状态: SUCCESS(成功)、FAILURE(失败)';
+COMMENT ON COLUMN sys_audit_log.execution_time IS '执行时间(毫秒),从方法开始到结束的耗时,用于性能监控';
+COMMENT ON COLUMN sys_audit_log.exception_type IS '异常类型,如: BusinessException, NullPointerException, SQLException';
+COMMENT ON COLUMN sys_audit_log.exception_message IS '异常消息,限制1000字符,避免过长影响存储';
+COMMENT ON COLUMN sys_audit_log.create_time IS '创建时间,分区键,自动设置为当前时间且不可更新';
+
+-- ============================================
+-- 验证分区（可在 psql 中执行）
+-- ============================================
+
+-- SELECT c.relname, pg_get_expr(c.relpartbound, c.oid)
+-- FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+-- WHERE i.inhparent = 'sys_audit_log'::regclass
+-- ORDER BY c.relname;
+
+-- EXPLAIN SELECT * FROM sys_audit_log WHERE create_time >= '2026-10-01' AND create_time < '2026-10-02';
+-- 预期输出只扫描 sys_audit_log_p202610（分区裁剪）
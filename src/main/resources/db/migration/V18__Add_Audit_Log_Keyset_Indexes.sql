@@ -0,0 +1,58 @@
+-- ================================================================================
+-- Audit Log Keyset Search Indexes
+-- ================================================================================
+-- Flyway Version: V18
+-- Description: 为审计日志键集分页添加 (过滤列, create_time, id) 复合索引
+-- Author: HIS Development Team
+-- Date: 2026-10-18
+-- ================================================================================
+--
+-- 审计日志查询（GET /api/audit-logs/search、/trace/{traceId}、/operator/{operatorId}）
+-- 改为按 (create_time, id) 倒序的键集分页：
+--
+--   SELECT ... FROM sys_audit_log
+--   WHERE module = ? AND create_time >= ? AND create_time <= ?
+--     AND (create_time, id) < (?, ?)
+--   ORDER BY create_time DESC, id DESC
+--   LIMIT ?
+--
+-- 每个等值过滤列一个 (过滤列, create_time DESC, id DESC) 复合索引，过滤、游标定位与排序都由索引完成，
+-- 任意深度的一页都只读取 LIMIT 行。无过滤条件时使用 (create_time DESC, id DESC)。
+-- 原有的单列索引被对应的复合索引完全覆盖，一并删除以减少写入开销。
+--
+-- sys_audit_log 为分区表（V17），分区表上的索引自动在每个分区上创建。
+--
+-- ================================================================================
+
+CREATE INDEX IF NOT EXISTS idx_audit_created ON sys_audit_log (create_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_audit_module_created ON sys_audit_log (module, create_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_audit_operator_created ON sys_audit_log (operator_id, create_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_audit_username_created ON sys_audit_log (operator_username, create_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_audit_type_created ON sys_audit_log (audit_type, create_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_audit_trace_created ON sys_audit_log (trace_id, create_time DESC, id DESC);
+
+COMMENT ON INDEX idx_audit_created IS '复合索引：创建时间+ID，优化无过滤条件的审计日志键集分页';
+COMMENT ON INDEX idx_audit_module_created IS '复合索引：模块+创建时间，优化按模块的审计日志键集分页';
+COMMENT ON INDEX idx_audit_operator_created IS '复合索引：操作人ID+创建时间，优化按操作人的审计日志键集分页';
+COMMENT ON INDEX idx_audit_username_created IS '复合索引：操作人用户名+创建时间，优化按操作人用户名的审计日志键集分页';
+COMMENT ON INDEX idx_audit_type_created IS '复合索引：审计类型+创建时间，优化按审计类型的审计日志键集分页';
+COMMENT ON INDEX idx_audit_trace_created IS '复合索引：TraceId+创建时间，优化按请求链路的审计日志键集分页';
+
+DROP INDEX IF EXISTS idx_audit_create_time;
+DROP INDEX IF EXISTS idx_audit_module;
+DROP INDEX IF EXISTS idx_audit_operator;
+DROP INDEX IF EXISTS idx_audit_type;
+DROP INDEX IF EXISTS idx_audit_trace_id;
+
+-- ============================================
+-- 验证索引是否生效（可在 psql 中执行）
+-- ============================================
+
+-- EXPLAIN ANALYZE
+-- SELECT id, create_time FROM sys_audit_log
+-- WHERE module = '挂号管理' AND (create_time, id) < ('2026-10-01 00:00:00', 1000000)
+-- ORDER BY create_time DESC, id DESC
+-- LIMIT 21;
+
+-- 预期输出应包含：
+-- - Index Scan using sys_audit_log_pYYYYMM_module_create_time_id_idx（各分区上的 idx_audit_module_created）
@@ -0,0 +1,76 @@
+package com.his.config;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.his.log.filter.TraceIdFilter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 上下文传递任务装饰器测试
+ *
+ * <p>验证 MDC（traceId）和 SecurityContext 传递到工作线程，执行后还原工作线程原来的上下文</p>
+ *
+ * @author HIS 开发团队
+ * @since 1.0
+ */
+@DisplayName("上下文传递任务装饰器测试")
+class ContextPropagatingTaskDecoratorTest {
+
+    private final ContextPropagatingTaskDecorator decorator = new ContextPropagatingTaskDecorator();
+
+    @AfterEach
+    void clearContext() {
+        MDC.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("工作线程中带有提交线程的 traceId 和认证信息，执行后清除")
+    void decorate_PropagatesToWorkerThread() throws Exception {
+        MDC.put(TraceIdFilter.TRACE_ID_KEY, "4bf92f3577b34da6a3ce929d0e0e4736");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("doctor01", null, List.of()));
+        ExecutorService worker = Executors.newSingleThreadExecutor();
+        try {
+            String[] seen = new String[2];
+            CompletableFuture.runAsync(decorator.decorate(() -> {
+                seen[0] = MDC.get(TraceIdFilter.TRACE_ID_KEY);
+                seen[1] = SecurityContextHolder.getContext().getAuthentication().getName();
+            }), worker).get(5, TimeUnit.SECONDS);
+
+            assertThat(seen).containsExactly("4bf92f3577b34da6a3ce929d0e0e4736", "doctor01");
+            String[] after = new String[2];
+            worker.submit(() -> {
+                after[0] = MDC.get(TraceIdFilter.TRACE_ID_KEY);
+                after[1] = String.valueOf(SecurityContextHolder.getContext().getAuthentication());
+            }).get(5, TimeUnit.SECONDS);
+            assertThat(after).containsExactly(null, "null");
+        } finally {
+            worker.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("由提交线程自己执行（CallerRunsPolicy）时，执行后还原提交线程的上下文")
+    void decorate_RunInCallerThread_RestoresCallerContext() {
+        Runnable task = decorator.decorate(() -> MDC.put("step", "worker"));
+        MDC.put(TraceIdFilter.TRACE_ID_KEY, "request-trace");
+
+        task.run();
+
+        assertThat(MDC.get(TraceIdFilter.TRACE_ID_KEY)).isEqualTo("request-trace");
+        assertThat(MDC.get("step")).isNull();
+    }
+}
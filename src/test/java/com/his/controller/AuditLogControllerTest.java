@@ -2,21 +2,19 @@ package com.his.controller;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.List;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 
 import com.his.entity.AuditLogEntity;
+import com.his.enums.AuditExportFormatEnum;
+import com.his.service.AuditLogExportService;
 import com.his.service.AuditLogQueryService;
 import com.his.test.base.BaseControllerTest;
+import com.his.vo.AuditLogPageVO;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
@@ -46,6 +44,9 @@ class AuditLogControllerTest extends BaseControllerTest {
     @MockBean
     private AuditLogQueryService auditLogQueryService;
 
+    @MockBean
+    private AuditLogExportService auditLogExportService;
+
     // ==================== searchAuditLogs 测试 ====================
 
     @Test
@@ -61,9 +62,9 @@ class AuditLogControllerTest extends BaseControllerTest {
         log1.setStatus("SUCCESS");
         log1.setCreateTime(LocalDateTime.now());
 
-        Page<AuditLogEntity> page = new PageImpl<>(Arrays.asList(log1), PageRequest.of(0, 20), 1);
+        AuditLogPageVO page = page(log1);
         when(auditLogQueryService.searchAuditLogs(
-                any(), any(), any(), any(), any(), any(), any(Pageable.class)))
+                any(), any(), any(), any(), any(), any(), any(), anyInt()))
                 .thenReturn(page);
 
         // When & Then - 执行测试并验证结果
@@ -72,10 +73,11 @@ class AuditLogControllerTest extends BaseControllerTest {
                         .with(csrf()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.code").value(200))
-                .andExpect(jsonPath("$.data.content").isArray())
-                .andExpect(jsonPath("$.data.content[0].module").value("认证管理"))
-                .andExpect(jsonPath("$.data.content[0].action").value("用户登录"))
-                .andExpect(jsonPath("$.data.totalElements").value(1));
+                .andExpect(jsonPath("$.data.items").isArray())
+                .andExpect(jsonPath("$.data.items[0].module").value("认证管理"))
+                .andExpect(jsonPath("$.data.items[0].action").value("用户登录"))
+                .andExpect(jsonPath("$.data.estimatedTotal").value(1))
+                .andExpect(jsonPath("$.data.nextCursor").doesNotExist());
     }
 
     @Test
@@ -87,9 +89,9 @@ class AuditLogControllerTest extends BaseControllerTest {
         log1.setId(1L);
         log1.setModule("挂号管理");
 
-        Page<AuditLogEntity> page = new PageImpl<>(Arrays.asList(log1), PageRequest.of(0, 20), 1);
+        AuditLogPageVO page = page(log1);
         when(auditLogQueryService.searchAuditLogs(
-                eq("挂号管理"), any(), any(), any(), any(), any(), any(Pageable.class)))
+                eq("挂号管理"), any(), any(), any(), any(), any(), any(), anyInt()))
                 .thenReturn(page);
 
         // When & Then
@@ -98,7 +100,7 @@ class AuditLogControllerTest extends BaseControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .with(csrf()))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.data.content[0].module").value("挂号管理"));
+                .andExpect(jsonPath("$.data.items[0].module").value("挂号管理"));
     }
 
     @Test
@@ -113,9 +115,9 @@ class AuditLogControllerTest extends BaseControllerTest {
         log1.setId(1L);
         log1.setModule("测试模块");
 
-        Page<AuditLogEntity> page = new PageImpl<>(Arrays.asList(log1), PageRequest.of(0, 20), 1);
+        AuditLogPageVO page = page(log1);
         when(auditLogQueryService.searchAuditLogs(
-                any(), any(), any(), any(), eq(startTime), eq(endTime), any(Pageable.class)))
+                any(), any(), any(), any(), eq(startTime), eq(endTime), any(), anyInt()))
                 .thenReturn(page);
 
         // When & Then
@@ -125,7 +127,7 @@ class AuditLogControllerTest extends BaseControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .with(csrf()))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.data.content").isArray());
+                .andExpect(jsonPath("$.data.items").isArray());
     }
 
     @Test
@@ -137,9 +139,9 @@ class AuditLogControllerTest extends BaseControllerTest {
         log1.setId(1L);
         log1.setAuditType("SENSITIVE_OPERATION");
 
-        Page<AuditLogEntity> page = new PageImpl<>(Arrays.asList(log1), PageRequest.of(0, 20), 1);
+        AuditLogPageVO page = page(log1);
         when(auditLogQueryService.searchAuditLogs(
-                any(), any(), any(), eq("SENSITIVE_OPERATION"), any(), any(), any(Pageable.class)))
+                any(), any(), any(), eq("SENSITIVE_OPERATION"), any(), any(), any(), anyInt()))
                 .thenReturn(page);
 
         // When & Then
@@ -148,32 +150,34 @@ class AuditLogControllerTest extends BaseControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .with(csrf()))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.data.content[0].auditType").value("SENSITIVE_OPERATION"));
+                .andExpect(jsonPath("$.data.items[0].auditType").value("SENSITIVE_OPERATION"));
     }
 
     @Test
     @WithMockUser(username = "admin", roles = {"ADMIN"})
-    @DisplayName("应该支持分页查询")
-    void testSearchAuditLogs_WithPagination() throws Exception {
+    @DisplayName("应该支持游标分页查询")
+    void testSearchAuditLogs_WithCursor() throws Exception {
         // Given
         AuditLogEntity log1 = new AuditLogEntity();
         log1.setId(1L);
 
-        Page<AuditLogEntity> page = new PageImpl<>(Arrays.asList(log1), PageRequest.of(0, 10), 1);
+        AuditLogPageVO page = AuditLogPageVO.builder()
+                .items(Arrays.asList(log1))
+                .nextCursor("next-cursor")
+                .build();
         when(auditLogQueryService.searchAuditLogs(
-                any(), any(), any(), any(), any(), any(), any(Pageable.class)))
+                any(), any(), any(), any(), any(), any(), eq("prev-cursor"), eq(10)))
                 .thenReturn(page);
 
         // When & Then
         mockMvc.perform(get("/api/audit-logs/search")
-                        .param("page", "0")
+                        .param("cursor", "prev-cursor")
                         .param("size", "10")
-                        .param("sort", "createTime,desc")
                         .contentType(MediaType.APPLICATION_JSON)
                         .with(csrf()))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.data.pageable.pageSize").value(10))
-                .andExpect(jsonPath("$.data.pageable.pageNumber").value(0));
+                .andExpect(jsonPath("$.data.nextCursor").value("next-cursor"))
+                .andExpect(jsonPath("$.data.items[0].id").value(1));
     }
 
     // ==================== getAuditLogsByTraceId 测试 ====================
@@ -190,8 +194,7 @@ class AuditLogControllerTest extends BaseControllerTest {
         log1.setTraceId(traceId);
         log1.setModule("测试模块");
 
-        List<AuditLogEntity> logs = Arrays.asList(log1);
-        when(auditLogQueryService.getAuditLogsByTraceId(traceId)).thenReturn(logs);
+        when(auditLogQueryService.getAuditLogsByTraceId(traceId, null, 100)).thenReturn(page(log1));
 
         // When & Then
         mockMvc.perform(get("/api/audit-logs/trace/{traceId}", traceId)
@@ -199,9 +202,9 @@ class AuditLogControllerTest extends BaseControllerTest {
                         .with(csrf()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.code").value(200))
-                .andExpect(jsonPath("$.data").isArray())
-                .andExpect(jsonPath("$.data[0].traceId").value(traceId))
-                .andExpect(jsonPath("$.data[0].module").value("测试模块"));
+                .andExpect(jsonPath("$.data.items").isArray())
+                .andExpect(jsonPath("$.data.items[0].traceId").value(traceId))
+                .andExpect(jsonPath("$.data.items[0].module").value("测试模块"));
     }
 
     @Test
@@ -210,7 +213,7 @@ class AuditLogControllerTest extends BaseControllerTest {
     void testGetAuditLogsByTraceId_EmptyResult() throws Exception {
         // Given
         String traceId = "non-existent-trace-id";
-        when(auditLogQueryService.getAuditLogsByTraceId(traceId)).thenReturn(Arrays.asList());
+        when(auditLogQueryService.getAuditLogsByTraceId(traceId, null, 100)).thenReturn(page());
 
         // When & Then
         mockMvc.perform(get("/api/audit-logs/trace/{traceId}", traceId)
@@ -218,8 +221,8 @@ class AuditLogControllerTest extends BaseControllerTest {
                         .with(csrf()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.code").value(200))
-                .andExpect(jsonPath("$.data").isArray())
-                .andExpect(jsonPath("$.data.length()").value(0));
+                .andExpect(jsonPath("$.data.items").isArray())
+                .andExpect(jsonPath("$.data.items.length()").value(0));
     }
 
     // ==================== getAuditLogsByOperator 测试 ====================
@@ -237,8 +240,7 @@ class AuditLogControllerTest extends BaseControllerTest {
         log1.setOperatorUsername("admin");
         log1.setModule("认证管理");
 
-        List<AuditLogEntity> logs = Arrays.asList(log1);
-        when(auditLogQueryService.getAuditLogsByOperator(operatorId)).thenReturn(logs);
+        when(auditLogQueryService.getAuditLogsByOperator(operatorId, null, 20)).thenReturn(page(log1));
 
         // When & Then
         mockMvc.perform(get("/api/audit-logs/operator/{operatorId}", operatorId)
@@ -246,10 +248,10 @@ class AuditLogControllerTest extends BaseControllerTest {
                         .with(csrf()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.code").value(200))
-                .andExpect(jsonPath("$.data").isArray())
-                .andExpect(jsonPath("$.data[0].operatorId").value(operatorId))
-                .andExpect(jsonPath("$.data[0].operatorUsername").value("admin"))
-                .andExpect(jsonPath("$.data[0].module").value("认证管理"));
+                .andExpect(jsonPath("$.data.items").isArray())
+                .andExpect(jsonPath("$.data.items[0].operatorId").value(operatorId))
+                .andExpect(jsonPath("$.data.items[0].operatorUsername").value("admin"))
+                .andExpect(jsonPath("$.data.items[0].module").value("认证管理"));
     }
 
     @Test
@@ -258,7 +260,7 @@ class AuditLogControllerTest extends BaseControllerTest {
     void testGetAuditLogsByOperator_EmptyResult() throws Exception {
         // Given
         Long operatorId = 999L;
-        when(auditLogQueryService.getAuditLogsByOperator(operatorId)).thenReturn(Arrays.asList());
+        when(auditLogQueryService.getAuditLogsByOperator(operatorId, null, 20)).thenReturn(page());
 
         // When & Then
         mockMvc.perform(get("/api/audit-logs/operator/{operatorId}", operatorId)
@@ -266,8 +268,27 @@ class AuditLogControllerTest extends BaseControllerTest {
                         .with(csrf()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.code").value(200))
-                .andExpect(jsonPath("$.data").isArray())
-                .andExpect(jsonPath("$.data.length()").value(0));
+                .andExpect(jsonPath("$.data.items").isArray())
+                .andExpect(jsonPath("$.data.items.length()").value(0));
+    }
+
+    // ==================== exportAuditLogs 测试 ====================
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @DisplayName("导出并发已达上限时返回错误，不写出导出内容")
+    void testExportAuditLogs_Busy() throws Exception {
+        // Given
+        when(auditLogExportService.open(any(), eq(AuditExportFormatEnum.CSV_GZIP), isNull()))
+                .thenThrow(new IllegalStateException("正在进行的审计日志导出已达上限（2），请稍后重试"));
+
+        // When & Then
+        mockMvc.perform(get("/api/audit-logs/export")
+                        .param("operatorId", "123")
+                        .param("format", "CSV_GZIP")
+                        .with(csrf()))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().doesNotExist("Content-Disposition"));
     }
 
     // ==================== 权限测试 ====================
@@ -281,4 +302,11 @@ class AuditLogControllerTest extends BaseControllerTest {
                         .with(csrf()))
                 .andExpect(status().isForbidden());
     }
+
+    private static AuditLogPageVO page(AuditLogEntity... logs) {
+        return AuditLogPageVO.builder()
+                .items(Arrays.asList(logs))
+                .estimatedTotal((long) logs.length)
+                .build();
+    }
 }
@@ -1,6 +1,7 @@
 package com.his.controller;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -11,16 +12,20 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.test.context.support.WithMockUser;
 
 import com.his.entity.Medicine;
+import com.his.service.MedicineCatalogService;
 import com.his.service.MedicineService;
 import com.his.test.base.BaseControllerTest;
+import com.his.vo.views.MedicineViews;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -33,6 +38,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  *   <li>药品详情（GET /api/common/medicines/{id}） - JsonView字段可见性</li>
  *   <li>JsonView功能 - 不同角色看到不同字段</li>
  *   <li>简化搜索（GET /api/common/medicines/search） - @Deprecated</li>
+ *   <li>目录快照（GET /api/common/medicines/catalog） - ETag / 304</li>
  * </ul>
  *
  * <p>覆盖率目标: 80%+
@@ -46,6 +52,9 @@ class CommonMedicineControllerTest extends BaseControllerTest {
     @MockBean
     private MedicineService medicineService;
 
+    @MockBean
+    private MedicineCatalogService medicineCatalogService;
+
     // ==================== GET / - 分页查询测试 ====================
 
     @Test
@@ -556,6 +565,40 @@ class CommonMedicineControllerTest extends BaseControllerTest {
                 .andExpect(status().isInternalServerError());
     }
 
+    // ==================== GET /catalog - 目录快照测试 ====================
+
+    @Test
+    @DisplayName("目录快照 - 返回预序列化响应体和ETag")
+    @WithMockUser(roles = "PHARMACIST")
+    void testCatalog_ReturnsSnapshotWithEtag() throws Exception {
+        // Given
+        when(medicineCatalogService.getSnapshot(eq(MedicineViews.Pharmacist.class), eq("抗生素"), isNull(), isNull()))
+            .thenReturn(catalogSnapshot());
+
+        // When & Then
+        mockMvc.perform(get("/api/common/medicines/catalog")
+                .param("category", "抗生素"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc123\""))
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data[0].name").value("阿莫西林胶囊"));
+    }
+
+    @Test
+    @DisplayName("目录快照 - If-None-Match 匹配时返回304")
+    @WithMockUser(roles = "DOCTOR")
+    void testCatalog_NotModified() throws Exception {
+        // Given
+        when(medicineCatalogService.getSnapshot(eq(MedicineViews.Doctor.class), isNull(), isNull(), isNull()))
+            .thenReturn(catalogSnapshot());
+
+        // When & Then
+        mockMvc.perform(get("/api/common/medicines/catalog")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"abc123\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc123\""));
+    }
+
     // ==================== 权限测试 ====================
 
     @Test
@@ -574,6 +617,16 @@ class CommonMedicineControllerTest extends BaseControllerTest {
 
     // ==================== 辅助方法 ====================
 
+    /**
+     * 创建测试用目录快照
+     */
+    private MedicineCatalogService.Snapshot catalogSnapshot() {
+        String body = "{\"code\":200,\"message\":\"查询成功，共 1 条记录\","
+            + "\"data\":[{\"mainId\":1,\"name\":\"阿莫西林胶囊\"}],\"timestamp\":1700000000000}";
+        return new MedicineCatalogService.Snapshot(
+            body.getBytes(StandardCharsets.UTF_8), "\"abc123\"", 1, 1L);
+    }
+
     /**
      * 创建测试用药品实体
      */
@@ -11,9 +11,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.security.test.context.support.WithMockUser;
 
+import com.his.converter.VoConverter;
 import com.his.entity.Prescription;
+import com.his.entity.PrescriptionStatusHistory;
 import com.his.service.PrescriptionService;
+import com.his.service.PrescriptionStatusHistoryService;
 import com.his.test.base.BaseControllerTest;
+import com.his.vo.PrescriptionVO;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.mockito.Mockito.when;
@@ -42,6 +46,9 @@ class CommonPrescriptionControllerTest extends BaseControllerTest {
     @MockBean
     private PrescriptionService prescriptionService;
 
+    @MockBean
+    private PrescriptionStatusHistoryService statusHistoryService;
+
     // ==================== GET /{id} - 查询处方详情测试 ====================
 
     @Test
@@ -183,7 +190,7 @@ class CommonPrescriptionControllerTest extends BaseControllerTest {
         prescription2.setStatus((short) 2);
 
         List<Prescription> prescriptions = Arrays.asList(prescription1, prescription2);
-        when(prescriptionService.getByRecordId(1L)).thenReturn(prescriptions);
+        when(prescriptionService.getByRecordId(1L)).thenReturn(toVOs(prescriptions));
 
         // When & Then
         mockMvc.perform(get("/api/common/prescriptions/by-record/1"))
@@ -207,7 +214,7 @@ class CommonPrescriptionControllerTest extends BaseControllerTest {
         // Given
         Prescription prescription = createTestPrescription();
         List<Prescription> prescriptions = Arrays.asList(prescription);
-        when(prescriptionService.getByRecordId(1L)).thenReturn(prescriptions);
+        when(prescriptionService.getByRecordId(1L)).thenReturn(toVOs(prescriptions));
 
         // When & Then
         mockMvc.perform(get("/api/common/prescriptions/by-record/1"))
@@ -224,7 +231,7 @@ class CommonPrescriptionControllerTest extends BaseControllerTest {
         // Given
         Prescription prescription = createTestPrescription();
         List<Prescription> prescriptions = Arrays.asList(prescription);
-        when(prescriptionService.getByRecordId(1L)).thenReturn(prescriptions);
+        when(prescriptionService.getByRecordId(1L)).thenReturn(toVOs(prescriptions));
 
         // When & Then
         mockMvc.perform(get("/api/common/prescriptions/by-record/1"))
@@ -303,6 +310,32 @@ class CommonPrescriptionControllerTest extends BaseControllerTest {
                 });
     }
 
+    // ==================== GET /{id}/status-history - 处方状态流转历史测试 ====================
+
+    @Test
+    @DisplayName("查询处方状态流转历史 - 按时间先后返回")
+    @WithMockUser(roles = "PHARMACIST")
+    void testGetStatusHistory_Success() throws Exception {
+        PrescriptionStatusHistory paid = PrescriptionStatusHistory.builder()
+                .mainId(1L).prescriptionMainId(1L).fromStatus((short) 2).toStatus((short) 5)
+                .operatorName("收费员").operatorType("USER").reason("患者缴费")
+                .createdAt(LocalDateTime.of(2025, 1, 1, 10, 0, 0)).build();
+        PrescriptionStatusHistory dispensed = PrescriptionStatusHistory.builder()
+                .mainId(2L).prescriptionMainId(1L).fromStatus((short) 5).toStatus((short) 3)
+                .operatorId(3L).operatorName("王药师").operatorType("USER").reason("药师发药")
+                .createdAt(LocalDateTime.of(2025, 1, 1, 10, 30, 0)).build();
+        when(statusHistoryService.getByPrescriptionId(1L)).thenReturn(Arrays.asList(paid, dispensed));
+
+        mockMvc.perform(get("/api/common/prescriptions/1/status-history"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[1].fromStatus").value(5))
+                .andExpect(jsonPath("$.data[1].toStatus").value(3))
+                .andExpect(jsonPath("$.data[1].operatorName").value("王药师"))
+                .andExpect(jsonPath("$.data[1].reason").value("药师发药"));
+    }
+
     // ==================== 辅助方法 ====================
 
     /**
@@ -322,4 +355,11 @@ class CommonPrescriptionControllerTest extends BaseControllerTest {
 
         return prescription;
     }
+
+    /**
+     * 按病历查询的服务接口直接返回 VO，测试数据仍用实体构造后转换
+     */
+    private List<PrescriptionVO> toVOs(List<Prescription> prescriptions) {
+        return prescriptions.stream().map(VoConverter::toPrescriptionVO).toList();
+    }
 }
@@ -648,4 +648,72 @@ class DoctorControllerTest extends BaseControllerTest {
                 .andExpect(jsonPath("$.data.patientId").value(testPatientId))
                 .andExpect(jsonPath("$.data.name").value("张三"));
     }
+
+    // ==================== 患者时间线测试用例 ====================
+
+    @Test
+    @DisplayName("测试查询患者时间线 - 返回挂号事件摘要")
+    void testGetPatientTimeline_Success() throws Exception {
+        mockMvc.perform(get("/api/doctor/patients/{id}/timeline", testPatientId)
+                        .with(authentication(setupDoctorAuthentication()))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.patientId").value(testPatientId))
+                .andExpect(jsonPath("$.data.events.length()").value(1))
+                .andExpect(jsonPath("$.data.events[0].type").value("REGISTRATION"))
+                .andExpect(jsonPath("$.data.events[0].id").value(testReg1Id))
+                .andExpect(jsonPath("$.data.events[0].summary").value(startsWith("内科_测试")))
+                .andExpect(jsonPath("$.data.events[0].doctorName").value("张医生"))
+                .andExpect(jsonPath("$.data.events[0].amount").value(15.00))
+                .andExpect(jsonPath("$.data.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("测试查询患者时间线 - 游标无效")
+    void testGetPatientTimeline_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/doctor/patients/{id}/timeline", testPatientId)
+                        .param("cursor", "not-a-cursor")
+                        .with(authentication(setupDoctorAuthentication()))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(400))
+                .andExpect(jsonPath("$.message").value(containsString("分页游标无效")));
+    }
+
+    // ==================== 工作站首屏加载测试用例 ====================
+
+    @Test
+    @DisplayName("测试加载工作站首屏数据 - 尚未创建病历")
+    void testBootstrapWorkstation_Success() throws Exception {
+        mockMvc.perform(get("/api/doctor/workstation/bootstrap")
+                        .param("patientId", String.valueOf(testPatientId))
+                        .param("registrationId", String.valueOf(testReg1Id))
+                        .with(authentication(setupDoctorAuthentication()))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.patient.patientId").value(testPatientId))
+                .andExpect(jsonPath("$.data.patient.phone").value(matchesPattern("^\\d{3}\\*{4}\\d{4}$")))
+                .andExpect(jsonPath("$.data.medicalRecord").doesNotExist())
+                .andExpect(jsonPath("$.data.prescriptions.length()").value(0))
+                .andExpect(jsonPath("$.data.waitingList.length()").value(3));
+    }
+
+    @Test
+    @DisplayName("测试加载工作站首屏数据 - 患者不存在")
+    void testBootstrapWorkstation_PatientNotFound() throws Exception {
+        mockMvc.perform(get("/api/doctor/workstation/bootstrap")
+                        .param("patientId", "99999")
+                        .param("registrationId", String.valueOf(testReg1Id))
+                        .with(authentication(setupDoctorAuthentication()))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(400))
+                .andExpect(jsonPath("$.message").value(containsString("患者信息不存在")));
+    }
 }
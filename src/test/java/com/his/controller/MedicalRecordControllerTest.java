@@ -1,22 +1,37 @@
 package com.his.controller;
 
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 
+import com.his.config.JwtAuthenticationToken;
 import com.his.dto.MedicalRecordDTO;
 import com.his.entity.MedicalRecord;
+import com.his.enums.MedicalRecordFieldEnum;
+import com.his.service.MedicalRecordDraftService;
+import com.his.service.MedicalRecordSearchService;
 import com.his.service.MedicalRecordService;
 import com.his.test.base.BaseControllerTest;
+import com.his.vo.MedicalRecordDraftVO;
+import com.his.vo.MedicalRecordSearchHitVO;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -30,6 +45,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  *   <li>查询病历详情（GET /api/doctor/medical-records/{id}）</li>
  *   <li>根据挂号ID查询病历（GET /api/doctor/medical-records/by-registration/{registrationId}）</li>
  *   <li>提交病历（POST /api/doctor/medical-records/{id}/submit）</li>
+ *   <li>检索病历（GET /api/doctor/medical-records/search）</li>
+ *   <li>草稿自动保存（PATCH /api/doctor/medical-records/{id}/draft）</li>
  * </ul>
  *
  * <p>覆盖率目标: 75%+
@@ -43,6 +60,12 @@ class MedicalRecordControllerTest extends BaseControllerTest {
     @MockBean
     private MedicalRecordService medicalRecordService;
 
+    @MockBean
+    private MedicalRecordSearchService medicalRecordSearchService;
+
+    @MockBean
+    private MedicalRecordDraftService medicalRecordDraftService;
+
     // ==================== POST /save - 创建/更新病历测试 ====================
 
     @Test
@@ -416,4 +439,85 @@ class MedicalRecordControllerTest extends BaseControllerTest {
                     }
                 });
     }
+
+    // ==================== GET /search - 检索病历测试 ====================
+
+    @Test
+    @DisplayName("检索病历 - 医生检索范围取自Token中的医生ID")
+    void testSearch_DoctorScopeFromToken() throws Exception {
+        // Given: 医生身份的认证令牌与检索结果
+        JwtAuthenticationToken doctor = new JwtAuthenticationToken(1L, "testDoctor", "DOCTOR", 7L);
+        MedicalRecordSearchHitVO hit = MedicalRecordSearchHitVO.builder()
+                .recordId(11L)
+                .chiefComplaint("头痛发热3天")
+                .diagnosisCode("J06.901")
+                .score(0.35)
+                .build();
+        when(medicalRecordSearchService.search(eq("头痛"), eq(7L), eq(true), any()))
+                .thenReturn(new PageImpl<>(List.of(hit), PageRequest.of(0, 20), 1));
+
+        // When & Then: 使用Token中的医生ID检索科室病历
+        mockMvc.perform(get("/api/doctor/medical-records/search")
+                        .param("keyword", "头痛")
+                        .param("showAll", "true")
+                        .with(authentication(doctor)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.totalElements").value(1))
+                .andExpect(jsonPath("$.data.content[0].recordId").value(11))
+                .andExpect(jsonPath("$.data.content[0].diagnosisCode").value("J06.901"));
+    }
+
+    @Test
+    @DisplayName("检索病历 - 检索词无效返回400")
+    void testSearch_InvalidKeyword() throws Exception {
+        // Given: 服务层校验检索词失败
+        JwtAuthenticationToken doctor = new JwtAuthenticationToken(1L, "testDoctor", "DOCTOR", 7L);
+        when(medicalRecordSearchService.search(any(), any(), eq(false), any()))
+                .thenThrow(new IllegalArgumentException("检索关键词不包含可检索的文字"));
+
+        // When & Then: 返回400及错误信息
+        mockMvc.perform(get("/api/doctor/medical-records/search")
+                        .param("keyword", "，。")
+                        .with(authentication(doctor)))
+                .andExpect(jsonPath("$.code").value(400))
+                .andExpect(jsonPath("$.message").value(containsString("检索关键词")));
+    }
+
+    // ==================== PATCH /{id}/draft - 草稿自动保存测试 ====================
+
+    @Test
+    @DisplayName("草稿自动保存 - 字段补丁按Token中的医生ID校验归属")
+    void testSaveDraft_Success() throws Exception {
+        // Given: 医生身份与合并后的待写入字段
+        JwtAuthenticationToken doctor = new JwtAuthenticationToken(1L, "testDoctor", "DOCTOR", 7L);
+        MedicalRecordDraftVO ack = MedicalRecordDraftVO.builder()
+                .recordId(1L)
+                .pendingFields(EnumSet.of(MedicalRecordFieldEnum.CHIEF_COMPLAINT, MedicalRecordFieldEnum.DIAGNOSIS))
+                .build();
+        when(medicalRecordDraftService.patch(eq(1L), eq(7L), eq(3),
+                eq(Map.of(MedicalRecordFieldEnum.CHIEF_COMPLAINT, "头痛3天"))))
+                .thenReturn(ack);
+
+        // When & Then: 返回尚未落库的字段
+        mockMvc.perform(patch("/api/doctor/medical-records/1/draft")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fields\": {\"CHIEF_COMPLAINT\": \"头痛3天\"}, \"version\": 3}")
+                        .with(authentication(doctor)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.pendingFields.length()").value(2));
+    }
+
+    @Test
+    @DisplayName("草稿自动保存 - 字段为空返回400")
+    void testSaveDraft_EmptyFields() throws Exception {
+        JwtAuthenticationToken doctor = new JwtAuthenticationToken(1L, "testDoctor", "DOCTOR", 7L);
+
+        mockMvc.perform(patch("/api/doctor/medical-records/1/draft")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fields\": {}}")
+                        .with(authentication(doctor)))
+                .andExpect(jsonPath("$.code").value(400));
+    }
 }
@@ -1,5 +1,7 @@
 package com.his.controller;
 
+import java.util.List;
+
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -7,8 +9,10 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 
 import com.his.dto.InventoryStatsVO;
+import com.his.service.LowStockAlertService;
 import com.his.service.MedicineService;
 import com.his.test.base.BaseControllerTest;
+import com.his.vo.LowStockMedicineVO;
 
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -27,6 +31,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * <ul>
  *   <li>更新药品库存（PUT /api/pharmacist/medicines/{id}/stock）</li>
  *   <li>库存统计（GET /api/pharmacist/medicines/inventory-stats）</li>
+ *   <li>低库存预警（GET /api/pharmacist/medicines/low-stock）</li>
  * </ul>
  *
  * @author HIS 开发团队
@@ -38,6 +43,9 @@ class PharmacistMedicineControllerTest extends BaseControllerTest {
     @MockBean
     private MedicineService medicineService;
 
+    @MockBean
+    private LowStockAlertService lowStockAlertService;
+
     // ==================== PUT /{id}/stock - 更新库存测试 ====================
 
     @Test
@@ -194,6 +202,32 @@ class PharmacistMedicineControllerTest extends BaseControllerTest {
                 .andExpect(status().isInternalServerError());
     }
 
+    // ==================== GET /low-stock - 低库存预警测试 ====================
+
+    @Test
+    @WithMockUser(username = "pharmacist", roles = {"PHARMACIST"})
+    @DisplayName("GET /api/pharmacist/medicines/low-stock - 返回当前低库存药品")
+    void testGetLowStock_Success() throws Exception {
+        // Given
+        LowStockMedicineVO vo = LowStockMedicineVO.builder()
+                .medicineId(1L)
+                .medicineCode("MED001")
+                .name("阿莫西林胶囊")
+                .stockQuantity(8)
+                .minStock(10)
+                .build();
+        when(lowStockAlertService.getCurrentLowStock()).thenReturn(List.of(vo));
+
+        // When & Then
+        mockMvc.perform(get("/api/pharmacist/medicines/low-stock"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data[0].medicineId").value(1))
+                .andExpect(jsonPath("$.data[0].stockQuantity").value(8));
+
+        verify(lowStockAlertService).getCurrentLowStock();
+    }
+
     // ==================== 权限测试 ====================
 
     @Test
@@ -156,9 +156,28 @@ class PharmacistPrescriptionControllerTest extends BaseControllerTest {
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.code").value(200))
-                .andExpect(jsonPath("$.data").isArray())
-                .andExpect(jsonPath("$.data.length()").value(greaterThanOrEqualTo(1))) // 至少有1条
-                .andExpect(jsonPath("$.data[?(@.status == 5)]").exists()); // 存在PAID状态的处方
+                .andExpect(jsonPath("$.data.content").isArray())
+                .andExpect(jsonPath("$.data.content.length()").value(greaterThanOrEqualTo(1))) // 至少有1条
+                .andExpect(jsonPath("$.data.totalElements").value(greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.data.content[?(@.status == 5)]").exists()); // 存在PAID状态的处方
+    }
+
+    @Test
+    @DisplayName("测试分页参数越界返回400")
+    void testPendingListInvalidPaging() throws Exception {
+        mockMvc.perform(get("/api/pharmacist/prescriptions/pending")
+                        .param("size", "0")
+                        .with(authentication(setupPharmacistAuthentication())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value(400));
+        mockMvc.perform(get("/api/pharmacist/prescriptions/pending-review")
+                        .param("page", "-1")
+                        .with(authentication(setupPharmacistAuthentication())))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/pharmacist/prescriptions/pending-review")
+                        .param("size", "1000")
+                        .with(authentication(setupPharmacistAuthentication())))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -178,6 +197,115 @@ class PharmacistPrescriptionControllerTest extends BaseControllerTest {
         assert updated.getDispenseBy().equals(testPharmacistUserId);
     }
 
+    @Test
+    @DisplayName("测试批量发药：逐张返回结果")
+    void testBatchDispense_PartialSuccess() throws Exception {
+        mockMvc.perform(post("/api/pharmacist/prescriptions/batch-dispense")
+                        .with(authentication(setupPharmacistAuthentication()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"prescriptionIds\": [" + testPrescriptionId + ", 999999999]}"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.total").value(2))
+                .andExpect(jsonPath("$.data.successCount").value(1))
+                .andExpect(jsonPath("$.data.results[0].success").value(true))
+                .andExpect(jsonPath("$.data.results[1].success").value(false))
+                .andExpect(jsonPath("$.data.results[1].message").value("处方不存在"));
+
+        Prescription updated = prescriptionRepository.findById(testPrescriptionId).orElseThrow();
+        assert updated.getStatus() == 3;
+        assert updated.getDispenseBy().equals(testPharmacistUserId);
+        Medicine medicine = updated.getDetails().get(0).getMedicine();
+        assert medicineRepository.findById(medicine.getMainId()).orElseThrow().getStockQuantity() == 98;
+    }
+
+    @Test
+    @DisplayName("测试批量发药：处方ID列表为空（失败）")
+    void testBatchDispense_EmptyIds_Fail() throws Exception {
+        mockMvc.perform(post("/api/pharmacist/prescriptions/batch-dispense")
+                        .with(authentication(setupPharmacistAuthentication()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"prescriptionIds\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("测试领取与释放待发药处方")
+    void testClaimAndRelease() throws Exception {
+        mockMvc.perform(post("/api/pharmacist/prescriptions/claim")
+                        .param("limit", "50")
+                        .with(authentication(setupPharmacistAuthentication()))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data").isArray())
+                .andExpect(jsonPath("$.data[?(@.mainId == " + testPrescriptionId + ")].claimedBy")
+                        .value(testPharmacistUserId.intValue()));
+
+        Prescription claimed = prescriptionRepository.findById(testPrescriptionId).orElseThrow();
+        assert testPharmacistUserId.equals(claimed.getClaimedBy());
+        assert claimed.getClaimExpiresAt() != null;
+
+        mockMvc.perform(post("/api/pharmacist/prescriptions/{id}/release", testPrescriptionId)
+                        .with(authentication(setupPharmacistAuthentication()))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200));
+
+        Prescription released = prescriptionRepository.findById(testPrescriptionId).orElseThrow();
+        assert released.getClaimedBy() == null;
+    }
+
+    @Test
+    @DisplayName("测试发药被其他药师领取的处方（失败）")
+    void testDispense_ClaimedByOther_Fail() throws Exception {
+        Prescription prescription = prescriptionRepository.findById(testPrescriptionId).orElseThrow();
+        prescription.setClaimedBy(testPharmacistUserId + 1);
+        prescription.setClaimExpiresAt(java.time.LocalDateTime.now().plusMinutes(5));
+        prescriptionRepository.save(prescription);
+
+        mockMvc.perform(post("/api/pharmacist/prescriptions/{id}/dispense", testPrescriptionId)
+                        .with(authentication(setupPharmacistAuthentication()))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("处方已被其他药师领取")));
+    }
+
+    @Test
+    @DisplayName("测试按时间范围统计工作量：发药后立即计入当前小时统计桶")
+    void testStatistics_ByHour() throws Exception {
+        mockMvc.perform(post("/api/pharmacist/prescriptions/{id}/dispense", testPrescriptionId)
+                        .with(authentication(setupPharmacistAuthentication()))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        java.time.LocalDateTime todayStart = java.time.LocalDate.now().atStartOfDay();
+        mockMvc.perform(get("/api/pharmacist/prescriptions/statistics")
+                        .param("startTime", todayStart.toString())
+                        .param("endTime", todayStart.plusDays(1).toString())
+                        .param("granularity", "HOUR")
+                        .with(authentication(setupPharmacistAuthentication())))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.granularity").value("HOUR"))
+                .andExpect(jsonPath("$.data.total.dispensedCount").value(greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.data.buckets.length()").value(greaterThanOrEqualTo(1)));
+    }
+
+    @Test
+    @DisplayName("测试按时间范围统计工作量：开始时间晚于结束时间（失败）")
+    void testStatistics_InvalidRange_Fail() throws Exception {
+        mockMvc.perform(get("/api/pharmacist/prescriptions/statistics")
+                        .param("startTime", "2026-01-02T00:00:00")
+                        .param("endTime", "2026-01-01T00:00:00")
+                        .with(authentication(setupPharmacistAuthentication())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("开始时间必须早于结束时间")));
+    }
+
     @Test
     @DisplayName("测试未缴费处方发药（失败）")
     void testDispense_NotApproved_Fail() throws Exception {
@@ -166,9 +166,9 @@ class PharmacistWorkstationIntegrationTest extends BaseControllerTest {
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.code").value(200))
-                .andExpect(jsonPath("$.data").isArray())
-                .andExpect(jsonPath("$.data.length()").value(greaterThanOrEqualTo(1))) // 至少有1条
-                .andExpect(jsonPath("$.data[0].prescriptionNo").exists()); // 不再检查具体的处方号，因为它包含时间戳
+                .andExpect(jsonPath("$.data.content").isArray())
+                .andExpect(jsonPath("$.data.content.length()").value(greaterThanOrEqualTo(1))) // 至少有1条
+                .andExpect(jsonPath("$.data.content[0].prescriptionNo").exists()); // 不再检查具体的处方号，因为它包含时间戳
     }
 
     @Test
@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,8 +14,11 @@ import org.springframework.security.test.context.support.WithMockUser;
 
 import com.his.dto.PrescriptionDTO;
 import com.his.entity.Prescription;
+import com.his.enums.ConflictTypeEnum;
+import com.his.service.DrugConflictService;
 import com.his.service.PrescriptionService;
 import com.his.test.base.BaseControllerTest;
+import com.his.vo.DrugConflictWarningVO;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
@@ -43,6 +47,9 @@ class PrescriptionControllerTest extends BaseControllerTest {
     @MockBean
     private PrescriptionService prescriptionService;
 
+    @MockBean
+    private DrugConflictService drugConflictService;
+
     // ==================== POST /create - 创建处方测试 ====================
 
     @Test
@@ -84,6 +91,33 @@ class PrescriptionControllerTest extends BaseControllerTest {
                 .andExpect(jsonPath("$.message").value("处方创建成功"));
     }
 
+    @Test
+    @DisplayName("创建处方 - 响应附带用药冲突警示")
+    @WithMockUser(roles = "DOCTOR")
+    void testCreatePrescription_WithConflictWarnings() throws Exception {
+        Prescription savedPrescription = new Prescription();
+        savedPrescription.setMainId(1L);
+        savedPrescription.setPrescriptionNo("RX20260103002");
+
+        DrugConflictWarningVO warning = DrugConflictWarningVO.builder()
+                .type(ConflictTypeEnum.INTERACTION)
+                .severity((short) 2)
+                .medicineId(3L)
+                .conflictMedicineId(2L)
+                .message("布洛芬可降低阿司匹林的抗血小板作用")
+                .build();
+
+        when(prescriptionService.createPrescription(any())).thenReturn(savedPrescription);
+        when(drugConflictService.check(savedPrescription)).thenReturn(List.of(warning));
+
+        mockMvc.perform(post("/api/doctor/prescriptions/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(toJson(createTestPrescriptionDTO())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.conflictWarnings[0].type").value("INTERACTION"))
+                .andExpect(jsonPath("$.data.conflictWarnings[0].severity").value(2));
+    }
+
     @Test
     @DisplayName("创建处方 - 病历记录不存在")
     @WithMockUser(roles = "DOCTOR")
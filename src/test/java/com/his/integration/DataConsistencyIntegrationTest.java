@@ -9,6 +9,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 
 import com.his.entity.*;
 import com.his.repository.*;
+import com.his.service.LowStockAlertService;
+import com.his.service.MedicineCatalogService;
 import com.his.service.impl.MedicineServiceImpl;
 import com.his.test.base.BaseIntegrationTest;
 
@@ -29,6 +31,12 @@ class DataConsistencyIntegrationTest extends BaseIntegrationTest {
     @Autowired
     private MedicineRepository medicineRepository;
 
+    @Autowired
+    private LowStockAlertService lowStockAlertService;
+
+    @Autowired
+    private MedicineCatalogService medicineCatalogService;
+
     @MockBean
     private com.his.service.ChargeService chargeService;
 
@@ -44,7 +52,7 @@ class DataConsistencyIntegrationTest extends BaseIntegrationTest {
         Medicine savedMedicine = medicineRepository.save(medicine);
 
         // When - 多次更新库存
-        MedicineServiceImpl service = new MedicineServiceImpl(medicineRepository);
+        MedicineServiceImpl service = new MedicineServiceImpl(medicineRepository, lowStockAlertService, medicineCatalogService);
 
         // 第一次扣减
         service.updateStock(savedMedicine.getMainId(), -30, "第一次扣减");
@@ -73,7 +81,7 @@ class DataConsistencyIntegrationTest extends BaseIntegrationTest {
         Medicine savedMedicine = medicineRepository.save(medicine);
 
         // When - 更新库存
-        MedicineServiceImpl service = new MedicineServiceImpl(medicineRepository);
+        MedicineServiceImpl service = new MedicineServiceImpl(medicineRepository, lowStockAlertService, medicineCatalogService);
         service.updateStock(savedMedicine.getMainId(), -10, "测试扣减");
 
         // Then - 验证库存立即更新
@@ -97,7 +105,7 @@ class DataConsistencyIntegrationTest extends BaseIntegrationTest {
         Medicine savedMedicine = medicineRepository.save(medicine);
 
         // When & Then - 尝试扣减10应该抛出异常
-        MedicineServiceImpl service = new MedicineServiceImpl(medicineRepository);
+        MedicineServiceImpl service = new MedicineServiceImpl(medicineRepository, lowStockAlertService, medicineCatalogService);
 
         IllegalStateException exception = assertThrows(IllegalStateException.class,
                 () -> service.updateStock(savedMedicine.getMainId(), -10, "测试不足"));
@@ -120,7 +128,7 @@ class DataConsistencyIntegrationTest extends BaseIntegrationTest {
         Medicine savedMedicine = medicineRepository.save(medicine);
 
         // When - 两次更新库存
-        MedicineServiceImpl service = new MedicineServiceImpl(medicineRepository);
+        MedicineServiceImpl service = new MedicineServiceImpl(medicineRepository, lowStockAlertService, medicineCatalogService);
         service.updateStock(savedMedicine.getMainId(), -10, "第一次扣减");
 
         // 第一次更新成功，库存应为90
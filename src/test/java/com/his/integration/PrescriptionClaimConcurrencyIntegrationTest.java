@@ -0,0 +1,241 @@
+package com.his.integration;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.his.entity.*;
+import com.his.repository.*;
+import com.his.service.PrescriptionService;
+import com.his.test.base.BaseIntegrationTest;
+import com.his.vo.PrescriptionVO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 待发药处方并发领取测试
+ * <p>
+ * 多名药师同时领取同一待发药队列，验证 FOR UPDATE SKIP LOCKED 领取互不重复、
+ * 租约到期的处方自动回到队列，并记录 10 名药师并发领取的吞吐量
+ * </p>
+ * <p>
+ * 并发领取需要各线程独立提交事务，因此本测试不在测试事务中运行，
+ * 数据由 {@link com.his.testutils.DatabaseCleaner} 在每个测试后清理
+ * </p>
+ *
+ * @author HIS 开发团队
+ * @since 1.0
+ */
+@DisplayName("待发药处方并发领取集成测试")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PrescriptionClaimConcurrencyIntegrationTest extends BaseIntegrationTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PrescriptionClaimConcurrencyIntegrationTest.class);
+
+    private static final int PHARMACISTS = 10;
+    private static final int PRESCRIPTIONS = 500;
+    private static final int BATCH_SIZE = 5;
+
+    @Autowired
+    private PrescriptionService prescriptionService;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private com.his.service.ChargeService chargeService;
+
+    @Override
+    protected void setUpTest() {
+        cleanDatabase();
+    }
+
+    @Test
+    @DisplayName("10名药师并发领取：每张处方只被领取一次")
+    void concurrentClaim_DistinctWork() throws Exception {
+        createPaidPrescriptions(PRESCRIPTIONS);
+
+        Set<Long> claimedIds = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+        AtomicInteger claimCalls = new AtomicInteger();
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(PHARMACISTS);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < PHARMACISTS; i++) {
+            long pharmacistId = 1000L + i;
+            futures.add(executor.submit(() -> {
+                startGate.await();
+                while (true) {
+                    List<PrescriptionVO> batch = prescriptionService.claimPendingDispense(pharmacistId, BATCH_SIZE);
+                    claimCalls.incrementAndGet();
+                    if (batch.isEmpty()) {
+                        return null;
+                    }
+                    List<Long> ids = batch.stream().map(PrescriptionVO::getMainId).toList();
+                    for (Long id : ids) {
+                        if (!claimedIds.add(id)) {
+                            duplicates.incrementAndGet();
+                        }
+                    }
+                    completeDispense(ids);
+                }
+            }));
+        }
+
+        long start = System.nanoTime();
+        startGate.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        executor.shutdown();
+
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        LOG.info("并发领取基准：药师数={}, 处方数={}, 每批={}, 领取调用={}, 耗时={} ms, 吞吐量={} 张/秒",
+                PHARMACISTS, PRESCRIPTIONS, BATCH_SIZE, claimCalls.get(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), String.format("%.1f", PRESCRIPTIONS / seconds));
+
+        assertEquals(0, duplicates.get(), "同一处方不应被多名药师领取");
+        assertEquals(PRESCRIPTIONS, claimedIds.size(), "所有待发药处方都应被领取");
+    }
+
+    @Test
+    @DisplayName("租约到期：未发药的处方回到队列，可被其他药师领取")
+    void expiredClaim_ReturnsToQueue() {
+        createPaidPrescriptions(3);
+
+        List<Long> firstClaim = prescriptionService.claimPendingDispense(1L, 3).stream()
+                .map(PrescriptionVO::getMainId).toList();
+        assertEquals(3, firstClaim.size());
+        assertTrue(prescriptionService.claimPendingDispense(2L, 3).isEmpty(), "租约期内其他药师不能领取");
+
+        // 模拟药师1放弃处理且租约到期
+        jdbcTemplate.update("UPDATE his_prescription SET claim_expires_at = now() - interval '1 second' WHERE claimed_by = 1");
+
+        List<PrescriptionVO> secondClaim = prescriptionService.claimPendingDispense(2L, 3);
+        assertEquals(firstClaim, secondClaim.stream().map(PrescriptionVO::getMainId).toList());
+        assertTrue(secondClaim.stream().allMatch(p -> Long.valueOf(2L).equals(p.getClaimedBy())));
+    }
+
+    @Test
+    @DisplayName("释放领取：处方立即回到队列")
+    void releasedClaim_ReturnsToQueue() {
+        createPaidPrescriptions(1);
+
+        Long id = prescriptionService.claimPendingDispense(1L, 1).get(0).getMainId();
+        prescriptionService.releaseClaim(id, 1L);
+
+        List<PrescriptionVO> reclaimed = prescriptionService.claimPendingDispense(2L, 1);
+        assertEquals(1, reclaimed.size());
+        assertEquals(id, reclaimed.get(0).getMainId());
+    }
+
+    /**
+     * 模拟药师完成发药：处方离开待发药队列
+     */
+    private void completeDispense(List<Long> ids) {
+        for (Long id : ids) {
+            jdbcTemplate.update("UPDATE his_prescription SET status = 3, claimed_by = NULL, claim_expires_at = NULL WHERE main_id = ?", id);
+        }
+    }
+
+    private void createPaidPrescriptions(int count) {
+        String suffix = String.valueOf(System.currentTimeMillis());
+
+        Department dept = new Department();
+        dept.setDeptCode("CLAIM_" + suffix);
+        dept.setName("药剂科");
+        dept.setStatus((short) 1);
+        dept.setIsDeleted((short) 0);
+        dept = departmentRepository.save(dept);
+
+        Doctor doctor = new Doctor();
+        doctor.setDoctorNo("DOC_" + suffix);
+        doctor.setName("张医生");
+        doctor.setDepartment(dept);
+        doctor.setGender((short) 1);
+        doctor.setStatus((short) 1);
+        doctor.setIsDeleted((short) 0);
+        doctor = doctorRepository.save(doctor);
+
+        Patient patient = new Patient();
+        patient.setPatientNo("P_" + suffix);
+        patient.setName("李四");
+        patient.setGender((short) 1);
+        patient.setIsDeleted((short) 0);
+        patient = patientRepository.save(patient);
+
+        Registration reg = new Registration();
+        reg.setRegNo("R_" + suffix);
+        reg.setPatient(patient);
+        reg.setDoctor(doctor);
+        reg.setDepartment(dept);
+        reg.setVisitDate(LocalDate.now());
+        reg.setIsDeleted((short) 0);
+        reg = registrationRepository.save(reg);
+
+        MedicalRecord record = new MedicalRecord();
+        record.setRecordNo("REC_" + suffix);
+        record.setRegistration(reg);
+        record.setPatient(patient);
+        record.setDoctor(doctor);
+        record.setChiefComplaint("测试主诉");
+        record.setStatus((short) 1);
+        record.setIsDeleted((short) 0);
+        record = medicalRecordRepository.save(record);
+
+        List<Prescription> prescriptions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Prescription prescription = new Prescription();
+            prescription.setPrescriptionNo("PRE_" + suffix + "_" + i);
+            prescription.setMedicalRecord(record);
+            prescription.setPatient(patient);
+            prescription.setDoctor(doctor);
+            prescription.setStatus((short) 5); // PAID (已缴费)
+            prescription.setTotalAmount(new BigDecimal("20.00"));
+            prescription.setItemCount(1);
+            prescription.setPrescriptionType((short) 1);
+            prescription.setIsDeleted((short) 0);
+            prescriptions.add(prescription);
+        }
+        prescriptionRepository.saveAll(prescriptions);
+    }
+}
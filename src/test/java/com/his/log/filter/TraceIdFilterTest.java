@@ -1,10 +1,16 @@
 package com.his.log.filter;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -16,6 +22,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * 2. 验证 TraceId 是否正确传递到 MDC
  * 3. 验证 TraceId 是否在日志中正确显示
  * 4. 验证请求结束后 MDC 是否正确清理
+ * 5. 验证 traceparent / X-Trace-Id 的解析与校验
  *
  * @author HIS Development Team
  * @since 1.0.0
@@ -77,6 +84,86 @@ class TraceIdFilterTest {
         assertEquals("UNKNOWN", TraceIdFilter.getTraceId(), "MDC 清理后应返回 UNKNOWN");
     }
 
+    @Test
+    @DisplayName("traceparent 有效时使用其中的 trace-id，请求结束后清理 MDC")
+    void shouldUseTraceparentTraceId() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/patients/1");
+        request.addHeader(TraceIdFilter.TRACEPARENT_HEADER, "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+        request.addHeader(TraceIdFilter.TRACE_ID_HEADER, "upstream-id");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        String[] seen = new String[1];
+
+        new TraceIdFilter().doFilter(request, response,
+                (req, resp) -> seen[0] = MDC.get(TraceIdFilter.TRACE_ID_KEY));
+
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", seen[0]);
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", response.getHeader(TraceIdFilter.TRACE_ID_HEADER));
+        assertNull(MDC.get(TraceIdFilter.TRACE_ID_KEY), "请求结束后应清理 MDC");
+    }
+
+    @Test
+    @DisplayName("traceparent 无效时使用有效的 X-Trace-Id，都无效时生成新 TraceId")
+    void shouldFallBackToHeaderThenGenerate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/patients/1");
+        request.addHeader(TraceIdFilter.TRACEPARENT_HEADER, "00-00000000000000000000000000000000-00f067aa0ba902b7-01");
+        request.addHeader(TraceIdFilter.TRACE_ID_HEADER, "a1b2c3d4-e5f6-7890-abcd-ef1234567890");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new TraceIdFilter().doFilter(request, response, new MockFilterChain());
+        assertEquals("a1b2c3d4-e5f6-7890-abcd-ef1234567890", response.getHeader(TraceIdFilter.TRACE_ID_HEADER));
+
+        MockHttpServletRequest injected = new MockHttpServletRequest("GET", "/api/patients/1");
+        injected.addHeader(TraceIdFilter.TRACE_ID_HEADER, "abc\r\n[伪造日志]");
+        MockHttpServletResponse generated = new MockHttpServletResponse();
+        new TraceIdFilter().doFilter(injected, generated, new MockFilterChain());
+        assertTrue(generated.getHeader(TraceIdFilter.TRACE_ID_HEADER).matches("[0-9a-f]{32}"));
+    }
+
+    @Test
+    @DisplayName("兼容旧版请求头 traceId：X-Trace-Id 缺失时使用，并通过两个响应头返回")
+    void shouldAcceptLegacyTraceIdHeader() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/patients/1");
+        request.addHeader(TraceIdFilter.LEGACY_TRACE_ID_HEADER, "legacy-trace-1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new TraceIdFilter().doFilter(request, response, new MockFilterChain());
+
+        assertEquals("legacy-trace-1", response.getHeader(TraceIdFilter.TRACE_ID_HEADER));
+        assertEquals("legacy-trace-1", response.getHeader(TraceIdFilter.LEGACY_TRACE_ID_HEADER));
+
+        MockHttpServletRequest both = new MockHttpServletRequest("GET", "/api/patients/1");
+        both.addHeader(TraceIdFilter.TRACE_ID_HEADER, "new-trace-1");
+        both.addHeader(TraceIdFilter.LEGACY_TRACE_ID_HEADER, "legacy-trace-1");
+        MockHttpServletResponse preferred = new MockHttpServletResponse();
+        new TraceIdFilter().doFilter(both, preferred, new MockFilterChain());
+        assertEquals("new-trace-1", preferred.getHeader(TraceIdFilter.TRACE_ID_HEADER));
+    }
+
+    @Test
+    @DisplayName("traceparent 格式校验")
+    void shouldValidateTraceparent() {
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736",
+                TraceIdFilter.parseTraceparent("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01"));
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736",
+                TraceIdFilter.parseTraceparent("01-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01-extra"));
+        assertNull(TraceIdFilter.parseTraceparent("ff-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01"));
+        assertNull(TraceIdFilter.parseTraceparent("00-4BF92F3577B34DA6A3CE929D0E0E4736-00f067aa0ba902b7-01"));
+        assertNull(TraceIdFilter.parseTraceparent("00-4bf92f3577b34da6a3ce929d0e0e4736-0000000000000000-01"));
+        assertNull(TraceIdFilter.parseTraceparent("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01-extra"));
+        assertNull(TraceIdFilter.parseTraceparent("garbage"));
+    }
+
+    @Test
+    @DisplayName("生成的 TraceId 为 32 位小写十六进制且互不相同")
+    void shouldGenerateW3cCompatibleTraceId() {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            String traceId = TraceIdFilter.newTraceId();
+            assertTrue(traceId.matches("[0-9a-f]{32}"), traceId);
+            ids.add(traceId);
+        }
+        assertEquals(1000, ids.size());
+    }
+
     @BeforeEach
     @AfterEach
     void tearDown() {
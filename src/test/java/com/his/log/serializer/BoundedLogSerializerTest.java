@@ -0,0 +1,130 @@
+package com.his.log.serializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.his.common.DataMaskingContext;
+import com.his.common.SensitiveData;
+import com.his.common.SensitiveType;
+import com.his.config.SensitiveDataSerializer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 限长日志序列化器测试
+ *
+ * 测试目标：
+ * 1. 未超过上限时与 ObjectMapper 输出一致
+ * 2. 超过上限时截断，并且不再序列化剩余对象
+ * 3. 敏感字段总是脱敏
+ *
+ * @author HIS 开发团队
+ * @since 1.0
+ */
+@DisplayName("限长日志序列化器测试")
+class BoundedLogSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("未超过上限：与 ObjectMapper 输出一致")
+    void serialize_WithinLimit_SameAsObjectMapper() throws Exception {
+        BoundedLogSerializer serializer = new BoundedLogSerializer(objectMapper, 500);
+        Object[] args = {Map.of("patientId", 1001), "挂号", 3};
+
+        assertThat(serializer.serialize(args)).isEqualTo(objectMapper.writeValueAsString(args));
+        assertThat(serializer.serialize(null)).isEqualTo("null");
+    }
+
+    @Test
+    @DisplayName("超过上限：截断到上限并追加标记，不再序列化剩余元素")
+    void serialize_LargeList_StopsAtLimit() throws Exception {
+        BoundedLogSerializer serializer = new BoundedLogSerializer(objectMapper, 100);
+        AtomicInteger serialized = new AtomicInteger();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            items.add(new Item(i, serialized));
+        }
+
+        String json = serializer.serialize(items);
+
+        assertThat(json).hasSize(100 + BoundedLogSerializer.TRUNCATED_SUFFIX.length());
+        assertThat(json).startsWith("[{\"id\":0,").endsWith(BoundedLogSerializer.TRUNCATED_SUFFIX);
+        assertThat(serialized.get()).isLessThan(100);
+
+        // 同一线程复用缓冲，后续调用不受影响
+        assertThat(serializer.serialize(List.of(1, 2))).isEqualTo("[1,2]");
+    }
+
+    @Test
+    @DisplayName("敏感字段：总是脱敏，禁用脱敏的上下文中也不输出明文")
+    void serialize_SensitiveData_AlwaysMasked() throws Exception {
+        BoundedLogSerializer serializer = new BoundedLogSerializer(objectMapper, 500);
+
+        String json;
+        try (DataMaskingContext.Scope scope = DataMaskingContext.disable()) {
+            json = serializer.serialize(new Contact("13812345678", "13900001111"));
+        }
+
+        assertThat(json).isEqualTo("{\"phone\":\"138****5678\",\"backupPhone\":\"139****1111\"}");
+    }
+
+    @Test
+    @DisplayName("最大字符数必须大于0")
+    void constructor_InvalidMaxLength_Rejected() {
+        assertThatThrownBy(() -> new BoundedLogSerializer(objectMapper, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @JsonPropertyOrder({"id", "name"})
+    static class Item {
+        private final int id;
+        private final AtomicInteger serialized;
+
+        Item(int id, AtomicInteger serialized) {
+            this.id = id;
+            this.serialized = serialized;
+        }
+
+        public int getId() {
+            serialized.incrementAndGet();
+            return id;
+        }
+
+        public String getName() {
+            return "药品名称-" + id;
+        }
+    }
+
+    @JsonPropertyOrder({"phone", "backupPhone"})
+    static class Contact {
+        @SensitiveData(type = SensitiveType.PHONE)
+        @JsonSerialize(using = SensitiveDataSerializer.class)
+        private final String phone;
+
+        @SensitiveData(type = SensitiveType.PHONE)
+        private final String backupPhone;
+
+        Contact(String phone, String backupPhone) {
+            this.phone = phone;
+            this.backupPhone = backupPhone;
+        }
+
+        public String getPhone() {
+            return phone;
+        }
+
+        public String getBackupPhone() {
+            return backupPhone;
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.his.log.writer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.his.entity.AuditLogEntity;
+import com.his.enums.AuditBackpressurePolicyEnum;
+import com.his.monitoring.AuditLogWriterMetrics;
+import com.his.service.AuditLogRetentionService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * AuditLogBatchWriter 单元测试
+ * <p>
+ * 验证攒批后的多行 INSERT、队列已满和数据库失败时转入 spool 与补写，以及停机时写完队列
+ * </p>
+ *
+ * @author HIS 开发团队
+ * @since 1.0
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("审计日志批量写入器测试")
+class AuditLogBatchWriterTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 7, 15, 10, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AuditLogRetentionService retentionService;
+
+    @TempDir
+    Path spoolDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AuditLogSpool spool;
+    private AuditLogBatchWriter writer;
+
+    @AfterEach
+    void stopWriter() {
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("攒批写入：每条 INSERT 不超过批量上限，停机时写完队列")
+    void submit_WrittenInBatches_FlushedOnShutdown() throws Exception {
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenReturn(1);
+        writer = createWriter(100, 2, AuditBackpressurePolicyEnum.SPILL);
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(writer.submit(entity("操作" + i)));
+        }
+        writer.shutdown();
+
+        assertThat(futures).allMatch(CompletableFuture::isDone);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, atLeast(3)).update(sql.capture(), any(PreparedStatementSetter.class));
+        assertThat(sql.getAllValues()).allSatisfy(statement -> {
+            assertThat(statement).startsWith("INSERT INTO sys_audit_log (module, action");
+            assertThat(rows(statement)).isBetween(1, 2);
+        });
+        assertThat(sql.getAllValues().stream().mapToInt(AuditLogBatchWriterTest::rows).sum()).isEqualTo(5);
+        assertThat(meterRegistry.get("audit.log.writer.batch.size").summary().totalAmount()).isEqualTo(5.0);
+    }
+
+    @Test
+    @DisplayName("队列已满（DROP）：丢弃并计数，业务线程不等待")
+    void submit_QueueFull_Dropped() throws Exception {
+        CountDownLatch release = givenBlockedWriter(AuditBackpressurePolicyEnum.DROP);
+
+        CompletableFuture<Void> dropped = writer.submit(entity("第三条"));
+
+        assertThat(dropped).isDone();
+        assertThat(meterRegistry.get("audit.log.writer.rejected").tag("outcome", "drop").counter().count())
+                .isEqualTo(1.0);
+        release.countDown();
+        writer.shutdown();
+        verify(jdbcTemplate, times(2)).update(anyString(), any(PreparedStatementSetter.class));
+    }
+
+    @Test
+    @DisplayName("队列已满（SPILL）：转入 spool，补写后 spool 为空")
+    void submit_QueueFull_SpooledAndReplayed() throws Exception {
+        CountDownLatch release = givenBlockedWriter(AuditBackpressurePolicyEnum.SPILL);
+
+        CompletableFuture<Void> spilled = writer.submit(entity("第三条"));
+
+        assertThat(spilled).isDone();
+        assertThat(spool.stats().pendingRecords()).isEqualTo(1);
+        release.countDown();
+        writer.shutdown();
+
+        assertThat(writer.replaySpool(100)).isEqualTo(1);
+        verify(jdbcTemplate, times(3)).update(anyString(), any(PreparedStatementSetter.class));
+        assertThat(spool.stats().pendingRecords()).isZero();
+        assertThat(spool.stats().replayedTotal()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("数据库写入失败：整批转入 spool，数据库恢复后补写")
+    void write_DatabaseFailure_SpooledAndReplayed() throws Exception {
+        AtomicBoolean databaseDown = new AtomicBoolean(true);
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenAnswer(invocation -> {
+            if (databaseDown.get()) {
+                throw new DataAccessResourceFailureException("connection refused");
+            }
+            return 2;
+        });
+        writer = createWriter(100, 10, AuditBackpressurePolicyEnum.SPILL);
+
+        writer.submit(entity("第一条"));
+        writer.submit(entity("第二条"));
+        writer.shutdown();
+
+        assertThat(spool.stats().pendingRecords()).isEqualTo(2);
+        databaseDown.set(false);
+        assertThat(writer.replaySpool(100)).isEqualTo(2);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, atLeast(2)).update(sql.capture(), any(PreparedStatementSetter.class));
+        assertThat(rows(sql.getValue())).isEqualTo(2);
+        assertThat(spool.stats().pendingRecords()).isZero();
+        assertThat(meterRegistry.get("audit.log.writer.failure").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("补写时数据库仍不可用：抛出异常，spool 保留未补写记录")
+    void replaySpool_DatabaseUnavailable_KeepsRecords() throws Exception {
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+        writer = createWriter(100, 10, AuditBackpressurePolicyEnum.SPILL);
+
+        writer.submit(entity("第一条"));
+        writer.shutdown();
+
+        assertThatThrownBy(() -> writer.replaySpool(100)).isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(spool.stats().pendingRecords()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("批量写入被数据库拒绝：逐条重试，被拒绝的一条转入死信文件，不进入 spool")
+    void write_OneBadRow_OthersWritten() throws Exception {
+        givenDatabase(new AtomicBoolean(false), "坏数据");
+        writer = createWriter(100, 10, AuditBackpressurePolicyEnum.SPILL);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 500L);
+
+        writer.submit(entity("第一条"));
+        writer.submit(entity("坏数据"));
+        writer.submit(entity("第三条"));
+        writer.shutdown();
+
+        assertThat(spool.stats().pendingRecords()).isZero();
+        assertThat(spool.stats().deadLetteredTotal()).isEqualTo(1);
+        assertThat(Files.readString(spoolDir.resolve("dead-letter.log"))).contains("坏数据").contains("not-null");
+        assertThat(meterRegistry.get("audit.log.writer.batch.size").summary().totalAmount()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("audit.log.writer.failure").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("补写时遇到坏数据：逐条补写，坏数据转入死信文件，之后的记录继续补写")
+    void replaySpool_PoisonRow_DeadLetteredAndSkipped() throws Exception {
+        AtomicBoolean databaseDown = new AtomicBoolean(true);
+        givenDatabase(databaseDown, "坏数据");
+        writer = createWriter(100, 10, AuditBackpressurePolicyEnum.SPILL);
+
+        writer.submit(entity("第一条"));
+        writer.submit(entity("坏数据"));
+        writer.submit(entity("第三条"));
+        writer.shutdown();
+        assertThat(spool.stats().pendingRecords()).isEqualTo(3);
+
+        databaseDown.set(false);
+        assertThat(writer.replaySpool(100)).isEqualTo(3);
+        assertThat(spool.stats().pendingRecords()).isZero();
+        assertThat(spool.stats().deadLetteredTotal()).isEqualTo(1);
+        assertThat(Files.readString(spoolDir.resolve("dead-letter.log"))).contains("坏数据");
+    }
+
+    @Test
+    @DisplayName("没有对应分区：整批留在 spool，补写时创建分区后写入，不转入死信文件")
+    void replaySpool_MissingPartition_CreatedAndReplayed() throws Exception {
+        AtomicBoolean partitionExists = new AtomicBoolean(false);
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenAnswer(invocation -> {
+            if (!partitionExists.get()) {
+                throw new DataIntegrityViolationException("insert failed", missingPartition());
+            }
+            return rows(invocation.getArgument(0));
+        });
+        when(retentionService.ensurePartition(YearMonth.from(T0))).thenAnswer(invocation -> {
+            partitionExists.set(true);
+            return true;
+        });
+        writer = createWriter(100, 10, AuditBackpressurePolicyEnum.SPILL);
+
+        AuditLogEntity entity = entity("第一条");
+        entity.setCreateTime(T0);
+        writer.submit(entity);
+        writer.shutdown();
+        assertThat(spool.stats().pendingRecords()).isEqualTo(1);
+        assertThat(spool.stats().deadLetteredTotal()).isZero();
+
+        assertThat(writer.replaySpool(100)).isEqualTo(1);
+        assertThat(spool.stats().pendingRecords()).isZero();
+        assertThat(spool.stats().deadLetteredTotal()).isZero();
+    }
+
+    @Test
+    @DisplayName("分区已存在仍报没有对应分区：不重复重试，spool 保留记录")
+    void replaySpool_MissingPartitionNotCreated_KeepsRecords() throws Exception {
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("insert failed", missingPartition()));
+        when(retentionService.ensurePartition(any(YearMonth.class))).thenReturn(false);
+        writer = createWriter(100, 10, AuditBackpressurePolicyEnum.SPILL);
+
+        writer.submit(entity("第一条"));
+        writer.shutdown();
+
+        assertThatThrownBy(() -> writer.replaySpool(100)).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(spool.stats().pendingRecords()).isEqualTo(1);
+        assertThat(spool.stats().deadLetteredTotal()).isZero();
+    }
+
+    @Test
+    @DisplayName("数据库拒绝写入的判断：SQLState 22/23，没有对应分区除外")
+    void isDataError_SqlState() {
+        assertThat(AuditLogBatchWriter.isDataError(new DataIntegrityViolationException("null value"))).isTrue();
+        assertThat(AuditLogBatchWriter.isDataError(new UncategorizedSQLException("insert", "INSERT",
+                new SQLException("value too long for type character varying(50)", "22001")))).isTrue();
+        assertThat(AuditLogBatchWriter.isDataError(new DataIntegrityViolationException("insert failed",
+                missingPartition()))).isFalse();
+        assertThat(AuditLogBatchWriter.isMissingPartition(new DataIntegrityViolationException("insert failed",
+                missingPartition()))).isTrue();
+        assertThat(AuditLogBatchWriter.isDataError(new DataAccessResourceFailureException("connection refused",
+                new SQLException("connection refused", "08001")))).isFalse();
+    }
+
+    @Test
+    @DisplayName("绑定参数：字符串按列长度截断，不拆开代理对")
+    void truncate_ColumnLength() {
+        assertThat(AuditLogBatchWriter.truncate(null, 5)).isNull();
+        assertThat(AuditLogBatchWriter.truncate("abc", 5)).isEqualTo("abc");
+        assertThat(AuditLogBatchWriter.truncate("abcdef", 5)).isEqualTo("abcde");
+        assertThat(AuditLogBatchWriter.truncate("abcd\uD83D\uDE00", 5)).isEqualTo("abcd");
+    }
+
+    /**
+     * 数据库不可用时连接失败；包含指定 action 的 INSERT 违反非空约束
+     */
+    private void givenDatabase(AtomicBoolean databaseDown, String rejectedAction) {
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenAnswer(invocation -> {
+            if (databaseDown.get()) {
+                throw new DataAccessResourceFailureException("connection refused");
+            }
+            if (boundActions(invocation.getArgument(1)).contains(rejectedAction)) {
+                throw new DataIntegrityViolationException("insert failed", new SQLException(
+                        "null value in column \"module\" violates not-null constraint", "23502"));
+            }
+            return rows(invocation.getArgument(0));
+        });
+    }
+
+    private static SQLException missingPartition() {
+        return new SQLException("no partition of relation \"sys_audit_log\" found for row", "23514");
+    }
+
+    /**
+     * 执行 PreparedStatementSetter，取出每行绑定的 action（每行第 2 个参数）
+     */
+    private static List<String> boundActions(PreparedStatementSetter setter) throws SQLException {
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.setValues(ps);
+        ArgumentCaptor<Integer> indexes = ArgumentCaptor.forClass(Integer.class);
+        ArgumentCaptor<String> values = ArgumentCaptor.forClass(String.class);
+        verify(ps, atLeastOnce()).setString(indexes.capture(), values.capture());
+        List<String> actions = new ArrayList<>();
+        for (int i = 0; i < indexes.getAllValues().size(); i++) {
+            if (indexes.getAllValues().get(i) % 14 == 2) {
+                actions.add(values.getAllValues().get(i));
+            }
+        }
+        return actions;
+    }
+
+    /**
+     * 队列容量 1：第一条在写入中阻塞，第二条占满队列
+     */
+    private CountDownLatch givenBlockedWriter(AuditBackpressurePolicyEnum policy) throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 1;
+        });
+        writer = createWriter(1, 1, policy);
+
+        writer.submit(entity("第一条"));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        writer.submit(entity("第二条"));
+        return release;
+    }
+
+    private AuditLogBatchWriter createWriter(int capacity, int batchSize, AuditBackpressurePolicyEnum policy)
+            throws IOException {
+        spool = new AuditLogSpool();
+        ReflectionTestUtils.setField(spool, "dir", spoolDir.toString());
+        ReflectionTestUtils.setField(spool, "segmentSizeKb", 64);
+        ReflectionTestUtils.setField(spool, "maxSizeMb", 16L);
+        spool.open();
+        AuditLogBatchWriter batchWriter = new AuditLogBatchWriter(jdbcTemplate,
+                new ObjectMapper().findAndRegisterModules(), new AuditLogWriterMetrics(meterRegistry), spool,
+                retentionService);
+        ReflectionTestUtils.setField(batchWriter, "capacity", capacity);
+        ReflectionTestUtils.setField(batchWriter, "batchSize", batchSize);
+        ReflectionTestUtils.setField(batchWriter, "flushIntervalMs", 20L);
+        ReflectionTestUtils.setField(batchWriter, "backpressure", policy);
+        ReflectionTestUtils.setField(batchWriter, "blockTimeoutMs", 50L);
+        ReflectionTestUtils.setField(batchWriter, "shutdownTimeoutMs", 5000L);
+        batchWriter.start();
+        return batchWriter;
+    }
+
+    private static AuditLogEntity entity(String action) {
+        AuditLogEntity entity = new AuditLogEntity();
+        entity.setModule("测试模块");
+        entity.setAction(action);
+        entity.setStatus("SUCCESS");
+        return entity;
+    }
+
+    private static int rows(String sql) {
+        return sql.split("\\(\\?,", -1).length - 1;
+    }
+}
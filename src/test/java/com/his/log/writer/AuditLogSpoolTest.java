@@ -0,0 +1,152 @@
+package com.his.log.writer;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * AuditLogSpool 单元测试
+ * <p>
+ * 验证分段追加、按序读取、补写位置持久化与重启恢复，以及容量上限
+ * </p>
+ *
+ * @author HIS 开发团队
+ * @since 1.0
+ */
+@DisplayName("审计日志本地 spool 测试")
+class AuditLogSpoolTest {
+
+    @TempDir
+    Path spoolDir;
+
+    @Test
+    @DisplayName("段写满后新建下一段，按追加顺序读取，补写完的段删除")
+    void append_RollsSegments_ReadInOrder() throws Exception {
+        AuditLogSpool spool = openSpool(1, 16);
+        for (int i = 0; i < 30; i++) {
+            assertThat(spool.append(payload(i), 1000L + i)).isTrue();
+        }
+        assertThat(spool.stats().segments()).isGreaterThan(1);
+        assertThat(spool.stats().oldestPendingAt()).isEqualTo(1000L);
+
+        List<String> replayed = drain(spool);
+
+        assertThat(replayed).containsExactlyElementsOf(expected(0, 30));
+        assertThat(spool.stats().pendingRecords()).isZero();
+        assertThat(spool.stats().oldestPendingAt()).isNull();
+        assertThat(spool.stats().segments()).isEqualTo(1);
+        try (var files = Files.list(spoolDir)) {
+            assertThat(files).hasSize(1);
+        }
+    }
+
+    @Test
+    @DisplayName("重启后从已补写位置继续，未提交的批次重新读取")
+    void open_RecoversReadPosition() throws Exception {
+        AuditLogSpool spool = openSpool(1, 16);
+        for (int i = 0; i < 30; i++) {
+            spool.append(payload(i), 1000L + i);
+        }
+        spool.commit(spool.peek(5));
+        spool.peek(5);
+        spool.close();
+
+        AuditLogSpool reopened = openSpool(1, 16);
+
+        assertThat(reopened.stats().pendingRecords()).isEqualTo(25);
+        assertThat(reopened.stats().oldestPendingAt()).isEqualTo(1005L);
+        assertThat(drain(reopened)).containsExactlyElementsOf(expected(5, 30));
+    }
+
+    @Test
+    @DisplayName("达到容量上限时拒绝追加并计数")
+    void append_OverLimit_Rejected() throws Exception {
+        AuditLogSpool spool = openSpool(512, 1);
+
+        boolean appended = true;
+        int count = 0;
+        while (appended && count < 10_000) {
+            appended = spool.append(new byte[100 * 1024], count);
+            count++;
+        }
+
+        assertThat(appended).isFalse();
+        assertThat(spool.stats().rejectedTotal()).isEqualTo(1);
+        assertThat(spool.stats().diskBytes()).isLessThanOrEqualTo(1024 * 1024);
+    }
+
+    @Test
+    @DisplayName("死信：重启后统计未处理条数，重新追加到 spool 后原文件改名保留")
+    void requeueDeadLetters_AppendedToSpool() throws Exception {
+        AuditLogSpool spool = openSpool(1, 16);
+        assertThat(spool.deadLetter(payload(1), "null value in column\n\"module\"")).isTrue();
+        assertThat(spool.deadLetter(payload(2), "value too long")).isTrue();
+
+        AuditLogSpool reopened = openSpool(1, 16);
+        assertThat(reopened.stats().deadLetterPending()).isEqualTo(2);
+
+        assertThat(reopened.requeueDeadLetters()).isEqualTo(2);
+        assertThat(reopened.stats().deadLetterPending()).isZero();
+        assertThat(drain(reopened)).containsExactlyElementsOf(expected(1, 3));
+        assertThat(spoolDir.resolve("dead-letter.log")).doesNotExist();
+        try (var files = Files.list(spoolDir)) {
+            assertThat(files).anyMatch(file -> file.getFileName().toString().startsWith("dead-letter-requeued-"));
+        }
+    }
+
+    @Test
+    @DisplayName("要求持久化目录时，spool 目录位于 java.io.tmpdir 下拒绝启动")
+    void open_TmpDirWithPersistentRequired_Fails() {
+        AuditLogSpool spool = new AuditLogSpool();
+        ReflectionTestUtils.setField(spool, "dir",
+                Path.of(System.getProperty("java.io.tmpdir"), "his", "audit-spool").toString());
+        ReflectionTestUtils.setField(spool, "requirePersistentDir", true);
+
+        assertThatThrownBy(spool::open)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("audit.log.spool.dir");
+    }
+
+    private AuditLogSpool openSpool(int segmentSizeKb, long maxSizeMb) throws Exception {
+        AuditLogSpool spool = new AuditLogSpool();
+        ReflectionTestUtils.setField(spool, "dir", spoolDir.toString());
+        ReflectionTestUtils.setField(spool, "segmentSizeKb", segmentSizeKb);
+        ReflectionTestUtils.setField(spool, "maxSizeMb", maxSizeMb);
+        spool.open();
+        return spool;
+    }
+
+    private static List<String> drain(AuditLogSpool spool) {
+        List<String> replayed = new ArrayList<>();
+        AuditLogSpool.Batch batch = spool.peek(7);
+        while (!batch.payloads().isEmpty()) {
+            batch.payloads().forEach(p -> replayed.add(new String(p, StandardCharsets.UTF_8)));
+            spool.commit(batch);
+            batch = spool.peek(7);
+        }
+        return replayed;
+    }
+
+    private static List<String> expected(int from, int to) {
+        List<String> expected = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            expected.add(new String(payload(i), StandardCharsets.UTF_8));
+        }
+        return expected;
+    }
+
+    private static byte[] payload(int i) {
+        return ("{\"action\":\"操作" + i + "\",\"description\":\"" + "x".repeat(60) + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+}
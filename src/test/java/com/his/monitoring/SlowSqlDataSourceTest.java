@@ -0,0 +1,150 @@
+package com.his.monitoring;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.his.log.filter.TraceIdFilter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 慢 SQL 数据源代理测试
+ *
+ * <p>使用 H2 内存库验证绑定参数脱敏、批量执行、环形缓冲区覆盖以及 EXPLAIN 的语句限制</p>
+ *
+ * @author HIS 开发团队
+ * @since 1.0
+ */
+@DisplayName("慢 SQL 数据源代理测试")
+class SlowSqlDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private SlowSqlRecorder recorder;
+    private SlowSqlDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        recorder = new SlowSqlRecorder(meterRegistry);
+        ReflectionTestUtils.setField(recorder, "enabled", true);
+        ReflectionTestUtils.setField(recorder, "thresholdMs", 0L);
+        ReflectionTestUtils.setField(recorder, "capacity", 3);
+        ReflectionTestUtils.setField(recorder, "maxSqlLength", 4000);
+        recorder.init();
+
+        DriverManagerDataSource target = new DriverManagerDataSource(
+                "jdbc:h2:mem:slow-sql-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection connection = target.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE patient (id BIGINT, name VARCHAR(50), phone VARCHAR(20))");
+        }
+        dataSource = new SlowSqlDataSource(target, recorder);
+    }
+
+    @AfterEach
+    void clearMdc() {
+        MDC.clear();
+    }
+
+    @Test
+    @DisplayName("预编译语句：记录 SQL、脱敏后的绑定参数和 TraceId")
+    void preparedStatement_CapturedWithMaskedParams() throws Exception {
+        MDC.put(TraceIdFilter.TRACE_ID_KEY, "trace-1");
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "INSERT INTO patient (id, name, phone) VALUES (?, ?, ?)")) {
+            statement.setLong(1, 1L);
+            statement.setString(2, "张三丰");
+            statement.setNull(3, Types.VARCHAR);
+            statement.executeUpdate();
+            statement.setString(3, "13800138000");
+            statement.executeUpdate();
+        }
+
+        List<SlowSqlRecorder.Entry> entries = recorder.entries();
+        assertThat(entries).hasSize(2);
+        SlowSqlRecorder.Entry latest = entries.get(0);
+        assertThat(latest.id()).isEqualTo(2);
+        assertThat(latest.sql()).isEqualTo("INSERT INTO patient (id, name, phone) VALUES (?, ?, ?)");
+        assertThat(latest.params()).containsExactly("1", "'张***'(3)", "'138****8000'");
+        assertThat(latest.endpoint()).isEqualTo("-");
+        assertThat(latest.traceId()).isEqualTo("trace-1");
+        assertThat(entries.get(1).params()).containsExactly("1", "'张***'(3)", "NULL");
+        assertThat(meterRegistry.get("sql.slow.statements").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("批量执行：记录批次语句数；超过容量时覆盖最早的记录")
+    void batch_CapturedAndOldestOverwritten() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO patient (id, name) VALUES (?, ?)")) {
+                for (int i = 0; i < 3; i++) {
+                    statement.setLong(1, i);
+                    statement.setString(2, "患者" + i);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            try (Statement statement = connection.createStatement()) {
+                for (int i = 0; i < 3; i++) {
+                    statement.executeQuery("SELECT count(*) FROM patient WHERE id > " + i).close();
+                }
+            }
+        }
+
+        assertThat(recorder.getCapturedTotal()).isEqualTo(4);
+        assertThat(recorder.get(1)).isNull();
+        assertThat(recorder.entries()).extracting(SlowSqlRecorder.Entry::id).containsExactly(4L, 3L, 2L);
+        assertThat(recorder.get(4).sql()).isEqualTo("SELECT count(*) FROM patient WHERE id > 2");
+
+        recorder.clear();
+        assertThat(recorder.entries()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("未超过阈值或已关闭：不记录")
+    void belowThresholdOrDisabled_NotCaptured() throws Exception {
+        ReflectionTestUtils.setField(recorder, "thresholdMs", 60_000L);
+        recorder.init();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SELECT 1");
+        }
+        ReflectionTestUtils.setField(recorder, "enabled", false);
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(Proxy.isProxyClass(connection.getClass())).isFalse();
+        }
+
+        assertThat(recorder.getCapturedTotal()).isZero();
+    }
+
+    @Test
+    @DisplayName("EXPLAIN：只接受 SELECT/WITH 语句，编号不存在时返回 null")
+    void explain_OnlyReadOnlyQueries() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM patient");
+        }
+        SlowSqlEndpoint endpoint = new SlowSqlEndpoint(recorder, dataSource);
+
+        assertThatThrownBy(() -> endpoint.explain(1)).isInstanceOf(InvalidEndpointRequestException.class);
+        assertThat(endpoint.explain(99)).isNull();
+        assertThat(SlowSqlEndpoint.isReadOnlyQuery(SlowSqlEndpoint.stripLeadingComments(
+                "/* load Patient */ -- hint\n  select * from patient"))).isTrue();
+    }
+}
@@ -0,0 +1,114 @@
+package com.his.monitoring;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 请求 SQL 语句统计测试
+ *
+ * <p>验证语句形状归一化、按接口记录指标、超出预算计数以及 X-SQL-Count 响应头</p>
+ *
+ * @author HIS 开发团队
+ * @since 1.0
+ */
+@DisplayName("请求 SQL 语句统计测试")
+class SqlStatementFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SqlStatementCounter counter = new SqlStatementCounter();
+
+    @Test
+    @DisplayName("语句形状：字面量和 IN 列表归一化，同一形状累计重复次数")
+    void stats_RepeatedShapes_Counted() {
+        SqlStatementStats stats = new SqlStatementStats();
+
+        stats.recordStatement("select * from his_medicine where main_id = 1");
+        stats.recordStatement("select * from his_medicine  where main_id = 2");
+        stats.recordStatement("select * from patient where id in (?, ?, ?)");
+        stats.recordStatement("select * from patient where id in (?)");
+        stats.recordStatement("select * from his_medicine where name = 'it''s'");
+
+        assertThat(stats.getStatementCount()).isEqualTo(5);
+        assertThat(stats.getMaxRepeats()).isEqualTo(2);
+        assertThat(SqlStatementStats.shapeOf("select * from patient where id in (?, ?, ?)"))
+                .isEqualTo("select * from patient where id in (?)");
+        assertThat(SqlStatementStats.shapeOf("select * from his_medicine where name = 'it''s' and stock < 10"))
+                .isEqualTo("select * from his_medicine where name = ? and stock < ?");
+    }
+
+    @Test
+    @DisplayName("请求内执行的语句按接口记录，超出预算和疑似 N+1 分别计数，响应头返回语句数")
+    void filter_BudgetExceeded_RecordedAndHeaderWritten() throws Exception {
+        SqlStatementFilter filter = createFilter(5, 3, "GET /api/patients/{id}=4", true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/patients/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, resp) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/patients/{id}");
+            counter.inspect("select * from patient where id = ?");
+            for (int i = 0; i < 4; i++) {
+                counter.inspect("select * from registration where patient_id = " + i);
+            }
+            resp.getWriter().write("{}");
+        });
+
+        assertThat(response.getHeader(SqlStatementFilter.SQL_COUNT_HEADER)).isEqualTo("5");
+        assertThat(meterRegistry.get("sql.request.statements").tag("uri", "/api/patients/{id}")
+                .summary().totalAmount()).isEqualTo(5.0);
+        assertThat(meterRegistry.get("sql.request.repeated").summary().max()).isEqualTo(4.0);
+        assertThat(meterRegistry.get("sql.request.budget.exceeded").tag("reason", "statements")
+                .counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("sql.request.budget.exceeded").tag("reason", "repeated")
+                .counter().count()).isEqualTo(1.0);
+        assertThat(SqlStatementStats.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("请求之外执行的语句不计入；关闭响应头时不返回 X-SQL-Count")
+    void filter_OutsideRequest_NotCounted() throws Exception {
+        counter.inspect("select 1");
+        SqlStatementFilter filter = createFilter(30, 10, "", false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/unknown"), response, (req, resp) -> { });
+
+        assertThat(response.getHeader(SqlStatementFilter.SQL_COUNT_HEADER)).isNull();
+        assertThat(meterRegistry.get("sql.request.statements").tag("uri", "UNMATCHED")
+                .summary().totalAmount()).isZero();
+        assertThat(meterRegistry.find("sql.request.budget.exceeded").counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("按接口预算配置解析")
+    void parseEndpointBudgets() {
+        assertThat(SqlStatementFilter.parseEndpointBudgets(
+                " GET  /api/patients/{id}/timeline=60, POST /api/prescriptions/create=50 "))
+                .isEqualTo(Map.of("GET /api/patients/{id}/timeline", 60, "POST /api/prescriptions/create", 50));
+        assertThat(SqlStatementFilter.parseEndpointBudgets(null)).isEmpty();
+        assertThatThrownBy(() -> SqlStatementFilter.parseEndpointBudgets("GET /api/x=abc"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private SqlStatementFilter createFilter(int maxStatements, int repeatedThreshold, String budgets,
+                                            boolean responseHeader) {
+        SqlStatementFilter filter = new SqlStatementFilter(new SqlStatementMetrics(meterRegistry));
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "maxStatements", maxStatements);
+        ReflectionTestUtils.setField(filter, "repeatedThreshold", repeatedThreshold);
+        ReflectionTestUtils.setField(filter, "endpointBudgetsConfig", budgets);
+        ReflectionTestUtils.setField(filter, "responseHeader", responseHeader);
+        filter.init();
+        return filter;
+    }
+}
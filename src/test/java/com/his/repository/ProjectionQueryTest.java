@@ -0,0 +1,272 @@
+package com.his.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.his.entity.Department;
+import com.his.entity.Doctor;
+import com.his.entity.MedicalRecord;
+import com.his.entity.Medicine;
+import com.his.entity.Patient;
+import com.his.entity.Prescription;
+import com.his.entity.PrescriptionDetail;
+import com.his.entity.Registration;
+import com.his.enums.PrescriptionStatusEnum;
+import com.his.repository.projection.NurseRegistrationView;
+import com.his.repository.projection.PatientSearchView;
+import com.his.repository.projection.PrescriptionListView;
+import com.his.repository.projection.RegistrationListView;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 列表查询投影 SQL 检查
+ * <p>
+ * 通过 Hibernate StatementInspector 记录实际执行的 SQL，确认患者搜索、候诊列表、护士站挂号列表、
+ * 待发药队列与病历处方列表只选择列表所需的列，不读取患者过敏史/既往病史/住址以及病历大字段
+ * </p>
+ *
+ * @author HIS 开发团队
+ * @since 1.0
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.his.repository.ProjectionQueryTest$RecordingStatementInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@DisplayName("列表查询投影 SQL 检查")
+class ProjectionQueryTest {
+
+    private static final List<String> PATIENT_LARGE_COLUMNS = List.of("allergy_history", "medical_history", "address");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private PrescriptionDetailRepository prescriptionDetailRepository;
+
+    private String suffix;
+    private Patient patient;
+    private Doctor doctor;
+    private Department department;
+    private MedicalRecord record;
+    private Prescription prescription;
+
+    @BeforeEach
+    void setUp() {
+        suffix = String.valueOf(System.nanoTime() % 100000000);
+
+        department = new Department();
+        department.setDeptCode("PROJ_" + suffix);
+        department.setName("投影测试科");
+        department.setStatus((short) 1);
+        department.setIsDeleted((short) 0);
+        entityManager.persist(department);
+
+        doctor = new Doctor();
+        doctor.setDoctorNo("PROJ_" + suffix);
+        doctor.setName("投影医生");
+        doctor.setGender((short) 1);
+        doctor.setDepartment(department);
+        doctor.setStatus((short) 1);
+        doctor.setIsDeleted((short) 0);
+        entityManager.persist(doctor);
+
+        patient = new Patient();
+        patient.setPatientNo("PROJ_" + suffix);
+        patient.setName("投影患者" + suffix);
+        patient.setGender((short) 1);
+        patient.setAge((short) 40);
+        patient.setIdCard("3201061985" + String.format("%08d", Long.parseLong(suffix)));
+        patient.setPhone("13800138000");
+        patient.setAddress("南京市鼓楼区");
+        patient.setAllergyHistory("青霉素过敏");
+        patient.setMedicalHistory("高血压".repeat(500));
+        patient.setIsDeleted((short) 0);
+        entityManager.persist(patient);
+
+        Registration registration = new Registration();
+        registration.setPatient(patient);
+        registration.setDoctor(doctor);
+        registration.setDepartment(department);
+        registration.setRegNo("PROJ_" + suffix);
+        registration.setVisitDate(LocalDate.now());
+        registration.setVisitType((short) 1);
+        registration.setRegistrationFee(new BigDecimal("20.00"));
+        registration.setStatus((short) 0);
+        registration.setIsDeleted((short) 0);
+        registration.setQueueNo("001");
+        entityManager.persist(registration);
+
+        record = new MedicalRecord();
+        record.setRegistration(registration);
+        record.setPatient(patient);
+        record.setDoctor(doctor);
+        record.setRecordNo("PROJ_" + suffix);
+        record.setChiefComplaint("头痛".repeat(500));
+        record.setStatus((short) 0);
+        record.setIsDeleted((short) 0);
+        entityManager.persist(record);
+
+        Medicine medicine = new Medicine();
+        medicine.setMedicineCode("PROJ_" + suffix);
+        medicine.setName("投影药品");
+        medicine.setRetailPrice(new BigDecimal("12.50"));
+        medicine.setStockQuantity(100);
+        medicine.setStatus((short) 1);
+        medicine.setIsDeleted((short) 0);
+        entityManager.persist(medicine);
+
+        prescription = new Prescription();
+        prescription.setPrescriptionNo("PROJ_" + suffix);
+        prescription.setMedicalRecord(record);
+        prescription.setPatient(patient);
+        prescription.setDoctor(doctor);
+        prescription.setStatus(PrescriptionStatusEnum.PAID.getCode());
+        prescription.setTotalAmount(new BigDecimal("25.00"));
+        prescription.setItemCount(1);
+        prescription.setIsDeleted((short) 0);
+        entityManager.persist(prescription);
+
+        PrescriptionDetail detail = new PrescriptionDetail();
+        detail.setPrescription(prescription);
+        detail.setMedicine(medicine);
+        detail.setMedicineName("投影药品");
+        detail.setUnitPrice(new BigDecimal("12.50"));
+        detail.setQuantity(2);
+        detail.setSubtotal(new BigDecimal("25.00"));
+        detail.setIsDeleted((short) 0);
+        entityManager.persist(detail);
+
+        entityManager.flush();
+        entityManager.clear();
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    @DisplayName("患者搜索：一条语句，只选择搜索结果列")
+    void searchByKeyword_SelectsOnlyListColumns() {
+        List<PatientSearchView> result = patientRepository.searchByKeyword("投影患者" + suffix, PageRequest.of(0, 15));
+
+        assertThat(result).singleElement().satisfies(view -> {
+            assertThat(view.getMainId()).isEqualTo(patient.getMainId());
+            assertThat(view.getName()).isEqualTo("投影患者" + suffix);
+            assertThat(view.getPhone()).isEqualTo("13800138000");
+        });
+        assertThat(RecordingStatementInspector.STATEMENTS).singleElement().satisfies(sql -> {
+            assertThat(sql).contains("his_patient");
+            assertThat(sql).doesNotContain(PATIENT_LARGE_COLUMNS.toArray(String[]::new));
+        });
+    }
+
+    @Test
+    @DisplayName("候诊列表：一条连接查询，不加载患者大字段和病历")
+    void waitingList_SingleJoinWithoutLargeColumns() {
+        List<RegistrationListView> result = registrationRepository.findByDoctorAndStatuses(
+                LocalDate.now(), doctor.getMainId(), List.of((short) 0, (short) 1));
+
+        assertThat(result).singleElement().satisfies(view -> {
+            assertThat(view.getPatientName()).isEqualTo("投影患者" + suffix);
+            assertThat(view.getDoctorName()).isEqualTo("投影医生");
+            assertThat(view.getDeptName()).isEqualTo("投影测试科");
+            assertThat(view.getQueueNo()).isEqualTo("001");
+        });
+        assertThat(RecordingStatementInspector.STATEMENTS).singleElement().satisfies(sql -> {
+            assertThat(sql).contains("his_registration");
+            assertThat(sql).doesNotContain(PATIENT_LARGE_COLUMNS.toArray(String[]::new));
+            assertThat(sql).doesNotContain("his_medical_record", "chief_complaint");
+        });
+    }
+
+    @Test
+    @DisplayName("护士站挂号列表：一条连接查询，病历只判断是否存在")
+    void nurseList_SingleJoinWithoutLargeColumns() {
+        List<NurseRegistrationView> result = registrationRepository.findNurseList(
+                LocalDate.now(), department.getMainId(), null, null, "%投影患者" + suffix + "%");
+
+        assertThat(result).singleElement().satisfies(view -> {
+            assertThat(view.getPatientName()).isEqualTo("投影患者" + suffix);
+            assertThat(view.getPhone()).isEqualTo("13800138000");
+            assertThat(view.getDoctorName()).isEqualTo("投影医生");
+            assertThat(view.getHasMedicalRecord()).isTrue();
+        });
+        assertThat(RecordingStatementInspector.STATEMENTS).singleElement().satisfies(sql -> {
+            assertThat(sql).contains("his_registration");
+            assertThat(sql).doesNotContain(PATIENT_LARGE_COLUMNS.toArray(String[]::new));
+            assertThat(sql).doesNotContain("chief_complaint");
+        });
+    }
+
+    @Test
+    @DisplayName("待发药队列：分页投影查询，不加载患者大字段和病历")
+    void pendingDispenseQueue_WithoutLargeColumns() {
+        Page<PrescriptionListView> result = prescriptionRepository.findQueueViewsByStatus(
+                PrescriptionStatusEnum.PAID.getCode(), PageRequest.of(0, 20));
+
+        assertThat(result.getContent()).anySatisfy(view -> {
+            assertThat(view.getMainId()).isEqualTo(prescription.getMainId());
+            assertThat(view.getRecordId()).isEqualTo(record.getMainId());
+            assertThat(view.getPatientName()).isEqualTo("投影患者" + suffix);
+            assertThat(view.getDoctorName()).isEqualTo("投影医生");
+        });
+        assertThat(RecordingStatementInspector.STATEMENTS).isNotEmpty().allSatisfy(sql -> {
+            assertThat(sql).contains("his_prescription");
+            assertThat(sql).doesNotContain(PATIENT_LARGE_COLUMNS.toArray(String[]::new));
+            assertThat(sql).doesNotContain("his_medical_record", "chief_complaint");
+        });
+    }
+
+    @Test
+    @DisplayName("病历处方列表：投影 + 批量明细，两条语句，不加载病历、患者和药品实体")
+    void recordPrescriptions_ViewAndBatchDetails() {
+        List<PrescriptionListView> views = prescriptionRepository.findViewsByRecordId(record.getMainId());
+        List<PrescriptionDetail> details = prescriptionDetailRepository.findByPrescriptionIds(
+                views.stream().map(PrescriptionListView::getMainId).toList());
+
+        assertThat(views).singleElement().satisfies(view -> assertThat(view.getPrescriptionNo()).isEqualTo("PROJ_" + suffix));
+        assertThat(details).singleElement().satisfies(detail -> {
+            assertThat(detail.getPrescription().getMainId()).isEqualTo(prescription.getMainId());
+            assertThat(detail.getMedicineName()).isEqualTo("投影药品");
+        });
+        assertThat(RecordingStatementInspector.STATEMENTS).hasSize(2).allSatisfy(sql -> {
+            assertThat(sql).doesNotContain(PATIENT_LARGE_COLUMNS.toArray(String[]::new));
+            assertThat(sql).doesNotContain("his_medical_record", "chief_complaint", "join his_medicine");
+        });
+    }
+
+    /**
+     * 记录 Hibernate 生成的全部 SQL（由 Hibernate 通过无参构造器实例化）
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
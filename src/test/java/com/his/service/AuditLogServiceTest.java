@@ -11,7 +11,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.context.ActiveProfiles;
 
 import com.his.entity.AuditLogEntity;
-import com.his.repository.AuditLogRepository;
+import com.his.log.writer.AuditLogBatchWriter;
 import com.his.service.impl.AuditLogServiceImpl;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -40,18 +40,18 @@ import static org.mockito.Mockito.*;
 class AuditLogServiceTest {
 
     @Mock
-    private AuditLogRepository auditLogRepository;
+    private AuditLogBatchWriter auditLogBatchWriter;
 
     private AuditLogService auditLogService;
 
     /**
      * 初始化测试环境
      *
-     * <p>使用反射注入mock的repository</p>
+     * <p>注入mock的批量写入器</p>
      */
     @BeforeEach
     void setUp() {
-        auditLogService = new AuditLogServiceImpl(auditLogRepository);
+        auditLogService = new AuditLogServiceImpl(auditLogBatchWriter);
     }
 
     // ==================== saveAuditLogAsync 测试 ====================
@@ -67,7 +67,7 @@ class AuditLogServiceTest {
         entity.setAuditType("BUSINESS");
         entity.setStatus("SUCCESS");
 
-        when(auditLogRepository.save(any())).thenReturn(entity);
+        when(auditLogBatchWriter.submit(any())).thenReturn(CompletableFuture.completedFuture(null));
 
         // When - 执行测试
         CompletableFuture<Void> future = auditLogService.saveAuditLogAsync(entity);
@@ -75,7 +75,7 @@ class AuditLogServiceTest {
         // Then - 验证结果
         assertNotNull(future, "Future不应该为null");
         assertDoesNotThrow(() -> future.get(), "Future应该正常完成");
-        verify(auditLogRepository, times(1)).save(entity);
+        verify(auditLogBatchWriter, times(1)).submit(entity);
     }
 
     @Test
@@ -86,14 +86,14 @@ class AuditLogServiceTest {
         entity.setModule("测试模块");
         entity.setAction("测试操作");
 
-        when(auditLogRepository.save(any())).thenThrow(new RuntimeException("数据库连接失败"));
+        when(auditLogBatchWriter.submit(any())).thenThrow(new RuntimeException("写入队列不可用"));
 
         // When - 执行测试
         CompletableFuture<Void> future = auditLogService.saveAuditLogAsync(entity);
 
         // Then - 验证结果（不应该抛出异常）
         assertDoesNotThrow(() -> future.get(), "即使保存失败也不应该抛出异常");
-        verify(auditLogRepository, times(1)).save(entity);
+        verify(auditLogBatchWriter, times(1)).submit(entity);
     }
 
     // ==================== buildAuditLogEntity 测试 ====================
@@ -155,8 +155,8 @@ class AuditLogServiceTest {
                 "FAILURE", 100L, exception
         );
 
-        // Then - 验证异常消息被截断
-        assertEquals(1003, entity.getExceptionMessage().length()); // 1000 + "..."
+        // Then - 验证异常消息被截断到 exception_message 列长度
+        assertEquals(1000, entity.getExceptionMessage().length()); // 997 + "..."
         assertTrue(entity.getExceptionMessage().endsWith("..."));
     }
 
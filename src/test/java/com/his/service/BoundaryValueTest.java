@@ -44,6 +44,12 @@ class BoundaryValueTest extends BaseServiceTest {
     @Mock
     private MedicineRepository medicineRepository;
 
+    @Mock
+    private LowStockAlertService lowStockAlertService;
+
+    @Mock
+    private MedicineCatalogService medicineCatalogService;
+
     @InjectMocks
     private RegistrationServiceImpl registrationService;
 
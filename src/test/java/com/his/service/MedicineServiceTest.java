@@ -50,6 +50,12 @@ class MedicineServiceTest {
     @Mock
     private MedicineRepository medicineRepository;
 
+    @Mock
+    private LowStockAlertService lowStockAlertService;
+
+    @Mock
+    private MedicineCatalogService medicineCatalogService;
+
     @InjectMocks
     private MedicineServiceImpl medicineService;
 
@@ -43,6 +43,12 @@ class NegativeScenarioTest extends BaseServiceTest {
     @Mock
     private MedicineRepository medicineRepository;
 
+    @Mock
+    private LowStockAlertService lowStockAlertService;
+
+    @Mock
+    private MedicineCatalogService medicineCatalogService;
+
     @InjectMocks
     private RegistrationServiceImpl registrationService;
 
@@ -0,0 +1,258 @@
+package com.his.service.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.his.dto.AuditLogExportDTO;
+import com.his.enums.AuditExportFormatEnum;
+import com.his.monitoring.AuditLogExportMetrics;
+import com.his.service.AuditLogExportService;
+import com.his.test.base.BaseServiceTest;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * AuditLogExportServiceImpl 单元测试
+ * <p>
+ * 使用 H2 内存库验证 NDJSON 导出与续传、gzip CSV 的表头与转义，以及并发导出上限
+ * </p>
+ *
+ * @author HIS 开发团队
+ * @since 1.0
+ */
+@DisplayName("审计日志导出服务测试")
+class AuditLogExportServiceImplTest extends BaseServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 10, 18, 10, 0);
+
+    @Mock
+    private DataSourceProperties dataSourceProperties;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private JdbcTemplate jdbcTemplate;
+    private AuditLogExportServiceImpl exportService;
+
+    @Override
+    protected void setUpTest() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:audit-export-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE sys_audit_log (id BIGINT, module VARCHAR(50), action VARCHAR(100), "
+                + "audit_type VARCHAR(30), description VARCHAR(500), operator_id BIGINT, "
+                + "operator_username VARCHAR(50), trace_id VARCHAR(64), request_ip VARCHAR(50), "
+                + "user_agent VARCHAR(500), status VARCHAR(20), execution_time BIGINT, "
+                + "exception_type VARCHAR(200), exception_message VARCHAR(1000), create_time TIMESTAMP)");
+
+        exportService = new AuditLogExportServiceImpl(dataSourceProperties, new MockEnvironment(), objectMapper,
+                new AuditLogExportMetrics(meterRegistry));
+        ReflectionTestUtils.setField(exportService, "maxConcurrent", 1);
+        ReflectionTestUtils.setField(exportService, "chunkSize", 2);
+        ReflectionTestUtils.setField(exportService, "maxRowsPerSecond", 0);
+        ReflectionTestUtils.setField(exportService, "exportDataSource", dataSource);
+        exportService.init();
+    }
+
+    @Test
+    @DisplayName("NDJSON：按时间正序逐行导出，以最后收到的游标续传后从下一行继续")
+    void export_Ndjson_ResumesFromCursor() throws IOException {
+        insert(1L, "挂号管理", "患者挂号", T0);
+        insert(2L, "挂号管理", "退号", T0);
+        insert(3L, "收费管理", "收费", T0.plusMinutes(1));
+        insert(4L, "挂号管理", "患者挂号", T0.plusMinutes(2));
+        AuditLogExportDTO criteria = new AuditLogExportDTO();
+        criteria.setModule("挂号管理");
+
+        List<JsonNode> first = ndjson(export(criteria, AuditExportFormatEnum.NDJSON, null));
+        assertThat(first).extracting(node -> node.get("id").asLong()).containsExactly(1L, 2L, 4L);
+        assertThat(first.get(0).get("createTime").asText()).isEqualTo("2026-10-18T10:00:00");
+
+        String resumeFrom = first.get(0).get("cursor").asText();
+        List<JsonNode> resumed = ndjson(export(criteria, AuditExportFormatEnum.NDJSON, resumeFrom));
+        assertThat(resumed).extracting(node -> node.get("id").asLong()).containsExactly(2L, 4L);
+
+        assertThat(meterRegistry.get("audit.log.export.rows").counter().count()).isEqualTo(5.0);
+        assertThat(meterRegistry.get("audit.log.export.active").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("分块读取：每块一次键集查询并归还连接，相同创建时间的行不重复不遗漏")
+    void export_ReadsInChunks_ConnectionPerChunk() throws IOException {
+        insert(1L, "挂号管理", "患者挂号", T0);
+        insert(2L, "挂号管理", "退号", T0);
+        insert(3L, "挂号管理", "患者挂号", T0);
+        insert(4L, "挂号管理", "收费", T0.plusMinutes(1));
+        AtomicInteger connections = new AtomicInteger();
+        DataSource dataSource = (DataSource) ReflectionTestUtils.getField(exportService, "exportDataSource");
+        ReflectionTestUtils.setField(exportService, "exportDataSource", new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                connections.incrementAndGet();
+                return super.getConnection();
+            }
+        });
+
+        List<JsonNode> rows = ndjson(export(new AuditLogExportDTO(), AuditExportFormatEnum.NDJSON, null));
+
+        assertThat(rows).extracting(node -> node.get("id").asLong()).containsExactly(1L, 2L, 3L, 4L);
+        // 每块 2 行：两个满块之后再查询一次确认没有剩余
+        assertThat(connections).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("gzip CSV：带表头，包含逗号、引号和换行的字段按 RFC 4180 转义")
+    void export_CsvGzip_EscapesFields() throws IOException {
+        insert(1L, "挂号管理", "备注,含\"引号\"\n换行", T0);
+
+        String csv = gunzip(export(new AuditLogExportDTO(), AuditExportFormatEnum.CSV_GZIP, null));
+
+        assertThat(csv).startsWith("\uFEFFcursor,id,create_time,module,action,");
+        assertThat(csv).contains(",1,2026-10-18T10:00:00,挂号管理,\"备注,含\"\"引号\"\"\n换行\",");
+        assertThat(csv.split("\r\n")).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("gzip CSV：续传时不再写 BOM 和表头，只输出游标之后的行")
+    void export_CsvGzip_ResumeWithoutHeader() throws IOException {
+        insert(1L, "挂号管理", "患者挂号", T0);
+        insert(2L, "挂号管理", "退号", T0.plusMinutes(1));
+        String first = ndjson(export(new AuditLogExportDTO(), AuditExportFormatEnum.NDJSON, null))
+                .get(0).get("cursor").asText();
+
+        String csv = gunzip(export(new AuditLogExportDTO(), AuditExportFormatEnum.CSV_GZIP, first));
+
+        assertThat(csv).doesNotStartWith("\uFEFF").doesNotContain("cursor,id,create_time");
+        assertThat(csv.split("\r\n")).hasSize(1);
+        assertThat(csv).contains(",2,2026-10-18T10:01:00,挂号管理,退号,");
+    }
+
+    @Test
+    @DisplayName("gzip CSV：以公式字符开头的字段前加单引号，不会被表格工具执行")
+    void export_CsvGzip_NeutralizesFormulas() throws IOException {
+        insert(1L, "=CMD()", "@SUM(A1)", T0);
+        insert(2L, "+1", "-1,2", T0.plusMinutes(1));
+
+        String csv = gunzip(export(new AuditLogExportDTO(), AuditExportFormatEnum.CSV_GZIP, null));
+
+        assertThat(csv).contains(",'=CMD(),'@SUM(A1),");
+        assertThat(csv).contains(",'+1,\"'-1,2\",");
+    }
+
+    @Test
+    @DisplayName("并发导出已达上限：拒绝新的导出，前一个导出关闭后可再次导出")
+    void open_ConcurrencyLimitReached_Rejected() {
+        AuditLogExportService.Export running =
+                exportService.open(new AuditLogExportDTO(), AuditExportFormatEnum.NDJSON, null);
+
+        assertThatThrownBy(() -> exportService.open(new AuditLogExportDTO(), AuditExportFormatEnum.NDJSON, null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("已达上限");
+        assertThat(meterRegistry.get("audit.log.export.rejected").counter().count()).isEqualTo(1.0);
+
+        running.close();
+        exportService.open(new AuditLogExportDTO(), AuditExportFormatEnum.NDJSON, null).close();
+    }
+
+    @Test
+    @DisplayName("参数校验：游标无效或时间范围颠倒时不占用导出许可")
+    void open_InvalidArguments_Rejected() {
+        AuditLogExportDTO reversed = new AuditLogExportDTO();
+        reversed.setStartTime(T0);
+        reversed.setEndTime(T0.minusDays(1));
+
+        assertThatThrownBy(() -> exportService.open(reversed, AuditExportFormatEnum.NDJSON, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> exportService.open(new AuditLogExportDTO(), AuditExportFormatEnum.NDJSON, "!!"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(meterRegistry.get("audit.log.export.active").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("导出连接池：沿用 spring.datasource.hikari.* 的超时配置，池名、大小和只读由导出覆盖")
+    void exportDataSource_BindsHikariProperties() {
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl("jdbc:h2:mem:audit-export-pool");
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.connection-timeout", "5000")
+                .withProperty("spring.datasource.hikari.max-lifetime", "600000")
+                .withProperty("spring.datasource.hikari.pool-name", "HisHikariPool")
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "20");
+        AuditLogExportServiceImpl service = new AuditLogExportServiceImpl(properties, environment, objectMapper,
+                new AuditLogExportMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(service, "maxConcurrent", 2);
+
+        try {
+            HikariDataSource pool = ReflectionTestUtils.invokeMethod(service, "exportDataSource");
+
+            assertThat(pool.getConnectionTimeout()).isEqualTo(5000L);
+            assertThat(pool.getMaxLifetime()).isEqualTo(600000L);
+            assertThat(pool.getPoolName()).isEqualTo("HisAuditExportPool");
+            assertThat(pool.getMaximumPoolSize()).isEqualTo(2);
+            assertThat(pool.isReadOnly()).isTrue();
+            assertThat(pool.isAutoCommit()).isFalse();
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private byte[] export(AuditLogExportDTO criteria, AuditExportFormatEnum format, String cursor)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (AuditLogExportService.Export export = exportService.open(criteria, format, cursor)) {
+            AuditLogExportService.Result result = export.writeTo(out);
+            assertThat(result.bytes()).isEqualTo(out.size());
+        }
+        return out.toByteArray();
+    }
+
+    private static String gunzip(byte[] gzipped) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private List<JsonNode> ndjson(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8).lines()
+                .map(line -> {
+                    try {
+                        return objectMapper.readTree(line);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+
+    private void insert(Long id, String module, String action, LocalDateTime createTime) {
+        jdbcTemplate.update("INSERT INTO sys_audit_log (id, module, action, audit_type, status, create_time) "
+                + "VALUES (?, ?, ?, 'BUSINESS', 'SUCCESS', ?)", id, module, action, createTime);
+    }
+}
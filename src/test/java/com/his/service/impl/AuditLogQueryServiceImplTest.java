@@ -0,0 +1,127 @@
+package com.his.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.his.entity.AuditLogEntity;
+import com.his.test.base.BaseServiceTest;
+import com.his.vo.AuditLogPageVO;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * AuditLogQueryServiceImpl 单元测试
+ * <p>
+ * 验证键集分页的过滤与游标条件、多取一行判断下一页、首页估算总数以及参数校验
+ * </p>
+ *
+ * @author HIS 开发团队
+ * @since 1.0
+ */
+@DisplayName("审计日志查询服务测试")
+class AuditLogQueryServiceImplTest extends BaseServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 10, 18, 10, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private AuditLogQueryServiceImpl queryService;
+
+    @Override
+    protected void setUpTest() {
+        queryService = new AuditLogQueryServiceImpl(jdbcTemplate, new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("首页：只拼接非空条件，多取一行判断下一页，总数取规划器估算值")
+    void searchAuditLogs_FirstPage_EstimatesTotal() {
+        givenRows(log(3L, T0), log(2L, T0), log(1L, T0.minusMinutes(1)));
+        when(jdbcTemplate.queryForObject(startsWith("EXPLAIN (FORMAT JSON)"), eq(String.class), any(Object[].class)))
+                .thenReturn("[{\"Plan\": {\"Node Type\": \"Append\", \"Plan Rows\": 125000}}]");
+
+        AuditLogPageVO page = queryService.searchAuditLogs("挂号管理", "", null, null, null, null, null, 2);
+
+        assertThat(page.getItems()).extracting(AuditLogEntity::getId).containsExactly(3L, 2L);
+        assertThat(page.getNextCursor()).isNotBlank();
+        assertThat(page.getEstimatedTotal()).isEqualTo(125000L);
+        verify(jdbcTemplate).query(
+                eq("SELECT id, module, action, audit_type, description, operator_id, operator_username, trace_id, "
+                        + "request_ip, user_agent, status, execution_time, exception_type, exception_message, "
+                        + "create_time FROM sys_audit_log WHERE module = ? ORDER BY create_time DESC, id DESC LIMIT ?"),
+                any(RowMapper.class), eq(new Object[] {"挂号管理", 3}));
+        verify(jdbcTemplate).queryForObject("EXPLAIN (FORMAT JSON) SELECT 1 FROM sys_audit_log WHERE module = ?",
+                String.class, "挂号管理");
+    }
+
+    @Test
+    @DisplayName("下一页：按 (create_time, id) 行比较定位游标，不再估算总数")
+    void searchAuditLogs_NextPage_KeysetCondition() {
+        givenRows(log(3L, T0), log(2L, T0), log(1L, T0.minusMinutes(1)));
+        lenient().when(jdbcTemplate.queryForObject(startsWith("EXPLAIN"), eq(String.class), any(Object[].class)))
+                .thenReturn("[]");
+        LocalDateTime start = T0.minusDays(7);
+        String cursor = queryService.searchAuditLogs(null, null, null, "BUSINESS", start, null, null, 2).getNextCursor();
+        clearInvocations(jdbcTemplate);
+
+        AuditLogPageVO page = queryService.searchAuditLogs(null, null, null, "BUSINESS", start, null, cursor, 2);
+
+        verify(jdbcTemplate).query(
+                contains("WHERE audit_type = ? AND create_time >= ? AND (create_time, id) < (?, ?) ORDER BY"),
+                any(RowMapper.class), eq(new Object[] {"BUSINESS", start, T0, 2L, 3}));
+        verify(jdbcTemplate, never()).queryForObject(startsWith("EXPLAIN"), eq(String.class), any(Object[].class));
+        assertThat(page.getEstimatedTotal()).isNull();
+    }
+
+    @Test
+    @DisplayName("只有一页：总数为本页条数，不估算")
+    void getAuditLogsByOperator_SinglePage_ExactTotal() {
+        givenRows(log(1L, T0));
+
+        AuditLogPageVO page = queryService.getAuditLogsByOperator(7L, null, 20);
+
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(page.getEstimatedTotal()).isEqualTo(1L);
+        verify(jdbcTemplate).query(contains("WHERE operator_id = ? ORDER BY"), any(RowMapper.class),
+                eq(new Object[] {7L, 21}));
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(String.class), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("参数校验：游标无效、每页数量越界、TraceId 或操作人为空")
+    void query_Fail_WhenInvalid() {
+        assertThatThrownBy(() -> queryService.searchAuditLogs(null, null, null, null, null, null, "bm90LWEtY3Vyc29y", 20))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("分页游标无效");
+        assertThatThrownBy(() -> queryService.searchAuditLogs(null, null, null, null, null, null, null, 201))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("每页数量");
+        assertThatThrownBy(() -> queryService.getAuditLogsByTraceId(" ", null, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> queryService.getAuditLogsByOperator(null, null, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenRows(AuditLogEntity... rows) {
+        doReturn(List.of(rows)).when(jdbcTemplate).query(anyString(), any(RowMapper.class), any(Object[].class));
+    }
+
+    private static AuditLogEntity log(Long id, LocalDateTime createTime) {
+        AuditLogEntity entity = new AuditLogEntity();
+        entity.setId(id);
+        entity.setModule("挂号管理");
+        entity.setCreateTime(createTime);
+        return entity;
+    }
+}
@@ -0,0 +1,122 @@
+package com.his.service.impl;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.his.service.AuditLogRetentionService;
+import com.his.test.base.BaseServiceTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * AuditLogRetentionServiceImpl 单元测试
+ * <p>
+ * 验证分区表按整月删除过期分区、未分区表分批删除，以及未来分区的提前创建
+ * </p>
+ *
+ * @author HIS 开发团队
+ * @since 1.0
+ */
+@DisplayName("审计日志保留期服务测试")
+class AuditLogRetentionServiceImplTest extends BaseServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private AuditLogRetentionServiceImpl retentionService;
+
+    @Override
+    protected void setUpTest() {
+        ReflectionTestUtils.setField(retentionService, "premakeMonths", 3);
+        ReflectionTestUtils.setField(retentionService, "deleteChunkSize", 1000);
+    }
+
+    @Test
+    @DisplayName("分区表：只删除上界不晚于截止时间的月分区，不执行行删除")
+    void purgeBefore_Partitioned_DropsExpiredPartitionsOnly() {
+        givenPartitioned(true);
+        when(jdbcTemplate.queryForList(startsWith("SELECT c.relname"), eq(String.class))).thenReturn(List.of(
+                "sys_audit_log_p202603", "sys_audit_log_p202604", "sys_audit_log_p202605", "sys_audit_log_legacy_x"));
+
+        AuditLogRetentionService.PurgeResult result = retentionService.purgeBefore(LocalDateTime.of(2026, 5, 1, 2, 0));
+
+        assertThat(result.partitioned()).isTrue();
+        assertThat(result.droppedPartitions()).containsExactly("sys_audit_log_p202603", "sys_audit_log_p202604");
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS sys_audit_log_p202603");
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS sys_audit_log_p202604");
+        verify(jdbcTemplate, times(2)).execute(anyString());
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("未分区表：分批删除，删除行数小于批大小时结束")
+    void purgeBefore_NotPartitioned_DeletesInChunks() {
+        givenPartitioned(false);
+        LocalDateTime cutoff = LocalDateTime.of(2026, 4, 20, 2, 0);
+        when(jdbcTemplate.update(startsWith("DELETE FROM sys_audit_log"), eq(Timestamp.valueOf(cutoff)), eq(1000)))
+                .thenReturn(1000, 1000, 250);
+
+        AuditLogRetentionService.PurgeResult result = retentionService.purgeBefore(cutoff);
+
+        assertThat(result.partitioned()).isFalse();
+        assertThat(result.deletedRows()).isEqualTo(2250);
+        assertThat(result.droppedPartitions()).isEmpty();
+        verify(jdbcTemplate, times(3)).update(startsWith("DELETE FROM sys_audit_log"), any(), any());
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    @DisplayName("截止时间为空时拒绝清理")
+    void purgeBefore_NullCutoff_Rejected() {
+        assertThatThrownBy(() -> retentionService.purgeBefore(null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("分区表：为当前月及未来 3 个月调用分区创建函数，返回新建数")
+    void ensurePartitions_Partitioned_CreatesUpcomingMonths() {
+        givenPartitioned(true);
+        YearMonth current = YearMonth.now();
+        when(jdbcTemplate.queryForObject(eq("SELECT create_audit_log_partition(?)"), eq(Boolean.class), any(Date.class)))
+                .thenReturn(false, false, false, true);
+
+        int created = retentionService.ensurePartitions();
+
+        assertThat(created).isEqualTo(1);
+        for (int i = 0; i <= 3; i++) {
+            verify(jdbcTemplate).queryForObject("SELECT create_audit_log_partition(?)", Boolean.class,
+                    Date.valueOf(current.plusMonths(i).atDay(1)));
+        }
+    }
+
+    @Test
+    @DisplayName("未分区表：不创建分区")
+    void ensurePartitions_NotPartitioned_Skipped() {
+        givenPartitioned(false);
+
+        assertThat(retentionService.ensurePartitions()).isZero();
+        verify(jdbcTemplate, never()).queryForObject(eq("SELECT create_audit_log_partition(?)"), eq(Boolean.class), any());
+    }
+
+    private void givenPartitioned(boolean partitioned) {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class))).thenReturn(partitioned);
+    }
+}
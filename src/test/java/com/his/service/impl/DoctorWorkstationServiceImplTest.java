@@ -0,0 +1,147 @@
+package com.his.service.impl;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.his.config.AsyncConfig;
+import com.his.config.ContextPropagatingTaskDecorator;
+import com.his.config.JwtAuthenticationToken;
+import com.his.entity.Department;
+import com.his.entity.Doctor;
+import com.his.entity.MedicalRecord;
+import com.his.service.DoctorService;
+import com.his.service.MedicalRecordService;
+import com.his.service.PrescriptionService;
+import com.his.test.base.BaseServiceTest;
+import com.his.vo.DoctorWorkstationVO;
+import com.his.vo.PatientDetailVO;
+import com.his.vo.PrescriptionVO;
+import com.his.vo.RegistrationVO;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * DoctorWorkstationServiceImpl 单元测试
+ * <p>
+ * 使用与生产相同配置的 doctorWorkstationExecutor，验证查询在工作线程中执行且能取到当前用户的认证信息，
+ * 以及处方对病历的依赖和异常透传
+ * </p>
+ *
+ * @author HIS 开发团队
+ * @since 1.0
+ */
+@DisplayName("医生工作站首屏加载服务测试")
+class DoctorWorkstationServiceImplTest extends BaseServiceTest {
+
+    private static final Long PATIENT_ID = 1L;
+    private static final Long REGISTRATION_ID = 2L;
+    private static final Long RECORD_ID = 3L;
+    private static final Long DOCTOR_ID = 7L;
+    private static final Long DEPT_ID = 9L;
+
+    @Mock
+    private DoctorService doctorService;
+
+    @Mock
+    private MedicalRecordService medicalRecordService;
+
+    @Mock
+    private PrescriptionService prescriptionService;
+
+    private Executor executor;
+
+    private DoctorWorkstationServiceImpl workstationService;
+
+    @Override
+    protected void setUpTest() {
+        executor = new AsyncConfig().doctorWorkstationExecutor(new ContextPropagatingTaskDecorator());
+        workstationService = new DoctorWorkstationServiceImpl(
+                doctorService, medicalRecordService, prescriptionService, executor);
+        SecurityContextHolder.getContext().setAuthentication(
+                new JwtAuthenticationToken(100L, "doctor_zhang", "DOCTOR", DOCTOR_ID));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        ((ThreadPoolTaskExecutor) executor).shutdown();
+    }
+
+    @Test
+    @DisplayName("并行加载：工作线程中可取到当前用户，处方按病历ID查询")
+    void bootstrap_RunsOnWorkersWithSecurityContext() {
+        List<String> workerUsers = new CopyOnWriteArrayList<>();
+        when(doctorService.getPatientDetail(PATIENT_ID)).thenAnswer(invocation -> {
+            workerUsers.add(Thread.currentThread().getName() + ":"
+                    + SecurityContextHolder.getContext().getAuthentication().getName());
+            return PatientDetailVO.builder().patientId(PATIENT_ID).name("张三").build();
+        });
+        when(medicalRecordService.getByRegistrationId(REGISTRATION_ID)).thenReturn(record());
+        when(prescriptionService.getByRecordId(RECORD_ID)).thenAnswer(invocation -> {
+            workerUsers.add(Thread.currentThread().getName() + ":"
+                    + SecurityContextHolder.getContext().getAuthentication().getName());
+            return List.of(new PrescriptionVO());
+        });
+        when(doctorService.getAndValidateDoctor(DOCTOR_ID)).thenReturn(doctor());
+        when(doctorService.getWaitingList(DOCTOR_ID, DEPT_ID, true)).thenReturn(List.of(new RegistrationVO()));
+
+        DoctorWorkstationVO result = workstationService.bootstrap(PATIENT_ID, REGISTRATION_ID, DOCTOR_ID, true);
+
+        assertThat(result.getPatient().getName()).isEqualTo("张三");
+        assertThat(result.getMedicalRecord().getMainId()).isEqualTo(RECORD_ID);
+        assertThat(result.getPrescriptions()).hasSize(1);
+        assertThat(result.getWaitingList()).hasSize(1);
+        assertThat(workerUsers).hasSize(2).allMatch(entry -> entry.startsWith("workstation-")
+                && entry.endsWith(":doctor_zhang"));
+    }
+
+    @Test
+    @DisplayName("尚未创建病历且未指定医生：不查询处方和候诊列表")
+    void bootstrap_NoRecordNoDoctor() {
+        when(doctorService.getPatientDetail(PATIENT_ID)).thenReturn(new PatientDetailVO());
+
+        DoctorWorkstationVO result = workstationService.bootstrap(PATIENT_ID, REGISTRATION_ID, null, false);
+
+        assertThat(result.getMedicalRecord()).isNull();
+        assertThat(result.getPrescriptions()).isEmpty();
+        assertThat(result.getWaitingList()).isNull();
+        verifyNoInteractions(prescriptionService);
+        verify(doctorService, never()).getWaitingList(any(), any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("任一查询失败：原异常透传")
+    void bootstrap_Fail_PropagatesCause() {
+        when(doctorService.getPatientDetail(PATIENT_ID))
+                .thenThrow(new IllegalArgumentException("患者信息不存在，ID: " + PATIENT_ID));
+
+        assertThatThrownBy(() -> workstationService.bootstrap(PATIENT_ID, REGISTRATION_ID, null, false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("患者信息不存在");
+    }
+
+    private static MedicalRecord record() {
+        MedicalRecord record = new MedicalRecord();
+        record.setMainId(RECORD_ID);
+        return record;
+    }
+
+    private static Doctor doctor() {
+        Department department = new Department();
+        department.setMainId(DEPT_ID);
+        Doctor doctor = new Doctor();
+        doctor.setMainId(DOCTOR_ID);
+        doctor.setDepartment(department);
+        return doctor;
+    }
+}
@@ -0,0 +1,152 @@
+package com.his.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.his.dto.ActiveMedicineDTO;
+import com.his.entity.Medicine;
+import com.his.entity.Patient;
+import com.his.entity.Prescription;
+import com.his.entity.PrescriptionDetail;
+import com.his.enums.ConflictTypeEnum;
+import com.his.repository.PrescriptionDetailRepository;
+import com.his.service.DrugConflictService.RuleStats;
+import com.his.service.impl.DrugConflictIndex.AllergenClass;
+import com.his.service.impl.DrugConflictIndex.InteractionRule;
+import com.his.service.impl.DrugConflictIndex.MedicineAllergen;
+import com.his.test.base.BaseServiceTest;
+import com.his.vo.DrugConflictWarningVO;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * DrugConflictServiceImpl 单元测试
+ * <p>
+ * 验证位图索引对处方内、在用处方间药物相互作用及过敏冲突的检查，以及规则热加载
+ * </p>
+ *
+ * @author HIS 开发团队
+ * @since 1.0
+ */
+@DisplayName("用药冲突检查服务测试")
+class DrugConflictServiceImplTest extends BaseServiceTest {
+
+    private static final long ASPIRIN = 3L;
+    private static final long IBUPROFEN = 2L;
+    private static final long AMOXICILLIN = 4L;
+    private static final long OMEPRAZOLE = 13L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PrescriptionDetailRepository prescriptionDetailRepository;
+
+    @InjectMocks
+    private DrugConflictServiceImpl drugConflictService;
+
+    @Test
+    @DisplayName("处方内相互作用：同一药品对只提示一次")
+    void check_InteractionWithinPrescription_ReportedOnce() {
+        loadRules("sig-1");
+        Prescription prescription = prescription(10L, null, ASPIRIN, IBUPROFEN, OMEPRAZOLE);
+        when(prescriptionDetailRepository.findActiveMedicines(any(), any(), any(), any())).thenReturn(List.of());
+
+        List<DrugConflictWarningVO> warnings = drugConflictService.check(prescription);
+
+        assertThat(warnings).hasSize(1);
+        DrugConflictWarningVO warning = warnings.get(0);
+        assertThat(warning.getType()).isEqualTo(ConflictTypeEnum.INTERACTION);
+        assertThat(warning.getSeverity()).isEqualTo((short) 2);
+        assertThat(List.of(warning.getMedicineId(), warning.getConflictMedicineId()))
+                .containsExactlyInAnyOrder(ASPIRIN, IBUPROFEN);
+        assertThat(warning.getConflictPrescriptionNo()).isNull();
+    }
+
+    @Test
+    @DisplayName("在用处方相互作用与过敏冲突：整批只查询一次在用药品，过敏冲突排在前面")
+    void checkAll_ActivePrescriptionAndAllergy() {
+        loadRules("sig-1");
+        Prescription first = prescription(10L, "青霉素过敏", ASPIRIN, AMOXICILLIN);
+        Prescription second = prescription(11L, null, OMEPRAZOLE);
+        when(prescriptionDetailRepository.findActiveMedicines(any(), any(), any(), any())).thenReturn(List.of(
+                new ActiveMedicineDTO(1L, 10L, "PRE_SELF", ASPIRIN, "阿司匹林肠溶片"),
+                new ActiveMedicineDTO(1L, 9L, "PRE_OTHER", IBUPROFEN, "布洛芬缓释胶囊")));
+
+        Map<Long, List<DrugConflictWarningVO>> result = drugConflictService.checkAll(List.of(first, second));
+
+        assertThat(result).containsOnlyKeys(10L);
+        List<DrugConflictWarningVO> warnings = result.get(10L);
+        assertThat(warnings).extracting(DrugConflictWarningVO::getType)
+                .containsExactly(ConflictTypeEnum.ALLERGY, ConflictTypeEnum.INTERACTION);
+        assertThat(warnings.get(0).getAllergenClass()).isEqualTo("青霉素类");
+        assertThat(warnings.get(1).getConflictPrescriptionNo()).isEqualTo("PRE_OTHER");
+        verify(prescriptionDetailRepository, times(1)).findActiveMedicines(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("处方中没有参与规则的药品：不查询在用处方")
+    void check_NoIndexedMedicine_SkipsQuery() {
+        loadRules("sig-1");
+
+        assertThat(drugConflictService.check(prescription(10L, "青霉素过敏", 99L))).isEmpty();
+        verifyNoInteractions(prescriptionDetailRepository);
+    }
+
+    @Test
+    @DisplayName("热加载：规则表签名未变化时不重新加载，变化后重新加载")
+    void reloadIfChanged_OnlyWhenSignatureChanges() {
+        RuleStats stats = loadRules("sig-1");
+        assertThat(stats.interactions()).isEqualTo(1);
+        assertThat(stats.allergenClasses()).isEqualTo(1);
+        assertThat(stats.medicines()).isEqualTo(3);
+
+        assertThat(drugConflictService.reloadIfChanged()).isFalse();
+        verify(jdbcTemplate, times(1)).query(contains("FROM his_drug_interaction"), any(RowMapper.class));
+
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class))).thenReturn("sig-2");
+        assertThat(drugConflictService.reloadIfChanged()).isTrue();
+        verify(jdbcTemplate, times(2)).query(contains("FROM his_drug_interaction"), any(RowMapper.class));
+    }
+
+    private RuleStats loadRules(String signature) {
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class))).thenReturn(signature);
+        doReturn(List.of(new InteractionRule(IBUPROFEN, ASPIRIN, (short) 2, "布洛芬可降低阿司匹林的抗血小板作用")))
+                .when(jdbcTemplate).query(contains("FROM his_drug_interaction"), any(RowMapper.class));
+        doReturn(List.of(new AllergenClass(1L, "青霉素类", List.of("青霉素", "penicillin"))))
+                .when(jdbcTemplate).query(contains("FROM his_allergen_class"), any(RowMapper.class));
+        doReturn(List.of(new MedicineAllergen(AMOXICILLIN, 1L)))
+                .when(jdbcTemplate).query(contains("FROM his_medicine_allergen"), any(RowMapper.class));
+        return drugConflictService.reload();
+    }
+
+    private static Prescription prescription(Long id, String allergyHistory, long... medicineIds) {
+        Patient patient = new Patient();
+        patient.setMainId(1L);
+        patient.setAllergyHistory(allergyHistory);
+
+        Prescription prescription = new Prescription();
+        prescription.setMainId(id);
+        prescription.setPatient(patient);
+        for (long medicineId : medicineIds) {
+            Medicine medicine = new Medicine();
+            medicine.setMainId(medicineId);
+            PrescriptionDetail detail = new PrescriptionDetail();
+            detail.setMedicine(medicine);
+            detail.setMedicineName("药品" + medicineId);
+            detail.setIsDeleted((short) 0);
+            prescription.getDetails().add(detail);
+        }
+        prescription.setCreatedAt(LocalDateTime.now());
+        return prescription;
+    }
+}
@@ -0,0 +1,211 @@
+package com.his.service.impl;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.his.entity.Medicine;
+import com.his.event.LowStockEvent;
+import com.his.repository.MedicineRepository;
+import com.his.test.base.BaseServiceTest;
+import com.his.test.factory.MedicineTestDataFactory;
+import com.his.vo.LowStockMedicineVO;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * LowStockAlertServiceImpl 单元测试
+ * <p>
+ * 验证阈值跨越检测、低库存集合维护、SSE 推送以及与数据库的对账逻辑
+ * </p>
+ *
+ * @author HIS 开发团队
+ * @since 1.0
+ */
+@DisplayName("LowStockAlertServiceImpl 低库存预警测试")
+class LowStockAlertServiceImplTest extends BaseServiceTest {
+
+    @Mock
+    private MedicineRepository medicineRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private Executor lowStockBroadcastExecutor;
+
+    @InjectMocks
+    private LowStockAlertServiceImpl lowStockAlertService;
+
+    // ==================== 阈值跨越检测 ====================
+
+    @Test
+    @DisplayName("库存降至最低库存以下：发布进入低库存事件")
+    void onStockChanged_CrossBelowThreshold_PublishesLowStockEvent() {
+        // Given - 库存 60 -> 50（最低库存 50）
+        Medicine medicine = MedicineTestDataFactory.createNormalStockMedicine();
+        medicine.setStockQuantity(50);
+
+        // When
+        lowStockAlertService.onStockChanged(medicine, 60);
+
+        // Then
+        ArgumentCaptor<LowStockEvent> captor = ArgumentCaptor.forClass(LowStockEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertTrue(captor.getValue().lowStock());
+        assertEquals(medicine.getMainId(), captor.getValue().medicineId());
+        assertEquals(50, captor.getValue().stockQuantity());
+    }
+
+    @Test
+    @DisplayName("库存恢复至最低库存以上：发布解除低库存事件")
+    void onStockChanged_CrossAboveThreshold_PublishesRecoveredEvent() {
+        // Given - 库存 30 -> 80（最低库存 50）
+        Medicine medicine = MedicineTestDataFactory.createLowStockMedicine();
+        medicine.setStockQuantity(80);
+
+        // When
+        lowStockAlertService.onStockChanged(medicine, 30);
+
+        // Then
+        ArgumentCaptor<LowStockEvent> captor = ArgumentCaptor.forClass(LowStockEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertFalse(captor.getValue().lowStock());
+    }
+
+    @Test
+    @DisplayName("库存在阈值同侧变化：不发布事件")
+    void onStockChanged_SameSide_NoEvent() {
+        // Given - 低库存药品继续扣减 30 -> 20
+        Medicine lowMedicine = MedicineTestDataFactory.createLowStockMedicine();
+        lowMedicine.setStockQuantity(20);
+        // 正常库存药品扣减 100 -> 90
+        Medicine normalMedicine = MedicineTestDataFactory.createNormalStockMedicine();
+        normalMedicine.setStockQuantity(90);
+
+        // When
+        lowStockAlertService.onStockChanged(lowMedicine, 30);
+        lowStockAlertService.onStockChanged(normalMedicine, 100);
+
+        // Then
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("未设置最低库存：不视为低库存")
+    void onStockChanged_NullMinStock_NoEvent() {
+        Medicine medicine = MedicineTestDataFactory.createNormalStockMedicine();
+        medicine.setMinStock(null);
+        medicine.setStockQuantity(0);
+
+        lowStockAlertService.onStockChanged(medicine, 10);
+
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    // ==================== 低库存集合 ====================
+
+    @Test
+    @DisplayName("处理事件：进入低库存加入集合，恢复后移出集合")
+    void handleLowStockEvent_UpdatesCurrentLowStock() {
+        Medicine medicine = MedicineTestDataFactory.createLowStockMedicine();
+
+        lowStockAlertService.handleLowStockEvent(LowStockEvent.of(medicine, true));
+
+        List<LowStockMedicineVO> current = lowStockAlertService.getCurrentLowStock();
+        assertEquals(1, current.size());
+        assertEquals(medicine.getMainId(), current.get(0).getMedicineId());
+        assertEquals(30, current.get(0).getStockQuantity());
+        assertNotNull(current.get(0).getSince());
+
+        medicine.setStockQuantity(100);
+        lowStockAlertService.handleLowStockEvent(LowStockEvent.of(medicine, false));
+
+        assertTrue(lowStockAlertService.getCurrentLowStock().isEmpty());
+    }
+
+    // ==================== SSE 推送 ====================
+
+    @Test
+    @DisplayName("推送：在推送线程池中执行，发送失败的订阅者被移除")
+    @SuppressWarnings("unchecked")
+    void handleLowStockEvent_BroadcastsOnExecutor_RemovesFailedEmitter() {
+        SseEmitter closed = lowStockAlertService.subscribe();
+        closed.complete();
+        List<SseEmitter> emitters = (List<SseEmitter>) ReflectionTestUtils.getField(lowStockAlertService, "emitters");
+        assertEquals(1, emitters.size());
+
+        lowStockAlertService.handleLowStockEvent(LowStockEvent.of(MedicineTestDataFactory.createLowStockMedicine(), true));
+
+        // 集合已在当前线程更新，推送尚未执行
+        assertEquals(1, lowStockAlertService.getCurrentLowStock().size());
+        assertEquals(1, emitters.size());
+
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(lowStockBroadcastExecutor).execute(captor.capture());
+        captor.getValue().run();
+
+        assertTrue(emitters.isEmpty());
+    }
+
+    @Test
+    @DisplayName("推送：没有订阅者时不提交推送任务")
+    void handleLowStockEvent_NoSubscribers_SkipsExecutor() {
+        lowStockAlertService.handleLowStockEvent(LowStockEvent.of(MedicineTestDataFactory.createLowStockMedicine(), true));
+
+        verifyNoInteractions(lowStockBroadcastExecutor);
+    }
+
+    // ==================== 定时对账 ====================
+
+    @Test
+    @DisplayName("对账：补录遗漏的低库存药品并移除已恢复药品")
+    void reconcile_FixesDrift() {
+        // Given - 内存中记录药品1为低库存，但数据库中药品1已恢复、药品2为低库存
+        Medicine tracked = MedicineTestDataFactory.createLowStockMedicine();
+        lowStockAlertService.handleLowStockEvent(LowStockEvent.of(tracked, true));
+
+        Medicine recovered = MedicineTestDataFactory.createNormalStockMedicine();
+        Medicine missed = MedicineTestDataFactory.createLowStockMedicine();
+        missed.setMainId(2L);
+
+        when(medicineRepository.findLowStock()).thenReturn(List.of(missed));
+        when(medicineRepository.findAllById(List.of(1L))).thenReturn(List.of(recovered));
+
+        // When
+        int corrections = lowStockAlertService.reconcile();
+
+        // Then
+        assertEquals(2, corrections);
+        List<LowStockMedicineVO> current = lowStockAlertService.getCurrentLowStock();
+        assertEquals(1, current.size());
+        assertEquals(2L, current.get(0).getMedicineId());
+    }
+
+    @Test
+    @DisplayName("对账：无差异时不做修正，仅刷新库存数量")
+    void reconcile_NoDrift() {
+        Medicine medicine = MedicineTestDataFactory.createLowStockMedicine();
+        lowStockAlertService.handleLowStockEvent(LowStockEvent.of(medicine, true));
+
+        Medicine latest = MedicineTestDataFactory.createLowStockMedicine();
+        latest.setStockQuantity(10);
+        when(medicineRepository.findLowStock()).thenReturn(List.of(latest));
+
+        int corrections = lowStockAlertService.reconcile();
+
+        assertEquals(0, corrections);
+        assertEquals(10, lowStockAlertService.getCurrentLowStock().get(0).getStockQuantity());
+        verify(medicineRepository, never()).findAllById(any());
+    }
+}
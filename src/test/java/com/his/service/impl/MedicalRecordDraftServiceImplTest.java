@@ -0,0 +1,224 @@
+package com.his.service.impl;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.his.enums.MedicalRecordFieldEnum;
+import com.his.test.base.BaseServiceTest;
+import com.his.vo.MedicalRecordDraftVO;
+
+import static com.his.enums.MedicalRecordFieldEnum.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * MedicalRecordDraftServiceImpl 单元测试
+ * <p>
+ * 验证草稿补丁的合并、只写入变化的列、归属、状态与版本号校验，以及写入失败和事务回滚时的补丁恢复
+ * </p>
+ *
+ * @author HIS 开发团队
+ * @since 1.0
+ */
+@DisplayName("病历草稿自动保存服务测试")
+class MedicalRecordDraftServiceImplTest extends BaseServiceTest {
+
+    private static final Long RECORD_ID = 1L;
+    private static final Long DOCTOR_ID = 7L;
+    private static final int RECORD_VERSION = 3;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private MedicalRecordDraftServiceImpl draftService;
+
+    @Override
+    protected void setUpTest() {
+        ReflectionTestUtils.setField(draftService, "coalesceWindowMs", 0L);
+        ReflectionTestUtils.setField(draftService, "maxDelayMs", 10_000L);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("连续补丁：只查询一次归属，合并后一条 UPDATE 只写入变化的列")
+    @SuppressWarnings("unchecked")
+    void patch_CoalescedIntoSingleUpdate() throws Exception {
+        givenRecord(DOCTOR_ID, (short) 0);
+        givenUpdateCounts(new int[][] {{1}});
+
+        draftService.patch(RECORD_ID, DOCTOR_ID, null, fields(CHIEF_COMPLAINT, "头"));
+        draftService.patch(RECORD_ID, DOCTOR_ID, null, fields(CHIEF_COMPLAINT, "头痛"));
+        MedicalRecordDraftVO ack = draftService.patch(RECORD_ID, DOCTOR_ID, null, fields(DIAGNOSIS, "偏头痛"));
+
+        assertThat(ack.getPendingFields()).containsExactly(CHIEF_COMPLAINT, DIAGNOSIS);
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), eq(RECORD_ID));
+
+        assertThat(draftService.flushDue()).isEqualTo(1);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Collection<Object>> entries = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<ParameterizedPreparedStatementSetter<Object>> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(sql.capture(), entries.capture(), eq(1), setter.capture());
+        assertThat(sql.getValue())
+                .startsWith("UPDATE his_medical_record SET chief_complaint = ?, diagnosis = ? WHERE main_id = ? AND version = ?")
+                .contains("status = 0")
+                .doesNotContain("version = version + 1")
+                .doesNotContain("treatment_plan");
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps, entries.getValue().iterator().next());
+        verify(ps).setString(1, "头痛");
+        verify(ps).setString(2, "偏头痛");
+        verify(ps).setLong(3, RECORD_ID);
+        verify(ps).setInt(4, RECORD_VERSION);
+
+        assertThat(draftService.flushDue()).isZero();
+    }
+
+    @Test
+    @DisplayName("合并窗口未到期：不写入")
+    void flushDue_NotDue_NothingWritten() {
+        ReflectionTestUtils.setField(draftService, "coalesceWindowMs", 60_000L);
+        givenRecord(DOCTOR_ID, (short) 0);
+
+        draftService.patch(RECORD_ID, DOCTOR_ID, null, fields(TREATMENT_PLAN, "休息"));
+
+        assertThat(draftService.flushDue()).isZero();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("他人病历或非草稿病历：拒绝补丁")
+    void patch_Fail_WhenNotOwnerOrNotDraft() {
+        givenRecord(99L, (short) 0);
+        assertThatThrownBy(() -> draftService.patch(RECORD_ID, DOCTOR_ID, null, fields(DIAGNOSIS, "感冒")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("无权修改");
+
+        givenRecord(DOCTOR_ID, (short) 1);
+        assertThatThrownBy(() -> draftService.patch(RECORD_ID, DOCTOR_ID, null, fields(DIAGNOSIS, "感冒")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("不允许修改");
+    }
+
+    @Test
+    @DisplayName("客户端版本号与当前版本号不一致：拒绝补丁")
+    void patch_Fail_WhenVersionStale() {
+        givenRecord(DOCTOR_ID, (short) 0);
+
+        assertThatThrownBy(() -> draftService.patch(RECORD_ID, DOCTOR_ID, RECORD_VERSION - 1, fields(DIAGNOSIS, "感冒")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("病历已被他人修改");
+        assertThat(draftService.flushAll()).isZero();
+
+        MedicalRecordDraftVO ack = draftService.patch(RECORD_ID, DOCTOR_ID, RECORD_VERSION, fields(DIAGNOSIS, "感冒"));
+        assertThat(ack.getPendingFields()).containsExactly(DIAGNOSIS);
+    }
+
+    @Test
+    @DisplayName("字段超长：拒绝补丁且不查询数据库")
+    void patch_Fail_WhenTooLong() {
+        assertThatThrownBy(() -> draftService.patch(RECORD_ID, DOCTOR_ID, null, fields(DIAGNOSIS_CODE, "J".repeat(51))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("诊断编码长度不能超过50");
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("写入失败：补丁放回内存，新补丁的字段优先")
+    @SuppressWarnings("unchecked")
+    void flushDue_Failure_RestoresDraft() throws Exception {
+        givenRecord(DOCTOR_ID, (short) 0);
+        draftService.patch(RECORD_ID, DOCTOR_ID, null, fields(CHIEF_COMPLAINT, "头痛"));
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        assertThat(draftService.flushDue()).isZero();
+
+        MedicalRecordDraftVO ack = draftService.patch(RECORD_ID, DOCTOR_ID, null, fields(DIAGNOSIS, "偏头痛"));
+        assertThat(ack.getPendingFields()).containsExactly(CHIEF_COMPLAINT, DIAGNOSIS);
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), eq(RECORD_ID));
+    }
+
+    @Test
+    @DisplayName("提交时同步写入：所在事务回滚后补丁放回内存")
+    void flush_InTransaction_RestoredOnRollback() {
+        givenRecord(DOCTOR_ID, (short) 0);
+        givenUpdateCounts(new int[][] {{1}});
+        draftService.patch(RECORD_ID, DOCTOR_ID, null, fields(CHIEF_COMPLAINT, "头痛"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertThat(draftService.flush(RECORD_ID)).isTrue();
+        assertThat(draftService.flush(RECORD_ID)).isFalse();
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(draftService.flushAll()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("完整保存：丢弃未落库的补丁")
+    void discard_DropsPendingDraft() {
+        givenRecord(DOCTOR_ID, (short) 0);
+        draftService.patch(RECORD_ID, DOCTOR_ID, null, fields(CHIEF_COMPLAINT, "头痛"));
+
+        draftService.discard(RECORD_ID);
+
+        assertThat(draftService.flushAll()).isZero();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+    }
+
+    private static Map<MedicalRecordFieldEnum, String> fields(MedicalRecordFieldEnum field, String value) {
+        Map<MedicalRecordFieldEnum, String> fields = new EnumMap<>(MedicalRecordFieldEnum.class);
+        fields.put(field, value);
+        return fields;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenRecord(Long doctorId, short status) {
+        doAnswer(invocation -> {
+            RowMapper<?> mapper = invocation.getArgument(1);
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong("doctor_main_id")).thenReturn(doctorId);
+            when(rs.getShort("status")).thenReturn(status);
+            when(rs.getInt("version")).thenReturn(RECORD_VERSION);
+            return List.of(mapper.mapRow(rs, 0));
+        }).when(jdbcTemplate).query(contains("doctor_main_id"), any(RowMapper.class), eq(RECORD_ID));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenUpdateCounts(int[][] counts) {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(counts);
+    }
+}
@@ -0,0 +1,182 @@
+package com.his.service.impl;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.his.entity.MedicalRecord;
+import com.his.service.impl.MedicalRecordTokenizer.Field;
+import com.his.test.base.BaseServiceTest;
+import com.his.vo.MedicalRecordSearchHitVO;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * MedicalRecordSearchServiceImpl 单元测试
+ * <p>
+ * 验证应用内分词、事务内合并后提交前一次批量写入索引，以及检索范围与参数校验
+ * </p>
+ *
+ * @author HIS 开发团队
+ * @since 1.0
+ */
+@DisplayName("病历全文检索服务测试")
+class MedicalRecordSearchServiceImplTest extends BaseServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private MedicalRecordSearchServiceImpl searchService;
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("分词：中文单字+二元组，诊断编码附带类目，权重与位置写入tsvector")
+    void tokenizer_BuildsWeightedVector() {
+        String vector = MedicalRecordTokenizer.toVector(
+                new Field("J06.901", 'A'),
+                new Field("头痛，发热", 'B'));
+
+        assertThat(vector).isEqualTo("'j06.901':1A 'j06':1A '头':2B '头痛':2B '痛':3B '发':4B '发热':4B '热':5B");
+    }
+
+    @Test
+    @DisplayName("检索词：多字中文只用二元组，单字保留，全角字母归一化")
+    void tokenizer_BuildsQuery() {
+        assertThat(MedicalRecordTokenizer.toQuery("头痛发热")).isEqualTo("'头痛' & '痛发' & '发热'");
+        assertThat(MedicalRecordTokenizer.toQuery("咳 ＣＴ")).isEqualTo("'咳' & 'ct'");
+        assertThat(MedicalRecordTokenizer.toQuery("J06")).isEqualTo("'j06'");
+        assertThat(MedicalRecordTokenizer.toQuery("，。！")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("事务内多次保存同一病历：提交前只写入最后一次内容")
+    @SuppressWarnings("unchecked")
+    void index_InTransaction_SingleBatchBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        searchService.index(record(1L, "头痛"));
+        searchService.index(record(2L, "咳嗽"));
+        searchService.index(record(1L, "头晕"));
+
+        verifyNoInteractions(jdbcTemplate);
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(1);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+        }
+
+        ArgumentCaptor<Collection<?>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(contains("ON CONFLICT (record_id)"), captor.capture(), eq(2),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(captor.getValue()).hasSize(2);
+        assertThat(captor.getValue().iterator().next().toString()).contains("头晕").doesNotContain("头痛");
+    }
+
+    @Test
+    @DisplayName("事务回滚：不写入索引")
+    void index_Rollback_NothingWritten() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        searchService.index(record(1L, "头痛"));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("无事务：立即写入")
+    @SuppressWarnings("unchecked")
+    void index_WithoutTransaction_WritesImmediately() {
+        searchService.index(record(1L, "头痛"));
+
+        verify(jdbcTemplate).batchUpdate(anyString(), anyCollection(), eq(1),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    @DisplayName("未保存的病历：拒绝建立索引")
+    void index_Fail_WhenNotSaved() {
+        assertThatThrownBy(() -> searchService.index(new MedicalRecord()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("病历未保存");
+    }
+
+    @Test
+    @DisplayName("医生个人检索：限定本人病历并按相关度排序分页")
+    @SuppressWarnings("unchecked")
+    void search_DoctorScope() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any(Object[].class))).thenReturn(25L);
+        doReturn(List.of(new MedicalRecordSearchHitVO())).when(jdbcTemplate)
+                .query(contains("ts_rank_cd"), any(RowMapper.class), any(Object[].class));
+
+        Page<MedicalRecordSearchHitVO> page = searchService.search("头痛", 7L, false, PageRequest.of(1, 20));
+
+        assertThat(page.getTotalElements()).isEqualTo(25L);
+        assertThat(page.getContent()).hasSize(1);
+        verify(jdbcTemplate).queryForObject(contains("r.doctor_main_id = ?"), eq(Long.class),
+                eq(new Object[] {"'头痛'", 7L}));
+        verify(jdbcTemplate).query(contains("ORDER BY score DESC"), any(RowMapper.class),
+                eq(new Object[] {"'头痛'", "'头痛'", 7L, 20, 20L}));
+    }
+
+    @Test
+    @DisplayName("科室检索：同科室已提交病历及本人草稿；超出总数的页不再查询明细")
+    @SuppressWarnings("unchecked")
+    void search_DepartmentScope_PageBeyondTotal() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any(Object[].class))).thenReturn(3L);
+
+        Page<MedicalRecordSearchHitVO> page = searchService.search("J06", 7L, true, PageRequest.of(1, 20));
+
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.getTotalElements()).isEqualTo(3L);
+        verify(jdbcTemplate).queryForObject(contains("d.department_main_id"), eq(Long.class),
+                eq(new Object[] {"'j06'", 7L, 7L}));
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("检索失败：检索词为空、过长或无有效内容")
+    void search_Fail_WhenKeywordInvalid() {
+        assertThatThrownBy(() -> searchService.search(" ", null, false, PageRequest.of(0, 20)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("不能为空");
+        assertThatThrownBy(() -> searchService.search("头".repeat(101), null, false, PageRequest.of(0, 20)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("不能超过");
+        assertThatThrownBy(() -> searchService.search("，。", null, false, PageRequest.of(0, 20)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("不包含可检索的文字");
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private static MedicalRecord record(Long id, String chiefComplaint) {
+        MedicalRecord record = new MedicalRecord();
+        record.setMainId(id);
+        record.setChiefComplaint(chiefComplaint);
+        return record;
+    }
+}
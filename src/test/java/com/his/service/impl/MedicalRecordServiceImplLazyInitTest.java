@@ -11,6 +11,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import com.his.entity.*;
 import com.his.repository.MedicalRecordRepository;
 import com.his.repository.RegistrationRepository;
+import com.his.service.MedicalRecordDraftService;
+import com.his.service.MedicalRecordSearchService;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -35,6 +37,12 @@ class MedicalRecordServiceImplLazyInitTest {
     @Mock
     private RegistrationRepository registrationRepository;
 
+    @Mock
+    private MedicalRecordSearchService medicalRecordSearchService;
+
+    @Mock
+    private MedicalRecordDraftService medicalRecordDraftService;
+
     @InjectMocks
     private MedicalRecordServiceImpl medicalRecordService;
 
@@ -0,0 +1,153 @@
+package com.his.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.his.entity.Medicine;
+import com.his.repository.MedicineRepository;
+import com.his.service.MedicineCatalogService.Snapshot;
+import com.his.test.base.BaseServiceTest;
+import com.his.test.factory.MedicineTestDataFactory;
+import com.his.vo.views.MedicineViews;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+/**
+ * MedicineCatalogServiceImpl 单元测试
+ * <p>
+ * 验证目录快照的视图隔离、筛选、ETag 以及变更后的增量刷新
+ * </p>
+ *
+ * @author HIS 开发团队
+ * @since 1.0
+ */
+@DisplayName("MedicineCatalogServiceImpl 药品目录快照测试")
+class MedicineCatalogServiceImplTest extends BaseServiceTest {
+
+    @Mock
+    private MedicineRepository medicineRepository;
+
+    private MedicineCatalogServiceImpl catalogService;
+
+    private Medicine amoxicillin;
+    private Medicine vitaminC;
+
+    @Override
+    protected void setUpTest() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        catalogService = new MedicineCatalogServiceImpl(medicineRepository, objectMapper);
+
+        amoxicillin = MedicineTestDataFactory.createNormalStockMedicine();
+        vitaminC = MedicineTestDataFactory.createNonPrescriptionMedicine();
+        vitaminC.setMainId(2L);
+        vitaminC.setStockQuantity(0);
+
+        when(medicineRepository.findAllActive()).thenReturn(List.of(amoxicillin, vitaminC));
+    }
+
+    @Test
+    @DisplayName("重复请求：复用同一快照，不再查询数据库")
+    void getSnapshot_CachedAfterFirstBuild() {
+        Snapshot first = catalogService.getSnapshot(MedicineViews.Doctor.class, null, null, null);
+        Snapshot second = catalogService.getSnapshot(MedicineViews.Doctor.class, null, null, null);
+
+        assertSame(first, second);
+        assertEquals(2, first.size());
+        assertTrue(first.etag().startsWith("\"") && first.etag().endsWith("\""));
+        verify(medicineRepository, times(1)).findAllActive();
+    }
+
+    @Test
+    @DisplayName("视图隔离：进货价仅出现在药师视图中")
+    void getSnapshot_ViewSpecificFields() {
+        String publicBody = body(catalogService.getSnapshot(MedicineViews.Public.class, null, null, null));
+        String pharmacistBody = body(catalogService.getSnapshot(MedicineViews.Pharmacist.class, null, null, null));
+
+        assertFalse(publicBody.contains("purchasePrice"));
+        assertFalse(publicBody.contains("specification"));
+        assertTrue(pharmacistBody.contains("purchasePrice"));
+        assertTrue(pharmacistBody.contains("\"code\":200"));
+    }
+
+    @Test
+    @DisplayName("常用筛选：按分类、处方药、有货过滤")
+    void getSnapshot_Filters() {
+        Snapshot inStock = catalogService.getSnapshot(MedicineViews.Doctor.class, null, null, true);
+        Snapshot outOfStock = catalogService.getSnapshot(MedicineViews.Doctor.class, null, null, false);
+        Snapshot vitamins = catalogService.getSnapshot(MedicineViews.Doctor.class, "维生素", null, null);
+        Snapshot prescription = catalogService.getSnapshot(MedicineViews.Doctor.class, null, (short) 1, null);
+
+        assertEquals(1, inStock.size());
+        assertTrue(body(inStock).contains("阿莫西林胶囊"));
+        assertEquals(1, outOfStock.size());
+        assertTrue(body(outOfStock).contains("维生素C片"));
+        assertEquals(1, vitamins.size());
+        assertEquals(1, prescription.size());
+        assertNotEquals(inStock.etag(), outOfStock.etag());
+    }
+
+    @Test
+    @DisplayName("药品变更：仅重新读取变更药品，ETag 与版本号变化")
+    void markChanged_RefreshesChangedMedicineOnly() {
+        Snapshot before = catalogService.getSnapshot(MedicineViews.Pharmacist.class, null, null, null);
+
+        Medicine updated = MedicineTestDataFactory.createNormalStockMedicine();
+        updated.setStockQuantity(80);
+        when(medicineRepository.findAllById(anyIterable())).thenReturn(List.of(updated));
+
+        catalogService.markChanged(amoxicillin.getMainId());
+        Snapshot after = catalogService.getSnapshot(MedicineViews.Pharmacist.class, null, null, null);
+
+        assertNotEquals(before.etag(), after.etag());
+        assertEquals(before.version() + 1, after.version());
+        assertTrue(body(after).contains("\"stockQuantity\":80"));
+        verify(medicineRepository, times(1)).findAllActive();
+        verify(medicineRepository).findAllById(List.of(amoxicillin.getMainId()));
+    }
+
+    @Test
+    @DisplayName("药品变更但内容未变：版本号和 ETag 保持不变")
+    void markChanged_NoContentChange_KeepsVersion() {
+        Snapshot before = catalogService.getSnapshot(MedicineViews.Doctor.class, null, null, null);
+        when(medicineRepository.findAllById(anyIterable())).thenReturn(List.of(amoxicillin));
+
+        catalogService.markChanged(amoxicillin.getMainId());
+        Snapshot after = catalogService.getSnapshot(MedicineViews.Doctor.class, null, null, null);
+
+        assertEquals(before.version(), after.version());
+        assertEquals(before.etag(), after.etag());
+    }
+
+    @Test
+    @DisplayName("药品被删除：从目录中移除")
+    void markChanged_DeletedMedicine_Removed() {
+        catalogService.getSnapshot(MedicineViews.Public.class, null, null, null);
+
+        Medicine deleted = MedicineTestDataFactory.createNonPrescriptionMedicine();
+        deleted.setMainId(2L);
+        deleted.setIsDeleted((short) 1);
+        when(medicineRepository.findAllById(anyIterable())).thenReturn(List.of(deleted));
+
+        catalogService.markChanged(2L);
+        Snapshot after = catalogService.getSnapshot(MedicineViews.Public.class, null, null, null);
+
+        assertEquals(1, after.size());
+        assertFalse(body(after).contains("维生素C片"));
+    }
+
+    private static String body(Snapshot snapshot) {
+        return new String(snapshot.body(), StandardCharsets.UTF_8);
+    }
+}
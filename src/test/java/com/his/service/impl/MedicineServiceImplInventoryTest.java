@@ -15,6 +15,8 @@ import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import com.his.entity.Medicine;
 import com.his.repository.MedicineRepository;
+import com.his.service.LowStockAlertService;
+import com.his.service.MedicineCatalogService;
 import com.his.test.base.BaseServiceTest;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,6 +40,12 @@ class MedicineServiceImplInventoryTest extends BaseServiceTest {
     @Mock
     private MedicineRepository medicineRepository;
 
+    @Mock
+    private LowStockAlertService lowStockAlertService;
+
+    @Mock
+    private MedicineCatalogService medicineCatalogService;
+
     @InjectMocks
     private MedicineServiceImpl medicineService;
 
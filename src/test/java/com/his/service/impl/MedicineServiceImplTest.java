@@ -12,6 +12,8 @@ import org.mockito.Mock;
 
 import com.his.entity.Medicine;
 import com.his.repository.MedicineRepository;
+import com.his.service.LowStockAlertService;
+import com.his.service.MedicineCatalogService;
 import com.his.test.base.BaseServiceTest;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -25,6 +27,12 @@ class MedicineServiceImplTest extends BaseServiceTest {
     @Mock
     private MedicineRepository medicineRepository;
 
+    @Mock
+    private LowStockAlertService lowStockAlertService;
+
+    @Mock
+    private MedicineCatalogService medicineCatalogService;
+
     @InjectMocks
     private MedicineServiceImpl medicineService;
 
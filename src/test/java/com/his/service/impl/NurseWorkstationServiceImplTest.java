@@ -4,12 +4,15 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
 import com.his.dto.NurseWorkstationDTO;
 import com.his.entity.Department;
@@ -21,11 +24,13 @@ import com.his.enums.GenderEnum;
 import com.his.enums.RegStatusEnum;
 import com.his.enums.VisitTypeEnum;
 import com.his.repository.RegistrationRepository;
+import com.his.repository.projection.NurseRegistrationView;
 import com.his.test.base.BaseServiceTest;
 import com.his.vo.NurseRegistrationVO;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -47,9 +52,13 @@ import static org.mockito.Mockito.when;
  * @since 1.0.0
  */
 @DisplayName("护士工作站服务测试")
-@SuppressWarnings("unchecked") // 抑制 JPA Specification 类型转换警告
 class NurseWorkstationServiceImplTest extends BaseServiceTest {
 
+    /**
+     * 仓库返回投影，测试数据仍用实体构造后按投影属性展开
+     */
+    private static final SpelAwareProxyProjectionFactory PROJECTION_FACTORY = new SpelAwareProxyProjectionFactory();
+
     @Mock
     private RegistrationRepository registrationRepository;
 
@@ -70,7 +79,7 @@ class NurseWorkstationServiceImplTest extends BaseServiceTest {
                 RegStatusEnum.WAITING.getCode(), VisitTypeEnum.FIRST.getCode());
 
         List<Registration> registrations = Arrays.asList(reg1);
-        when(registrationRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(org.springframework.data.domain.Sort.class))).thenReturn(registrations);
+        when(registrationRepository.findNurseList(any(), any(), any(), any(), any())).thenReturn(toViews(registrations));
 
         // When: dto为null，应查询当天
         List<NurseRegistrationVO> result = nurseWorkstationService.getTodayRegistrations(null);
@@ -94,7 +103,7 @@ class NurseWorkstationServiceImplTest extends BaseServiceTest {
         reg.setVisitDate(specifiedDate);
 
         List<Registration> registrations = Arrays.asList(reg);
-        when(registrationRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(org.springframework.data.domain.Sort.class))).thenReturn(registrations);
+        when(registrationRepository.findNurseList(any(), any(), any(), any(), any())).thenReturn(toViews(registrations));
 
         NurseWorkstationDTO dto = new NurseWorkstationDTO();
         dto.setVisitDate(specifiedDate);
@@ -107,11 +116,23 @@ class NurseWorkstationServiceImplTest extends BaseServiceTest {
         assertThat(result.get(0).getPatientName()).isEqualTo("李四");
     }
 
+    @Test
+    @DisplayName("查询今日挂号 - 未指定条件时只按日期查询")
+    void testGetTodayRegistrations_NoConditionsPassedAsNull() {
+        when(registrationRepository.findNurseList(any(), any(), any(), any(), any())).thenReturn(Collections.emptyList());
+
+        NurseWorkstationDTO dto = new NurseWorkstationDTO();
+        dto.setKeyword("   ");
+        nurseWorkstationService.getTodayRegistrations(dto);
+
+        verify(registrationRepository).findNurseList(LocalDate.now(), null, null, null, null);
+    }
+
     @Test
     @DisplayName("查询今日挂号 - 空结果")
     void testGetTodayRegistrations_EmptyResult() {
         // Given: 返回空列表
-        when(registrationRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(org.springframework.data.domain.Sort.class))).thenReturn(Collections.emptyList());
+        when(registrationRepository.findNurseList(any(), any(), any(), any(), any())).thenReturn(Collections.emptyList());
 
         // When
         List<NurseRegistrationVO> result = nurseWorkstationService.getTodayRegistrations(new NurseWorkstationDTO());
@@ -135,7 +156,7 @@ class NurseWorkstationServiceImplTest extends BaseServiceTest {
                 RegStatusEnum.WAITING.getCode(), VisitTypeEnum.FIRST.getCode());
 
         List<Registration> registrations = Arrays.asList(reg1);
-        when(registrationRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(org.springframework.data.domain.Sort.class))).thenReturn(registrations);
+        when(registrationRepository.findNurseList(any(), any(), any(), any(), any())).thenReturn(toViews(registrations));
 
         NurseWorkstationDTO dto = new NurseWorkstationDTO();
         dto.setDepartmentId(1L); // 筛选内科
@@ -160,7 +181,7 @@ class NurseWorkstationServiceImplTest extends BaseServiceTest {
                 RegStatusEnum.WAITING.getCode(), VisitTypeEnum.FIRST.getCode());
 
         List<Registration> registrations = Arrays.asList(reg);
-        when(registrationRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(org.springframework.data.domain.Sort.class))).thenReturn(registrations);
+        when(registrationRepository.findNurseList(any(), any(), any(), any(), any())).thenReturn(toViews(registrations));
 
         NurseWorkstationDTO dto = new NurseWorkstationDTO();
         dto.setStatus(RegStatusEnum.WAITING.getCode());
@@ -186,7 +207,7 @@ class NurseWorkstationServiceImplTest extends BaseServiceTest {
                 RegStatusEnum.WAITING.getCode(), VisitTypeEnum.FIRST.getCode());
 
         List<Registration> registrations = Arrays.asList(reg);
-        when(registrationRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(org.springframework.data.domain.Sort.class))).thenReturn(registrations);
+        when(registrationRepository.findNurseList(any(), any(), any(), any(), any())).thenReturn(toViews(registrations));
 
         NurseWorkstationDTO dto = new NurseWorkstationDTO();
         dto.setVisitType(VisitTypeEnum.FIRST.getCode());
@@ -212,7 +233,7 @@ class NurseWorkstationServiceImplTest extends BaseServiceTest {
                 RegStatusEnum.WAITING.getCode(), VisitTypeEnum.FIRST.getCode());
 
         List<Registration> registrations = Arrays.asList(reg);
-        when(registrationRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(org.springframework.data.domain.Sort.class))).thenReturn(registrations);
+        when(registrationRepository.findNurseList(any(), any(), any(), any(), any())).thenReturn(toViews(registrations));
 
         NurseWorkstationDTO dto = new NurseWorkstationDTO();
         dto.setKeyword("张三");
@@ -238,7 +259,7 @@ class NurseWorkstationServiceImplTest extends BaseServiceTest {
         reg.setRegNo("GZ20240115001");
 
         List<Registration> registrations = Arrays.asList(reg);
-        when(registrationRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(org.springframework.data.domain.Sort.class))).thenReturn(registrations);
+        when(registrationRepository.findNurseList(any(), any(), any(), any(), any())).thenReturn(toViews(registrations));
 
         NurseWorkstationDTO dto = new NurseWorkstationDTO();
         dto.setKeyword("GZ20240115");
@@ -265,7 +286,7 @@ class NurseWorkstationServiceImplTest extends BaseServiceTest {
                 RegStatusEnum.COMPLETED.getCode(), VisitTypeEnum.FOLLOWUP.getCode());
 
         List<Registration> registrations = Arrays.asList(reg);
-        when(registrationRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(org.springframework.data.domain.Sort.class))).thenReturn(registrations);
+        when(registrationRepository.findNurseList(any(), any(), any(), any(), any())).thenReturn(toViews(registrations));
 
         NurseWorkstationDTO dto = new NurseWorkstationDTO();
         dto.setDepartmentId(1L);
@@ -293,7 +314,7 @@ class NurseWorkstationServiceImplTest extends BaseServiceTest {
         reg.setRegNo("GZ20240115001");
 
         List<Registration> registrations = Arrays.asList(reg);
-        when(registrationRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(org.springframework.data.domain.Sort.class))).thenReturn(registrations);
+        when(registrationRepository.findNurseList(any(), any(), any(), any(), any())).thenReturn(toViews(registrations));
 
         NurseWorkstationDTO dto = new NurseWorkstationDTO();
         dto.setVisitDate(LocalDate.now());
@@ -309,6 +330,8 @@ class NurseWorkstationServiceImplTest extends BaseServiceTest {
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getPatientName()).isEqualTo("全条件测试");
         assertThat(result.get(0).getDeptName()).isEqualTo("神经内科");
+        verify(registrationRepository).findNurseList(LocalDate.now(), 10L, RegStatusEnum.WAITING.getCode(),
+                VisitTypeEnum.FOLLOWUP.getCode(), "%全条件%");
     }
 
     // ==================== 数据转换测试 ====================
@@ -338,7 +361,7 @@ class NurseWorkstationServiceImplTest extends BaseServiceTest {
         reg.setMedicalRecord(medicalRecord);
 
         List<Registration> registrations = Arrays.asList(reg);
-        when(registrationRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(org.springframework.data.domain.Sort.class))).thenReturn(registrations);
+        when(registrationRepository.findNurseList(any(), any(), any(), any(), any())).thenReturn(toViews(registrations));
 
         // When
         List<NurseRegistrationVO> result = nurseWorkstationService.getTodayRegistrations(new NurseWorkstationDTO());
@@ -382,7 +405,7 @@ class NurseWorkstationServiceImplTest extends BaseServiceTest {
         reg.setIsDeleted((short) 0);
 
         List<Registration> registrations = Arrays.asList(reg);
-        when(registrationRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(org.springframework.data.domain.Sort.class))).thenReturn(registrations);
+        when(registrationRepository.findNurseList(any(), any(), any(), any(), any())).thenReturn(toViews(registrations));
 
         // When
         List<NurseRegistrationVO> result = nurseWorkstationService.getTodayRegistrations(new NurseWorkstationDTO());
@@ -409,7 +432,7 @@ class NurseWorkstationServiceImplTest extends BaseServiceTest {
                 RegStatusEnum.WAITING.getCode(), VisitTypeEnum.EMERGENCY.getCode());
 
         List<Registration> registrations = Arrays.asList(reg);
-        when(registrationRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(org.springframework.data.domain.Sort.class))).thenReturn(registrations);
+        when(registrationRepository.findNurseList(any(), any(), any(), any(), any())).thenReturn(toViews(registrations));
 
         // When
         List<NurseRegistrationVO> result = nurseWorkstationService.getTodayRegistrations(new NurseWorkstationDTO());
@@ -437,7 +460,7 @@ class NurseWorkstationServiceImplTest extends BaseServiceTest {
                 RegStatusEnum.WAITING.getCode(), VisitTypeEnum.FIRST.getCode());
 
         List<Registration> registrations = Arrays.asList(reg);
-        when(registrationRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(org.springframework.data.domain.Sort.class))).thenReturn(registrations);
+        when(registrationRepository.findNurseList(any(), any(), any(), any(), any())).thenReturn(toViews(registrations));
 
         // When
         List<NurseRegistrationVO> result = nurseWorkstationService.getTodayRegistrations(new NurseWorkstationDTO());
@@ -474,7 +497,7 @@ class NurseWorkstationServiceImplTest extends BaseServiceTest {
 
         // 返回按创建时间升序排列的结果
         List<Registration> registrations = Arrays.asList(reg2, reg1, reg3);
-        when(registrationRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), any(org.springframework.data.domain.Sort.class))).thenReturn(registrations);
+        when(registrationRepository.findNurseList(any(), any(), any(), any(), any())).thenReturn(toViews(registrations));
 
         // When
         List<NurseRegistrationVO> result = nurseWorkstationService.getTodayRegistrations(new NurseWorkstationDTO());
@@ -527,4 +550,40 @@ class NurseWorkstationServiceImplTest extends BaseServiceTest {
         registration.setIsDeleted((short) 0);
         return registration;
     }
+
+    private List<NurseRegistrationView> toViews(List<Registration> registrations) {
+        return registrations.stream().map(this::toView).toList();
+    }
+
+    private NurseRegistrationView toView(Registration reg) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("mainId", reg.getMainId());
+        row.put("regNo", reg.getRegNo());
+        row.put("status", reg.getStatus());
+        row.put("visitType", reg.getVisitType());
+        row.put("visitDate", reg.getVisitDate());
+        row.put("registrationFee", reg.getRegistrationFee());
+        row.put("queueNo", reg.getQueueNo());
+        row.put("appointmentTime", reg.getAppointmentTime());
+        row.put("createdAt", reg.getCreatedAt());
+        if (reg.getPatient() != null) {
+            row.put("patientId", reg.getPatient().getMainId());
+            row.put("patientName", reg.getPatient().getName());
+            row.put("gender", reg.getPatient().getGender());
+            row.put("age", reg.getPatient().getAge());
+            row.put("idCard", reg.getPatient().getIdCard());
+            row.put("phone", reg.getPatient().getPhone());
+        }
+        if (reg.getDepartment() != null) {
+            row.put("deptId", reg.getDepartment().getMainId());
+            row.put("deptName", reg.getDepartment().getName());
+        }
+        if (reg.getDoctor() != null) {
+            row.put("doctorId", reg.getDoctor().getMainId());
+            row.put("doctorName", reg.getDoctor().getName());
+            row.put("doctorTitle", reg.getDoctor().getTitle());
+        }
+        row.put("hasMedicalRecord", reg.getMedicalRecord() != null);
+        return PROJECTION_FACTORY.createProjection(NurseRegistrationView.class, row);
+    }
 }
@@ -33,6 +33,11 @@ import static org.mockito.Mockito.*;
 @DisplayName("PatientService 单元测试")
 class PatientServiceImplTest {
 
+    /**
+     * 仓库返回投影，测试数据仍用实体构造后包装为投影
+     */
+    private static final SpelAwareProxyProjectionFactory PROJECTION_FACTORY = new SpelAwareProxyProjectionFactory();
+
     @Mock
     private PatientRepository patientRepository;
 
@@ -49,8 +54,8 @@ class PatientServiceImplTest {
     void searchPatients_Success() {
         // Given
         String keyword = "张三";
-        Patient patient1 = createTestPatient(1L, "张三", "320106199001011234", "13812345678");
-        Patient patient2 = createTestPatient(2L, "张三丰", "320106199002022345", "13887654321");
+        PatientSearchView patient1 = createTestPatient(1L, "张三", "320106199001011234", "13812345678");
+        PatientSearchView patient2 = createTestPatient(2L, "张三丰", "320106199002022345", "13887654321");
 
         when(patientRepository.searchByKeyword(eq(keyword), any(Pageable.class)))
                 .thenReturn(Arrays.asList(patient1, patient2));
@@ -73,7 +78,7 @@ class PatientServiceImplTest {
     void searchPatients_ByIdCard() {
         // Given
         String keyword = "320106";
-        Patient patient = createTestPatient(1L, "张三", "320106199001011234", "13812345678");
+        PatientSearchView patient = createTestPatient(1L, "张三", "320106199001011234", "13812345678");
 
         when(patientRepository.searchByKeyword(eq(keyword), any(Pageable.class)))
                 .thenReturn(Collections.singletonList(patient));
@@ -91,7 +96,7 @@ class PatientServiceImplTest {
     void searchPatients_ByPhone() {
         // Given
         String keyword = "138";
-        Patient patient = createTestPatient(1L, "张三", "320106199001011234", "13812345678");
+        PatientSearchView patient = createTestPatient(1L, "张三", "320106199001011234", "13812345678");
 
         when(patientRepository.searchByKeyword(eq(keyword), any(Pageable.class)))
                 .thenReturn(Collections.singletonList(patient));
@@ -169,7 +174,7 @@ class PatientServiceImplTest {
     void searchPatients_SpecialCharactersFiltered() {
         // Given
         String keyword = "张三%_";
-        Patient patient = createTestPatient(1L, "张三", "320106199001011234", "13812345678");
+        PatientSearchView patient = createTestPatient(1L, "张三", "320106199001011234", "13812345678");
 
         when(patientRepository.searchByKeyword(eq("张三"), any(Pageable.class)))  // 特殊字符已被过滤
                 .thenReturn(Collections.singletonList(patient));
@@ -187,7 +192,7 @@ class PatientServiceImplTest {
     void searchPatients_LimitResults() {
         // Given
         String keyword = "张三";  // 使用有效长度的关键字
-        List<Patient> patients = createManyPatients(20);  // 创建20个患者
+        List<PatientSearchView> patients = createManyPatients(20);  // 创建20个患者
 
         // 模拟仓库只返回前 15 条（分页限制由 PageRequest 控制）
         when(patientRepository.searchByKeyword(eq(keyword), any(Pageable.class)))
@@ -212,7 +217,7 @@ class PatientServiceImplTest {
     void searchPatients_GenderDescCorrect() {
         // Given
         String keyword = "张三";  // 使用有效长度的关键字
-        Patient patient = createTestPatient(1L, "张三", "320106199001011234", "13812345678");
+        PatientSearchView patient = createTestPatient(1L, "张三", "320106199001011234", "13812345678");
 
         when(patientRepository.searchByKeyword(eq(keyword), any(Pageable.class)))
                 .thenReturn(Collections.singletonList(patient));
@@ -228,7 +233,7 @@ class PatientServiceImplTest {
 
     // ==================== 辅助方法 ====================
 
-    private Patient createTestPatient(Long id, String name, String idCard, String phone) {
+    private PatientSearchView createTestPatient(Long id, String name, String idCard, String phone) {
         Patient patient = new Patient();
         patient.setMainId(id);
         patient.setPatientNo("P2025010500" + id);
@@ -244,7 +249,7 @@ class PatientServiceImplTest {
         return patient;
     }
 
-    private List<Patient> createManyPatients(int count) {
+    private List<PatientSearchView> createManyPatients(int count) {
         return java.util.stream.IntStream.range(0, count)
                 .mapToObj(i -> createTestPatient((long) i, "患者" + i, "32010619900101" + String.format("%04d", i), "138000000" + String.format("%02d", i)))
                 .toList();
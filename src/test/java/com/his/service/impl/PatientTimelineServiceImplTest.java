@@ -0,0 +1,147 @@
+package com.his.service.impl;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.his.enums.TimelineEventTypeEnum;
+import com.his.test.base.BaseServiceTest;
+import com.his.vo.PatientTimelineEventVO;
+import com.his.vo.PatientTimelineVO;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.*;
+
+/**
+ * PatientTimelineServiceImpl 单元测试
+ * <p>
+ * 验证四类事件的归并排序、游标在各条查询中的定位条件、草稿病历可见范围以及参数校验
+ * </p>
+ *
+ * @author HIS 开发团队
+ * @since 1.0
+ */
+@DisplayName("患者就诊时间线服务测试")
+class PatientTimelineServiceImplTest extends BaseServiceTest {
+
+    private static final Long PATIENT_ID = 1L;
+    private static final Long DOCTOR_ID = 7L;
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 12, 20, 10, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private PatientTimelineServiceImpl timelineService;
+
+    @Override
+    protected void setUpTest() {
+        timelineService = new PatientTimelineServiceImpl(jdbcTemplate, Runnable::run);
+    }
+
+    @Test
+    @DisplayName("归并：按时间倒序，同一时刻收费→处方→病历→挂号，多取一行判断下一页")
+    void getTimeline_MergesStreamsInOrder() {
+        givenPatientExists();
+        givenEvents("his_registration r", event(TimelineEventTypeEnum.REGISTRATION, 1L, T0));
+        givenEvents("his_medical_record m", event(TimelineEventTypeEnum.MEDICAL_RECORD, 1L, T0.plusMinutes(10)));
+        givenEvents("his_prescription p",
+                event(TimelineEventTypeEnum.PRESCRIPTION, 2L, T0.plusMinutes(20)),
+                event(TimelineEventTypeEnum.PRESCRIPTION, 1L, T0.plusMinutes(20)));
+        givenEvents("his_charge c", event(TimelineEventTypeEnum.CHARGE, 1L, T0.plusMinutes(20)));
+
+        PatientTimelineVO page = timelineService.getTimeline(PATIENT_ID, DOCTOR_ID, null, 3);
+
+        assertThat(page.getEvents())
+                .extracting(PatientTimelineEventVO::getType, PatientTimelineEventVO::getId)
+                .containsExactly(
+                        tuple(TimelineEventTypeEnum.CHARGE, 1L),
+                        tuple(TimelineEventTypeEnum.PRESCRIPTION, 2L),
+                        tuple(TimelineEventTypeEnum.PRESCRIPTION, 1L));
+        assertThat(page.getNextCursor()).isNotBlank();
+        verify(jdbcTemplate).query(contains("his_charge c"), any(RowMapper.class),
+                eq(new Object[] {PATIENT_ID, 4}));
+    }
+
+    @Test
+    @DisplayName("游标：类型在前的查询取同一时刻，同类型按 (时间, ID) 比较，类型在后的查询严格早于游标时间")
+    void getTimeline_CursorConditionsPerStream() {
+        givenPatientExists();
+        givenEvents("his_prescription p",
+                event(TimelineEventTypeEnum.PRESCRIPTION, 5L, T0),
+                event(TimelineEventTypeEnum.PRESCRIPTION, 4L, T0));
+        String cursor = timelineService.getTimeline(PATIENT_ID, null, null, 1).getNextCursor();
+        clearInvocations(jdbcTemplate);
+
+        timelineService.getTimeline(PATIENT_ID, null, cursor, 1);
+
+        verify(jdbcTemplate).query(contains("r.created_at <= ?"), any(RowMapper.class),
+                eq(new Object[] {PATIENT_ID, T0, 2}));
+        verify(jdbcTemplate).query(contains("m.created_at <= ?"), any(RowMapper.class),
+                eq(new Object[] {PATIENT_ID, T0, 2}));
+        verify(jdbcTemplate).query(contains("(p.created_at, p.main_id) < (?, ?)"), any(RowMapper.class),
+                eq(new Object[] {PATIENT_ID, T0, 5L, 2}));
+        verify(jdbcTemplate).query(contains("c.created_at < ?"), any(RowMapper.class),
+                eq(new Object[] {PATIENT_ID, T0, 2}));
+    }
+
+    @Test
+    @DisplayName("医生查看：其他医生的草稿病历不可见；管理员不加限制")
+    void getTimeline_DraftVisibility() {
+        givenPatientExists();
+
+        timelineService.getTimeline(PATIENT_ID, DOCTOR_ID, null, 20);
+        verify(jdbcTemplate).query(contains("m.doctor_main_id = ?"), any(RowMapper.class),
+                eq(new Object[] {PATIENT_ID, DOCTOR_ID, 21}));
+
+        clearInvocations(jdbcTemplate);
+        timelineService.getTimeline(PATIENT_ID, null, null, 20);
+        verify(jdbcTemplate, never()).query(contains("m.doctor_main_id = ?"), any(RowMapper.class),
+                any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("参数校验：游标无效、每页数量越界、患者不存在")
+    void getTimeline_Fail_WhenInvalid() {
+        assertThatThrownBy(() -> timelineService.getTimeline(PATIENT_ID, null, "bm90LWEtY3Vyc29y", 20))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("分页游标无效");
+        assertThatThrownBy(() -> timelineService.getTimeline(PATIENT_ID, null, null, 101))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("每页数量");
+        verifyNoInteractions(jdbcTemplate);
+
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq(99L))).thenReturn(0L);
+        assertThatThrownBy(() -> timelineService.getTimeline(99L, null, null, 20))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("患者不存在");
+    }
+
+    private void givenPatientExists() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq(PATIENT_ID))).thenReturn(1L);
+    }
+
+    /**
+     * 四条查询共用同一个方法签名，未被调用到的表不算多余的桩
+     */
+    @SuppressWarnings("unchecked")
+    private void givenEvents(String table, PatientTimelineEventVO... events) {
+        lenient().doReturn(List.of(events)).when(jdbcTemplate).query(contains(table), any(RowMapper.class), any(Object[].class));
+    }
+
+    private static PatientTimelineEventVO event(TimelineEventTypeEnum type, Long id, LocalDateTime time) {
+        return PatientTimelineEventVO.builder()
+                .type(type)
+                .id(id)
+                .eventTime(time)
+                .amount(BigDecimal.ONE)
+                .build();
+    }
+}
@@ -0,0 +1,225 @@
+package com.his.service.impl;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.his.dto.PharmacistStatisticsDTO;
+import com.his.enums.StatsGranularityEnum;
+import com.his.test.base.BaseServiceTest;
+import com.his.vo.PharmacistStatsVO;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * PharmacistStatsServiceImpl 单元测试
+ * <p>
+ * 验证内存统计桶的按粒度汇总、事务提交前一次批量 UPSERT、回滚撤销、重建时保留未提交增量以及内存窗口外回退到汇总表
+ * </p>
+ *
+ * @author HIS 开发团队
+ * @since 1.0
+ */
+@DisplayName("药师工作量统计服务测试")
+class PharmacistStatsServiceImplTest extends BaseServiceTest {
+
+    private static final Long PHARMACIST_ID = 100L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private PharmacistStatsServiceImpl statsService;
+
+    private LocalDateTime today;
+
+    @Override
+    protected void setUpTest() {
+        ReflectionTestUtils.setField(statsService, "memoryDays", 90);
+        statsService.rebuild();
+        clearInvocations(jdbcTemplate);
+        today = LocalDate.now().atStartOfDay();
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("按粒度汇总：小时统计桶合并为天，合计包含退药")
+    void getStats_GroupsHourlyBucketsByDay() {
+        TransactionSynchronizationManager.initSynchronization();
+        statsService.recordDispense(PHARMACIST_ID, today.plusHours(9).plusMinutes(10), new BigDecimal("20.00"), 2);
+        statsService.recordDispense(PHARMACIST_ID, today.plusHours(9).plusMinutes(40), new BigDecimal("30.00"), 3);
+        statsService.recordDispense(PHARMACIST_ID, today.plusHours(15), new BigDecimal("10.00"), 1);
+        statsService.recordReturn(PHARMACIST_ID, today.plusHours(16), new BigDecimal("10.00"));
+        statsService.recordDispense(200L, today.plusHours(9), new BigDecimal("99.00"), 9);
+
+        PharmacistStatsVO hourly = statsService.getStats(PHARMACIST_ID, today, today.plusDays(1), StatsGranularityEnum.HOUR);
+        PharmacistStatsVO daily = statsService.getStats(PHARMACIST_ID, today, today.plusDays(1), StatsGranularityEnum.DAY);
+
+        assertThat(hourly.getBuckets()).extracting(PharmacistStatsVO.Bucket::getBucketStart)
+                .containsExactly(today.plusHours(9), today.plusHours(15), today.plusHours(16));
+        assertThat(hourly.getBuckets().get(0).getDispensedCount()).isEqualTo(2L);
+        assertThat(daily.getBuckets()).hasSize(1);
+        assertThat(daily.getTotal().getDispensedCount()).isEqualTo(3L);
+        assertThat(daily.getTotal().getDispensedAmount()).isEqualByComparingTo("60.00");
+        assertThat(daily.getTotal().getDispensedItems()).isEqualTo(6L);
+        assertThat(daily.getTotal().getReturnedCount()).isEqualTo(1L);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("事务内多次计数：同一小时合并，提交前只执行一次批量 UPSERT")
+    @SuppressWarnings("unchecked")
+    void record_InTransaction_SingleBatchBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        statsService.recordDispense(PHARMACIST_ID, today.plusHours(9), new BigDecimal("20.00"), 2);
+        statsService.recordDispense(PHARMACIST_ID, today.plusHours(9).plusMinutes(30), new BigDecimal("20.00"), 2);
+        statsService.recordDispense(PHARMACIST_ID, today.plusHours(10), new BigDecimal("20.00"), 2);
+
+        verifyNoInteractions(jdbcTemplate);
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(1);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+        }
+
+        ArgumentCaptor<Collection<?>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), captor.capture(), eq(2),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(captor.getValue()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("事务回滚：撤销内存计数，不写入汇总表")
+    void record_Rollback_RevertsMemory() {
+        TransactionSynchronizationManager.initSynchronization();
+        statsService.recordDispense(PHARMACIST_ID, today.plusHours(9), new BigDecimal("20.00"), 2);
+        assertThat(statsService.getTotals(PHARMACIST_ID, today, today.plusDays(1)).getDispensedCount()).isEqualTo(1L);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        PharmacistStatisticsDTO totals = statsService.getTotals(PHARMACIST_ID, today, today.plusDays(1));
+        assertThat(totals.getDispensedCount()).isZero();
+        assertThat(totals.getTotalAmount()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(statsService.getStats(PHARMACIST_ID, today, today.plusDays(1), StatsGranularityEnum.HOUR)
+                .getBuckets()).isEmpty();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("事务回滚：内存中没有对应统计桶时跳过撤销，不生成负数计数")
+    void record_RollbackAfterBucketReloaded_NoNegativeCounts() {
+        TransactionSynchronizationManager.initSynchronization();
+        statsService.recordDispense(PHARMACIST_ID, today.plusHours(9), new BigDecimal("20.00"), 2);
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+        }
+        // 已写入汇总表后重建（汇总表随后因提交失败回滚，重建读到的结果中没有该统计桶）
+        statsService.rebuild();
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        PharmacistStatsVO stats = statsService.getStats(PHARMACIST_ID, today, today.plusDays(1), StatsGranularityEnum.HOUR);
+        assertThat(stats.getBuckets()).isEmpty();
+        assertThat(stats.getTotal().getDispensedCount()).isZero();
+        assertThat(stats.getTotal().getDispensedAmount()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    @DisplayName("重建：未写入汇总表的事务增量并入新统计桶，提交后仍然保留")
+    void rebuild_KeepsUnwrittenDeltas() {
+        TransactionSynchronizationManager.initSynchronization();
+        statsService.recordDispense(PHARMACIST_ID, today.plusHours(9), new BigDecimal("20.00"), 2);
+
+        statsService.rebuild();
+        statsService.recordDispense(PHARMACIST_ID, today.plusHours(9), new BigDecimal("30.00"), 3);
+        assertThat(statsService.getTotals(PHARMACIST_ID, today, today.plusDays(1)).getDispensedCount()).isEqualTo(2L);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        PharmacistStatisticsDTO totals = statsService.getTotals(PHARMACIST_ID, today, today.plusDays(1));
+        assertThat(totals.getDispensedCount()).isEqualTo(2L);
+        assertThat(totals.getTotalAmount()).isEqualByComparingTo("50.00");
+        verify(jdbcTemplate).execute(contains("LOCK TABLE his_pharmacist_hourly_stats"));
+    }
+
+    @Test
+    @DisplayName("重建：已写入汇总表的事务增量只从汇总表加载，不重复计数")
+    void rebuild_WrittenDeltas_NotCountedTwice() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        statsService.recordDispense(PHARMACIST_ID, today.plusHours(9), new BigDecimal("20.00"), 2);
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+        }
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("pharmacist_id")).thenReturn(PHARMACIST_ID);
+        when(rs.getTimestamp("bucket_hour")).thenReturn(Timestamp.valueOf(today.plusHours(9)));
+        when(rs.getLong("dispensed_count")).thenReturn(1L);
+        when(rs.getBigDecimal("dispensed_amount")).thenReturn(new BigDecimal("20.00"));
+        when(rs.getLong("dispensed_items")).thenReturn(2L);
+        when(rs.getBigDecimal("returned_amount")).thenReturn(BigDecimal.ZERO);
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(contains("WHERE bucket_hour >= ?"), any(RowCallbackHandler.class), any());
+
+        statsService.rebuild();
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        PharmacistStatisticsDTO totals = statsService.getTotals(PHARMACIST_ID, today, today.plusDays(1));
+        assertThat(totals.getDispensedCount()).isEqualTo(1L);
+        assertThat(totals.getTotalAmount()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    @DisplayName("内存窗口之前的范围：读取汇总表")
+    void getTotals_BeforeMemoryWindow_ReadsRollupTable() {
+        LocalDateTime lastYear = today.minusYears(1);
+
+        statsService.getTotals(PHARMACIST_ID, lastYear, lastYear.plusDays(1));
+
+        verify(jdbcTemplate).query(contains("WHERE pharmacist_id = ?"), any(RowCallbackHandler.class),
+                eq(PHARMACIST_ID), any(), any());
+    }
+
+    @Test
+    @DisplayName("按粒度统计失败：时间范围超过上限")
+    void getStats_Fail_WhenRangeTooLong() {
+        assertThatThrownBy(() -> statsService.getStats(PHARMACIST_ID, today.minusDays(400), today, StatsGranularityEnum.WEEK))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("统计时间范围不能超过366天");
+    }
+}
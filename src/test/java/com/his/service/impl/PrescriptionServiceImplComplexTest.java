@@ -19,6 +19,9 @@ import com.his.repository.MedicineRepository;
 import com.his.repository.PrescriptionDetailRepository;
 import com.his.repository.PrescriptionRepository;
 import com.his.repository.RegistrationRepository;
+import com.his.service.LowStockAlertService;
+import com.his.service.MedicineCatalogService;
+import com.his.service.PharmacistStatsService;
 import com.his.service.PrescriptionStateMachine;
 import com.his.test.base.BaseServiceTest;
 
@@ -57,6 +60,15 @@ class PrescriptionServiceImplComplexTest extends BaseServiceTest {
     @Mock
     private PrescriptionStateMachine prescriptionStateMachine;
 
+    @Mock
+    private LowStockAlertService lowStockAlertService;
+
+    @Mock
+    private MedicineCatalogService medicineCatalogService;
+
+    @Mock
+    private PharmacistStatsService pharmacistStatsService;
+
     @InjectMocks
     private PrescriptionServiceImpl prescriptionService;
 
@@ -108,8 +120,8 @@ class PrescriptionServiceImplComplexTest extends BaseServiceTest {
         Medicine medicine1 = createMockMedicine(1L, "药品A", new BigDecimal("10.01"));
         Medicine medicine2 = createMockMedicine(2L, "药品B", new BigDecimal("10.005"));
 
-        when(medicineRepository.findById(1L)).thenReturn(Optional.of(medicine1));
-        when(medicineRepository.findById(2L)).thenReturn(Optional.of(medicine2));
+        when(medicineRepository.findByMainIdInAndIsDeleted(List.of(1L, 2L), (short) 0))
+                .thenReturn(List.of(medicine1, medicine2));
 
         Prescription savedPrescription = mockSavedPrescription();
         when(prescriptionRepository.save(any(Prescription.class))).thenReturn(savedPrescription);
@@ -150,7 +162,7 @@ class PrescriptionServiceImplComplexTest extends BaseServiceTest {
         medicine.setRetailPrice(new BigDecimal("50.00"));
         medicine.setIsDeleted((short) 0);
 
-        when(medicineRepository.findById(1L)).thenReturn(Optional.of(medicine));
+        when(medicineRepository.findByMainIdInAndIsDeleted(List.of(1L), (short) 0)).thenReturn(List.of(medicine));
 
         // When & Then - 应该抛出异常
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
@@ -177,14 +189,8 @@ class PrescriptionServiceImplComplexTest extends BaseServiceTest {
 
         mockCommonDependencies();
 
-        Medicine medicine = new Medicine();
-        medicine.setMainId(1L);
-        medicine.setName("已删除药品");
-        medicine.setStatus((short) 1);
-        medicine.setRetailPrice(new BigDecimal("50.00"));
-        medicine.setIsDeleted((short) 1); // 已删除
-
-        when(medicineRepository.findById(1L)).thenReturn(Optional.of(medicine));
+        // 已删除的药品不会被 isDeleted=0 的批量查询返回
+        when(medicineRepository.findByMainIdInAndIsDeleted(List.of(1L), (short) 0)).thenReturn(Collections.emptyList());
 
         // When & Then - 应该抛出异常
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
@@ -211,7 +217,7 @@ class PrescriptionServiceImplComplexTest extends BaseServiceTest {
 
         mockCommonDependencies();
 
-        when(medicineRepository.findById(999L)).thenReturn(Optional.empty());
+        when(medicineRepository.findByMainIdInAndIsDeleted(List.of(999L), (short) 0)).thenReturn(Collections.emptyList());
 
         // When & Then - 应该抛出异常
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
@@ -222,6 +228,35 @@ class PrescriptionServiceImplComplexTest extends BaseServiceTest {
         verify(prescriptionRepository, never()).save(any(Prescription.class));
     }
 
+    @Test
+    @DisplayName("创建处方：多行不合法时一次性返回所有问题行")
+    void createPrescription_MultipleInvalidItems_ReportedTogether() {
+        // Given - 第1行正常，第2行已停用，第3行不存在，第4行重复引用第1行药品
+        PrescriptionDTO dto = createValidPrescriptionDTO();
+        dto.setItems(List.of(createItem(1L), createItem(2L), createItem(999L), createItem(1L)));
+
+        mockCommonDependencies();
+
+        Medicine normal = createMockMedicine(1L, "药品A", new BigDecimal("10.00"));
+        Medicine stopped = createMockMedicine(2L, "药品B", new BigDecimal("20.00"));
+        stopped.setStatus((short) 0);
+        when(medicineRepository.findByMainIdInAndIsDeleted(List.of(1L, 2L, 999L), (short) 0))
+                .thenReturn(List.of(normal, stopped));
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> prescriptionService.createPrescription(dto));
+
+        assertTrue(exception.getMessage().contains("第2行药品已停用"));
+        assertTrue(exception.getMessage().contains("第3行药品不存在"));
+        assertFalse(exception.getMessage().contains("第1行"));
+        assertFalse(exception.getMessage().contains("第4行"));
+        verify(medicineRepository, times(1)).findByMainIdInAndIsDeleted(anyList(), any());
+        verify(medicineRepository, never()).findById(any());
+        verify(prescriptionRepository, never()).generatePrescriptionNo();
+        verify(prescriptionRepository, never()).save(any(Prescription.class));
+    }
+
     // ==================== 辅助方法 ====================
 
     private PrescriptionDTO createValidPrescriptionDTO() {
@@ -232,6 +267,16 @@ class PrescriptionServiceImplComplexTest extends BaseServiceTest {
         return dto;
     }
 
+    private PrescriptionDTO.PrescriptionItemDTO createItem(Long medicineId) {
+        PrescriptionDTO.PrescriptionItemDTO item = new PrescriptionDTO.PrescriptionItemDTO();
+        item.setMedicineId(medicineId);
+        item.setQuantity(1);
+        item.setFrequency("一日3次");
+        item.setDosage("每次1片");
+        item.setRoute("口服");
+        return item;
+    }
+
     private Medicine createMockMedicine(Long id, String name, BigDecimal price) {
         Medicine medicine = new Medicine();
         medicine.setMainId(id);
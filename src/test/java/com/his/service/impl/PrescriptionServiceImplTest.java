@@ -1,26 +1,51 @@
 package com.his.service.impl;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.his.config.JwtAuthenticationToken;
 import com.his.entity.Medicine;
 import com.his.entity.Prescription;
 import com.his.entity.PrescriptionDetail;
 import com.his.enums.PrescriptionStatusEnum;
 import com.his.repository.*;
+import com.his.repository.projection.PrescriptionListView;
+import com.his.service.LowStockAlertService;
+import com.his.service.MedicineCatalogService;
+import com.his.service.PharmacistStatsService;
+import com.his.service.PrescriptionStateMachine;
 import com.his.test.base.BaseServiceTest;
+import com.his.vo.BatchDispenseResultVO;
+import com.his.vo.PrescriptionVO;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 @DisplayName("处方服务测试")
 class PrescriptionServiceImplTest extends BaseServiceTest {
 
+    /**
+     * 仓库返回投影，测试数据按投影属性构造
+     */
+    private static final SpelAwareProxyProjectionFactory PROJECTION_FACTORY = new SpelAwareProxyProjectionFactory();
+
     @Mock
     private PrescriptionRepository prescriptionRepository;
     @Mock
@@ -32,6 +57,18 @@ class PrescriptionServiceImplTest extends BaseServiceTest {
     @Mock
     private RegistrationRepository registrationRepository;
 
+    @Mock
+    private LowStockAlertService lowStockAlertService;
+
+    @Mock
+    private MedicineCatalogService medicineCatalogService;
+
+    @Mock
+    private PrescriptionStateMachine prescriptionStateMachine;
+
+    @Mock
+    private PharmacistStatsService pharmacistStatsService;
+
     @InjectMocks
     private PrescriptionServiceImpl prescriptionService;
 
@@ -78,4 +115,239 @@ class PrescriptionServiceImplTest extends BaseServiceTest {
         // 验证库存增加了 10 (100 -> 110)
         verify(medicineRepository).save(argThat(m -> m.getStockQuantity() == 110));
     }
+
+    @Test
+    @DisplayName("待发药队列：分页投影查询 + 批量加载明细，忽略客户端排序")
+    void getPendingDispenseList_PagedWithBatchDetailFetch() {
+        Page<PrescriptionListView> page = new PageImpl<>(List.of(listView(1L), listView(2L)), PageRequest.of(0, 2), 5);
+
+        when(prescriptionRepository.findQueueViewsByStatus(PrescriptionStatusEnum.PAID.getCode(), PageRequest.of(0, 2)))
+                .thenReturn(page);
+        when(prescriptionDetailRepository.findByPrescriptionIds(List.of(1L, 2L)))
+                .thenReturn(List.of(detailOf(1L, 11L), detailOf(1L, 12L), detailOf(2L, 21L)));
+
+        Page<PrescriptionVO> result = prescriptionService.getPendingDispenseList(
+                PageRequest.of(0, 2, Sort.by("totalAmount")));
+
+        assertThat(result.getContent()).extracting(PrescriptionVO::getMainId).containsExactly(1L, 2L);
+        assertThat(result.getContent().get(0).getPatientName()).isEqualTo("患者1");
+        assertThat(result.getContent().get(0).getDetails())
+                .extracting(PrescriptionVO.PrescriptionDetailVO::getMainId).containsExactly(11L, 12L);
+        assertThat(result.getContent().get(1).getDetails())
+                .extracting(PrescriptionVO.PrescriptionDetailVO::getMainId).containsExactly(21L);
+        assertThat(result.getTotalElements()).isEqualTo(5);
+        verify(prescriptionRepository, never()).findQueueByStatus(any(), any());
+    }
+
+    @Test
+    @DisplayName("待发药队列：空页不加载明细")
+    void getPendingDispenseList_EmptyPage_NoDetailFetch() {
+        when(prescriptionRepository.findQueueViewsByStatus(PrescriptionStatusEnum.PAID.getCode(), PageRequest.of(0, 20)))
+                .thenReturn(Page.empty(PageRequest.of(0, 20)));
+
+        Page<PrescriptionVO> result = prescriptionService.getPendingDispenseList(PageRequest.of(0, 20));
+
+        assertThat(result.getContent()).isEmpty();
+        verifyNoInteractions(prescriptionDetailRepository);
+    }
+
+    @Test
+    @DisplayName("待审核队列：空页不加载明细")
+    void getPendingReviewList_EmptyPage_NoDetailFetch() {
+        when(prescriptionRepository.findQueueByStatus(PrescriptionStatusEnum.ISSUED.getCode(), PageRequest.of(3, 20)))
+                .thenReturn(Page.empty(PageRequest.of(3, 20)));
+
+        Page<Prescription> result = prescriptionService.getPendingReviewList(PageRequest.of(3, 20));
+
+        assertThat(result.getContent()).isEmpty();
+        verify(prescriptionRepository, never()).fetchDetailsByIds(any());
+    }
+
+    @Test
+    @DisplayName("领取处方：锁定后写入租约并批量加载")
+    void claimPendingDispense_ClaimsLockedIdsWithLease() {
+        ReflectionTestUtils.setField(prescriptionService, "claimLeaseSeconds", 300L);
+
+        when(prescriptionRepository.lockClaimableIds(eq(PrescriptionStatusEnum.PAID.getCode()), eq(100L), any(), eq(2)))
+                .thenReturn(List.of(1L, 2L));
+        when(prescriptionRepository.findViewsByIds(List.of(1L, 2L))).thenReturn(List.of(listView(1L), listView(2L)));
+        when(prescriptionDetailRepository.findByPrescriptionIds(List.of(1L, 2L))).thenReturn(List.of(detailOf(2L, 21L)));
+
+        LocalDateTime before = LocalDateTime.now();
+        List<PrescriptionVO> result = prescriptionService.claimPendingDispense(100L, 2);
+
+        assertThat(result).extracting(PrescriptionVO::getMainId).containsExactly(1L, 2L);
+        assertThat(result.get(0).getDetails()).isNull();
+        assertThat(result.get(1).getDetails()).hasSize(1);
+        verify(prescriptionRepository).claimByIds(eq(List.of(1L, 2L)), eq(100L),
+                argThat(expiresAt -> !expiresAt.isBefore(before.plusSeconds(300))));
+    }
+
+    @Test
+    @DisplayName("领取处方：队列为空时不写入租约")
+    void claimPendingDispense_EmptyQueue() {
+        when(prescriptionRepository.lockClaimableIds(any(), any(), any(), anyInt())).thenReturn(List.of());
+
+        assertThat(prescriptionService.claimPendingDispense(100L, 5)).isEmpty();
+        verify(prescriptionRepository, never()).claimByIds(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("领取处方失败：领取数量超出范围")
+    void claimPendingDispense_Fail_WhenLimitOutOfRange() {
+        assertThatThrownBy(() -> prescriptionService.claimPendingDispense(100L, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("领取数量必须在1到50之间");
+        assertThatThrownBy(() -> prescriptionService.claimPendingDispense(100L, 51))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(prescriptionRepository);
+    }
+
+    @Test
+    @DisplayName("发药失败：处方已被其他药师领取且租约未过期")
+    void dispense_Fail_WhenClaimedByOtherPharmacist() {
+        Prescription prescription = new Prescription();
+        prescription.setMainId(1L);
+        prescription.setStatus(PrescriptionStatusEnum.PAID.getCode());
+        prescription.setClaimedBy(200L);
+        prescription.setClaimExpiresAt(LocalDateTime.now().plusMinutes(5));
+
+        when(prescriptionRepository.findById(1L)).thenReturn(Optional.of(prescription));
+
+        assertThatThrownBy(() -> prescriptionService.dispense(1L, 100L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("处方已被其他药师领取");
+        verify(prescriptionDetailRepository, never()).findByPrescription_MainIdAndIsDeletedOrderBySortOrder(any(), any());
+    }
+
+    @Test
+    @DisplayName("释放领取失败：处方未被当前药师领取")
+    void releaseClaim_Fail_WhenNotClaimedByPharmacist() {
+        when(prescriptionRepository.releaseClaim(1L, 100L)).thenReturn(0);
+
+        assertThatThrownBy(() -> prescriptionService.releaseClaim(1L, 100L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("处方未被当前药师领取");
+    }
+
+    @Test
+    @DisplayName("批量发药：一次加载、汇总扣减库存，逐张返回结果")
+    void batchDispense_PartialSuccess() throws Exception {
+        Medicine medicine = new Medicine();
+        medicine.setMainId(10L);
+        medicine.setName("阿莫西林胶囊");
+        medicine.setStockQuantity(6);
+
+        Prescription p1 = paidPrescriptionWithDetail(1L, medicine, 3);
+        Prescription p2 = paidPrescriptionWithDetail(2L, medicine, 5);
+        Prescription p3 = paidPrescriptionWithDetail(3L, medicine, 1);
+        p3.setStatus(PrescriptionStatusEnum.REVIEWED.getCode());
+
+        when(prescriptionRepository.fetchDetailsByIds(List.of(1L, 2L, 3L, 99L))).thenReturn(List.of(p1, p2, p3));
+        when(medicineRepository.findAllById(List.of(10L))).thenReturn(List.of(medicine));
+
+        BatchDispenseResultVO result = batchDispenseAsPharmacist(List.of(1L, 2L, 1L, 3L, 99L));
+
+        assertThat(result.getTotal()).isEqualTo(4);
+        assertThat(result.getSuccessCount()).isEqualTo(1);
+        assertThat(result.getResults()).extracting(BatchDispenseResultVO.Item::getSuccess)
+                .containsExactly(true, false, false, false);
+        assertThat(result.getResults().get(1).getMessage()).contains("库存不足");
+        assertThat(result.getResults().get(2).getMessage()).contains("只有已缴费状态");
+        assertThat(result.getResults().get(3).getMessage()).isEqualTo("处方不存在");
+
+        assertThat(medicine.getStockQuantity()).isEqualTo(3);
+        verify(medicineRepository).saveAll(List.of(medicine));
+        verify(medicineRepository, never()).findById(any());
+        verify(lowStockAlertService).onStockChanged(medicine, 6);
+        verify(prescriptionStateMachine).transition(eq(1L), eq(PrescriptionStatusEnum.PAID),
+                eq(PrescriptionStatusEnum.DISPENSED), eq(100L), eq("pharmacist_li"), any());
+        verify(prescriptionStateMachine, times(1)).transition(any(), any(), any(), any(), any(), any());
+        verify(prescriptionRepository).saveAll(List.of(p1));
+        assertThat(p1.getDispenseBy()).isEqualTo(100L);
+        verify(pharmacistStatsService, times(1)).recordDispense(eq(100L), any(), eq(p1.getTotalAmount()), eq(p1.getItemCount()));
+    }
+
+    @Test
+    @DisplayName("批量发药：状态转换被拒绝的处方单独失败，释放预占库存，其余处方照常发药")
+    void batchDispense_TransitionRejected_OnlyThatItemFails() throws Exception {
+        Medicine medicine = new Medicine();
+        medicine.setMainId(10L);
+        medicine.setName("阿莫西林胶囊");
+        medicine.setStockQuantity(10);
+
+        Prescription p1 = paidPrescriptionWithDetail(1L, medicine, 3);
+        Prescription p2 = paidPrescriptionWithDetail(2L, medicine, 4);
+
+        when(prescriptionRepository.fetchDetailsByIds(List.of(1L, 2L))).thenReturn(List.of(p1, p2));
+        when(medicineRepository.findAllById(List.of(10L))).thenReturn(List.of(medicine));
+        when(prescriptionStateMachine.transition(eq(1L), any(), any(), any(), any(), any()))
+                .thenThrow(new IllegalStateException("处方状态不匹配: 期望 已缴费，实际 已发药"));
+        when(prescriptionStateMachine.transition(eq(2L), any(), any(), any(), any(), any())).thenReturn(p2);
+
+        BatchDispenseResultVO result = batchDispenseAsPharmacist(List.of(1L, 2L));
+
+        assertThat(result.getSuccessCount()).isEqualTo(1);
+        assertThat(result.getFailureCount()).isEqualTo(1);
+        assertThat(result.getResults().get(0).getSuccess()).isFalse();
+        assertThat(result.getResults().get(0).getMessage()).contains("处方状态不匹配");
+        assertThat(result.getResults().get(1).getSuccess()).isTrue();
+
+        // 只扣减处方2的数量
+        assertThat(medicine.getStockQuantity()).isEqualTo(6);
+        verify(prescriptionRepository).saveAll(List.of(p2));
+        assertThat(p1.getDispenseBy()).isNull();
+        verify(pharmacistStatsService, times(1)).recordDispense(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("批量发药失败：处方ID列表为空")
+    void batchDispense_Fail_WhenEmpty() {
+        assertThatThrownBy(() -> prescriptionService.batchDispense(List.of(), 100L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("处方ID列表不能为空");
+    }
+
+    private BatchDispenseResultVO batchDispenseAsPharmacist(List<Long> prescriptionIds) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new JwtAuthenticationToken(100L, "pharmacist_li", "PHARMACIST", null));
+        try {
+            return prescriptionService.batchDispense(prescriptionIds, 100L);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static Prescription paidPrescriptionWithDetail(Long id, Medicine medicine, int quantity) {
+        Prescription prescription = new Prescription();
+        prescription.setMainId(id);
+        prescription.setPrescriptionNo("PRE" + id);
+        prescription.setStatus(PrescriptionStatusEnum.PAID.getCode());
+
+        PrescriptionDetail detail = new PrescriptionDetail();
+        detail.setPrescription(prescription);
+        detail.setMedicine(medicine);
+        detail.setQuantity(quantity);
+        prescription.setDetails(new java.util.ArrayList<>(List.of(detail)));
+        return prescription;
+    }
+
+    private static PrescriptionListView listView(Long id) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("mainId", id);
+        row.put("prescriptionNo", "PRE" + id);
+        row.put("patientId", 100L + id);
+        row.put("patientName", "患者" + id);
+        row.put("status", PrescriptionStatusEnum.PAID.getCode());
+        return PROJECTION_FACTORY.createProjection(PrescriptionListView.class, row);
+    }
+
+    private static PrescriptionDetail detailOf(Long prescriptionId, Long detailId) {
+        Prescription prescription = new Prescription();
+        prescription.setMainId(prescriptionId);
+        PrescriptionDetail detail = new PrescriptionDetail();
+        detail.setMainId(detailId);
+        detail.setPrescription(prescription);
+        return detail;
+    }
 }
@@ -1,6 +1,7 @@
 package com.his.service.impl;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import org.junit.jupiter.api.Test;
@@ -9,12 +10,16 @@ import org.mockito.Mock;
 
 import com.his.dto.PharmacistStatisticsDTO;
 import com.his.repository.PrescriptionRepository;
+import com.his.service.LowStockAlertService;
+import com.his.service.MedicineCatalogService;
+import com.his.service.PharmacistStatsService;
 import com.his.test.base.BaseServiceTest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class PrescriptionServiceStatisticsTest extends BaseServiceTest {
@@ -22,15 +27,24 @@ class PrescriptionServiceStatisticsTest extends BaseServiceTest {
     @Mock
     private PrescriptionRepository prescriptionRepository;
 
+    @Mock
+    private LowStockAlertService lowStockAlertService;
+
+    @Mock
+    private MedicineCatalogService medicineCatalogService;
+
+    @Mock
+    private PharmacistStatsService pharmacistStatsService;
+
     @InjectMocks
     private PrescriptionServiceImpl prescriptionService;
 
     @Test
-    void getPharmacistStatistics_returnsDataFromRepository() {
+    void getPharmacistStatistics_returnsTodayTotalsFromStatsBuckets() {
         Long pharmacistId = 100L;
         PharmacistStatisticsDTO expectedStats = new PharmacistStatisticsDTO(5L, new BigDecimal("100.00"), 10L);
 
-        when(prescriptionRepository.getPharmacistStatistics(eq(pharmacistId), any(LocalDateTime.class), any(LocalDateTime.class)))
+        when(pharmacistStatsService.getTotals(eq(pharmacistId), any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(expectedStats);
 
         PharmacistStatisticsDTO result = prescriptionService.getPharmacistStatistics(pharmacistId);
@@ -40,6 +54,8 @@ class PrescriptionServiceStatisticsTest extends BaseServiceTest {
         assertThat(result.getTotalAmount()).isEqualTo(new BigDecimal("100.00"));
         assertThat(result.getTotalItems()).isEqualTo(10L);
 
-        verify(prescriptionRepository).getPharmacistStatistics(eq(pharmacistId), any(LocalDateTime.class), any(LocalDateTime.class));
+        LocalDateTime todayStart = LocalDate.now().atStartOfDay();
+        verify(pharmacistStatsService).getTotals(pharmacistId, todayStart, todayStart.plusDays(1));
+        verifyNoInteractions(prescriptionRepository);
     }
 }
@@ -9,8 +9,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.his.entity.Prescription;
+import com.his.enums.CachedRecordTypeEnum;
 import com.his.enums.PrescriptionStatusEnum;
 import com.his.repository.PrescriptionRepository;
+import com.his.service.PrescriptionStatusHistoryService;
+import com.his.service.TerminalRecordCacheService;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -28,6 +31,12 @@ class PrescriptionStateMachineServiceImplTest {
     @Mock
     private PrescriptionRepository prescriptionRepository;
 
+    @Mock
+    private PrescriptionStatusHistoryService statusHistoryService;
+
+    @Mock
+    private TerminalRecordCacheService terminalRecordCacheService;
+
     @InjectMocks
     private PrescriptionStateMachineServiceImpl prescriptionStateMachine;
 
@@ -77,6 +86,8 @@ class PrescriptionStateMachineServiceImplTest {
         // 验证
         assertEquals(PrescriptionStatusEnum.ISSUED.getCode(), result.getStatus());
         verify(prescriptionRepository, times(1)).save(any(Prescription.class));
+        verify(statusHistoryService).record(1L, PrescriptionStatusEnum.DRAFT, PrescriptionStatusEnum.ISSUED,
+                1L, "张三医生", "医生开方");
 
         System.out.println("✅ 测试通过：DRAFT → ISSUED");
     }
@@ -175,6 +186,7 @@ class PrescriptionStateMachineServiceImplTest {
 
         assertEquals(PrescriptionStatusEnum.DISPENSED.getCode(), result.getStatus());
         verify(prescriptionRepository, times(1)).save(any(Prescription.class));
+        verifyNoInteractions(terminalRecordCacheService);
 
         System.out.println("✅ 测试通过：PAID → DISPENSED");
     }
@@ -206,6 +218,7 @@ class PrescriptionStateMachineServiceImplTest {
 
         assertEquals(PrescriptionStatusEnum.REFUNDED.getCode(), result.getStatus());
         verify(prescriptionRepository, times(1)).save(any(Prescription.class));
+        verify(terminalRecordCacheService).evict(CachedRecordTypeEnum.PRESCRIPTION, 1L);
 
         System.out.println("✅ 测试通过：DISPENSED → REFUNDED");
     }
@@ -0,0 +1,131 @@
+package com.his.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.his.entity.PrescriptionStatusHistory;
+import com.his.enums.PrescriptionStatusEnum;
+import com.his.repository.PrescriptionStatusHistoryRepository;
+import com.his.test.base.BaseServiceTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * PrescriptionStatusHistoryServiceImpl 单元测试
+ * <p>
+ * 验证事务内收集、提交前一次批量写入，以及按时间范围查询的参数处理
+ * </p>
+ *
+ * @author HIS 开发团队
+ * @since 1.0
+ */
+@DisplayName("处方状态转换历史服务测试")
+class PrescriptionStatusHistoryServiceImplTest extends BaseServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PrescriptionStatusHistoryRepository statusHistoryRepository;
+
+    @InjectMocks
+    private PrescriptionStatusHistoryServiceImpl statusHistoryService;
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("事务内多次转换：提交前只执行一次批量插入")
+    @SuppressWarnings("unchecked")
+    void record_InTransaction_SingleBatchBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        statusHistoryService.record(1L, PrescriptionStatusEnum.PAID, PrescriptionStatusEnum.DISPENSED, 3L, "王药师", "药师批量发药");
+        statusHistoryService.record(2L, PrescriptionStatusEnum.PAID, PrescriptionStatusEnum.DISPENSED, 3L, "王药师", "药师批量发药");
+        statusHistoryService.record(3L, PrescriptionStatusEnum.PAID, PrescriptionStatusEnum.DISPENSED, 3L, "王药师", "药师批量发药");
+
+        verifyNoInteractions(jdbcTemplate);
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(1);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+        }
+
+        ArgumentCaptor<Collection<PrescriptionStatusHistory>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), captor.capture(), eq(3),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(captor.getValue())
+                .extracting(PrescriptionStatusHistory::getPrescriptionMainId)
+                .containsExactly(1L, 2L, 3L);
+        assertThat(captor.getValue())
+                .allMatch(h -> h.getToStatus().equals(PrescriptionStatusEnum.DISPENSED.getCode())
+                        && "USER".equals(h.getOperatorType()));
+    }
+
+    @Test
+    @DisplayName("事务回滚：不写入任何记录")
+    void record_Rollback_NothingWritten() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        statusHistoryService.record(1L, PrescriptionStatusEnum.REVIEWED, PrescriptionStatusEnum.PAID, null, "系统", "自动缴费");
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("无事务：立即写入，操作人为空时记为系统操作")
+    @SuppressWarnings("unchecked")
+    void record_WithoutTransaction_WritesImmediately() {
+        statusHistoryService.record(1L, PrescriptionStatusEnum.REVIEWED, PrescriptionStatusEnum.PAID, null, "系统", "自动缴费");
+
+        ArgumentCaptor<Collection<PrescriptionStatusHistory>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture(), eq(1),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(captor.getValue().iterator().next().getOperatorType()).isEqualTo("SYSTEM");
+    }
+
+    @Test
+    @DisplayName("按时间范围查询：按目标状态筛选并固定时间排序")
+    void search_WithToStatus_UsesStatusIndexQuery() {
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2026, 1, 1, 23, 59, 59);
+
+        statusHistoryService.search(start, end, (short) 3, PageRequest.of(1, 20));
+
+        verify(statusHistoryRepository).findByToStatusAndCreatedAtBetween((short) 3, start, end,
+                PageRequest.of(1, 20, Sort.by("createdAt", "mainId")));
+        verify(statusHistoryRepository, never()).findByCreatedAtBetween(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("按时间范围查询失败：开始时间晚于结束时间")
+    void search_Fail_WhenRangeInvalid() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThatThrownBy(() -> statusHistoryService.search(now, now.minusDays(1), null, PageRequest.of(0, 20)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("开始时间不能晚于结束时间");
+    }
+}
@@ -0,0 +1,146 @@
+package com.his.service.impl;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.his.enums.CachedRecordTypeEnum;
+import com.his.enums.ChargeStatusEnum;
+import com.his.service.TerminalRecordCacheService.Stats;
+import com.his.test.base.BaseServiceTest;
+import com.his.vo.ChargeVO;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * TerminalRecordCacheServiceImpl 单元测试
+ * <p>
+ * 验证只缓存终态记录、LRU 淘汰、管理员绕过缓存，以及状态转换期间的淘汰竞争
+ * </p>
+ *
+ * @author HIS 开发团队
+ * @since 1.0
+ */
+@DisplayName("终态记录缓存服务测试")
+class TerminalRecordCacheServiceImplTest extends BaseServiceTest {
+
+    private static final CachedRecordTypeEnum CHARGE = CachedRecordTypeEnum.CHARGE;
+
+    private TerminalRecordCacheServiceImpl cacheService;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Override
+    protected void setUpTest() {
+        cacheService = new TerminalRecordCacheServiceImpl(new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(cacheService, "maxEntries", 2);
+        ReflectionTestUtils.setField(cacheService, "maxAgeMs", 0L);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("终态记录：第二次读取命中缓存，不再加载")
+    void get_TerminalRecord_CachedAfterFirstLoad() {
+        ChargeVO first = get(1L, false, ChargeStatusEnum.REFUNDED);
+        ChargeVO second = get(1L, false, ChargeStatusEnum.REFUNDED);
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        Stats stats = cacheService.stats(CHARGE);
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.entries()).isEqualTo(1);
+        assertThat(stats.estimatedBytes()).isPositive();
+    }
+
+    @Test
+    @DisplayName("非终态记录：每次都重新加载")
+    void get_NonTerminalRecord_NotCached() {
+        get(1L, false, ChargeStatusEnum.PAID);
+        get(1L, false, ChargeStatusEnum.PAID);
+
+        assertThat(loads).hasValue(2);
+        assertThat(cacheService.stats(CHARGE).entries()).isZero();
+    }
+
+    @Test
+    @DisplayName("超出容量：淘汰最久未访问的记录")
+    void get_OverCapacity_EvictsLeastRecentlyUsed() {
+        get(1L, false, ChargeStatusEnum.REFUNDED);
+        get(2L, false, ChargeStatusEnum.REFUNDED);
+        get(1L, false, ChargeStatusEnum.REFUNDED);
+        get(3L, false, ChargeStatusEnum.REFUNDED);
+
+        get(1L, false, ChargeStatusEnum.REFUNDED);
+        assertThat(loads).hasValue(3);
+        get(2L, false, ChargeStatusEnum.REFUNDED);
+        assertThat(loads).hasValue(4);
+
+        Stats stats = cacheService.stats(CHARGE);
+        assertThat(stats.entries()).isEqualTo(2);
+        assertThat(stats.evictions()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("绕过缓存：重新加载并替换缓存条目")
+    void get_Bypass_ReloadsAndReplaces() {
+        get(1L, false, ChargeStatusEnum.REFUNDED);
+        ChargeVO corrected = get(1L, true, ChargeStatusEnum.REFUNDED);
+
+        assertThat(loads).hasValue(2);
+        assertThat(get(1L, false, ChargeStatusEnum.REFUNDED)).isSameAs(corrected);
+        Stats stats = cacheService.stats(CHARGE);
+        assertThat(stats.bypasses()).isEqualTo(1);
+        assertThat(stats.entries()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("加载期间发生淘汰：旧状态不放入缓存，事务结束后再次淘汰")
+    void evict_DuringLoad_NotAdmitted() {
+        cacheService.get(CHARGE, 1L, false, () -> {
+            cacheService.evict(CHARGE, 1L);
+            return charge(1L, ChargeStatusEnum.REFUNDED);
+        }, ChargeVO::getStatus);
+        assertThat(cacheService.stats(CHARGE).entries()).isZero();
+
+        TransactionSynchronizationManager.initSynchronization();
+        get(2L, false, ChargeStatusEnum.REFUNDED);
+        cacheService.evict(CHARGE, 2L);
+        get(2L, false, ChargeStatusEnum.REFUNDED);
+        assertThat(cacheService.stats(CHARGE).entries()).isEqualTo(1);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        assertThat(cacheService.stats(CHARGE).entries()).isZero();
+        assertThat(cacheService.stats(CHARGE).estimatedBytes()).isZero();
+    }
+
+    private ChargeVO get(Long id, boolean bypass, ChargeStatusEnum status) {
+        Supplier<ChargeVO> loader = () -> {
+            loads.incrementAndGet();
+            return charge(id, status);
+        };
+        return cacheService.get(CHARGE, id, bypass, loader, ChargeVO::getStatus);
+    }
+
+    private static ChargeVO charge(Long id, ChargeStatusEnum status) {
+        ChargeVO vo = new ChargeVO();
+        vo.setId(id);
+        vo.setStatus(status.getCode());
+        return vo;
+    }
+}